@@ -0,0 +1,37 @@
+package com.github.com.shii_park.shogi2vs2.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import com.github.com.shii_park.shogi2vs2.handler.LobbyWebSocketHandler;
+import com.github.com.shii_park.shogi2vs2.service.MatchingService;
+
+/**
+ * Redisの設定クラス
+ * ノード間で配るメッセージのチャンネルを購読する
+ */
+@Configuration
+public class RedisConfig {
+
+    @Autowired
+    private LobbyWebSocketHandler lobbyWebSocketHandler;
+
+    /**
+     * Redisのチャンネルの購読を管理するコンテナを作成する
+     * マッチング成立の通知をロビーのハンドラーに渡す
+     *
+     * @param connectionFactory Redisの接続ファクトリ
+     * @return 購読のコンテナ
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(lobbyWebSocketHandler, new ChannelTopic(MatchingService.MATCHED_CHANNEL));
+        return container;
+    }
+}
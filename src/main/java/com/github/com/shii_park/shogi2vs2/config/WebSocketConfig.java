@@ -1,12 +1,17 @@
 package com.github.com.shii_park.shogi2vs2.config;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.socket.config.annotation.EnableWebSocket;
 import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
 import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+import org.springframework.web.socket.server.support.DefaultHandshakeHandler;
 
+import com.github.com.shii_park.shogi2vs2.handler.BinaryProtocol;
 import com.github.com.shii_park.shogi2vs2.handler.GameWebSocketHandler;
+import com.github.com.shii_park.shogi2vs2.handler.LobbyWebSocketHandler;
+import com.github.com.shii_park.shogi2vs2.handler.SpectatorWebSocketHandler;
 
 /**
  * WebSocket通信の設定クラス
@@ -19,16 +24,43 @@ public class WebSocketConfig implements WebSocketConfigurer {
     @Autowired
     private GameWebSocketHandler gameWebSocketHandler;
 
+    @Autowired
+    private SpectatorWebSocketHandler spectatorWebSocketHandler;
+
+    @Autowired
+    private LobbyWebSocketHandler lobbyWebSocketHandler;
+
+    /** バイナリ形式のサブプロトコルを受け付けるか */
+    @Value("${app.ws.binary-protocol-enabled:true}")
+    private boolean binaryProtocolEnabled;
+
     /**
      * WebSocketハンドラーを登録する
+     * クライアントがSec-WebSocket-Protocolでバイナリ形式のサブプロトコルを要求した場合はそれを合意し、
+     * 要求がない場合は従来どおりJSONで通信する
      * 
      * @param registry WebSocketハンドラーレジストリ
      */
     @Override
     public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        DefaultHandshakeHandler handshakeHandler = new DefaultHandshakeHandler();
+        if (binaryProtocolEnabled) {
+            handshakeHandler.setSupportedProtocols(BinaryProtocol.SUBPROTOCOL);
+        }
+
         // ゲーム用WebSocketエンドポイント(/ws/game)を登録
         registry.addHandler(gameWebSocketHandler, "/ws/game")
+                .setHandshakeHandler(handshakeHandler)
                 .setAllowedOrigins("*");// フロントのURLを指定
+
+        // 観戦用WebSocketエンドポイント(/ws/spectate)を登録
+        registry.addHandler(spectatorWebSocketHandler, "/ws/spectate")
+                .setHandshakeHandler(handshakeHandler)
+                .setAllowedOrigins("*");
+
+        // マッチング待ち用WebSocketエンドポイント(/ws/lobby)を登録
+        registry.addHandler(lobbyWebSocketHandler, "/ws/lobby")
+                .setAllowedOrigins("*");
     }
     
 }
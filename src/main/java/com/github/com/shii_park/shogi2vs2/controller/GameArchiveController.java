@@ -0,0 +1,61 @@
+package com.github.com.shii_park.shogi2vs2.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.github.com.shii_park.shogi2vs2.service.GameArchive;
+import com.github.com.shii_park.shogi2vs2.service.GameArchiveService;
+
+/**
+ * 終了したゲームの記録を提供するコントローラー
+ * 対局履歴の表示や分析のために、このノードのアーカイブからゲームを検索する
+ */
+@RestController
+@RequestMapping("/api/archive/games")
+@CrossOrigin(origins = "*")
+public class GameArchiveController {
+    /** 範囲で検索するときに返すゲーム数の上限 */
+    private static final int MAX_LIMIT = 1000;
+
+    @Autowired
+    private GameArchiveService archiveService;
+
+    /**
+     * ゲームIDでゲームの記録を取得する
+     * 
+     * @param gameId ゲームID
+     * @return ゲームの記録
+     */
+    @GetMapping("/{gameId}")
+    public GameArchive.ArchivedGame getGame(@PathVariable String gameId) {
+        GameArchive.ArchivedGame game = archiveService.find(gameId);
+        if (game == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Game not archived: " + gameId);
+        }
+        return game;
+    }
+
+    /**
+     * 終了時刻が範囲内のゲームの記録を取得する
+     * 
+     * @param from 終了時刻の下限(エポックミリ秒、含む)
+     * @param to 終了時刻の上限(エポックミリ秒、含まない)
+     * @param limit 返すゲーム数の上限(最大1000)
+     * @return ゲームの記録のリスト(終了した順)
+     */
+    @GetMapping
+    public List<GameArchive.ArchivedGame> findGames(@RequestParam long from, @RequestParam long to,
+            @RequestParam(required = false) Integer limit) {
+        int max = (limit != null) ? Math.min(Math.max(limit, 1), MAX_LIMIT) : MAX_LIMIT;
+        return archiveService.findFinishedBetween(from, to).limit(max).toList();
+    }
+}
@@ -0,0 +1,52 @@
+package com.github.com.shii_park.shogi2vs2.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.github.com.shii_park.shogi2vs2.dto.response.GameReplayResponse;
+import com.github.com.shii_park.shogi2vs2.service.BoardStateService;
+import com.github.com.shii_park.shogi2vs2.service.GameReplayEngine;
+
+/**
+ * ゲームの再生を提供するコントローラー
+ * イベントログから任意のターンの盤面を再現し、観戦や不正の申し立ての確認に使う
+ */
+@RestController
+@RequestMapping("/api/games")
+@CrossOrigin(origins = "*")
+public class GameReplayController {
+    @Autowired
+    private GameReplayEngine replayEngine;
+
+    @Autowired
+    private BoardStateService boardStateService;
+
+    /**
+     * ゲームを指定した盤面まで再生する
+     * 
+     * @param gameId ゲームID
+     * @param sequence 再生する最後の盤面の通し番号(省略時は最後まで、0は開始時の盤面)
+     * @return 再生した盤面と、記録との照合結果
+     */
+    @GetMapping("/{gameId}/replay")
+    public GameReplayResponse replay(@PathVariable String gameId,
+            @RequestParam(required = false) Long sequence) {
+        if (sequence != null && sequence < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Sequence must not be negative: " + sequence);
+        }
+        long until = (sequence != null) ? sequence : Long.MAX_VALUE;
+        GameReplayEngine.Replay replay = replayEngine.replay(gameId, until);
+        if (replay == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No event log for game: " + gameId);
+        }
+        return new GameReplayResponse(gameId, replay.turns(), replay.verified(), replay.divergedAt(),
+                boardStateService.capture(replay.game().getBoard(), replay.sequence()));
+    }
+}
@@ -0,0 +1,32 @@
+package com.github.com.shii_park.shogi2vs2.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.github.com.shii_park.shogi2vs2.dto.response.GameLifecycleStats;
+import com.github.com.shii_park.shogi2vs2.service.GameLifecycleService;
+
+/**
+ * ゲームの稼働状況を提供するコントローラー
+ * 監視用に予約中・進行中のゲーム数と、片付けたゲームの累計を返す
+ */
+@RestController
+@RequestMapping("/api/games")
+@CrossOrigin(origins = "*")
+public class GameStatsController {
+    @Autowired
+    private GameLifecycleService lifecycleService;
+
+    /**
+     * ゲームのライフサイクルの統計を取得する
+     * 
+     * @return 予約中・進行中のゲーム数と、決着・全員切断・予約期限切れの累計
+     */
+    @GetMapping("/stats")
+    public GameLifecycleStats getStats() {
+        return lifecycleService.getStats();
+    }
+}
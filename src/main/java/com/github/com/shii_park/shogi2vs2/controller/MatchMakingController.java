@@ -13,7 +13,7 @@ import com.github.com.shii_park.shogi2vs2.service.MatchingService;
 
 /**
  * マッチメイキング機能を提供するコントローラー
- * プレイヤーのキュー参加とマッチング状態の確認を管理する
+ * プレイヤーのキュー参加、待機のキャンセル、マッチング状態の確認を管理する
  */
 @RestController
 @RequestMapping("/api/match")
@@ -27,17 +27,29 @@ public class MatchMakingController {
      * プレイヤーをマッチング待機列に追加する
      * 
      * @param userId 参加するユーザーID
-     * @return マッチング状態のレスポンス(WAITING状態)
+     * @return マッチング状態のレスポンス(WAITING状態。対戦はバッチ処理で組むため、成立は/ws/lobbyまたは/statusで確認する)
      */
     @PostMapping("/join")
     public GameStatusResponse joinMatch(@RequestParam String userId){
-        matchingService.joinQueue(userId);
-        return new GameStatusResponse("WAITING", null);
+        return matchingService.joinQueue(userId);
+    }
+
+    /**
+     * マッチングキューから抜ける
+     * 待機中のプレイヤーをキューから取り除く。既にマッチしている場合は取り除かない
+     * 
+     * @param userId 待機をやめるユーザーID
+     * @return マッチング状態のレスポンス(取り除いた場合はNOT_QUEUED状態、マッチ済みの場合はMATCHED状態とゲームID)
+     */
+    @PostMapping("/leave")
+    public GameStatusResponse leaveMatch(@RequestParam String userId){
+        return matchingService.leaveQueue(userId);
     }
 
     /**
      * マッチング状態を確認する
      * ユーザーの現在のマッチング状態やゲームIDを取得する
+     * マッチング成立は/ws/lobbyで通知されるため、WebSocketを使えないクライアント向けの予備とする
      * 
      * @param userId 確認するユーザーID
      * @return マッチング状態とゲームID(マッチング成立時)を含むレスポンス
@@ -0,0 +1,13 @@
+package com.github.com.shii_park.shogi2vs2.dto.request;
+
+import com.github.com.shii_park.shogi2vs2.model.domain.action.GameAction;
+
+/**
+ * 受信メッセージDTO
+ * WebSocketで受信したメッセージ(JSONまたはバイナリ)を解析した結果を保持します。
+ * 
+ * @param type   メッセージタイプ("moveRequest", "dropPieceRequire", "phaseEnd", "syncRequest")
+ * @param action 移動・駒打ちの場合は変換済みのアクション、それ以外はnull
+ */
+public record InboundMessage(String type, GameAction action) {
+}
@@ -0,0 +1,20 @@
+package com.github.com.shii_park.shogi2vs2.dto.response;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 盤面差分DTO
+ * 1ターンで変化したマスと手駒だけを保持します。
+ * クライアントは手元の状態の通し番号がsequence - 1のときだけ適用し、
+ * 番号が飛んでいる場合はスナップショットを要求して再同期します。
+ * 
+ * @param sequence 適用後の状態の通し番号
+ * @param squares  変化したマスの新しい状態(駒がなくなったマスは空のリスト)
+ * @param hands    変化したチームの新しい手駒(key: チームID)
+ */
+public record BoardDelta(
+    long sequence,
+    List<SquareState> squares,
+    Map<String, List<PieceState>> hands
+) {}
@@ -1,28 +1,19 @@
 package com.github.com.shii_park.shogi2vs2.dto.response;
 
-import com.github.com.shii_park.shogi2vs2.model.domain.*;
+import java.util.List;
 import java.util.Map;
-import java.util.HashMap;
 
 /**
  * 盤面スナップショットDTO
- * 特定時点の盤面の状態を保持します。
+ * 特定時点の盤面の状態(スタックを含む全てのマスと両チームの手駒)を保持します。
+ * 参加時や再同期時に送り、以降はsequenceの続きのBoardDeltaを適用します。
+ * 
+ * @param sequence 状態の通し番号(ゲーム開始時は0、ターンごとに1増える)
+ * @param squares  駒のあるマスの状態(空のマスは含まない)
+ * @param hands    チームごとの手駒(key: チームID)
  */
-public class BoardSnapshot {
-    // 仮実装
-    // TODO: Boardクラスのスタック構造に対応させる
-    /**
-     * 盤面の駒配置マップ
-     * 位置と駒の対応関係を保持します。
-     */
-    private final Map<Position, Piece> board;
-
-    /**
-     * BoardSnapshotを構築します。
-     * 
-     * @param board 盤面の駒配置マップ
-     */
-    public BoardSnapshot(Map<Position, Piece> board) {
-        this.board = new HashMap<>(board);
-    }
-}
+public record BoardSnapshot(
+    long sequence,
+    List<SquareState> squares,
+    Map<String, List<PieceState>> hands
+) {}
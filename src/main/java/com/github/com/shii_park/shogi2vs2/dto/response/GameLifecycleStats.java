@@ -0,0 +1,18 @@
+package com.github.com.shii_park.shogi2vs2.dto.response;
+
+/**
+ * ゲームのライフサイクルの統計DTO
+ * 
+ * @param waitingGames 開始を待っている予約の数
+ * @param liveGames 進行中のゲームの数
+ * @param finishedGames 決着して片付けたゲームの累計
+ * @param reapedGames 全員切断のまま猶予を過ぎて片付けたゲームの累計
+ * @param expiredReservations 誰も接続しないまま期限切れになった予約の累計
+ */
+public record GameLifecycleStats(
+        int waitingGames,
+        int liveGames,
+        long finishedGames,
+        long reapedGames,
+        long expiredReservations) {
+}
@@ -0,0 +1,18 @@
+package com.github.com.shii_park.shogi2vs2.dto.response;
+
+/**
+ * ゲームの再生結果DTO
+ * 
+ * @param gameId ゲームID
+ * @param turns 再生したターン数
+ * @param verified 再生したすべてのターンが記録した盤面と一致したか
+ * @param divergedAt 記録と食い違った最初の盤面の通し番号(食い違いがない場合は-1)
+ * @param board 再生した盤面(FIRSTチームの視点)
+ */
+public record GameReplayResponse(
+        String gameId,
+        int turns,
+        boolean verified,
+        long divergedAt,
+        BoardSnapshot board) {
+}
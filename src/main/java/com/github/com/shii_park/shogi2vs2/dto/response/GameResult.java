@@ -0,0 +1,23 @@
+package com.github.com.shii_park.shogi2vs2.dto.response;
+
+import java.util.List;
+
+/**
+ * 終了したゲームの結果DTO
+ * ゲームを片付ける前に保存する記録です。
+ * 
+ * @param gameId ゲームID
+ * @param winner 勝利チーム(勝敗がつかなかった場合はnull)
+ * @param players 参加したユーザーIDのリスト(予約順)
+ * @param reason 終了理由("FINISHED": 決着, "ABANDONED": 全員切断)
+ * @param startedAt 開始時刻(エポックミリ秒)
+ * @param finishedAt 終了時刻(エポックミリ秒)
+ */
+public record GameResult(
+        String gameId,
+        String winner,
+        List<String> players,
+        String reason,
+        long startedAt,
+        long finishedAt) {
+}
@@ -0,0 +1,13 @@
+package com.github.com.shii_park.shogi2vs2.dto.response;
+
+import java.util.List;
+
+/**
+ * 合法手一覧レスポンスDTO
+ * ターン開始時にチームが選択できる移動と駒打ちを保持します。
+ * 
+ * @param moves 合法な移動のリスト
+ * @param drops 合法な駒打ちのリスト
+ */
+public record LegalActionsResponse(List<LegalMoveResponse> moves, List<LegalDropResponse> drops) {
+}
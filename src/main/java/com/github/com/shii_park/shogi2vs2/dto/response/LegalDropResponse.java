@@ -0,0 +1,13 @@
+package com.github.com.shii_park.shogi2vs2.dto.response;
+
+import com.github.com.shii_park.shogi2vs2.model.domain.Position;
+
+/**
+ * 合法な駒打ちのレスポンスDTO
+ * 受け取るチームの視点の座標で表します。
+ * 
+ * @param pieceType 配置する駒の種類
+ * @param position  配置できる位置
+ */
+public record LegalDropResponse(String pieceType, Position position) {
+}
@@ -0,0 +1,27 @@
+package com.github.com.shii_park.shogi2vs2.dto.response;
+
+import java.util.List;
+
+import com.github.com.shii_park.shogi2vs2.model.domain.Position;
+
+/**
+ * 合法な移動のレスポンスDTO
+ * 受け取るチームの視点の座標と方向で表します。
+ * 
+ * @param pieceId    駒のID
+ * @param pieceType  駒の種類
+ * @param from       移動元の位置
+ * @param to         移動先の位置(落下の場合は最初の盤外の位置)
+ * @param directions 移動方向のリスト
+ * @param promotable 移動先で成りを選択できるか
+ * @param falls      盤外に落ちて相手の手駒になる移動か
+ */
+public record LegalMoveResponse(
+    int pieceId,
+    String pieceType,
+    Position from,
+    Position to,
+    List<String> directions,
+    boolean promotable,
+    boolean falls
+) {}
@@ -0,0 +1,13 @@
+package com.github.com.shii_park.shogi2vs2.dto.response;
+
+import java.util.List;
+
+/**
+ * マッチング成立の通知
+ * マッチングのバッチ処理を行ったノードから、Redisのチャンネルで全ノードに配る
+ *
+ * @param gameId  ゲームID
+ * @param userIds 対戦するユーザーIDのリスト
+ */
+public record MatchedGame(String gameId, List<String> userIds) {
+}
@@ -0,0 +1,16 @@
+package com.github.com.shii_park.shogi2vs2.dto.response;
+
+/**
+ * 盤面スナップショット・差分の駒の状態DTO
+ * 
+ * @param id       駒のID
+ * @param type     駒の種類
+ * @param team     駒を保有するチーム
+ * @param promoted 成っているか
+ */
+public record PieceState(
+    int id,
+    String type,
+    String team,
+    boolean promoted
+) {}
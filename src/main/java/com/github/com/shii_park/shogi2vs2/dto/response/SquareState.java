@@ -0,0 +1,16 @@
+package com.github.com.shii_park.shogi2vs2.dto.response;
+
+import java.util.List;
+
+import com.github.com.shii_park.shogi2vs2.model.domain.Position;
+
+/**
+ * 盤面スナップショット・差分のマスの状態DTO
+ * 
+ * @param position マスの位置
+ * @param pieces   マスに積まれている駒(下から順、空のマスは空のリスト)
+ */
+public record SquareState(
+    Position position,
+    List<PieceState> pieces
+) {}
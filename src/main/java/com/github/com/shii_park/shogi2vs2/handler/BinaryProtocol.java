@@ -0,0 +1,195 @@
+package com.github.com.shii_park.shogi2vs2.handler;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.springframework.web.socket.WebSocketSession;
+
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.github.com.shii_park.shogi2vs2.model.domain.TurnExecutionResult;
+import com.github.com.shii_park.shogi2vs2.model.domain.action.DropAction;
+import com.github.com.shii_park.shogi2vs2.model.domain.action.GameAction;
+import com.github.com.shii_park.shogi2vs2.model.domain.action.MoveAction;
+import com.github.com.shii_park.shogi2vs2.model.enums.Direction;
+import com.github.com.shii_park.shogi2vs2.model.enums.PieceType;
+import com.github.com.shii_park.shogi2vs2.model.enums.Team;
+
+/**
+ * BinaryProtocolクラスはWebSocketのバイナリ形式(サブプロトコル{@value #SUBPROTOCOL})のフレームの定義と書き出しを提供します<br>
+ * ハンドシェイクでこのサブプロトコルを合意したセッションだけがバイナリのフレームを送受信し、それ以外はJSONのままとする<br>
+ * フレームは先頭1バイトのオペコードと固定長のフィールドからなる。整数はビッグエンディアン、
+ * 駒の種類・方向・チームは{@link PieceType}・{@link Direction}・{@link Team}の序数で表す
+ * <pre>
+ * 受信(クライアント → サーバー)
+ *   moveRequest      0x01 | pieceId:u16 | pieceType:u8 | dx:i8 | dy:i8 | flags:u8(bit0=成り)
+ *   dropPieceRequire 0x02 | pieceType:u8 | x:u8 | y:u8
+ *   phaseEnd         0x03
+ *   syncRequest      0x04
+ * 送信(サーバー → クライアント)
+ *   moveResult       0x81 | count:u8 | count × (kind:u8(0=移動,1=配置) | pieceId:u16 | pieceType:u8
+ *                          | team:u8 | flags:u8(bit0=成り) | dirCount:u8 | dirCount × direction:u8)
+ *   timeUp           0x82 | count:u8 | count × (kind:u8(0=移動,1=配置) | team:u8 | userIdLen:u8 | userId:UTF-8
+ *                          | 移動: pieceId:u16 | pieceType:u8 | flags:u8 | dirCount:u8 | dirCount × direction:u8
+ *                          | 配置: pieceType:u8 | x:u8 | y:u8)
+ * </pre>
+ * 座標と方向はJSONと同じく受け取るチームの視点で表す
+ */
+public class BinaryProtocol {
+    /** ハンドシェイクで合意するサブプロトコル名 */
+    public static final String SUBPROTOCOL = "shogi2vs2.bin.v1";
+
+    /** 受信: 駒の移動 */
+    public static final byte OP_MOVE_REQUEST = 0x01;
+    /** 受信: 手駒の配置 */
+    public static final byte OP_DROP_REQUEST = 0x02;
+    /** 受信: フェーズ終了 */
+    public static final byte OP_PHASE_END = 0x03;
+    /** 受信: 盤面の再同期 */
+    public static final byte OP_SYNC_REQUEST = 0x04;
+    /** 送信: ターン実行結果 */
+    public static final byte OP_MOVE_RESULT = (byte) 0x81;
+    /** 送信: タイムアウト */
+    public static final byte OP_TIME_UP = (byte) 0x82;
+
+    /** moveRequestのオペコードを除いた長さ */
+    public static final int MOVE_REQUEST_LENGTH = 6;
+    /** dropPieceRequireのオペコードを除いた長さ */
+    public static final int DROP_REQUEST_LENGTH = 3;
+
+    /** 結果・アクションの種類: 移動 */
+    private static final int KIND_MOVE = 0;
+    /** 結果・アクションの種類: 配置 */
+    private static final int KIND_DROP = 1;
+    /** フラグ: 成り */
+    private static final int FLAG_PROMOTE = 0x01;
+    /** 1フレームに入れられる要素数の上限(u8) */
+    private static final int MAX_COUNT = 0xFF;
+
+    /** 方向の一覧(values()の配列コピーを避けるため保持する) */
+    private static final Direction[] DIRECTIONS = Direction.values();
+    /** 駒の種類の一覧 */
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+
+    /**
+     * ユーティリティクラスなのでインスタンス化を防ぐ
+     */
+    private BinaryProtocol() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * セッションがバイナリ形式を合意しているか判定する
+     *
+     * @param session WebSocketセッション
+     * @return {@code true}:バイナリ形式
+     */
+    public static boolean isBinary(WebSocketSession session) {
+        return SUBPROTOCOL.equals(session.getAcceptedProtocol());
+    }
+
+    /**
+     * 序数から駒の種類を取得する
+     *
+     * @param ordinal 駒の種類の序数(u8)
+     * @return 駒の種類。範囲外の場合は{@code null}
+     */
+    public static PieceType pieceType(int ordinal) {
+        return (ordinal >= 0 && ordinal < PIECE_TYPES.length) ? PIECE_TYPES[ordinal] : null;
+    }
+
+    /**
+     * 序数から方向を取得する
+     *
+     * @param ordinal 方向の序数(u8)
+     * @return 方向。範囲外の場合は{@code null}
+     */
+    public static Direction direction(int ordinal) {
+        return (ordinal >= 0 && ordinal < DIRECTIONS.length) ? DIRECTIONS[ordinal] : null;
+    }
+
+    /**
+     * ターン実行結果をmoveResultフレームに書き出す
+     *
+     * @param results ターン実行結果のリスト
+     * @param out     書き出し先のバッファ(呼び出し側でリセットしておく)
+     * @return フレームのバイト列
+     */
+    public static byte[] encodeMoveResult(List<TurnExecutionResult> results, ByteArrayBuilder out) {
+        out.append(OP_MOVE_RESULT);
+        out.append(checkCount(results.size()));
+        for (TurnExecutionResult r : results) {
+            out.append("dropResult".equals(r.type()) ? KIND_DROP : KIND_MOVE);
+            out.appendTwoBytes(r.pieceId());
+            out.append(PieceType.valueOf(r.pieceType()).ordinal());
+            out.append(Team.valueOf(r.teamId()).ordinal());
+            out.append(r.promote() ? FLAG_PROMOTE : 0);
+            out.append(checkCount(r.directions().size()));
+            for (String d : r.directions()) {
+                out.append(Direction.valueOf(d).ordinal());
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 未実行のアクションをtimeUpフレームに書き出す
+     *
+     * @param actions 未実行のアクションのリスト({@code null}は空として扱う)
+     * @param out     書き出し先のバッファ(呼び出し側でリセットしておく)
+     * @return フレームのバイト列
+     */
+    public static byte[] encodeTimeUp(List<GameAction> actions, ByteArrayBuilder out) {
+        List<GameAction> list = (actions != null) ? actions : List.of();
+        out.append(OP_TIME_UP);
+        out.append(checkCount(list.size()));
+        for (GameAction action : list) {
+            if (action instanceof MoveAction m) {
+                writeActionHeader(out, KIND_MOVE, m.teamId(), m.userId());
+                out.appendTwoBytes(m.pieceId());
+                out.append(PieceType.valueOf(m.pieceType()).ordinal());
+                out.append(m.promote() ? FLAG_PROMOTE : 0);
+                out.append(checkCount(m.directions().size()));
+                for (Direction d : m.directions()) {
+                    out.append(d.ordinal());
+                }
+            } else if (action instanceof DropAction d) {
+                writeActionHeader(out, KIND_DROP, d.teamId(), d.userId());
+                out.append(PieceType.valueOf(d.pieceType()).ordinal());
+                out.append(d.position().x());
+                out.append(d.position().y());
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 内部ヘルパー:
+     * timeUpのアクションの種類、チーム、ユーザーIDを書き出す
+     *
+     * @param out    書き出し先のバッファ
+     * @param kind   アクションの種類
+     * @param teamId チームID
+     * @param userId ユーザーID
+     */
+    private static void writeActionHeader(ByteArrayBuilder out, int kind, String teamId, String userId) {
+        byte[] user = userId.getBytes(StandardCharsets.UTF_8);
+        out.append(kind);
+        out.append(Team.valueOf(teamId).ordinal());
+        out.append(checkCount(user.length));
+        out.write(user);
+    }
+
+    /**
+     * 内部ヘルパー:
+     * 要素数がu8に収まるか確認する
+     *
+     * @param count 要素数
+     * @return 要素数
+     */
+    private static int checkCount(int count) {
+        if (count > MAX_COUNT) {
+            throw new IllegalArgumentException("Too many elements for a binary frame: " + count);
+        }
+        return count;
+    }
+}
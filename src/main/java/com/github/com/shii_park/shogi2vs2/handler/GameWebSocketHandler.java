@@ -3,17 +3,21 @@ package com.github.com.shii_park.shogi2vs2.handler;
 import java.net.URI;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
 import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator.OverflowStrategy;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
 
 import com.github.com.shii_park.shogi2vs2.service.GameManagementService; // ★追加
@@ -23,6 +27,7 @@ import com.github.com.shii_park.shogi2vs2.service.GameRoomService;
  * ゲーム用WebSocketハンドラー
  * WebSocket接続の確立、メッセージの送受信、切断処理を管理する
  * 4人のプレイヤーが揃ったらゲームを開始する
+ * 送信はセッションごとの上限付きキュー({@link OutboundSession})を通して行い、遅いクライアントが他のプレイヤーへの配信を止めないようにする
  */
 @Component
 public class GameWebSocketHandler extends TextWebSocketHandler {
@@ -34,6 +39,22 @@ public class GameWebSocketHandler extends TextWebSocketHandler {
     @Autowired
     private GameManagementService gameManagementService; // ★追加: 予約確認用
 
+    /** 1回の送信にかけられる時間(ミリ秒)。超えたクライアントは切断する */
+    @Value("${app.ws.send-time-limit-ms:5000}")
+    private int sendTimeLimit;
+
+    /** セッションごとの送信バッファの上限(バイト) */
+    @Value("${app.ws.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+
+    /**
+     * 送信バッファの上限を超えたときの方式(TERMINATE: 切断する, DROP: 古いメッセージを捨てる)
+     * プレイヤーは盤面の差分を1つでも落とすと盤面がずれ、クライアントは欠けに気付けないため、既定では切断する
+     * 切断されたプレイヤーは再開トークンで再接続し、取りこぼしたターンを再送で受け取る
+     */
+    @Value("${app.ws.overflow-strategy:TERMINATE}")
+    private OverflowStrategy overflowStrategy;
+
     /** ゲームIDごとにセッションのリストを管理するマップ */
     private final Map<String, List<WebSocketSession>> gameSessions = new ConcurrentHashMap<>();
 
@@ -51,6 +72,24 @@ public class GameWebSocketHandler extends TextWebSocketHandler {
         String gameId = params.get("gameId");
         String userId = params.get("userId");
 
+        // 再開トークン付きの接続は進行中のゲームへの再接続として扱う
+        // このノードで進行していないゲームは、進行していたノードが落ちていればスナップショットから復旧する
+        String resumeToken = params.get("resumeToken");
+        if (resumeToken != null) {
+            long lastSequence = parseSequence(params.get("lastSeq"));
+            if (gameId != null && userId != null
+                    && gameRoomService.resumeSession(gameId, userId, resumeToken, lastSequence, session)) {
+                System.out.println("Resumed: " + userId + " in Game: " + gameId + " (lastSeq=" + lastSequence + ")");
+            } else if (gameId != null && userId != null
+                    && gameRoomService.recoverSession(gameId, userId, resumeToken, session)) {
+                System.out.println("Recovered: " + userId + " in Game: " + gameId);
+            } else {
+                System.out.println("Invalid resume attempt: " + userId + " for game " + gameId);
+                session.close(CloseStatus.POLICY_VIOLATION);
+            }
+            return;
+        }
+
         // ★修正: GameManagementServiceを使って、正当なプレイヤーか確認する
         if (gameId != null && userId != null && gameManagementService.isValidPlayer(gameId, userId)) {
             
@@ -60,6 +99,7 @@ public class GameWebSocketHandler extends TextWebSocketHandler {
 
             // セッションリストに追加
             addSession(gameId, session);
+            gameManagementService.markWaiting(gameId);
             System.out.println("Connected: " + userId + " to Game: " + gameId);
 
             // 4人揃ったらゲーム開始
@@ -70,13 +110,15 @@ public class GameWebSocketHandler extends TextWebSocketHandler {
                 System.out.println("All players connected. Starting game: " + gameId);
                 
                 // ★追加: 予約時の正しい並び順(チーム分け用)を取得
-                List<String> orderedUserIds = gameManagementService.getReservedPlayers(gameId);
+                // メモリ節約のため予約情報は取り出すと同時に削除する(期限切れの削除と同時の場合はどちらか一方だけが受け取る)
+                List<String> orderedUserIds = gameManagementService.removePendingGame(gameId);
+                if (orderedUserIds == null) {
+                    closeReservation(gameId);
+                    return;
+                }
                 
                 // ★修正: 引数に orderedUserIds を追加して呼び出す
                 gameRoomService.initializeGame(gameId, sessions, orderedUserIds);
-                
-                // メモリ節約のため予約情報は削除
-                gameManagementService.removePendingGame(gameId);
             }
         } else {
             // 無効な接続（予約されていない、IDがない等）は切断
@@ -88,6 +130,7 @@ public class GameWebSocketHandler extends TextWebSocketHandler {
     /**
      * WebSocketメッセージを受信した時の処理
      * 受信したメッセージをGameRoomServiceに転送して処理する
+     * 解析は受信したスレッドで行い、ゲームの処理はGameRoomServiceがレーンに1回だけ渡す
      * 
      * @param session WebSocketセッション
      * @param message 受信したテキストメッセージ
@@ -104,6 +147,29 @@ public class GameWebSocketHandler extends TextWebSocketHandler {
         }
     }
 
+    /**
+     * バイナリ形式のWebSocketメッセージを受信した時の処理
+     * サブプロトコル{@value BinaryProtocol#SUBPROTOCOL}を合意したセッションからのフレームだけを受け付ける
+     * フレームの解析はバッファが有効なうちに受信したスレッドで行い、ゲームの処理はGameRoomServiceがレーンに渡す
+     * 
+     * @param session WebSocketセッション
+     * @param message 受信したバイナリメッセージ
+     * @throws Exception 処理中に発生した例外
+     */
+    @Override
+    protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) throws Exception {
+        if (!BinaryProtocol.isBinary(session)) {
+            session.close(CloseStatus.NOT_ACCEPTABLE.withReason("Binary messages require " + BinaryProtocol.SUBPROTOCOL));
+            return;
+        }
+        String gameId = (String) session.getAttributes().get("gameId");
+        String userId = (String) session.getAttributes().get("userId");
+
+        if (gameId != null && userId != null) {
+            gameRoomService.handleBinaryMessage(gameId, userId, message.getPayload());
+        }
+    }
+
     /**
      * WebSocket接続が切断された時の処理
      * セッションをリストから削除し、空になった部屋を削除する
@@ -120,16 +186,20 @@ public class GameWebSocketHandler extends TextWebSocketHandler {
         if (gameId != null) {
             List<WebSocketSession> sessions = gameSessions.get(gameId);
             if (sessions != null) {
-                sessions.remove(session);
+                // 登録されているのは送信キューでラップしたセッションなのでIDで削除する
+                for (WebSocketSession s : sessions) {
+                    if (s.getId().equals(session.getId()) && s instanceof OutboundSession outbound) {
+                        System.out.println("Outbound stats: " + outbound.getStats());
+                    }
+                }
+                sessions.removeIf(s -> s.getId().equals(session.getId()));
                 
                 // メモリリーク対策: 誰もいなくなったら部屋ごとマップから消す
                 if (sessions.isEmpty()) {
                     gameSessions.remove(gameId);
                 }
             }
-            // ゲーム中の切断処理 (再接続や不戦敗など) があれば呼び出す
-            // gameRoomService.handleDisconnect(gameId, userId);
-            
+            // 全員が切断したゲームはGameLifecycleServiceの定期的な片付けで検出する(ここでは通知しない)
             System.out.println("Disconnected: " + userId + " from " + gameId);
         }
     }
@@ -138,14 +208,95 @@ public class GameWebSocketHandler extends TextWebSocketHandler {
 
     /**
      * 指定されたゲームにセッションを追加する
-     * スレッドセーフにリストを作成・追加する
+     * セッションは送信キューでラップし、スレッドセーフにリストを作成・追加する
      * 
      * @param gameId ゲームID
      * @param session 追加するWebSocketセッション
      */
     public void addSession(String gameId, WebSocketSession session) {
+        WebSocketSession outbound = (session instanceof OutboundSession)
+                ? session
+                : new OutboundSession(session, sendTimeLimit, sendBufferSizeLimit, overflowStrategy);
+
         // computeIfAbsent でスレッドセーフにリスト作成
-        gameSessions.computeIfAbsent(gameId, k -> new CopyOnWriteArrayList<>()).add(session);
+        gameSessions.computeIfAbsent(gameId, k -> new CopyOnWriteArrayList<>()).add(outbound);
+    }
+
+    /**
+     * 再接続したユーザーのセッションを登録する
+     * 同じユーザーの古いセッション(切断がまだ検知されていないもの)は取り除いて閉じる
+     * 
+     * @param gameId ゲームID
+     * @param userId ユーザーID
+     * @param session 新しいWebSocketセッション
+     */
+    public void replaceSession(String gameId, String userId, WebSocketSession session) {
+        List<WebSocketSession> sessions = gameSessions.get(gameId);
+        if (sessions != null) {
+            for (WebSocketSession s : sessions) {
+                if (userId.equals(s.getAttributes().get("userId")) && !s.getId().equals(session.getId())) {
+                    sessions.remove(s);
+                    try {
+                        s.close(CloseStatus.NORMAL);
+                    } catch (Exception e) {
+                        // 既に切断されている
+                    }
+                }
+            }
+        }
+        addSession(gameId, session);
+    }
+
+    /**
+     * 期限切れになった予約に接続済みのセッションを切断し、部屋を削除する
+     * 通知は呼び出し側で先に送る
+     * 
+     * @param gameId ゲームID
+     */
+    public void closeReservation(String gameId) {
+        int closed = closeSessions(gameId, CloseStatus.GOING_AWAY.withReason("Reservation expired"));
+        if (closed > 0) {
+            System.out.println("Closed expired reservation: " + gameId + " (" + closed + " sessions)");
+        }
+    }
+
+    /**
+     * 指定されたゲームの全セッションを切断し、部屋を削除する
+     * 
+     * @param gameId ゲームID
+     * @param status 切断のステータス
+     * @return 切断したセッションの数
+     */
+    public int closeSessions(String gameId, CloseStatus status) {
+        List<WebSocketSession> sessions = gameSessions.remove(gameId);
+        if (sessions == null) return 0;
+        for (WebSocketSession s : sessions) {
+            try {
+                s.close(status);
+            } catch (Exception e) {
+                // 既に切断されている
+            }
+        }
+        return sessions.size();
+    }
+
+    /**
+     * 指定されたゲームの各セッションの送信の統計を取得する
+     * 
+     * @param gameId ゲームID
+     * @return セッションごとの統計(ゲームがない場合は空のリスト)
+     */
+    public List<OutboundSession.OutboundStats> getOutboundStats(String gameId) {
+        List<OutboundSession.OutboundStats> stats = new ArrayList<>();
+        List<WebSocketSession> sessions = gameSessions.get(gameId);
+        if (sessions == null) return stats;
+
+        for (WebSocketSession s : sessions) {
+            if (s instanceof OutboundSession outbound) {
+                stats.add(outbound.getStats());
+            }
+        }
+        return stats;
     }
 
     /**
@@ -158,13 +309,28 @@ public class GameWebSocketHandler extends TextWebSocketHandler {
         return gameSessions.get(gameId);
     }
 
+    /**
+     * 再接続時の盤面の通し番号を解析する
+     * 
+     * @param value クエリパラメータの値
+     * @return 通し番号。ない場合や不正な場合は-1(スナップショットを送る)
+     */
+    private long parseSequence(String value) {
+        if (value == null) return -1;
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
     /**
      * URIのクエリパラメータを解析してMapに変換する
      * 
      * @param uri 解析するURI
      * @return パラメータ名と値のマップ
      */
-    private Map<String, String> parseQuery(URI uri) {
+    static Map<String, String> parseQuery(URI uri) {
         Map<String, String> queryPairs = new ConcurrentHashMap<>();
         String query = uri.getQuery();
         
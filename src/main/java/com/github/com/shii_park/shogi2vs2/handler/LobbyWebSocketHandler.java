@@ -0,0 +1,142 @@
+package com.github.com.shii_park.shogi2vs2.handler;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.AbstractWebSocketHandler;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator.OverflowStrategy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.com.shii_park.shogi2vs2.dto.response.GameStatusResponse;
+import com.github.com.shii_park.shogi2vs2.dto.response.MatchedGame;
+import com.github.com.shii_park.shogi2vs2.service.MatchingService;
+
+/**
+ * ロビー用WebSocketハンドラー
+ * マッチング待ちのユーザーが接続し、対戦が組まれた瞬間にサーバーからMATCHEDとゲームIDを受け取る
+ * 接続: /ws/lobby?userId=...
+ * 送信するメッセージは/api/match/statusと同じ形({"status":"MATCHED","matchId":gameId})で、送信後に接続を閉じる
+ * 対戦はどのノードで組まれてもRedisのチャンネル({@value MatchingService#MATCHED_CHANNEL})で全ノードに届き、
+ * ユーザーが接続しているノードが送信する。/api/match/statusは接続できないクライアント向けの予備として残す
+ */
+@Component
+public class LobbyWebSocketHandler extends AbstractWebSocketHandler implements MessageListener {
+
+    @Autowired
+    @Lazy
+    private MatchingService matchingService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /** 1回の送信にかけられる時間(ミリ秒)。超えたクライアントは切断する */
+    @Value("${app.ws.send-time-limit-ms:5000}")
+    private int sendTimeLimit;
+
+    /** セッションごとの送信バッファの上限(バイト) */
+    @Value("${app.ws.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+
+    /**
+     * このノードに接続しているマッチング待ちのユーザー
+     * key: userId, value: セッション
+     */
+    private final Map<String, WebSocketSession> lobbySessions = new ConcurrentHashMap<>();
+
+    /**
+     * WebSocket接続が確立された時の処理
+     * ユーザーを登録し、接続前に対戦が組まれていた場合はすぐに通知する
+     *
+     * @param session WebSocketセッション
+     * @throws Exception 処理中に発生した例外
+     */
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        String userId = GameWebSocketHandler.parseQuery(session.getUri()).get("userId");
+        if (userId == null) {
+            session.close(CloseStatus.BAD_DATA);
+            return;
+        }
+
+        OutboundSession outbound = new OutboundSession(session, sendTimeLimit, sendBufferSizeLimit,
+                OverflowStrategy.TERMINATE);
+        session.getAttributes().put("userId", userId);
+        WebSocketSession previous = lobbySessions.put(userId, outbound);
+        if (previous != null && previous.isOpen()) {
+            previous.close(CloseStatus.NORMAL.withReason("Replaced by a new connection"));
+        }
+
+        // 接続する前に組まれた対戦は通知を受け取れていないので、状態を1回だけ確認する
+        GameStatusResponse status = matchingService.checkStatus(userId);
+        if ("MATCHED".equals(status.getStatus())) {
+            notifyMatched(userId, status.getMatchId());
+        }
+    }
+
+    /**
+     * WebSocket接続が切断された時の処理
+     * ユーザーの登録を解除する(新しい接続に置き換わっている場合は何もしない)
+     *
+     * @param session WebSocketセッション
+     * @param status 切断のステータス
+     * @throws Exception 処理中に発生した例外
+     */
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) throws Exception {
+        String userId = (String) session.getAttributes().get("userId");
+        if (userId != null) {
+            lobbySessions.computeIfPresent(userId, (k, s) -> s.getId().equals(session.getId()) ? null : s);
+        }
+    }
+
+    /**
+     * マッチング成立の通知を受け取った時の処理
+     * このノードに接続している対戦者に通知する
+     *
+     * @param message Redisのメッセージ(本文はバッチ処理で組まれた{@link MatchedGame}の配列のJSON)
+     * @param pattern 購読したパターン
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            MatchedGame[] games = objectMapper.readValue(message.getBody(), MatchedGame[].class);
+            for (MatchedGame matched : games) {
+                for (String userId : matched.userIds()) {
+                    notifyMatched(userId, matched.gameId());
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * 内部ヘルパー:
+     * ユーザーが接続していれば対戦が組まれたことを送り、接続を閉じる
+     *
+     * @param userId ユーザーID
+     * @param gameId ゲームID
+     */
+    private void notifyMatched(String userId, String gameId) {
+        WebSocketSession session = lobbySessions.remove(userId);
+        if (session == null || !session.isOpen()) return;
+
+        try {
+            String json = objectMapper.writeValueAsString(new GameStatusResponse("MATCHED", gameId));
+            session.sendMessage(new TextMessage(json));
+            session.close(CloseStatus.NORMAL);
+        } catch (IOException e) {
+            System.out.println("Failed to notify match: " + userId);
+        }
+    }
+}
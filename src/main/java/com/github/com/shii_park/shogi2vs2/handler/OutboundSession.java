@@ -0,0 +1,123 @@
+package com.github.com.shii_park.shogi2vs2.handler;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+
+/**
+ * 送信キューを持つWebSocketセッション
+ * SpringのConcurrentWebSocketSessionDecoratorで送信をバッファし、送信中の書き込みで呼び出し元をブロックしない
+ * <ul>
+ * <li>バッファがbufferSizeLimitを超えた場合: 設定した方式(DROPなら古いメッセージから捨てる、TERMINATEなら切断)</li>
+ * <li>1回の送信がsendTimeLimitを超えて終わらない場合: 慢性的に遅いクライアントとして切断する</li>
+ * </ul>
+ * セッションごとに送信数、送信バイト数、バッファ超過回数、送信失敗回数を記録する
+ */
+public class OutboundSession extends ConcurrentWebSocketSessionDecorator {
+
+    /** 送信を受け付けたメッセージ数 */
+    private final AtomicLong sentMessages = new AtomicLong();
+    /** 送信を受け付けたペイロードのバイト数 */
+    private final AtomicLong sentBytes = new AtomicLong();
+    /** バッファの上限を超えた回数(DROPの場合は古いメッセージが捨てられた回数) */
+    private final AtomicLong overflows = new AtomicLong();
+    /** 送信に失敗した回数(送信時間の超過による切断を含む) */
+    private final AtomicLong failures = new AtomicLong();
+
+    /**
+     * セッションを送信キュー付きでラップする
+     *
+     * @param delegate         元のセッション
+     * @param sendTimeLimit    1回の送信にかけられる時間(ミリ秒)
+     * @param bufferSizeLimit  送信バッファの上限(バイト)
+     * @param overflowStrategy バッファ超過時の方式
+     */
+    public OutboundSession(WebSocketSession delegate, int sendTimeLimit, int bufferSizeLimit,
+            OverflowStrategy overflowStrategy) {
+        super(delegate, sendTimeLimit, bufferSizeLimit, overflowStrategy);
+    }
+
+    /**
+     * メッセージを送信キューに積む
+     * 他のスレッドが送信中の場合はバッファに積んで即座に戻る
+     *
+     * @param message 送信するメッセージ
+     * @throws IOException 送信に失敗した場合や、送信時間の超過で切断された場合
+     */
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+        int length = message.getPayloadLength();
+        if (getBufferSize() + length > getBufferSizeLimit()) {
+            overflows.incrementAndGet();
+        }
+        try {
+            super.sendMessage(message);
+            sentMessages.incrementAndGet();
+            sentBytes.addAndGet(length);
+        } catch (SessionLimitExceededException e) {
+            // 送信時間を超えて詰まっているクライアントは切断する
+            failures.incrementAndGet();
+            System.out.println("Closing slow session: " + getAttributes().get("userId") + " (" + e.getMessage() + ")");
+            closeQuietly(e);
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            failures.incrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * 送信の統計を返す
+     *
+     * @return 現在の統計
+     */
+    public OutboundStats getStats() {
+        return new OutboundStats(
+                getId(),
+                (String) getAttributes().get("userId"),
+                sentMessages.get(),
+                sentBytes.get(),
+                getBufferSize(),
+                overflows.get(),
+                failures.get());
+    }
+
+    /**
+     * 内部ヘルパー:
+     * 送信の上限を超えたセッションを切断する。切断時の例外は無視する
+     *
+     * @param e 上限超過の例外
+     */
+    private void closeQuietly(SessionLimitExceededException e) {
+        try {
+            getDelegate().close(e.getStatus());
+        } catch (Exception ignored) {
+            // 既に切断されている
+        }
+    }
+
+    /**
+     * セッションの送信の統計
+     *
+     * @param sessionId    セッションID
+     * @param userId       ユーザーID
+     * @param sentMessages 送信を受け付けたメッセージ数
+     * @param sentBytes    送信を受け付けたバイト数
+     * @param bufferedBytes 現在バッファにあるバイト数
+     * @param overflows    バッファの上限を超えた回数
+     * @param failures     送信に失敗した回数
+     */
+    public record OutboundStats(
+            String sessionId,
+            String userId,
+            long sentMessages,
+            long sentBytes,
+            int bufferedBytes,
+            long overflows,
+            long failures) {
+    }
+}
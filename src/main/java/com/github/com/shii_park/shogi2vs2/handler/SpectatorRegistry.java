@@ -0,0 +1,219 @@
+package com.github.com.shii_park.shogi2vs2.handler;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+
+import com.github.com.shii_park.shogi2vs2.model.enums.Team;
+
+/**
+ * 観戦者の登録簿
+ * ゲームごと、観戦する視点(チーム)ごとに観戦者のセッションを保持する
+ * 観戦者は1ゲームに数千人になりうるため、プレイヤーのようなCopyOnWriteArrayListではなく
+ * セッションIDをキーにしたConcurrentHashMapで保持し、参加・退出のたびに全体をコピーしない
+ * 配信側は{@link #getSpectators(String, Team)}のビューをそのまま走査する(走査中の参加・退出は反映されてもされなくてもよい)
+ * <p>
+ * 観戦者の枠はゲームの開始時に{@link #openGame(String)}で作り、{@link #closeGame(String)}で閉じる
+ * 参加は開いている枠にだけ行い、枠を作り直さないため、終了したゲームに観戦者が残ることはない
+ */
+@Component
+public class SpectatorRegistry {
+
+    /** 1ゲームあたりの観戦者数の上限 */
+    @Value("${app.spectator.max-per-game:5000}")
+    private int maxPerGame;
+
+    /**
+     * ゲームごとの観戦者
+     * key: gameId, value: SpectatorGroup
+     */
+    private final Map<String, SpectatorGroup> groups = new ConcurrentHashMap<>();
+
+    /**
+     * Springから生成するためのコンストラクタ
+     * 上限は設定から注入される
+     */
+    public SpectatorRegistry() {
+    }
+
+    /**
+     * 上限を指定して生成する(テスト用)
+     *
+     * @param maxPerGame 1ゲームあたりの観戦者数の上限
+     */
+    SpectatorRegistry(int maxPerGame) {
+        this.maxPerGame = maxPerGame;
+    }
+
+    /**
+     * 観戦の登録結果
+     */
+    public enum JoinResult {
+        /** 登録した */
+        JOINED,
+        /** 上限に達している */
+        FULL,
+        /** 進行中のゲームではない(開始前、終了済み、他のノードで進行中) */
+        CLOSED
+    }
+
+    /**
+     * ゲームの観戦者の枠を作る
+     * ゲームを管理マップに追加した直後に呼ぶ。既にある場合は何もしない
+     *
+     * @param gameId ゲームID
+     */
+    public void openGame(String gameId) {
+        groups.putIfAbsent(gameId, new SpectatorGroup());
+    }
+
+    /**
+     * 観戦者を登録する
+     * 閉じる処理とはグループのロックで排他するため、閉じた後の枠には登録しない
+     *
+     * @param gameId  ゲームID
+     * @param side    観戦する視点
+     * @param session 観戦者のセッション(送信キューでラップ済み)
+     * @return 登録結果
+     */
+    public JoinResult join(String gameId, Team side, WebSocketSession session) {
+        SpectatorGroup group = groups.get(gameId);
+        if (group == null) return JoinResult.CLOSED;
+        synchronized (group) {
+            if (group.closed) return JoinResult.CLOSED;
+            if (group.count.incrementAndGet() > maxPerGame) {
+                group.count.decrementAndGet();
+                return JoinResult.FULL;
+            }
+            if (BinaryProtocol.isBinary(session)) {
+                group.binaryCount.incrementAndGet();
+            }
+            group.sessions(side).put(session.getId(), session);
+        }
+        return JoinResult.JOINED;
+    }
+
+    /**
+     * 観戦者の登録を解除する
+     *
+     * @param gameId    ゲームID
+     * @param side      観戦していた視点
+     * @param sessionId セッションID
+     */
+    public void leave(String gameId, Team side, String sessionId) {
+        SpectatorGroup group = groups.get(gameId);
+        if (group == null) return;
+        WebSocketSession removed = group.sessions(side).remove(sessionId);
+        if (removed != null) {
+            group.count.decrementAndGet();
+            if (BinaryProtocol.isBinary(removed)) {
+                group.binaryCount.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * 登録済みの観戦者のセッションを取得する
+     *
+     * @param gameId    ゲームID
+     * @param side      観戦している視点
+     * @param sessionId セッションID
+     * @return 登録したセッション(送信キューでラップ済み)。登録されていない場合はnull
+     */
+    public WebSocketSession find(String gameId, Team side, String sessionId) {
+        SpectatorGroup group = groups.get(gameId);
+        return (group != null) ? group.sessions(side).get(sessionId) : null;
+    }
+
+    /**
+     * 指定した視点の観戦者を取得する
+     * 返すのは登録簿のビューで、コピーは作らない
+     *
+     * @param gameId ゲームID
+     * @param side   視点
+     * @return 観戦者のセッション(いない場合は空)
+     */
+    public Collection<WebSocketSession> getSpectators(String gameId, Team side) {
+        SpectatorGroup group = groups.get(gameId);
+        return (group != null) ? group.sessions(side).values() : List.of();
+    }
+
+    /**
+     * ゲームの観戦者数を取得する
+     *
+     * @param gameId ゲームID
+     * @return 観戦者数
+     */
+    public int count(String gameId) {
+        SpectatorGroup group = groups.get(gameId);
+        return (group != null) ? group.count.get() : 0;
+    }
+
+    /**
+     * バイナリ形式を合意した観戦者がいるか判定する
+     * 配信側はいない場合にバイナリのフレームの作成を省く
+     *
+     * @param gameId ゲームID
+     * @return {@code true}:1人以上いる
+     */
+    public boolean hasBinarySpectators(String gameId) {
+        SpectatorGroup group = groups.get(gameId);
+        return group != null && group.binaryCount.get() > 0;
+    }
+
+    /**
+     * 終了したゲームの観戦者を切断し、登録簿から削除する
+     * 枠を閉じてから切断するため、閉じる前に登録を始めた観戦者も取りこぼさない
+     *
+     * @param gameId ゲームID
+     */
+    public void closeGame(String gameId) {
+        SpectatorGroup group = groups.remove(gameId);
+        if (group == null) return;
+        synchronized (group) {
+            group.closed = true;
+        }
+        for (Team side : Team.values()) {
+            for (WebSocketSession s : group.sessions(side).values()) {
+                try {
+                    s.close(CloseStatus.NORMAL);
+                } catch (Exception e) {
+                    // 既に切断されている
+                }
+            }
+        }
+    }
+
+    /**
+     * 1ゲーム分の観戦者
+     */
+    private static final class SpectatorGroup {
+        /** FIRSTチーム視点の観戦者(key: セッションID) */
+        private final Map<String, WebSocketSession> first = new ConcurrentHashMap<>();
+        /** SECONDチーム視点の観戦者(key: セッションID) */
+        private final Map<String, WebSocketSession> second = new ConcurrentHashMap<>();
+        /** 観戦者数(上限の判定用) */
+        private final AtomicInteger count = new AtomicInteger();
+        /** バイナリ形式を合意した観戦者数 */
+        private final AtomicInteger binaryCount = new AtomicInteger();
+        /** 閉じた枠か(グループのロックで読み書きする) */
+        private boolean closed;
+
+        /**
+         * 視点の観戦者を取得する
+         *
+         * @param side 視点
+         * @return 観戦者のマップ
+         */
+        private Map<String, WebSocketSession> sessions(Team side) {
+            return (side == Team.SECOND) ? second : first;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.github.com.shii_park.shogi2vs2.handler;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.AbstractWebSocketHandler;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator.OverflowStrategy;
+
+import com.github.com.shii_park.shogi2vs2.dto.request.InboundMessage;
+import com.github.com.shii_park.shogi2vs2.handler.SpectatorRegistry.JoinResult;
+import com.github.com.shii_park.shogi2vs2.model.enums.Team;
+import com.github.com.shii_park.shogi2vs2.service.GameRoomService;
+import com.github.com.shii_park.shogi2vs2.service.InboundMessageDecoder;
+
+/**
+ * 観戦用WebSocketハンドラー
+ * 進行中のゲームに読み取り専用で接続し、プレイヤーと同じ作成済みのフレームを受け取る
+ * 接続: /ws/spectate?gameId=...&side=FIRST|SECOND (sideを省略した場合はFIRSTの視点)
+ * 観戦者から受け付けるのは盤面の再同期(syncRequest)だけで、それ以外のメッセージは無視する
+ * 観戦者の送信キューは溢れると古いメッセージから捨てるため、差分を取りこぼした観戦者は再同期で盤面を取り直す
+ * 再同期はゲームのレーンで盤面を作るため、セッションごとに一定の間隔を空けた要求にだけ応える
+ */
+@Component
+public class SpectatorWebSocketHandler extends AbstractWebSocketHandler {
+
+    @Autowired
+    @Lazy
+    private GameRoomService gameRoomService;
+
+    @Autowired
+    private SpectatorRegistry spectatorRegistry;
+
+    @Autowired
+    private InboundMessageDecoder inboundDecoder;
+
+    /** 1回の送信にかけられる時間(ミリ秒)。超えたクライアントは切断する */
+    @Value("${app.ws.send-time-limit-ms:5000}")
+    private int sendTimeLimit;
+
+    /** セッションごとの送信バッファの上限(バイト) */
+    @Value("${app.ws.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+
+    /** 同じ観戦者の再同期に応える最短の間隔(ミリ秒)。間隔内の要求は無視する */
+    @Value("${app.spectator.sync-interval-ms:1000}")
+    private long syncIntervalMs;
+
+    /**
+     * WebSocket接続が確立された時の処理
+     * 進行中のゲームであれば観戦者として登録し、現在の盤面を送る
+     *
+     * @param session WebSocketセッション
+     * @throws Exception 処理中に発生した例外
+     */
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        Map<String, String> params = GameWebSocketHandler.parseQuery(session.getUri());
+        String gameId = params.get("gameId");
+        Team side = "SECOND".equals(params.get("side")) ? Team.SECOND : Team.FIRST;
+
+        if (gameId == null) {
+            System.out.println("Invalid spectate attempt for game " + gameId);
+            session.close(CloseStatus.BAD_DATA);
+            return;
+        }
+
+        // 観戦者は常に古いメッセージから捨てる(遅い観戦者のために配信を止めない)
+        OutboundSession outbound = new OutboundSession(session, sendTimeLimit, sendBufferSizeLimit,
+                OverflowStrategy.DROP);
+        session.getAttributes().put("gameId", gameId);
+        session.getAttributes().put("side", side);
+
+        // 進行中かどうかの判定と登録は登録簿で一度に行う(判定の直後に終了したゲームには登録しない)
+        JoinResult result = spectatorRegistry.join(gameId, side, outbound);
+        if (result == JoinResult.CLOSED) {
+            System.out.println("Invalid spectate attempt for game " + gameId);
+            session.close(CloseStatus.BAD_DATA);
+            return;
+        }
+        if (result == JoinResult.FULL) {
+            System.out.println("Spectator limit reached for game " + gameId);
+            session.close(CloseStatus.POLICY_VIOLATION.withReason("Spectator limit reached"));
+            return;
+        }
+
+        // 盤面のスナップショットを送る(以降は差分を受け取る)
+        gameRoomService.sendSnapshotToSpectator(gameId, side, outbound);
+        System.out.println("Spectator joined: " + gameId + " (" + side + ")");
+    }
+
+    /**
+     * テキスト形式のメッセージを受信した時の処理
+     * 再同期の要求にだけ応える
+     *
+     * @param session WebSocketセッション
+     * @param message 受信したテキストメッセージ
+     * @throws Exception 処理中に発生した例外
+     */
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
+        handleRequest(session, inboundDecoder.decodeText(spectatorLabel(session), null, message.getPayload()));
+    }
+
+    /**
+     * バイナリ形式のメッセージを受信した時の処理
+     * サブプロトコル{@value BinaryProtocol#SUBPROTOCOL}を合意したセッションの再同期の要求にだけ応える
+     *
+     * @param session WebSocketセッション
+     * @param message 受信したバイナリメッセージ
+     * @throws Exception 処理中に発生した例外
+     */
+    @Override
+    protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) throws Exception {
+        if (!BinaryProtocol.isBinary(session)) return;
+        handleRequest(session, inboundDecoder.decodeBinary(spectatorLabel(session), null, message.getPayload()));
+    }
+
+    /**
+     * WebSocket接続が切断された時の処理
+     * 観戦者の登録を解除する
+     *
+     * @param session WebSocketセッション
+     * @param status 切断のステータス
+     * @throws Exception 処理中に発生した例外
+     */
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) throws Exception {
+        String gameId = (String) session.getAttributes().get("gameId");
+        Object side = session.getAttributes().get("side");
+
+        if (gameId != null && side instanceof Team team) {
+            spectatorRegistry.leave(gameId, team, session.getId());
+        }
+    }
+
+    /**
+     * 内部ヘルパー:
+     * 再同期の要求であれば、観戦している視点の最新の盤面を送る
+     * 送信は登録済みの送信キュー付きのセッションで行い、差分と同じ順序で届ける
+     * 前回の再同期から間隔を空けていない要求は、レーンに積まずに無視する
+     *
+     * @param session 受信したWebSocketセッション
+     * @param message 解析済みのメッセージ(不正なメッセージの場合はnull)
+     */
+    private void handleRequest(WebSocketSession session, InboundMessage message) {
+        if (message == null || !"syncRequest".equals(message.type())) return;
+
+        String gameId = (String) session.getAttributes().get("gameId");
+        if (gameId == null || !(session.getAttributes().get("side") instanceof Team side)) return;
+
+        // 同じセッションのメッセージは順に届くため、前回の時刻の読み書きは競合しない
+        long now = System.currentTimeMillis();
+        if (session.getAttributes().get("lastSyncAt") instanceof Long last && now - last < syncIntervalMs) return;
+        session.getAttributes().put("lastSyncAt", now);
+
+        WebSocketSession outbound = spectatorRegistry.find(gameId, side, session.getId());
+        if (outbound != null) {
+            gameRoomService.sendSnapshotToSpectator(gameId, side, outbound);
+        }
+    }
+
+    /**
+     * 内部ヘルパー:
+     * ログに出す観戦者の表記を作る
+     *
+     * @param session WebSocketセッション
+     * @return 観戦者の表記
+     */
+    private static String spectatorLabel(WebSocketSession session) {
+        return "spectator " + session.getId();
+    }
+}
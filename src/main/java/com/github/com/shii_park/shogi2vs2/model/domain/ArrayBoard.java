@@ -0,0 +1,514 @@
+package com.github.com.shii_park.shogi2vs2.model.domain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import com.github.com.shii_park.shogi2vs2.model.enums.Direction;
+import com.github.com.shii_park.shogi2vs2.model.enums.MoveResult;
+import com.github.com.shii_park.shogi2vs2.model.enums.PieceType;
+import com.github.com.shii_park.shogi2vs2.model.enums.Team;
+
+/**
+ * ArrayBoardクラスは配列で盤面を表現する{@link Board}の実装です<br>
+ * 81マスをフラットな配列で持ち、各マスには駒の番号(スロット)を積んだプリミティブのスタックを持つ<br>
+ * 駒からマスへの逆引きもスロット番号で引くint配列で管理し、移動時にオブジェクトを生成しない<br>
+ * スレッドセーフではないため、1つのゲームは1つのスレッドから操作すること
+ *
+ * @author Suiren91
+ */
+public class ArrayBoard implements Board {
+    /** 盤面の最小座標 */
+    private static final int BOARD_MIN = 1;
+    /** 盤面の最大座標 */
+    private static final int BOARD_MAX = 9;
+    /** 盤面の一辺のマス数 */
+    private static final int BOARD_SIZE = BOARD_MAX - BOARD_MIN + 1;
+    /** 盤面のマス数 */
+    private static final int SQUARE_COUNT = BOARD_SIZE * BOARD_SIZE;
+    /** FIRSTチームの成りエリア(7行以上) */
+    private static final int FIRST_PROMOTABLE_ZONE = 7;
+    /** SECONDチームの成りエリア(3行以下) */
+    private static final int SECOND_PROMOTABLE_ZONE = 3;
+    /** 盤上にない駒のマス番号 */
+    private static final int OFF_BOARD = -1;
+    /** 駒のスロット配列の初期容量(標準の初期盤面は40枚) */
+    private static final int INITIAL_PIECE_CAPACITY = 40;
+    /** 各マスのスタックの初期容量 */
+    private static final int INITIAL_STACK_CAPACITY = 4;
+    /** 駒の種類の数 */
+    private static final int PIECE_TYPE_COUNT = PieceType.values().length;
+    /** 駒の種類ごとのID表の初期容量(歩兵は1~18) */
+    private static final int INITIAL_ID_CAPACITY = 19;
+
+    /** マス番号からPositionへの変換テーブル(findで毎回生成しないため共有する) */
+    private static final Position[] POSITIONS = new Position[SQUARE_COUNT];
+
+    static {
+        for (int sq = 0; sq < SQUARE_COUNT; sq++) {
+            POSITIONS[sq] = Position.of(sq % BOARD_SIZE + BOARD_MIN, sq / BOARD_SIZE + BOARD_MIN);
+        }
+    }
+
+    /** 各マスに積まれた駒のスロット番号(下から順) */
+    private final int[][] cells;
+    /** 各マスのスタックの高さ */
+    private final int[] heights;
+    /** スロット番号から駒への対応 */
+    private Piece[] slots;
+    /** スロット番号から駒のあるマス番号への逆引きインデックス(盤上にない場合は{@code OFF_BOARD}) */
+    private int[] squareOf;
+    /** 登録済みの駒の数 */
+    private int pieceCount;
+    /** 駒の種類とIDから駒を引く表(key:[PieceTypeのordinal][id]) */
+    private final Piece[][] registry;
+    /** 捕獲された駒の管理オブジェクト */
+    private final CapturedPieces capturedPieces;
+    /** 盤上の駒のZobristハッシュ(手駒は含まない) */
+    private long boardHash;
+
+    /**
+     * ArrayBoardオブジェクトを初期化する
+     *
+     * @param initialPieces 初期配置の駒と位置のマップ
+     */
+    public ArrayBoard(Map<Piece, Position> initialPieces) {
+        this.cells = new int[SQUARE_COUNT][];
+        this.heights = new int[SQUARE_COUNT];
+        int capacity = Math.max(INITIAL_PIECE_CAPACITY, initialPieces.size());
+        this.slots = new Piece[capacity];
+        this.squareOf = new int[capacity];
+        this.pieceCount = 0;
+        this.registry = new Piece[PIECE_TYPE_COUNT][INITIAL_ID_CAPACITY];
+        this.boardHash = 0L;
+
+        // 初期配置の駒をスタックに積む
+        for (Map.Entry<Piece, Position> entry : initialPieces.entrySet()) {
+            push(toSquare(entry.getValue()), register(entry.getKey()));
+        }
+        this.capturedPieces = new CapturedPieces();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CapturedPieces getCapturedPieces() {
+        return capturedPieces;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Piece getTopPiece(Position pos) {
+        if (!isInsideBoard(pos)) {
+            return null;
+        }
+        int sq = toSquare(pos);
+        int height = heights[sq];
+        return height == 0 ? null : slots[cells[sq][height - 1]];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Piece> getAllPiecesAt(Position pos) {
+        if (!isInsideBoard(pos)) {
+            return List.of();
+        }
+        int sq = toSquare(pos);
+        int height = heights[sq];
+        if (height == 0) {
+            return List.of();
+        }
+        List<Piece> result = new ArrayList<>(height);
+        for (int i = 0; i < height; i++) {
+            result.add(slots[cells[sq][i]]);
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * 未登録の駒はここでスロットを割り当てる
+     */
+    @Override
+    public void stackPiece(Position pos, Piece piece) {
+        int slot = slotOf(piece);
+        if (slot == OFF_BOARD) {
+            slot = register(piece);
+        } else if (squareOf[slot] != OFF_BOARD) {
+            // 同じ駒が二重に積まれないよう、元のマスから取り除く
+            remove(squareOf[slot], slot);
+        }
+        push(toSquare(pos), slot);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Piece> captureAll(Position pos, Team capturingTeam) {
+        if (!isInsideBoard(pos)) {
+            return List.of();
+        }
+        int sq = toSquare(pos);
+        int height = heights[sq];
+        if (height == 0) {
+            return List.of();
+        }
+
+        // 捕獲した全ての駒を手駒に追加し、インデックスから削除
+        List<Piece> captured = new ArrayList<>(height);
+        int[] stack = cells[sq];
+        for (int i = 0; i < height; i++) {
+            Piece p = slots[stack[i]];
+            // 手駒になるとチームと成りが変わるので、盤上の状態のままハッシュから外す
+            boardHash ^= Zobrist.pieceKey(sq, i, p);
+            squareOf[stack[i]] = OFF_BOARD;
+            captured.add(p);
+            capturedPieces.capturedPiece(capturingTeam, p);
+        }
+        heights[sq] = 0;
+        return captured;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isTop(Piece piece) {
+        int slot = slotOf(piece);
+        if (slot == OFF_BOARD || squareOf[slot] == OFF_BOARD) {
+            return false;
+        }
+        int sq = squareOf[slot];
+        return cells[sq][heights[sq] - 1] == slot;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void movePiece(Piece piece, Position newPos) {
+        int slot = slotOf(piece);
+        if (slot == OFF_BOARD || squareOf[slot] == OFF_BOARD) {
+            return;
+        }
+        remove(squareOf[slot], slot);
+        push(toSquare(newPos), slot);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isInsideBoard(Position pos) {
+        return isInsideBoard(pos.x(), pos.y());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Position find(Piece p) {
+        int slot = slotOf(p);
+        if (slot == OFF_BOARD || squareOf[slot] == OFF_BOARD) {
+            return null;
+        }
+        return POSITIONS[squareOf[slot]];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void changeTeam(Piece p) {
+        int slot = slotOf(p);
+        togglePieceKey(slot);
+        p.setTeam(p.getTeam().switchTeam());
+        togglePieceKey(slot);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void capturePiece(Piece piece, Team capturingTeam) {
+        int slot = slotOf(piece);
+        // 盤上に残っている場合はマスから取り除く(ハッシュからも外れる)
+        if (slot != OFF_BOARD && squareOf[slot] != OFF_BOARD) {
+            remove(squareOf[slot], slot);
+        }
+        capturedPieces.capturedPiece(capturingTeam, piece);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isInPromotionZone(Position pos, Team team) {
+        switch (team) {
+            case FIRST:
+                return pos.y() >= FIRST_PROMOTABLE_ZONE;
+
+            case SECOND:
+                return pos.y() <= SECOND_PROMOTABLE_ZONE;
+        }
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     * 成ることができない駒(王将・金将など)の場合は何もしない
+     */
+    @Override
+    public void promotePiece(Piece piece) {
+        if (!piece.isPromotable()) return;
+        int slot = slotOf(piece);
+        togglePieceKey(slot);
+        piece.setPromoted(true);
+        togglePieceKey(slot);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getZobristHash() {
+        return boardHash ^ capturedPieces.getZobristHash();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public MoveStepResult moveOneStepWithCapture(Piece piece, Direction dir) {
+        int slot = slotOf(piece);
+        if (slot == OFF_BOARD || squareOf[slot] == OFF_BOARD) {
+            throw new IllegalArgumentException("盤上にない駒は移動できません");
+        }
+        int from = squareOf[slot];
+        int x = from % BOARD_SIZE + BOARD_MIN + dir.dx;
+        int y = from / BOARD_SIZE + BOARD_MIN + dir.dy;
+        // 盤面外に落ちた場合
+        if (!isInsideBoard(x, y)) {
+            return MoveStepResult.of(MoveResult.FELL);
+        }
+        int to = toSquare(x, y);
+        int height = heights[to];
+        Piece top = height == 0 ? null : slots[cells[to][height - 1]];
+        // 味方の駒の上に積む
+        if (top != null && top.getTeam() == piece.getTeam()) {
+            remove(from, slot);
+            push(to, slot);
+            return MoveStepResult.of(MoveResult.STACKED);
+        }
+        // 敵の駒を捕獲
+        if (top != null && top.getTeam() != piece.getTeam()) {
+            List<Piece> captured = captureAll(POSITIONS[to], piece.getTeam());
+            remove(from, slot);
+            push(to, slot);
+            return MoveStepResult.withCapture(MoveResult.CAPTURED, captured);
+        }
+        // 空マスに移動
+        remove(from, slot);
+        push(to, slot);
+
+        return MoveStepResult.of(MoveResult.MOVED);
+    }
+
+    /**
+     * {@inheritDoc}
+     * 盤上の駒に加え、盤上から手駒に移った駒も返す
+     */
+    @Override
+    public Piece getPiece(int id, PieceType type) {
+        Piece[] byId = registry[type.ordinal()];
+        return (id < 0 || id >= byId.length) ? null : byId[id];
+    }
+
+    /**
+     * 内部ヘルパー:
+     * 座標が盤面の中か判定する
+     *
+     * @param x 横方向の位置
+     * @param y 縦方向の位置
+     * @return {@code true}:盤面の中
+     */
+    private static boolean isInsideBoard(int x, int y) {
+        return x >= BOARD_MIN && x <= BOARD_MAX && y >= BOARD_MIN && y <= BOARD_MAX;
+    }
+
+    /**
+     * 内部ヘルパー:
+     * 座標をマス番号(0~80)に変換する
+     *
+     * @param x 横方向の位置
+     * @param y 縦方向の位置
+     * @return マス番号
+     */
+    private static int toSquare(int x, int y) {
+        return (y - BOARD_MIN) * BOARD_SIZE + (x - BOARD_MIN);
+    }
+
+    /**
+     * 内部ヘルパー:
+     * Positionをマス番号(0~80)に変換する
+     *
+     * @param pos 変換したいマス
+     * @return マス番号
+     */
+    private static int toSquare(Position pos) {
+        return toSquare(pos.x(), pos.y());
+    }
+
+    /**
+     * 内部ヘルパー:
+     * 駒のスロット番号を返す<br>
+     * 駒が覚えているスロット番号が別の盤面のものだった場合は登録済みの駒から探し直す
+     *
+     * @param piece スロット番号を知りたい駒
+     * @return スロット番号、この盤面に登録されていない場合は{@code OFF_BOARD}
+     */
+    private int slotOf(Piece piece) {
+        int slot = piece.getBoardSlot();
+        if (slot >= 0 && slot < pieceCount && slots[slot] == piece) {
+            return slot;
+        }
+        for (int i = 0; i < pieceCount; i++) {
+            if (slots[i] == piece) {
+                piece.setBoardSlot(i);
+                return i;
+            }
+        }
+        return OFF_BOARD;
+    }
+
+    /**
+     * 内部ヘルパー:
+     * 駒にスロット番号を割り当てる
+     *
+     * @param piece 登録する駒
+     * @return 割り当てたスロット番号
+     */
+    private int register(Piece piece) {
+        if (pieceCount == slots.length) {
+            slots = Arrays.copyOf(slots, pieceCount * 2);
+            squareOf = Arrays.copyOf(squareOf, pieceCount * 2);
+        }
+        int slot = pieceCount++;
+        slots[slot] = piece;
+        squareOf[slot] = OFF_BOARD;
+        piece.setBoardSlot(slot);
+        registerId(piece);
+        return slot;
+    }
+
+    /**
+     * 内部ヘルパー:
+     * 駒を種類とIDの表に登録する
+     *
+     * @param piece 登録する駒
+     */
+    private void registerId(Piece piece) {
+        int id = piece.getId();
+        if (id < 0) {
+            return;
+        }
+        int type = piece.getType().ordinal();
+        Piece[] byId = registry[type];
+        if (id >= byId.length) {
+            byId = Arrays.copyOf(byId, Math.max(id + 1, byId.length * 2));
+            registry[type] = byId;
+        }
+        byId[id] = piece;
+    }
+
+    /**
+     * 内部ヘルパー:
+     * マスのスタックの一番上に駒を積み、逆引きインデックスを更新する
+     *
+     * @param sq   積むマスのマス番号
+     * @param slot 積む駒のスロット番号
+     */
+    private void push(int sq, int slot) {
+        int[] stack = cells[sq];
+        int height = heights[sq];
+        if (stack == null) {
+            stack = new int[INITIAL_STACK_CAPACITY];
+            cells[sq] = stack;
+        } else if (height == stack.length) {
+            stack = Arrays.copyOf(stack, height * 2);
+            cells[sq] = stack;
+        }
+        stack[height] = slot;
+        heights[sq] = height + 1;
+        squareOf[slot] = sq;
+        boardHash ^= Zobrist.pieceKey(sq, height, slots[slot]);
+    }
+
+    /**
+     * 内部ヘルパー:
+     * マスのスタックから駒を取り除き、逆引きインデックスを更新する<br>
+     * 通常は一番上の駒なので上から探す
+     *
+     * @param sq   取り除くマスのマス番号
+     * @param slot 取り除く駒のスロット番号
+     */
+    private void remove(int sq, int slot) {
+        int[] stack = cells[sq];
+        int height = heights[sq];
+        for (int i = height - 1; i >= 0; i--) {
+            if (stack[i] == slot) {
+                // 取り除く駒とその上の駒は段が変わるので、ハッシュを付け直す
+                for (int j = i; j < height; j++) {
+                    boardHash ^= Zobrist.pieceKey(sq, j, slots[stack[j]]);
+                }
+                System.arraycopy(stack, i + 1, stack, i, height - 1 - i);
+                for (int j = i; j < height - 1; j++) {
+                    boardHash ^= Zobrist.pieceKey(sq, j, slots[stack[j]]);
+                }
+                heights[sq] = height - 1;
+                squareOf[slot] = OFF_BOARD;
+                return;
+            }
+        }
+    }
+
+    /**
+     * 内部ヘルパー:
+     * 盤上の駒の現在の状態の乱数をハッシュにXORする<br>
+     * 駒のチームや成りを変える前後に1回ずつ呼ぶと、古い状態が外れて新しい状態が入る
+     *
+     * @param slot 駒のスロット番号(盤上にない場合は何もしない)
+     */
+    private void togglePieceKey(int slot) {
+        if (slot == OFF_BOARD || squareOf[slot] == OFF_BOARD) {
+            return;
+        }
+        int sq = squareOf[slot];
+        boardHash ^= Zobrist.pieceKey(sq, levelOf(sq, slot), slots[slot]);
+    }
+
+    /**
+     * 内部ヘルパー:
+     * 駒がマスのスタックの何段目にあるかを返す
+     *
+     * @param sq   マス番号
+     * @param slot 駒のスロット番号
+     * @return 段(一番下が0)
+     */
+    private int levelOf(int sq, int slot) {
+        int[] stack = cells[sq];
+        for (int i = heights[sq] - 1; i >= 0; i--) {
+            if (stack[i] == slot) {
+                return i;
+            }
+        }
+        return OFF_BOARD;
+    }
+}
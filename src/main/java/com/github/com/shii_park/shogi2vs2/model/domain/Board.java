@@ -1,10 +1,6 @@
 package com.github.com.shii_park.shogi2vs2.model.domain;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.Stack;
-import java.util.concurrent.ConcurrentHashMap;
 
 import com.github.com.shii_park.shogi2vs2.model.enums.Direction;
 import com.github.com.shii_park.shogi2vs2.model.enums.MoveResult;
@@ -12,65 +8,19 @@ import com.github.com.shii_park.shogi2vs2.model.enums.PieceType;
 import com.github.com.shii_park.shogi2vs2.model.enums.Team;
 
 /**
- * Boardクラスは盤面、駒の逆引きインデックス、盤面の操作に関するメソッドを提供する
- * 
+ * Boardインターフェースは盤面、駒の逆引き、盤面の操作に関するメソッドを定義する<br>
+ * 実装は{@link ArrayBoard}を参照
+ *
  * @author Suiren91
  */
-public class Board {
-    /** 各マスにある駒のスタック */
-    private final Map<Position, Stack<Piece>> pieces;
-    /** 駒から位置への逆引きインデックス */
-    private final Map<Piece, Position> index;
-    /** 捕獲された駒の管理オブジェクト */
-    private final CapturedPieces capturedPieces;
-
-    /** 盤面の最小座標 */
-    private static final int BOARD_MIN = 1;
-    /** 盤面の最大座標 */
-    private static final int BOARD_MAX = 9;
-    /** FIRSTチームの成りエリア(7行以上) */
-    private static final int FIRST_PROMOTABLE_ZONE = 7;
-    /** SECONDチームの成りエリア(3行以下) */
-    private static final int SECOND_PROMOTABLE_ZONE = 3;
-
-    /**
-     * Boardオブジェクトを初期化する
-     * 
-     * @param initialPieces 初期配置の駒と位置のマップ
-     */
-    public Board(Map<Piece, Position> initialPieces) {
-        this.pieces = new ConcurrentHashMap<>();
-        this.index = new ConcurrentHashMap<>(initialPieces);
-
-        // 初期配置の駒をスタックに積む
-        for (Map.Entry<Piece, Position> entry : initialPieces.entrySet()) {
-            Piece piece = entry.getKey();
-            Position pos = entry.getValue();
-
-            pieces.computeIfAbsent(pos, p -> new Stack<>()).push(piece);
-        }
-        this.capturedPieces = new CapturedPieces();
-    }
-
-    /**
-     * 内部ヘルパー:
-     * マスにある駒のスタックを返す
-     * 
-     * @param pos スタックを取得したいマス
-     * @return not {@code null}
-     */
-    private Stack<Piece> getStack(Position pos) {
-        return pieces.computeIfAbsent(pos, k -> new Stack<>());
-    }
+public interface Board {
 
     /**
      * 捕獲された駒の管理オブジェクトを取得
-     * 
+     *
      * @return capturedPieces
      */
-    public CapturedPieces getCapturedPieces() {
-        return capturedPieces;
-    }
+    CapturedPieces getCapturedPieces();
 
     /**
      * マスにあるスタックの一番上の駒{@code Piece}を返す
@@ -78,216 +28,138 @@ public class Board {
      * @param pos 一番上の駒を取得したいマス
      * @return Piece スタックが空のときに{@code null}を返す
      */
-    public Piece getTopPiece(Position pos) {
-        Stack<Piece> s = pieces.get(pos);
-        return (s == null || s.isEmpty()) ? null : s.peek();
-    }
+    Piece getTopPiece(Position pos);
 
     /**
-     * マスに積まれている駒のリストを返す
-     * 
+     * マスに積まれている駒のリストを返す(下から順)
+     *
      * @param pos 駒のリストを取得したいマス
      * @return スタックがないときは空のリストを返却する
      */
-    public List<Piece> getAllPiecesAt(Position pos) {
-        Stack<Piece> s = pieces.get(pos);
-        return (s == null) ? List.of() : new ArrayList<>(s);
-    }
+    List<Piece> getAllPiecesAt(Position pos);
 
     /**
      * マスのスタックの一番上に駒を積む
-     * indexを更新する
-     * 
+     * 駒が既に盤上にある場合は元のマスから取り除いてから積む
+     *
      * @param pos   駒を積むマス
      * @param piece 積む駒
      */
-    public void stackPiece(Position pos, Piece piece) {
-        getStack(pos).push(piece);
-        index.put(piece, pos);
-    }
+    void stackPiece(Position pos, Piece piece);
 
     /**
      * マスにある駒を全て捕獲する<br>
      * capturingTeamの駒として登録する
-     * 
+     *
      * @param pos           捕獲したいマス
      * @param capturingTeam 駒を捕獲するチーム
      * @return 捕獲した駒のリスト
      */
-    public List<Piece> captureAll(Position pos, Team capturingTeam) {
-        Stack<Piece> stack = pieces.get(pos);
-        if (stack == null)
-            return List.of();
-
-        List<Piece> captured = new ArrayList<>(stack);
-        pieces.remove(pos);
-
-        // 捕獲した全ての駒を手駒に追加し、インデックスから削除
-        for (Piece p : captured) {
-            capturedPieces.capturedPiece(capturingTeam, p);
-            index.remove(p);
-        }
-        return captured;
-    }
+    List<Piece> captureAll(Position pos, Team capturingTeam);
 
     /**
      * 駒がスタックの一番上かを判定する
-     * 
+     *
      * @param piece 一番上か確認したい駒
      * @return {@code true}:一番上
      */
-    public boolean isTop(Piece piece) {
-        Stack<Piece> pieces = this.pieces.get(find(piece));
-        if (pieces != null && !pieces.empty()) {
-            return piece == pieces.peek();
-        }
-        return false;
-    }
+    boolean isTop(Piece piece);
 
     /**
      * 駒を別のマスnewPosに移動させる
-     * 
+     *
      * @param piece  移動させたい駒
      * @param newPos 移動先のマス
      */
-    public void movePiece(Piece piece, Position newPos) {
-        Position old = index.get(piece);
-        Stack<Piece> stack = getStack(old);
-        if (stack.isEmpty()) {
-            return;
-        }
-        stack.remove(piece);
-        getStack(newPos).push(piece);
-        index.put(piece, newPos);
-    }
+    void movePiece(Piece piece, Position newPos);
 
     /**
      * 駒が盤面の中にいるか判定する
-     * 
+     *
      * @param pos 判定したい駒の位置、マス
      * @return {@code true}:盤面の中, {@code false}:盤面の外
      */
-    public boolean isInsideBoard(Position pos) {
-        if (pos.x() > BOARD_MAX || pos.x() < BOARD_MIN) {
-            return false;
-        } else if (pos.y() > BOARD_MAX || pos.y() < BOARD_MIN) {
-            return false;
-        }
-        return true;
-    }
+    boolean isInsideBoard(Position pos);
 
     /**
      * 駒の場所を特定する
-     * 
+     *
      * @param p 場所を特定したい駒
      * @return 駒のあるマス, 駒がなければ{@code null}
      */
-    public Position find(Piece p) {
-        return index.get(p);
-    }
+    Position find(Piece p);
 
     /**
      * 駒の所属チームを反転させる
-     * 
+     *
      * @param p チームを反転させたい駒
      */
-    public void changeTeam(Piece p) {
-        p.setTeam(p.getTeam().switchTeam());
-    }
+    void changeTeam(Piece p);
+
+    /**
+     * 駒を捕獲してcapturingTeamの手駒として登録する<br>
+     * 盤面外に落ちた駒のように、{@link #captureAll}を通らずに捕獲される駒に使う<br>
+     * 駒がまだマスに残っている場合は、そのマスから取り除いてから手駒にする
+     *
+     * @param piece         捕獲される駒
+     * @param capturingTeam 駒を捕獲するチーム
+     */
+    void capturePiece(Piece piece, Team capturingTeam);
 
     /**
      * 駒が成りが可能なエリア内にいるかを返す
      * FIRSTチームは7行以上、SECONDチームは3行以下が成りエリア
-     * 
+     *
      * @param pos  駒の位置、マス
      * @param team 駒を保有するチーム
      * @return {@code true}:成りが可能なエリア内
      */
-    public boolean isInPromotionZone(Position pos, Team team) {
-        switch (team) {
-            case FIRST:
-                if (pos.y() >= FIRST_PROMOTABLE_ZONE) {
-                    return true;
-                }
-                return false;
-
-            case SECOND:
-                if (pos.y() <= SECOND_PROMOTABLE_ZONE) {
-                    return true;
-                }
-                return false;
-        }
-        return false;
-    }
+    boolean isInPromotionZone(Position pos, Team team);
 
     /**
      * 受け取った駒を成り状態に変える
-     * 
+     * 成ることができない駒の場合は何もしない
+     *
      * @param piece 成りたい駒
      */
-    public void promotePiece(Piece piece) {
-        piece.setPromoted(true); // TODO: isPromotableがfalseのときの処理を追加
-    }
+    void promotePiece(Piece piece);
 
     /**
      * {@code dir}の方向に駒を進める
-     * 
+     *
      * @param piece 移動させる駒
      * @param dir   移動させたい方向
      * @return 移動した結果を返す({@code DROPPED},{@code STACKED},{@code CAPTURED},{@code MOVED})
      */
-    public MoveResult moveOneStep(Piece piece, Direction dir) {
-        MoveStepResult result = moveOneStepWithCapture(piece, dir);
-        return result.result();
+    default MoveResult moveOneStep(Piece piece, Direction dir) {
+        return moveOneStepWithCapture(piece, dir).result();
     }
 
     /**
      * {@code dir}の方向に駒を進め、捕獲した駒の情報も返す
-     * 
+     *
      * @param piece 移動させる駒
      * @param dir   移動させたい方向
      * @return 移動結果と捕獲した駒のリスト
      */
-    public MoveStepResult moveOneStepWithCapture(Piece piece, Direction dir) {
-        Position newPos = find(piece).add(dir);
-        // 盤面外に落ちた場合
-        if (!isInsideBoard(newPos)) {
-            return MoveStepResult.of(MoveResult.FELL);
-        }
-        Piece top = getTopPiece(newPos);
-        // 味方の駒の上に積む
-        if (top != null && top.getTeam() == piece.getTeam()) {
-            movePiece(piece, newPos);
-            return MoveStepResult.of(MoveResult.STACKED);
-        }
-        // 敵の駒を捕獲
-        if (top != null && top.getTeam() != piece.getTeam()) {
-            List<Piece> captured = captureAll(newPos, piece.getTeam());
-            movePiece(piece, newPos);
-            return MoveStepResult.withCapture(MoveResult.CAPTURED, captured);
-        }
-        // 空マスに移動
-        movePiece(piece, newPos);
-
-        return MoveStepResult.of(MoveResult.MOVED);
-    }
+    MoveStepResult moveOneStepWithCapture(Piece piece, Direction dir);
 
     /**
      * IDと種類から、盤上（または管理下）にある駒の実体を探す
      * GameRoomServiceのMoveAction処理で使用
-     * 
+     *
      * @param id   駒のID
      * @param type 駒の種類
      * @return 見つかったPiece (なければnull)
      */
-    public Piece getPiece(int id, PieceType type) {
-        // indexキーセット（盤上の全駒）から検索
-        for (Piece p : index.keySet()) {
-            if (p.getId() == id && p.getType() == type) {
-                return p;
-            }
-        }
-        return null;
-    }
-    
+    Piece getPiece(int id, PieceType type);
+
+    /**
+     * 局面のZobristハッシュを返す<br>
+     * 各マスのスタックの中身(駒の種類、成り、チーム、段)と両チームの手駒の枚数から決まり、
+     * 駒の操作のたびに差分で更新される。千日手の検出や同一局面の判定に使う
+     *
+     * @return 局面のハッシュ
+     */
+    long getZobristHash();
 }
@@ -84,6 +84,6 @@ public class BoardFactory {
         for (Map.Entry<Position, Piece> e : initialPieces.entrySet()) {
             pieceToPos.put(e.getValue(), e.getKey());
         }
-        return new Board(pieceToPos);
+        return new ArrayBoard(pieceToPos);
     }
 }
@@ -1,18 +1,19 @@
 package com.github.com.shii_park.shogi2vs2.model.domain;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
+
 import com.github.com.shii_park.shogi2vs2.model.enums.PieceType;
 import com.github.com.shii_park.shogi2vs2.model.enums.Team;
 
 /**
  * CapturedPiecesクラスは各チームの手駒を管理します。<br>
  * 手駒の操作や捕獲に関するメソッドを提供します。
- * また、王将が捕獲されたときは勝利チームを決定します。
+ * また、王将が捕獲されたときは勝利チームを決定します。<br>
+ * ゲームごとの単一スレッドからのみ操作されるため同期は行いません。
  * 
  * @author Suiren91
  */
@@ -21,15 +22,21 @@ public class CapturedPieces {
     private final Map<Team, List<Piece>> capturedPieces;
     /** 勝利チーム(まだ決定していない場合はempty) */
     private Optional<Team> winnerTeam;
+    /** 各チームの駒の種類ごとの手駒の枚数(key:[Teamのordinal][PieceTypeのordinal]) */
+    private final int[][] handCounts;
+    /** 手駒のZobristハッシュ */
+    private long zobristHash;
 
     /**
      * CapturedPiecesオブジェクトを初期化する
      */
     public CapturedPieces() {
-        capturedPieces = new ConcurrentHashMap<>();
-        capturedPieces.put(Team.FIRST, Collections.synchronizedList(new ArrayList<>()));
-        capturedPieces.put(Team.SECOND, Collections.synchronizedList(new ArrayList<>()));
+        capturedPieces = new EnumMap<>(Team.class);
+        capturedPieces.put(Team.FIRST, new ArrayList<>());
+        capturedPieces.put(Team.SECOND, new ArrayList<>());
         winnerTeam = Optional.empty();
+        handCounts = new int[Team.values().length][PieceType.values().length];
+        zobristHash = 0L;
     }
 
     /**
@@ -51,6 +58,16 @@ public class CapturedPieces {
         return winnerTeam;
     }
 
+    /**
+     * 手駒のZobristハッシュを返す<br>
+     * 各チームの駒の種類ごとの枚数だけで決まり、手駒の並び順やidには依存しない
+     * 
+     * @return 手駒のハッシュ
+     */
+    public long getZobristHash() {
+        return zobristHash;
+    }
+
     /**
      * 手駒から駒を取り出す。駒のidは考慮しない
      * 
@@ -65,13 +82,12 @@ public class CapturedPieces {
         }
 
         // 手駒リストから同じ種類の駒を探して取り出す
-        synchronized (pieces) {
-            for (int i = 0; i < pieces.size(); i++) {
-                Piece captured = pieces.get(i);
-                if (captured.getType() == piece.getType()) {
-                    pieces.remove(i);
-                    return captured;
-                }
+        for (int i = 0; i < pieces.size(); i++) {
+            Piece captured = pieces.get(i);
+            if (captured.getType() == piece.getType()) {
+                pieces.remove(i);
+                updateHandCount(team, captured.getType(), -1);
+                return captured;
             }
         }
         return null;
@@ -94,5 +110,22 @@ public class CapturedPieces {
         capturedPieces.get(team).add(piece);
         piece.setPromoted(false);
         piece.setTeam(team);
+        updateHandCount(team, piece.getType(), 1);
+    }
+
+    /**
+     * 内部ヘルパー:
+     * 手駒の枚数を増減し、ハッシュを更新する
+     * 
+     * @param team  手駒を持つチーム
+     * @param type  駒の種類
+     * @param delta 枚数の増減
+     */
+    private void updateHandCount(Team team, PieceType type, int delta) {
+        int[] counts = handCounts[team.ordinal()];
+        int before = counts[type.ordinal()];
+        int after = before + delta;
+        counts[type.ordinal()] = after;
+        zobristHash ^= Zobrist.handKey(team, type, before) ^ Zobrist.handKey(team, type, after);
     }
 }
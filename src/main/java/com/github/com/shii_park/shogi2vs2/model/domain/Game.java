@@ -11,7 +11,8 @@ import com.github.com.shii_park.shogi2vs2.model.enums.Team;
 
 /**
  * Gameクラスは2vs2将棋のゲーム全体を管理するクラスです<br>
- * ゲームの進行、プレイヤー管理、盤面管理、勝敗判定などの主要なロジックを担当します
+ * ゲームの進行、プレイヤー管理、盤面管理、勝敗判定などの主要なロジックを担当します<br>
+ * ゲームの操作はゲームごとの単一スレッド({@code GameExecutorService})で順に行うため、スレッドセーフではありません
  */
 public class Game {
     /** ゲームid */
@@ -21,7 +22,7 @@ public class Game {
     /** 盤面 */
     private final Board board;
     /** ゲームの状態 */
-    private volatile GameStatus status = GameStatus.WAITING;
+    private GameStatus status = GameStatus.WAITING;
     /** 勝利チーム */
     private Team winnerTeam;
     /** 捕獲された駒の管理 */
@@ -58,6 +59,21 @@ public class Game {
         this.turnDropResults = new ArrayList<>();
     }
 
+    /**
+     * 途中のターンから再開するGameクラスのコンストラクタ<br>
+     * 保存した盤面と手駒、ターンから進行中のゲームを復元するときに使う
+     * 
+     * @param gameId ゲームid
+     * @param playersList プレイヤーのリスト
+     * @param board 盤面(手駒を含む)
+     * @param currentTeam 現在ターンのチーム
+     * @param turnNumber 現在のターン番号
+     */
+    public Game(String gameId, List<Player> playersList, Board board, Team currentTeam, int turnNumber) {
+        this(gameId, playersList, board, currentTeam);
+        this.turnManager = new TurnManager(currentTeam, turnNumber);
+    }
+
     /**
      * プレイヤーが投了したときのゲーム終了処理を行う
      * 
@@ -104,13 +120,7 @@ public class Game {
 
             if (stepResult.result() == MoveResult.FELL) {
                 // 盤面外に落ちた場合、相手チームの捕獲駒として登録
-                switch (move.player().getTeam()) {
-                    case FIRST:
-                        capturedPieces.capturedPiece(Team.SECOND, move.piece());
-                        break;
-                    case SECOND:
-                        capturedPieces.capturedPiece(Team.FIRST, move.piece());
-                }
+                board.capturePiece(move.piece(), move.player().getTeam().switchTeam());
                 capturedPiecesList.add(move.piece());
                 break;
             } else if (stepResult.result() == MoveResult.CAPTURED) {
@@ -174,7 +184,9 @@ public class Game {
 
         // 待機中の成りを処理(成れるゾーンにいる場合のみ成る)
         pendingPromote.forEach(piece -> {
-            if (board.isInPromotionZone(board.find(piece), piece.getTeam())) {
+            Position pos = board.find(piece);
+            // 盤外に落ちた、または捕獲された駒は成らない
+            if (pos != null && board.isInPromotionZone(pos, piece.getTeam())) {
                 board.promotePiece(piece);
                 promotedPieces.add(piece);
             }
@@ -229,6 +241,24 @@ public class Game {
         return turnManager.getCurrentTurn();
     }
 
+    /**
+     * 現在のターン番号を返す
+     * 
+     * @return ターン番号
+     */
+    public int getTurnNumber() {
+        return turnManager.getTurnNumber();
+    }
+
+    /**
+     * 全プレイヤーを返す
+     * 
+     * @return プレイヤーのリスト(順序は不定)
+     */
+    public List<Player> getPlayers() {
+        return new ArrayList<>(players.values());
+    }
+
     /**
      * 現在の盤面を返す
      * 
@@ -238,6 +268,17 @@ public class Game {
         return board;
     }
 
+    /**
+     * チームの現在の合法手を返す<br>
+     * 盤上の一番上にある駒の移動(連続移動を含む)と、手駒の配置を列挙する
+     * 
+     * @param team 合法手を取得したいチーム
+     * @return 合法な移動と手駒の配置
+     */
+    public LegalActions getLegalActions(Team team) {
+        return MoveGenerator.generate(board, team);
+    }
+
     /**
      * 駒が指定された方向リストに移動可能かチェックする
      * 
@@ -250,29 +291,23 @@ public class Game {
             return false;
         }
 
-        // 各方向が移動可能な方向かチェック
+        // 各方向が移動可能な方向かチェック(駒の移動表のビットマスクで判定)
+        int movableMask = piece.getMovableMask();
         for (Direction dir : directions) {
-            if (!piece.canMoveToDirection(dir)) {
+            if ((movableMask & dir.mask()) == 0) {
                 return false;
             }
         }
 
         // 連続移動のチェック
         if (directions.size() > 1) {
-            // 連続移動可能な駒かチェック
-            if (!piece.canMoveMultipleSteps()) {
+            // 最初の方向が連続移動可能な方向かチェック(連続移動できない駒はマスクが0)
+            Direction firstDir = directions.get(0);
+            if ((piece.getSlideMask() & firstDir.mask()) == 0) {
                 return false;
             }
 
-            // 各方向が連続移動可能な方向かチェック
-            for (Direction dir : directions) {
-                if (!piece.canMoveMultipleStepsInDirection(dir)) {
-                    return false;
-                }
-            }
-
             // 同じ方向への連続移動かチェック(飛車・角・香は同じ方向にのみ連続移動可)
-            Direction firstDir = directions.get(0);
             for (Direction dir : directions) {
                 if (dir != firstDir) {
                     return false;
@@ -0,0 +1,12 @@
+package com.github.com.shii_park.shogi2vs2.model.domain;
+
+import java.util.List;
+
+/**
+ * LegalActionsはチームが現在の局面で選択できる合法手の一覧を表すレコードクラスです
+ * 
+ * @param moves 盤上の駒の合法な移動のリスト
+ * @param drops 手駒の合法な配置のリスト
+ */
+public record LegalActions(List<LegalMove> moves, List<LegalDrop> drops) {
+}
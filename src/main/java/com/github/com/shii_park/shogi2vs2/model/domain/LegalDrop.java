@@ -0,0 +1,12 @@
+package com.github.com.shii_park.shogi2vs2.model.domain;
+
+import com.github.com.shii_park.shogi2vs2.model.enums.PieceType;
+
+/**
+ * LegalDropは手駒から盤面への合法な配置を表すレコードクラスです
+ * 
+ * @param type     配置する駒の種類
+ * @param position 配置できるマス
+ */
+public record LegalDrop(PieceType type, Position position) {
+}
@@ -0,0 +1,19 @@
+package com.github.com.shii_park.shogi2vs2.model.domain;
+
+import java.util.List;
+
+import com.github.com.shii_park.shogi2vs2.model.enums.Direction;
+
+/**
+ * LegalMoveは盤上の駒の合法な移動を表すレコードクラスです
+ * 
+ * @param piece      移動する駒
+ * @param from       移動元のマス
+ * @param to         移動先のマス(落下の場合は最初の盤外のマス)
+ * @param directions 移動方向のリスト(連続移動はマス数分の同じ方向)
+ * @param promotable 移動先で成りを選択できるか
+ * @param falls      盤外に落ちる移動か(駒は相手の手駒になる)
+ */
+public record LegalMove(Piece piece, Position from, Position to, List<Direction> directions, boolean promotable,
+        boolean falls) {
+}
@@ -0,0 +1,161 @@
+package com.github.com.shii_park.shogi2vs2.model.domain;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.github.com.shii_park.shogi2vs2.model.enums.Direction;
+import com.github.com.shii_park.shogi2vs2.model.enums.PieceType;
+import com.github.com.shii_park.shogi2vs2.model.enums.Team;
+
+/**
+ * MoveGeneratorクラスは局面からチームの合法手を列挙するメソッドを提供します<br>
+ * このルールでは味方の駒がいるマスへの移動は積み重ね、敵の駒がいるマスへの移動はスタックごと捕獲になるため、
+ * 盤面内のマスへの移動は全て合法である。連続移動は積み重ね・捕獲が起きたマスで止まる<br>
+ * 盤面外に出る移動もルール上は合法(駒は落ちて相手の手駒になる)なので、盤外の移動先を持つ移動として列挙する
+ */
+public class MoveGenerator {
+    /** 盤面の最小座標 */
+    private static final int BOARD_MIN = 1;
+    /** 盤面の最大座標 */
+    private static final int BOARD_MAX = 9;
+    /** 方向の一覧(values()の配列コピーを避けるため保持する) */
+    private static final Direction[] DIRECTIONS = Direction.values();
+    /** 駒の種類の一覧 */
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+
+    /**
+     * ユーティリティクラスなのでインスタンス化を防ぐ
+     */
+    private MoveGenerator() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * チームの合法手を全て列挙する
+     *
+     * @param board 盤面
+     * @param team  合法手を列挙するチーム
+     * @return 合法な移動と手駒の配置(not {@code null})
+     */
+    public static LegalActions generate(Board board, Team team) {
+        return new LegalActions(generateMoves(board, team), generateDrops(board, team));
+    }
+
+    /**
+     * チームの盤上の駒の合法な移動を列挙する<br>
+     * 各マスの一番上にあるチームの駒だけが動かせる
+     *
+     * @param board 盤面
+     * @param team  合法手を列挙するチーム
+     * @return 合法な移動のリスト
+     */
+    public static List<LegalMove> generateMoves(Board board, Team team) {
+        List<LegalMove> moves = new ArrayList<>();
+        for (int y = BOARD_MIN; y <= BOARD_MAX; y++) {
+            for (int x = BOARD_MIN; x <= BOARD_MAX; x++) {
+                Position from = Position.of(x, y);
+                Piece piece = board.getTopPiece(from);
+                if (piece == null || piece.getTeam() != team) {
+                    continue;
+                }
+                int movableMask = piece.getMovableMask();
+                int slideMask = piece.getSlideMask();
+                for (Direction dir : DIRECTIONS) {
+                    if ((movableMask & dir.mask()) == 0) {
+                        continue;
+                    }
+                    boolean slide = (slideMask & dir.mask()) != 0;
+                    addMovesInDirection(board, piece, from, dir, slide, moves);
+                }
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * チームの手駒の合法な配置を列挙する<br>
+     * 同じ種類の手駒は1つにまとめ、駒のない全てのマスに配置できる
+     *
+     * @param board 盤面
+     * @param team  合法手を列挙するチーム
+     * @return 合法な配置のリスト
+     */
+    public static List<LegalDrop> generateDrops(Board board, Team team) {
+        List<Piece> hand = board.getCapturedPieces().getCapturedPieces(team);
+        if (hand == null || hand.isEmpty()) {
+            return List.of();
+        }
+        boolean[] inHand = new boolean[PIECE_TYPES.length];
+        for (Piece p : List.copyOf(hand)) {
+            inHand[p.getType().ordinal()] = true;
+        }
+
+        List<LegalDrop> drops = new ArrayList<>();
+        for (int y = BOARD_MIN; y <= BOARD_MAX; y++) {
+            for (int x = BOARD_MIN; x <= BOARD_MAX; x++) {
+                Position pos = Position.of(x, y);
+                if (board.getTopPiece(pos) != null) {
+                    continue;
+                }
+                for (PieceType type : PIECE_TYPES) {
+                    if (inHand[type.ordinal()]) {
+                        drops.add(new LegalDrop(type, pos));
+                    }
+                }
+            }
+        }
+        return drops;
+    }
+
+    /**
+     * 内部ヘルパー:
+     * 1方向への移動を列挙する<br>
+     * 連続移動できる方向は盤端、または積み重ね・捕獲が起きるマスまで1マスずつ伸ばす<br>
+     * 盤端を越える移動は、最初の盤外のマスを移動先とする落下の移動として1つだけ列挙する
+     *
+     * @param board 盤面
+     * @param piece 移動する駒
+     * @param from  移動元のマス
+     * @param dir   移動方向
+     * @param slide 連続移動できるか
+     * @param moves 列挙した移動の追加先
+     */
+    private static void addMovesInDirection(Board board, Piece piece, Position from, Direction dir,
+            boolean slide, List<LegalMove> moves) {
+        int x = from.x();
+        int y = from.y();
+        int steps = 0;
+        while (true) {
+            x += dir.dx;
+            y += dir.dy;
+            steps++;
+            Position to = Position.of(x, y);
+            if (x < BOARD_MIN || x > BOARD_MAX || y < BOARD_MIN || y > BOARD_MAX) {
+                // 盤外に落ちた駒は成らない
+                moves.add(new LegalMove(piece, from, to, Collections.nCopies(steps, dir), false, true));
+                return;
+            }
+            moves.add(new LegalMove(piece, from, to, Collections.nCopies(steps, dir), isPromotable(board, piece, to),
+                    false));
+
+            // 駒のあるマスでは積み重ね・捕獲が起きて移動が止まる
+            if (!slide || board.getTopPiece(to) != null) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 内部ヘルパー:
+     * 移動先で成りを選択できるか判定する
+     *
+     * @param board 盤面
+     * @param piece 移動する駒
+     * @param to    移動先のマス
+     * @return {@code true}:成りを選択できる
+     */
+    private static boolean isPromotable(Board board, Piece piece, Position to) {
+        return piece.isPromotable() && !piece.isPromoted() && board.isInPromotionZone(to, piece.getTeam());
+    }
+}
@@ -28,6 +28,8 @@ public class Piece {
     private boolean isPromoted;
     /** 成ることが可能かどうか */
     private final boolean isPromotable;
+    /** 盤面内で割り当てられたスロット番号(未登録は-1) */
+    private int boardSlot = -1;
 
     /**
      * Pieceオブジェクトを生成する
@@ -57,6 +59,26 @@ public class Piece {
                 .toList();
     }
 
+    /**
+     * この駒が移動可能な方向のビットマスクを返す
+     * チームに応じて方向を調整済み
+     * 
+     * @return 移動可能な方向のビットマスク({@link Direction#mask()}の論理和)
+     */
+    public int getMovableMask() {
+        return type.getMovableMask(isPromoted, team);
+    }
+
+    /**
+     * この駒が連続移動可能な方向のビットマスクを返す
+     * チームに応じて方向を調整済み
+     * 
+     * @return 連続移動可能な方向のビットマスク(連続移動できない駒は0)
+     */
+    public int getSlideMask() {
+        return type.getSlideMask(isPromoted, team);
+    }
+
     /**
      * 指定方向に移動可能か判定する
      * 
@@ -64,7 +86,7 @@ public class Piece {
      * @return {@code true}:移動可能
      */
     public boolean canMoveToDirection(Direction direction) {
-        return getMovableDirections().contains(direction);
+        return (getMovableMask() & direction.mask()) != 0;
     }
 
     /**
@@ -73,7 +95,7 @@ public class Piece {
      * @return {@code true}:連続移動可能
      */
     public boolean canMoveMultipleSteps() {
-        return type.canMoveMultipleSteps(isPromoted);
+        return getSlideMask() != 0;
     }
 
     /**
@@ -84,9 +106,7 @@ public class Piece {
      * @return {@code true}:指定方向に連続移動可能
      */
     public boolean canMoveMultipleStepsInDirection(Direction direction) {
-        // チームに応じて方向を逆変換
-        Direction normalizedDir = direction.forTeam(team);
-        return type.canMoveMultipleStepsInDirection(normalizedDir, isPromoted);
+        return (getSlideMask() & direction.mask()) != 0;
     }
 
     /**
@@ -155,4 +175,23 @@ public class Piece {
     public boolean isPromotable() {
         return isPromotable;
     }
+
+    /**
+     * 盤面内で割り当てられたスロット番号を取得する
+     * 
+     * @return スロット番号(未登録は-1)
+     */
+    int getBoardSlot() {
+        return boardSlot;
+    }
+
+    /**
+     * 盤面内で割り当てられたスロット番号を設定する<br>
+     * {@link ArrayBoard}が駒を登録するときに呼ぶ
+     * 
+     * @param slot スロット番号
+     */
+    void setBoardSlot(int slot) {
+        this.boardSlot = slot;
+    }
 }
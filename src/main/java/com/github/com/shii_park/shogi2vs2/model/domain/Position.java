@@ -3,7 +3,8 @@ package com.github.com.shii_park.shogi2vs2.model.domain;
 import com.github.com.shii_park.shogi2vs2.model.enums.Direction;
 
 /**
- * Positionクラスは駒のマスを示す。不変であり、移動するたびに再生成される
+ * Positionクラスは駒のマスを示す。不変であり、移動するたびに再生成される<br>
+ * 盤面内のマスは{@link #of(int, int)}で共有のインスタンスを使い回せる
  * 
  * @param x 横方向の位置(左端が1)
  * @param y 縦方向の位置(下端が1)
@@ -11,6 +12,36 @@ import com.github.com.shii_park.shogi2vs2.model.enums.Direction;
  * @author Suiren91
  */
 public record Position(int x, int y) {
+    /** 盤面の最小座標 */
+    private static final int BOARD_MIN = 1;
+    /** 盤面の最大座標 */
+    private static final int BOARD_MAX = 9;
+    /** 盤面内のマスのキャッシュ(key:[x][y]) */
+    private static final Position[][] CACHE = new Position[BOARD_MAX + 1][BOARD_MAX + 1];
+
+    static {
+        for (int x = BOARD_MIN; x <= BOARD_MAX; x++) {
+            for (int y = BOARD_MIN; y <= BOARD_MAX; y++) {
+                CACHE[x][y] = new Position(x, y);
+            }
+        }
+    }
+
+    /**
+     * 座標からPositionを返す<br>
+     * 盤面内のマスは共有のインスタンスを返し、盤面外の座標は新しく生成する
+     * 
+     * @param x 横方向の位置
+     * @param y 縦方向の位置
+     * @return Position
+     */
+    public static Position of(int x, int y) {
+        if (x >= BOARD_MIN && x <= BOARD_MAX && y >= BOARD_MIN && y <= BOARD_MAX) {
+            return CACHE[x][y];
+        }
+        return new Position(x, y);
+    }
+
     /**
      * 指定された方向に移動した新しいPositionを返す
      * 
@@ -18,6 +49,6 @@ public record Position(int x, int y) {
      * @return 移動後の新しいPosition
      */
     public Position add(Direction dir) {
-        return new Position(this.x + dir.dx, this.y + dir.dy);
+        return of(this.x + dir.dx, this.y + dir.dy);
     }
 }
@@ -10,11 +10,11 @@ import com.github.com.shii_park.shogi2vs2.model.enums.Team;
  */
 public class TurnManager {
     /** 現在ターンのチーム */
-    private volatile Team currentTeam;
+    private Team currentTeam;
     /** 現在のターン番号 */
-    private volatile int turnNumber = 0;
+    private int turnNumber = 0;
     /** ターン開始時刻 */
-    private volatile Instant turnTimer;
+    private Instant turnTimer;
 
     /** タイムアウト時間(秒) */
     private static final int TIMEOUT = 30;
@@ -29,6 +29,18 @@ public class TurnManager {
         this.turnTimer = Instant.now();
     }
 
+    /**
+     * 途中のターンから再開するTurnManagerのコンストラクタ<br>
+     * 保存したゲームを復元するときに使う。ターン開始時刻は現在時刻とする
+     * 
+     * @param currentTeam 現在ターンのチーム
+     * @param turnNumber  現在のターン番号
+     */
+    public TurnManager(Team currentTeam, int turnNumber) {
+        this(currentTeam);
+        this.turnNumber = turnNumber;
+    }
+
     /**
      * ターンを開始する
      * turnTimerを現在時刻に初期化する
@@ -0,0 +1,80 @@
+package com.github.com.shii_park.shogi2vs2.model.domain;
+
+import java.util.SplittableRandom;
+
+import com.github.com.shii_park.shogi2vs2.model.enums.PieceType;
+import com.github.com.shii_park.shogi2vs2.model.enums.Team;
+
+/**
+ * Zobristクラスは局面ハッシュ(Zobristハッシュ)に使う乱数表を提供します<br>
+ * 盤上の駒は(マス, スタックの段, 駒の種類, 成り, チーム)、手駒は(チーム, 駒の種類, 枚数)ごとに乱数を持ち、
+ * 局面のハッシュはそれらのXORで表す<br>
+ * 乱数は固定シードで生成するため、ノードやプロセスが違っても同じ局面は同じハッシュになる
+ */
+public final class Zobrist {
+    /** 乱数表のシード(変更すると保存済みのハッシュと互換性がなくなる) */
+    private static final long SEED = 0x2F5B_0A31_D1C6_E8F7L;
+    /** 盤面のマス数 */
+    private static final int SQUARE_COUNT = 81;
+    /** 乱数を持つスタックの段数(これ以上の段は最上段の乱数を共有する) */
+    private static final int MAX_LEVEL = 16;
+    /** チームの数 */
+    private static final int TEAM_COUNT = Team.values().length;
+    /** 駒の種類の数 */
+    private static final int PIECE_TYPE_COUNT = PieceType.values().length;
+    /** 駒の状態(種類, 成り, チーム)の組み合わせ数 */
+    private static final int PIECE_CODE_COUNT = PIECE_TYPE_COUNT * 2 * TEAM_COUNT;
+    /** 乱数を持つ手駒の最大枚数(歩兵18枚) */
+    private static final int MAX_HAND_COUNT = 18;
+
+    /** 盤上の駒の乱数表(key:[マス][段][駒の状態]を平坦化したもの) */
+    private static final long[] PIECE_KEYS = new long[SQUARE_COUNT * MAX_LEVEL * PIECE_CODE_COUNT];
+    /** 手駒の乱数表(key:[チーム][駒の種類][枚数]を平坦化したもの、枚数0は常に0) */
+    private static final long[] HAND_KEYS = new long[TEAM_COUNT * PIECE_TYPE_COUNT * (MAX_HAND_COUNT + 1)];
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int i = 0; i < PIECE_KEYS.length; i++) {
+            PIECE_KEYS[i] = random.nextLong();
+        }
+        for (int i = 0; i < HAND_KEYS.length; i++) {
+            HAND_KEYS[i] = (i % (MAX_HAND_COUNT + 1) == 0) ? 0L : random.nextLong();
+        }
+    }
+
+    /**
+     * ユーティリティクラスなのでインスタンス化を防ぐ
+     */
+    private Zobrist() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * 盤上の駒の乱数を返す<br>
+     * 駒の現在の種類、成り、チームを使う
+     *
+     * @param square マス番号(0~80)
+     * @param level  スタックの段(一番下が0)
+     * @param piece  駒
+     * @return 乱数
+     */
+    public static long pieceKey(int square, int level, Piece piece) {
+        int code = (piece.getType().ordinal() * 2 + (piece.isPromoted() ? 1 : 0)) * TEAM_COUNT
+                + piece.getTeam().ordinal();
+        int lv = Math.min(level, MAX_LEVEL - 1);
+        return PIECE_KEYS[(square * MAX_LEVEL + lv) * PIECE_CODE_COUNT + code];
+    }
+
+    /**
+     * 手駒の枚数の乱数を返す
+     *
+     * @param team  手駒を持つチーム
+     * @param type  駒の種類
+     * @param count 枚数
+     * @return 乱数(枚数0のときは0)
+     */
+    public static long handKey(Team team, PieceType type, int count) {
+        int c = Math.min(count, MAX_HAND_COUNT);
+        return HAND_KEYS[(team.ordinal() * PIECE_TYPE_COUNT + type.ordinal()) * (MAX_HAND_COUNT + 1) + c];
+    }
+}
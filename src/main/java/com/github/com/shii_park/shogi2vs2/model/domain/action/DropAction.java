@@ -36,12 +36,4 @@ public record DropAction(
      */
     @Override
     public String getTeamId() { return teamId(); }
-    
-    /**
-     * アクションが実行された時刻を取得します。
-     * 
-     * @return 実行時刻
-     */
-    @Override
-    public Instant at() { return at(); }
 }
\ No newline at end of file
@@ -45,6 +45,16 @@ public enum Direction {
         this.dy = dy;
     }
 
+    /**
+     * この方向を表すビットを返す<br>
+     * 方向の集合をintのビットマスクで扱うときに使う
+     * 
+     * @return {@code 1 << ordinal()}
+     */
+    public int mask() {
+        return 1 << ordinal();
+    }
+
     /**
      * 反対方向を取得する
      * 
@@ -24,13 +24,112 @@ public enum PieceType {
     /** 王将 */
     KING;
 
+    /** 移動可能な方向のリスト(key:[PieceTypeのordinal][成り]) */
+    private static final List<List<List<Direction>>> MOVABLE_DIRECTIONS;
+    /** 移動可能な方向のビットマスク(key:[PieceTypeのordinal][成り][Teamのordinal]) */
+    private static final int[][][] MOVABLE_MASKS;
+    /** 連続移動可能な方向のビットマスク(key:[PieceTypeのordinal][成り][Teamのordinal]) */
+    private static final int[][][] SLIDE_MASKS;
+
+    // 駒ごとの動きを起動時に一度だけ計算し、移動判定ではビット演算だけで済ませる
+    static {
+        PieceType[] types = values();
+        Team[] teams = Team.values();
+        List<List<List<Direction>>> directions = new ArrayList<>(types.length);
+        MOVABLE_MASKS = new int[types.length][2][teams.length];
+        SLIDE_MASKS = new int[types.length][2][teams.length];
+
+        for (PieceType type : types) {
+            List<List<Direction>> byPromoted = new ArrayList<>(2);
+            for (int promoted = 0; promoted < 2; promoted++) {
+                boolean isPromoted = promoted == 1;
+                List<Direction> movable = type.buildMovableDirections(isPromoted);
+                byPromoted.add(movable);
+
+                for (Team team : teams) {
+                    int movableMask = 0;
+                    int slideMask = 0;
+                    for (Direction dir : movable) {
+                        Direction teamDir = dir.forTeam(team);
+                        movableMask |= teamDir.mask();
+                        if (type.buildCanMoveMultipleSteps(isPromoted)
+                                && type.buildCanMoveMultipleStepsInDirection(dir, isPromoted)) {
+                            slideMask |= teamDir.mask();
+                        }
+                    }
+                    MOVABLE_MASKS[type.ordinal()][promoted][team.ordinal()] = movableMask;
+                    SLIDE_MASKS[type.ordinal()][promoted][team.ordinal()] = slideMask;
+                }
+            }
+            directions.add(List.copyOf(byPromoted));
+        }
+        MOVABLE_DIRECTIONS = List.copyOf(directions);
+    }
+
     /**
      * この駒の移動可能な方向のリストを返す
      * 
      * @param isPromoted 成っているかどうか
-     * @return 移動可能な方向リスト
+     * @return 移動可能な方向リスト(変更不可)
      */
     public List<Direction> getMovableDirections(boolean isPromoted) {
+        return MOVABLE_DIRECTIONS.get(ordinal()).get(isPromoted ? 1 : 0);
+    }
+
+    /**
+     * 駒が連続移動可能かを判定する
+     * 
+     * @param isPromoted 成っているかどうか
+     * @return {@code true}:連続移動可能
+     */
+    public boolean canMoveMultipleSteps(boolean isPromoted) {
+        return SLIDE_MASKS[ordinal()][isPromoted ? 1 : 0][Team.FIRST.ordinal()] != 0;
+    }
+
+    /**
+     * 駒が指定した方向に連続移動可能か判定する
+     * 
+     * @param direction  方向
+     * @param isPromoted 成っているか
+     * @return {@code true}:連続移動可能
+     */
+    public boolean canMoveMultipleStepsInDirection(Direction direction, boolean isPromoted) {
+        return (SLIDE_MASKS[ordinal()][isPromoted ? 1 : 0][Team.FIRST.ordinal()] & direction.mask()) != 0;
+    }
+
+    /**
+     * チームから見た移動可能な方向のビットマスクを返す<br>
+     * ビットの位置は{@link Direction#mask()}と対応する
+     * 
+     * @param isPromoted 成っているかどうか
+     * @param team       駒を保有しているチーム
+     * @return 移動可能な方向のビットマスク
+     */
+    public int getMovableMask(boolean isPromoted, Team team) {
+        return MOVABLE_MASKS[ordinal()][isPromoted ? 1 : 0][team.ordinal()];
+    }
+
+    /**
+     * チームから見た連続移動可能な方向のビットマスクを返す<br>
+     * 連続移動できない駒は0を返す
+     * 
+     * @param isPromoted 成っているかどうか
+     * @param team       駒を保有しているチーム
+     * @return 連続移動可能な方向のビットマスク
+     */
+    public int getSlideMask(boolean isPromoted, Team team) {
+        return SLIDE_MASKS[ordinal()][isPromoted ? 1 : 0][team.ordinal()];
+    }
+
+    // 表の構築用ヘルパーメソッド(Private)
+
+    /**
+     * この駒の移動可能な方向のリストを組み立てる
+     * 
+     * @param isPromoted 成っているかどうか
+     * @return 移動可能な方向リスト
+     */
+    private List<Direction> buildMovableDirections(boolean isPromoted) {
         return switch (this) {
             case PAWN -> isPromoted ? getGoldMovement() : List.of(Direction.UP);
             case LANCE -> isPromoted ? getGoldMovement() : List.of(Direction.UP);
@@ -53,7 +152,7 @@ public enum PieceType {
      * @param isPromoted 成っているかどうか
      * @return {@code true}:連続移動可能
      */
-    public boolean canMoveMultipleSteps(boolean isPromoted) {
+    private boolean buildCanMoveMultipleSteps(boolean isPromoted) {
         return switch (this) {
             case LANCE -> !isPromoted;
             case BISHOP, ROOK -> true;
@@ -68,7 +167,7 @@ public enum PieceType {
      * @param isPromoted 成っているか
      * @return {@code true}:連続移動可能
      */
-    public boolean canMoveMultipleStepsInDirection(Direction direction, boolean isPromoted) {
+    private boolean buildCanMoveMultipleStepsInDirection(Direction direction, boolean isPromoted) {
         return switch (this) {
             case LANCE -> !isPromoted && direction == Direction.UP;
             case BISHOP -> getBishopMovement().contains(direction);
@@ -77,8 +176,6 @@ public enum PieceType {
         };
     }
 
-    // ヘルパーメソッド(Private)
-
     /**
      * 金将
      * 
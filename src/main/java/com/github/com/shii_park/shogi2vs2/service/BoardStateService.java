@@ -0,0 +1,168 @@
+package com.github.com.shii_park.shogi2vs2.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.github.com.shii_park.shogi2vs2.dto.response.BoardDelta;
+import com.github.com.shii_park.shogi2vs2.dto.response.BoardSnapshot;
+import com.github.com.shii_park.shogi2vs2.dto.response.PieceState;
+import com.github.com.shii_park.shogi2vs2.dto.response.SquareState;
+import com.github.com.shii_park.shogi2vs2.model.domain.Board;
+import com.github.com.shii_park.shogi2vs2.model.domain.Piece;
+import com.github.com.shii_park.shogi2vs2.model.domain.Position;
+import com.github.com.shii_park.shogi2vs2.model.enums.Team;
+
+/**
+ * 盤面状態サービス
+ * 盤面のスナップショットの作成、ターン前後のスナップショットの差分の計算、チームの視点への変換を行います。
+ * スナップショットと差分はFIRSTチームの視点(盤面そのままの座標)で作成し、送信時にチームごとに変換します。
+ */
+@Service
+public class BoardStateService {
+
+    /** 盤面の一辺のマス数 */
+    private static final int BOARD_SIZE = 9;
+
+    /**
+     * 座標変換サービス
+     */
+    @Autowired
+    private BoardCoordinateService coordinateService;
+
+    /**
+     * 盤面のスナップショットを作成します。
+     * マスは(y, x)の昇順に並べます。
+     *
+     * @param board 盤面
+     * @param sequence 状態の通し番号
+     * @return スナップショット(FIRSTチームの視点)
+     */
+    public BoardSnapshot capture(Board board, long sequence) {
+        List<SquareState> squares = new ArrayList<>();
+        for (int y = 1; y <= BOARD_SIZE; y++) {
+            for (int x = 1; x <= BOARD_SIZE; x++) {
+                Position pos = Position.of(x, y);
+                List<Piece> stack = board.getAllPiecesAt(pos);
+                if (!stack.isEmpty()) {
+                    squares.add(new SquareState(pos, toStates(stack)));
+                }
+            }
+        }
+
+        Map<String, List<PieceState>> hands = new LinkedHashMap<>();
+        for (Team team : Team.values()) {
+            List<Piece> hand = board.getCapturedPieces().getCapturedPieces(team);
+            hands.put(team.name(), toStates(hand != null ? hand : List.of()));
+        }
+        return new BoardSnapshot(sequence, squares, hands);
+    }
+
+    /**
+     * 2つのスナップショットの差分を計算します。
+     *
+     * @param before 変化前のスナップショット
+     * @param after 変化後のスナップショット
+     * @return afterの通し番号を持つ差分
+     */
+    public BoardDelta diff(BoardSnapshot before, BoardSnapshot after) {
+        List<PieceState>[] beforeSquares = index(before);
+        List<PieceState>[] afterSquares = index(after);
+
+        // 変化したマス(駒がなくなったマスは空のリスト)
+        List<SquareState> changed = new ArrayList<>();
+        for (int i = 0; i < beforeSquares.length; i++) {
+            if (!Objects.equals(beforeSquares[i], afterSquares[i])) {
+                Position pos = Position.of(i % BOARD_SIZE + 1, i / BOARD_SIZE + 1);
+                changed.add(new SquareState(pos, afterSquares[i] != null ? afterSquares[i] : List.of()));
+            }
+        }
+
+        // 変化したチームの手駒
+        Map<String, List<PieceState>> hands = new LinkedHashMap<>();
+        for (Map.Entry<String, List<PieceState>> e : after.hands().entrySet()) {
+            if (!Objects.equals(before.hands().get(e.getKey()), e.getValue())) {
+                hands.put(e.getKey(), e.getValue());
+            }
+        }
+        return new BoardDelta(after.sequence(), changed, hands);
+    }
+
+    /**
+     * スナップショットをチームの視点に変換します。
+     * SECONDチームはマスの座標を反転させます(FIRSTはそのまま)。
+     *
+     * @param snapshot FIRSTチーム視点のスナップショット
+     * @param team 受け取るチーム
+     * @return チームの視点のスナップショット
+     */
+    public BoardSnapshot forTeam(BoardSnapshot snapshot, Team team) {
+        if (team == Team.FIRST) return snapshot;
+        return new BoardSnapshot(snapshot.sequence(), normalizeSquares(snapshot.squares(), team), snapshot.hands());
+    }
+
+    /**
+     * 差分をチームの視点に変換します。
+     * SECONDチームはマスの座標を反転させます(FIRSTはそのまま)。
+     *
+     * @param delta FIRSTチーム視点の差分
+     * @param team 受け取るチーム
+     * @return チームの視点の差分
+     */
+    public BoardDelta forTeam(BoardDelta delta, Team team) {
+        if (team == Team.FIRST) return delta;
+        return new BoardDelta(delta.sequence(), normalizeSquares(delta.squares(), team), delta.hands());
+    }
+
+    /**
+     * 内部ヘルパー:
+     * 駒のリストを状態DTOのリストに変換する
+     *
+     * @param pieces 駒のリスト
+     * @return 状態DTOのリスト
+     */
+    private List<PieceState> toStates(List<Piece> pieces) {
+        List<PieceState> states = new ArrayList<>(pieces.size());
+        for (Piece p : pieces) {
+            states.add(new PieceState(p.getId(), p.getType().name(), p.getTeam().name(), p.isPromoted()));
+        }
+        return states;
+    }
+
+    /**
+     * 内部ヘルパー:
+     * スナップショットのマスをマス番号((y-1)*9+(x-1))で引ける配列にする
+     *
+     * @param snapshot スナップショット
+     * @return マス番号ごとの駒の状態(空のマスは{@code null})
+     */
+    @SuppressWarnings("unchecked")
+    private List<PieceState>[] index(BoardSnapshot snapshot) {
+        List<PieceState>[] squares = new List[BOARD_SIZE * BOARD_SIZE];
+        for (SquareState s : snapshot.squares()) {
+            squares[(s.position().y() - 1) * BOARD_SIZE + (s.position().x() - 1)] = s.pieces();
+        }
+        return squares;
+    }
+
+    /**
+     * 内部ヘルパー:
+     * マスの座標をチームの視点に変換する
+     *
+     * @param squares マスの状態のリスト
+     * @param team 受け取るチーム
+     * @return 変換したリスト
+     */
+    private List<SquareState> normalizeSquares(List<SquareState> squares, Team team) {
+        List<SquareState> result = new ArrayList<>(squares.size());
+        for (SquareState s : squares) {
+            result.add(new SquareState(coordinateService.normalize(s.position(), team.name()), s.pieces()));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,618 @@
+package com.github.com.shii_park.shogi2vs2.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import com.github.com.shii_park.shogi2vs2.model.domain.Position;
+import com.github.com.shii_park.shogi2vs2.model.domain.action.DropAction;
+import com.github.com.shii_park.shogi2vs2.model.domain.action.GameAction;
+import com.github.com.shii_park.shogi2vs2.model.domain.action.MoveAction;
+import com.github.com.shii_park.shogi2vs2.model.enums.Direction;
+import com.github.com.shii_park.shogi2vs2.model.enums.PieceType;
+import com.github.com.shii_park.shogi2vs2.model.enums.Team;
+
+/**
+ * 終了したゲームを記録する追記専用のアーカイブファイル
+ * ゲームの記録をデータファイル(セグメント)に追記し、ゲームごとの固定長のエントリを索引ファイルに追記する<br>
+ * 書き込みはFileChannelで行い、読み込みはメモリマップしたファイルから必要な記録だけを読む。
+ * ゲームIDでの検索と終了時刻の範囲での列挙は索引だけをたどり、該当しない記録は読み込まない
+ * <pre>
+ * 索引 games.idx
+ *   ヘッダー magic:u32("SGA1") | version:u16 | entrySize:u16 | count:i64
+ *   エントリ idHash:i64 | startedAt:i64 | finishedAt:i64 | offset:i64 | length:i32 | crc32:i32
+ *           | segment:i32 | reserved:i32
+ * データ games-NNNNN.dat (セグメントごとに上限の大きさで確保する)
+ *   記録 version:u8 | gameIdLen:u8 | gameId | reasonLen:u8 | reason | winner:u8(0xFF=なし)
+ *       | startedAt:i64 | finishedAt:i64 | playerCount:u8 | playerCount × (idLen:u8 | id)
+ *       | actionCount:i32 | actionCount × アクション
+ *   アクション(8バイト固定) sequence:i32 | flags:u8(bit0=配置, bit1-2=プレイヤー番号, bit3=成り) | pieceType:u8
+ *       | 移動: pieceId:u8 | direction:u4 steps:u4 / 配置: x:u8 | y:u8
+ * </pre>
+ * 文字列はUTF-8、整数はビッグエンディアン、駒の種類・方向・チームは{@link PieceType}・{@link Direction}・{@link Team}の序数で表す。
+ * 索引のエントリ数はデータとエントリを書き込んだ後に更新するため、書き込み中に落ちても開き直せば最後の完全な記録までが残る<br>
+ * 書き込みは1つのスレッドから行うこと(読み込みは複数のスレッドから同時に行える)
+ */
+public final class GameArchive implements Closeable {
+
+    /** 索引ファイルの識別子("SGA1") */
+    private static final int MAGIC = 0x53474131;
+    /** 形式のバージョン */
+    private static final int VERSION = 1;
+    /** 索引のヘッダーの大きさ */
+    private static final int HEADER_SIZE = 16;
+    /** 索引のエントリ数の位置 */
+    private static final int COUNT_OFFSET = 8;
+    /** 索引のエントリの大きさ */
+    static final int ENTRY_SIZE = 48;
+    /** アクションの大きさ */
+    static final int ACTION_SIZE = 8;
+    /** 索引を広げるときに追加するエントリ数 */
+    private static final int INDEX_GROWTH = 4096;
+    /** 勝者なし */
+    private static final int NO_WINNER = 0xFF;
+    /** フラグ: 配置 */
+    private static final int FLAG_DROP = 0x01;
+    /** フラグ: 成り */
+    private static final int FLAG_PROMOTE = 0x08;
+    /** 索引ファイル名 */
+    private static final String INDEX_FILE = "games.idx";
+
+    /** 駒の種類の一覧 */
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+    /** 方向の一覧 */
+    private static final Direction[] DIRECTIONS = Direction.values();
+    /** チームの一覧 */
+    private static final Team[] TEAMS = Team.values();
+
+    /** アーカイブのディレクトリ */
+    private final Path directory;
+    /** 1つのセグメントの大きさ(バイト) */
+    private final int segmentBytes;
+    /** 索引ファイル */
+    private final FileChannel indexChannel;
+    /** メモリマップした索引 */
+    private volatile MappedByteBuffer indexMap;
+    /** データのセグメント(番号順) */
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+    /**
+     * ゲームIDのハッシュからエントリ番号を引くマップ
+     * key: ゲームIDのハッシュ, value: 最後に追記したエントリの番号
+     */
+    private final Map<Long, Integer> entriesByHash = new ConcurrentHashMap<>();
+    /** 読み込める記録の数 */
+    private volatile int count;
+    /** 最後のセグメントの次の書き込み位置 */
+    private int writePosition;
+
+    /**
+     * アーカイブを開く(なければ作成する)
+     * 書き込み途中で終わった末尾の記録は捨てる
+     *
+     * @param directory    アーカイブのディレクトリ
+     * @param segmentBytes 1つのセグメントの大きさ(バイト)
+     * @throws IOException ファイルを開けない場合、またはアーカイブの形式でない場合
+     */
+    public GameArchive(Path directory, int segmentBytes) throws IOException {
+        if (segmentBytes <= 0) {
+            throw new IllegalArgumentException("segmentBytes must be positive: " + segmentBytes);
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(directory);
+
+        indexChannel = FileChannel.open(directory.resolve(INDEX_FILE), StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+        if (indexChannel.size() == 0) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putShort((short) VERSION).putShort((short) ENTRY_SIZE).putLong(0);
+            writeFully(indexChannel, header.flip(), 0);
+            growIndex(INDEX_GROWTH);
+        }
+        indexMap = indexChannel.map(FileChannel.MapMode.READ_ONLY, 0, indexChannel.size());
+        if (indexMap.getInt(0) != MAGIC || indexMap.getShort(4) != VERSION || indexMap.getShort(6) != ENTRY_SIZE) {
+            indexChannel.close();
+            throw new IOException("Not a game archive: " + directory);
+        }
+
+        for (int i = 0; Files.exists(segmentPath(i)); i++) {
+            segments.add(openSegment(i));
+        }
+        if (segments.isEmpty()) {
+            segments.add(openSegment(0));
+        }
+        recover();
+    }
+
+    /**
+     * 終了したゲームを追記する
+     * 同じゲームIDを追記した場合は、検索では最後に追記したものを返す
+     *
+     * @param game ゲームの記録
+     * @throws IOException 書き込めない場合
+     */
+    public synchronized void append(ArchivedGame game) throws IOException {
+        ByteBuffer record = encode(game);
+        int length = record.remaining();
+        if (length > segmentBytes) {
+            throw new IllegalArgumentException("Game record larger than a segment: " + length);
+        }
+        if (writePosition + length > segments.get(segments.size() - 1).map().capacity()) {
+            segments.add(openSegment(segments.size()));
+            writePosition = 0;
+        }
+        int segment = segments.size() - 1;
+        CRC32 crc = new CRC32();
+        crc.update(record.duplicate());
+        writeFully(segments.get(segment).channel(), record, writePosition);
+
+        int entry = count;
+        long entryPosition = entryPosition(entry);
+        if (entryPosition + ENTRY_SIZE > indexChannel.size()) {
+            growIndex(entry + INDEX_GROWTH);
+            indexMap = indexChannel.map(FileChannel.MapMode.READ_ONLY, 0, indexChannel.size());
+        }
+        long hash = hash(game.gameId());
+        ByteBuffer buf = ByteBuffer.allocate(ENTRY_SIZE);
+        buf.putLong(hash).putLong(game.startedAt()).putLong(game.finishedAt()).putLong(writePosition)
+                .putInt(length).putInt((int) crc.getValue()).putInt(segment).putInt(0);
+        writeFully(indexChannel, buf.flip(), entryPosition);
+        // エントリ数の更新で記録を確定する
+        writeFully(indexChannel, ByteBuffer.allocate(Long.BYTES).putLong(0, entry + 1), COUNT_OFFSET);
+
+        writePosition += length;
+        entriesByHash.put(hash, entry);
+        count = entry + 1;
+    }
+
+    /**
+     * 書き込んだ内容をディスクに反映する
+     *
+     * @throws IOException 反映できない場合
+     */
+    public synchronized void force() throws IOException {
+        segments.get(segments.size() - 1).channel().force(false);
+        indexChannel.force(false);
+    }
+
+    /**
+     * 記録の数を返す
+     *
+     * @return 記録の数
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * ゲームIDでゲームの記録を検索する
+     *
+     * @param gameId ゲームID
+     * @return ゲームの記録。見つからない場合は{@code null}
+     */
+    public ArchivedGame find(String gameId) {
+        long hash = hash(gameId);
+        Integer entry = entriesByHash.get(hash);
+        if (entry == null) return null;
+        if (gameId.equals(readGameId(entry))) {
+            return read(entry);
+        }
+        // ハッシュが衝突した場合だけ、索引を後ろからたどる
+        // 追記は索引をマップし直してからエントリ数を更新するため、エントリ数を先に読めばその範囲はマップに含まれる
+        int entries = count;
+        MappedByteBuffer index = indexMap;
+        for (int i = entries - 1; i >= 0; i--) {
+            if (index.getLong((int) entryPosition(i)) == hash && gameId.equals(readGameId(i))) {
+                return read(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 終了時刻が範囲内のゲームの記録を追記した順に列挙する
+     * 索引だけで絞り込み、範囲外の記録は読み込まない。記録は列挙しながら読み込む
+     *
+     * @param from 終了時刻の下限(エポックミリ秒、含む)
+     * @param to   終了時刻の上限(エポックミリ秒、含まない)
+     * @return ゲームの記録のストリーム
+     */
+    public Stream<ArchivedGame> findFinishedBetween(long from, long to) {
+        // エントリ数を先に読む(find と同じ理由)
+        int entries = count;
+        MappedByteBuffer index = indexMap;
+        return IntStream.range(0, entries)
+                .filter(i -> {
+                    long finishedAt = index.getLong((int) entryPosition(i) + 16);
+                    return finishedAt >= from && finishedAt < to;
+                })
+                .mapToObj(this::read)
+                .filter(Objects::nonNull);
+    }
+
+    /**
+     * ファイルを閉じる
+     *
+     * @throws IOException 閉じられない場合
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        for (Segment segment : segments) {
+            segment.channel().close();
+        }
+        indexChannel.close();
+    }
+
+    /**
+     * ゲームの記録をバイト列にする
+     *
+     * @param game ゲームの記録
+     * @return 読み込み位置が先頭のバッファ
+     */
+    static ByteBuffer encode(ArchivedGame game) {
+        byte[] gameId = utf8(game.gameId());
+        byte[] reason = utf8(game.reason() != null ? game.reason() : "");
+        List<byte[]> players = new ArrayList<>(game.userIds().size());
+        int size = 1 + 1 + gameId.length + 1 + reason.length + 1 + 8 + 8 + 1 + 4 + game.actions().size() * ACTION_SIZE;
+        for (String userId : game.userIds()) {
+            byte[] id = utf8(userId);
+            players.add(id);
+            size += 1 + id.length;
+        }
+
+        ByteBuffer out = ByteBuffer.allocate(size);
+        out.put((byte) VERSION);
+        out.put((byte) gameId.length).put(gameId);
+        out.put((byte) reason.length).put(reason);
+        out.put((byte) (game.winner() != null ? Team.valueOf(game.winner()).ordinal() : NO_WINNER));
+        out.putLong(game.startedAt()).putLong(game.finishedAt());
+        out.put((byte) players.size());
+        for (byte[] id : players) {
+            out.put((byte) id.length).put(id);
+        }
+        out.putInt(game.actions().size());
+        for (ArchivedAction a : game.actions()) {
+            writeAction(out, a, game.userIds());
+        }
+        return out.flip();
+    }
+
+    /**
+     * バイト列からゲームの記録を読み込む
+     *
+     * @param in 記録1件分のバッファ
+     * @return ゲームの記録。形式が不正な場合は{@code null}
+     */
+    static ArchivedGame decode(ByteBuffer in) {
+        try {
+            if (in.get() != VERSION) return null;
+            String gameId = readString(in);
+            String reason = readString(in);
+            int winner = Byte.toUnsignedInt(in.get());
+            long startedAt = in.getLong();
+            long finishedAt = in.getLong();
+            int playerCount = Byte.toUnsignedInt(in.get());
+            List<String> userIds = new ArrayList<>(playerCount);
+            for (int i = 0; i < playerCount; i++) {
+                userIds.add(readString(in));
+            }
+            int actionCount = in.getInt();
+            List<ArchivedAction> actions = new ArrayList<>(actionCount);
+            for (int i = 0; i < actionCount; i++) {
+                actions.add(readAction(in, userIds));
+            }
+            return new ArchivedGame(gameId, userIds, winner != NO_WINNER ? TEAMS[winner].name() : null, reason,
+                    startedAt, finishedAt, actions);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * ゲームIDのハッシュ(64ビットのFNV-1a)を計算する
+     * JVMによらず同じ値になるため、索引に保存できる
+     *
+     * @param gameId ゲームID
+     * @return ハッシュ
+     */
+    static long hash(String gameId) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : utf8(gameId)) {
+            h ^= (b & 0xFF);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    /**
+     * 内部ヘルパー:
+     * アクションを8バイトで書き出す
+     * 移動は同じ方向への連続移動として方向と歩数で表す(方向が混ざった移動はルール上無効なので記録しない前提)
+     *
+     * @param out     書き出し先
+     * @param action  アクション
+     * @param userIds ユーザーIDのリスト(プレイヤー番号の基準)
+     */
+    private static void writeAction(ByteBuffer out, ArchivedAction action, List<String> userIds) {
+        GameAction a = action.action();
+        int player = userIds.indexOf(a.getUserId());
+        out.putInt((int) action.sequence());
+        if (a instanceof DropAction d) {
+            out.put((byte) (FLAG_DROP | (player << 1)));
+            out.put((byte) PieceType.valueOf(d.pieceType()).ordinal());
+            out.put((byte) d.position().x());
+            out.put((byte) d.position().y());
+        } else {
+            MoveAction m = (MoveAction) a;
+            out.put((byte) ((player << 1) | (m.promote() ? FLAG_PROMOTE : 0)));
+            out.put((byte) PieceType.valueOf(m.pieceType()).ordinal());
+            out.put((byte) m.pieceId());
+            out.put((byte) ((m.directions().get(0).ordinal() << 4) | m.directions().size()));
+        }
+    }
+
+    /**
+     * 内部ヘルパー:
+     * 8バイトのアクションを読み込む
+     *
+     * @param in      読み込み元
+     * @param userIds ユーザーIDのリスト(0,1番目がFIRST、2,3番目がSECOND)
+     * @return アクション(時刻は記録しないため{@code null})
+     */
+    private static ArchivedAction readAction(ByteBuffer in, List<String> userIds) {
+        long sequence = in.getInt();
+        int flags = Byte.toUnsignedInt(in.get());
+        String pieceType = PIECE_TYPES[in.get()].name();
+        int a = Byte.toUnsignedInt(in.get());
+        int b = Byte.toUnsignedInt(in.get());
+        int player = (flags >> 1) & 0x03;
+        String userId = userIds.get(player);
+        String teamId = (player < 2 ? Team.FIRST : Team.SECOND).name();
+        if ((flags & FLAG_DROP) != 0) {
+            return new ArchivedAction(sequence, new DropAction(userId, teamId, pieceType, Position.of(a, b), null));
+        }
+        Direction direction = DIRECTIONS[b >> 4];
+        List<Direction> directions = new ArrayList<>(b & 0x0F);
+        for (int i = 0; i < (b & 0x0F); i++) {
+            directions.add(direction);
+        }
+        return new ArchivedAction(sequence, new MoveAction(userId, teamId, a, pieceType, directions,
+                (flags & FLAG_PROMOTE) != 0, null));
+    }
+
+    /**
+     * 内部ヘルパー:
+     * エントリの記録を読み込む
+     *
+     * @param entry エントリ番号
+     * @return ゲームの記録。形式が不正な場合は{@code null}
+     */
+    private ArchivedGame read(int entry) {
+        return decode(slice(entry));
+    }
+
+    /**
+     * 内部ヘルパー:
+     * エントリの記録のゲームIDだけを読み込む
+     *
+     * @param entry エントリ番号
+     * @return ゲームID
+     */
+    private String readGameId(int entry) {
+        ByteBuffer in = slice(entry);
+        in.get();
+        return readString(in);
+    }
+
+    /**
+     * 内部ヘルパー:
+     * エントリの記録の範囲をメモリマップしたセグメントから切り出す
+     *
+     * @param entry エントリ番号
+     * @return 記録1件分のバッファ
+     */
+    private ByteBuffer slice(int entry) {
+        MappedByteBuffer index = indexMap;
+        int position = (int) entryPosition(entry);
+        int offset = (int) index.getLong(position + 24);
+        int length = index.getInt(position + 32);
+        int segment = index.getInt(position + 40);
+        return segments.get(segment).map().slice(offset, length);
+    }
+
+    /**
+     * 内部ヘルパー:
+     * 索引のエントリを検証し、読み込める記録の数と次の書き込み位置を決める
+     * データの範囲外を指すエントリと、CRCが一致しない末尾の記録は捨てる
+     *
+     * @throws IOException 索引を更新できない場合
+     */
+    private void recover() throws IOException {
+        long stored = indexMap.getLong(COUNT_OFFSET);
+        int valid = (int) Math.min(stored, (indexMap.capacity() - HEADER_SIZE) / ENTRY_SIZE);
+        for (int i = 0; i < valid; i++) {
+            int position = (int) entryPosition(i);
+            long offset = indexMap.getLong(position + 24);
+            int length = indexMap.getInt(position + 32);
+            int segment = indexMap.getInt(position + 40);
+            if (segment < 0 || segment >= segments.size() || offset < 0 || length <= 0
+                    || offset + length > segments.get(segment).map().capacity()) {
+                valid = i;
+                break;
+            }
+        }
+        while (valid > 0 && !checksumMatches(valid - 1)) {
+            valid--;
+        }
+        if (valid != stored) {
+            System.out.println("Game archive truncated to " + valid + " records: " + directory);
+            writeFully(indexChannel, ByteBuffer.allocate(Long.BYTES).putLong(0, valid), COUNT_OFFSET);
+        }
+
+        int lastSegment = segments.size() - 1;
+        for (int i = 0; i < valid; i++) {
+            int position = (int) entryPosition(i);
+            entriesByHash.put(indexMap.getLong(position), i);
+            if (indexMap.getInt(position + 40) == lastSegment) {
+                writePosition = (int) (indexMap.getLong(position + 24) + indexMap.getInt(position + 32));
+            }
+        }
+        count = valid;
+    }
+
+    /**
+     * 内部ヘルパー:
+     * エントリの記録のCRCが索引と一致するか判定する
+     *
+     * @param entry エントリ番号
+     * @return {@code true}:一致する
+     */
+    private boolean checksumMatches(int entry) {
+        CRC32 crc = new CRC32();
+        crc.update(slice(entry));
+        return (int) crc.getValue() == indexMap.getInt((int) entryPosition(entry) + 36);
+    }
+
+    /**
+     * 内部ヘルパー:
+     * セグメントを開き(なければ確保して作成し)、メモリマップする
+     *
+     * @param number セグメント番号
+     * @return セグメント
+     * @throws IOException 開けない場合
+     */
+    private Segment openSegment(int number) throws IOException {
+        FileChannel channel = FileChannel.open(segmentPath(number), StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+        if (channel.size() < segmentBytes) {
+            writeFully(channel, ByteBuffer.allocate(1), segmentBytes - 1);
+        }
+        long size = Math.min(channel.size(), Integer.MAX_VALUE);
+        return new Segment(channel, channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+    }
+
+    /**
+     * 内部ヘルパー:
+     * 索引ファイルを指定したエントリ数が入る大きさに広げる
+     *
+     * @param entries エントリ数
+     * @throws IOException 広げられない場合
+     */
+    private void growIndex(int entries) throws IOException {
+        writeFully(indexChannel, ByteBuffer.allocate(1), entryPosition(entries) - 1);
+    }
+
+    /**
+     * 内部ヘルパー:
+     * セグメントのファイルのパスを返す
+     *
+     * @param number セグメント番号
+     * @return パス
+     */
+    private Path segmentPath(int number) {
+        return directory.resolve(String.format("games-%05d.dat", number));
+    }
+
+    /**
+     * 内部ヘルパー:
+     * エントリの索引ファイル上の位置を返す
+     *
+     * @param entry エントリ番号
+     * @return 位置
+     */
+    private static long entryPosition(int entry) {
+        return HEADER_SIZE + (long) entry * ENTRY_SIZE;
+    }
+
+    /**
+     * 内部ヘルパー:
+     * バッファの残りをすべて指定した位置に書き込む
+     *
+     * @param channel  書き込み先
+     * @param buf      書き込むバッファ
+     * @param position ファイル上の位置
+     * @throws IOException 書き込めない場合
+     */
+    private static void writeFully(FileChannel channel, ByteBuffer buf, long position) throws IOException {
+        long p = position;
+        while (buf.hasRemaining()) {
+            p += channel.write(buf, p);
+        }
+    }
+
+    /**
+     * 内部ヘルパー:
+     * 長さ(u8)とUTF-8の文字列を読み込む
+     *
+     * @param in 読み込み元
+     * @return 文字列
+     */
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[Byte.toUnsignedInt(in.get())];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 内部ヘルパー:
+     * 文字列をUTF-8にする(長さはu8に収まること)
+     *
+     * @param value 文字列
+     * @return バイト列
+     */
+    private static byte[] utf8(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFF) {
+            throw new IllegalArgumentException("String too long for the archive: " + bytes.length);
+        }
+        return bytes;
+    }
+
+    /**
+     * 終了したゲームの記録
+     *
+     * @param gameId     ゲームID
+     * @param userIds    ユーザーIDのリスト(予約順、0,1番目がFIRST、2,3番目がSECOND)
+     * @param winner     勝ったチーム(決着していない場合は{@code null})
+     * @param reason     終了理由
+     * @param startedAt  開始時刻(エポックミリ秒)
+     * @param finishedAt 終了時刻(エポックミリ秒)
+     * @param actions    受け付けたアクションのリスト(適用した順)
+     */
+    public record ArchivedGame(String gameId, List<String> userIds, String winner, String reason, long startedAt,
+            long finishedAt, List<ArchivedAction> actions) {
+    }
+
+    /**
+     * 記録したアクション
+     *
+     * @param sequence アクションを適用したターンの後の盤面の通し番号
+     * @param action   アクション(時刻は記録しないため{@code null})
+     */
+    public record ArchivedAction(long sequence, GameAction action) {
+    }
+
+    /**
+     * データのセグメント
+     *
+     * @param channel 書き込み用のファイル
+     * @param map     読み込み用にメモリマップした領域
+     */
+    private record Segment(FileChannel channel, MappedByteBuffer map) {
+    }
+}
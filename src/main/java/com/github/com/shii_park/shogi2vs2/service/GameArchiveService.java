@@ -0,0 +1,181 @@
+package com.github.com.shii_park.shogi2vs2.service;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.github.com.shii_park.shogi2vs2.dto.response.GameResult;
+import com.github.com.shii_park.shogi2vs2.model.domain.action.GameAction;
+import com.github.com.shii_park.shogi2vs2.model.domain.action.MoveAction;
+import com.github.com.shii_park.shogi2vs2.model.enums.Direction;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * ゲームのアーカイブ管理サービス
+ * 終了したゲームの結果とイベントログ({@link GameEventLog})のアクションを、ノードのローカルディスクの{@link GameArchive}に追記します。
+ * 追記はイベントログの書き込みが終わってから専用のスレッドで行い、ゲームのレーンは待たせません。
+ * アーカイブを開けない場合は記録せずに動作を続けます。
+ */
+@Service
+public class GameArchiveService {
+
+    /**
+     * ゲームのイベントログ管理サービス
+     */
+    @Autowired
+    private GameEventLog eventLog;
+
+    /** アーカイブのディレクトリ */
+    @Value("${app.archive.dir:data/archive}")
+    private String archiveDir;
+
+    /** 1つのセグメントの大きさ(MB) */
+    @Value("${app.archive.segment-mb:256}")
+    private int segmentMb;
+
+    /** アーカイブ(開けなかった場合はnull) */
+    private GameArchive archive;
+
+    /** アーカイブへの書き込みを行うスレッド */
+    private ExecutorService writer;
+
+    /**
+     * アーカイブを開き、書き込み用のスレッドを開始する
+     */
+    @PostConstruct
+    public void init() {
+        try {
+            archive = new GameArchive(Path.of(archiveDir), segmentMb * 1024 * 1024);
+        } catch (Exception e) {
+            System.out.println("Failed to open game archive: " + archiveDir);
+            e.printStackTrace();
+        }
+        writer = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "game-archive");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * サービス終了時のクリーンアップ処理
+     * 書き込み待ちのゲームを書き込んでからアーカイブを閉じる
+     */
+    @PreDestroy
+    public void cleanup() {
+        if (writer != null) {
+            writer.shutdown();
+            try {
+                writer.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (archive != null) {
+            try {
+                archive.close();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * 終了したゲームをアーカイブに追記します。
+     * イベントログへの書き込み待ちがなくなってから、ログを読み込んで追記します。
+     *
+     * @param result ゲームの結果
+     */
+    public void archive(GameResult result) {
+        if (archive == null) return;
+        eventLog.whenWritten().thenRunAsync(() -> write(result), writer);
+    }
+
+    /**
+     * ゲームIDでアーカイブを検索します。
+     *
+     * @param gameId ゲームID
+     * @return ゲームの記録。見つからない場合は{@code null}
+     */
+    public GameArchive.ArchivedGame find(String gameId) {
+        return (archive != null) ? archive.find(gameId) : null;
+    }
+
+    /**
+     * 終了時刻が範囲内のゲームをアーカイブから列挙します。
+     *
+     * @param from 終了時刻の下限(エポックミリ秒、含む)
+     * @param to 終了時刻の上限(エポックミリ秒、含まない)
+     * @return ゲームの記録のストリーム(追記した順)
+     */
+    public Stream<GameArchive.ArchivedGame> findFinishedBetween(long from, long to) {
+        return (archive != null) ? archive.findFinishedBetween(from, to) : Stream.empty();
+    }
+
+    /**
+     * イベントログのアクションからアーカイブに記録するアクションを取り出します。
+     * 参加者以外のアクションと、方向が空・混在・16歩以上の移動(ルール上無効で盤面に影響しない)は除きます。
+     *
+     * @param userIds ユーザーIDのリスト(予約順)
+     * @param events イベントのリスト
+     * @return 記録するアクションのリスト(適用した順)
+     */
+    static List<GameArchive.ArchivedAction> toArchivedActions(List<String> userIds,
+            List<GameEventCodec.GameEvent> events) {
+        List<GameArchive.ArchivedAction> actions = new ArrayList<>();
+        for (GameEventCodec.GameEvent event : events) {
+            if (!(event instanceof GameEventCodec.Turn turn)) continue;
+            for (GameAction action : turn.actions()) {
+                int player = userIds.indexOf(action.getUserId());
+                if (player < 0 || player > 3) continue;
+                if (action instanceof MoveAction m && !isUniform(m.directions())) continue;
+                actions.add(new GameArchive.ArchivedAction(turn.sequence(), action));
+            }
+        }
+        return actions;
+    }
+
+    /**
+     * 内部ヘルパー:
+     * ゲームの記録を作成してアーカイブに追記する
+     *
+     * @param result ゲームの結果
+     */
+    private void write(GameResult result) {
+        try {
+            List<GameArchive.ArchivedAction> actions = toArchivedActions(result.players(),
+                    eventLog.read(result.gameId()));
+            archive.append(new GameArchive.ArchivedGame(result.gameId(), result.players(), result.winner(),
+                    result.reason(), result.startedAt(), result.finishedAt(), actions));
+            archive.force();
+        } catch (Exception e) {
+            System.out.println("Failed to archive game: " + result.gameId());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * 内部ヘルパー:
+     * 移動の方向が1～15個の同じ方向か判定する
+     *
+     * @param directions 方向のリスト
+     * @return {@code true}:方向と歩数で表せる
+     */
+    private static boolean isUniform(List<Direction> directions) {
+        if (directions == null || directions.isEmpty() || directions.size() > 15) return false;
+        for (Direction d : directions) {
+            if (d != directions.get(0)) return false;
+        }
+        return true;
+    }
+}
@@ -1,12 +1,19 @@
 package com.github.com.shii_park.shogi2vs2.service;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 
 /**
  * ゲームコンテキスト管理サービス
  * Redisを使用してゲーム内のユーザーとチームの関連付けを管理します。
+ * チームの割り当てはゲーム中に変わらないため、プロセス内にキャッシュし、Redisはキャッシュにない場合だけ参照します。
+ * Redisのキーには有効期限を付け、ゲームが片付けられずに残った場合も自然に消えるようにします。
  */
 @Service
 public class GameContextService {
@@ -15,6 +22,16 @@ public class GameContextService {
      */
     @Autowired
     private StringRedisTemplate redisTemplate;
+
+    /** チーム割り当てのRedisキーの有効期限(時間) */
+    @Value("${app.game.context-ttl-hours:6}")
+    private long contextTtlHours;
+
+    /**
+     * チーム割り当てのキャッシュ
+     * key: gameId, value: (key: userId, value: teamId)
+     */
+    private final Map<String, Map<String, String>> teamCache = new ConcurrentHashMap<>();
     
     /**
      * 指定されたユーザーが所属するチームIDを取得します。
@@ -24,10 +41,21 @@ public class GameContextService {
      * @return チームID（"FIRST" または "SECOND"）、存在しない場合はnull
      */
     public String getUserTeam(String gameId, String userId){
+        // キャッシュにあればRedisを参照しない
+        Map<String, String> teams = teamCache.get(gameId);
+        if (teams != null) {
+            String cached = teams.get(userId);
+            if (cached != null) return cached;
+        }
+
         // Redisキーを構築してユーザーのチーム情報を取得
-        String key = "game:" + gameId + ":user";
+        String key = getUserKey(gameId);
         Object teamObj = redisTemplate.opsForHash().get(key,userId);
-        return teamObj != null ? teamObj.toString() : null;
+        if (teamObj == null) return null;
+
+        String teamId = teamObj.toString();
+        cacheTeam(gameId, userId, teamId);
+        return teamId;
     }
 
     /**
@@ -39,19 +67,54 @@ public class GameContextService {
      */
     public void assignTeam(String gameId, String userId, String teamId){
         // Redisキーを構築してユーザーのチーム情報を保存
-        String key = "game:" + gameId + ":user";
+        String key = getUserKey(gameId);
         redisTemplate.opsForHash().put(key,userId, teamId);
+        redisTemplate.expire(key, contextTtlHours, TimeUnit.HOURS);
+        cacheTeam(gameId, userId, teamId);
+    }
+
+    /**
+     * ゲームのキャッシュだけを削除します。
+     * 他のノードに移ったゲームで使い、Redisのチーム割り当ては移った先のために残します。
+     * 
+     * @param gameId ゲームID
+     */
+    public void evictCache(String gameId) {
+        teamCache.remove(gameId);
     }
 
     /**
      * ゲームコンテキストをクリアします。
-     * ゲーム終了時にRedisからゲーム情報を削除します。
+     * ゲーム終了時にキャッシュとRedisからゲーム情報を削除します。
      * 
      * @param gameId ゲームID
      */
     public void clearGameContext(String gameId) {
+        // キャッシュから削除
+        teamCache.remove(gameId);
+
         // Redisからゲームコンテキスト情報を削除
-        String key = "game:" + gameId + ":users";
-        redisTemplate.delete(key);
+        redisTemplate.delete(getUserKey(gameId));
+    }
+
+    /**
+     * ゲームIDからチーム割り当てのRedisキーを生成します。
+     * 
+     * @param gameId ゲームID
+     * @return 生成されたキー
+     */
+    private String getUserKey(String gameId) {
+        return "game:" + gameId + ":user";
+    }
+
+    /**
+     * チーム割り当てをキャッシュに登録します。
+     * 
+     * @param gameId ゲームID
+     * @param userId ユーザーID
+     * @param teamId チームID
+     */
+    private void cacheTeam(String gameId, String userId, String teamId) {
+        teamCache.computeIfAbsent(gameId, k -> new ConcurrentHashMap<>()).put(userId, teamId);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,303 @@
+package com.github.com.shii_park.shogi2vs2.service;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.github.com.shii_park.shogi2vs2.model.domain.ApplyActionResult;
+import com.github.com.shii_park.shogi2vs2.model.domain.Board;
+import com.github.com.shii_park.shogi2vs2.model.domain.Piece;
+import com.github.com.shii_park.shogi2vs2.model.domain.Position;
+import com.github.com.shii_park.shogi2vs2.model.domain.action.DropAction;
+import com.github.com.shii_park.shogi2vs2.model.domain.action.GameAction;
+import com.github.com.shii_park.shogi2vs2.model.domain.action.MoveAction;
+import com.github.com.shii_park.shogi2vs2.model.enums.Direction;
+import com.github.com.shii_park.shogi2vs2.model.enums.PieceType;
+import com.github.com.shii_park.shogi2vs2.model.enums.Team;
+
+/**
+ * GameEventCodecクラスはゲームのイベントログの1件をバイト列に書き出し、読み込みます<br>
+ * ゲーム開始のイベントには初期盤面を作るための情報を、ターンのイベントには受け付けたアクションと
+ * ターン終了処理の結果(成った駒、配置された駒、盤面と手駒のZobristハッシュ)を記録する<br>
+ * 整数はビッグエンディアン、チーム・駒の種類・方向は{@link Team}・{@link PieceType}・{@link Direction}の序数で表す
+ * <pre>
+ * 開始   0x01 | firstTeam:u8 | playerCount:u8 | playerCount × (idLen:u8 | id:UTF-8)  (予約順、0,1番目がFIRST)
+ * ターン 0x02 | sequence:i64 | actionCount:u8 | actionCount × アクション
+ *             | promotedCount:u8 | promotedCount × 駒 | placedCount:u8 | placedCount × 駒
+ *             | boardHash:i64 | handHash:i64
+ * アクション = kind:u8(0=移動,1=配置) | at:i64(エポックミリ秒) | team:u8 | userIdLen:u8 | userId:UTF-8
+ *             | 移動: pieceId:u8 | pieceType:u8 | flags:u8(bit0=成り) | dirCount:u8 | dirCount × direction:u8
+ *             | 配置: pieceType:u8 | x:u8 | y:u8
+ * 駒 = type:u8 | id:u8
+ * </pre>
+ * 座標と方向は盤面そのまま(FIRSTチームの視点)で記録する
+ */
+public final class GameEventCodec {
+    /** イベントの種類: ゲーム開始 */
+    private static final byte KIND_STARTED = 0x01;
+    /** イベントの種類: ターン */
+    private static final byte KIND_TURN = 0x02;
+    /** アクションの種類: 移動 */
+    private static final int ACTION_MOVE = 0;
+    /** アクションの種類: 配置 */
+    private static final int ACTION_DROP = 1;
+    /** フラグ: 成り */
+    private static final int FLAG_PROMOTE = 0x01;
+    /** 書き出しバッファの大きさ(1ターンのアクションが十分に収まる) */
+    private static final int BUFFER_SIZE = 4096;
+
+    /** チームの一覧 */
+    private static final Team[] TEAMS = Team.values();
+    /** 駒の種類の一覧 */
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+    /** 方向の一覧 */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * ユーティリティクラスなのでインスタンス化を防ぐ
+     */
+    private GameEventCodec() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * ゲーム開始のイベントを書き出す
+     *
+     * @param firstTeam 最初のターンのチーム
+     * @param userIds   ユーザーIDのリスト(予約順、0,1番目がFIRST、2,3番目がSECOND)
+     * @return 書き出したバイト列
+     */
+    public static byte[] encodeStarted(Team firstTeam, List<String> userIds) {
+        ByteBuffer out = ByteBuffer.allocate(BUFFER_SIZE);
+        out.put(KIND_STARTED);
+        out.put((byte) firstTeam.ordinal());
+        out.put((byte) userIds.size());
+        for (String userId : userIds) {
+            writeString(out, userId);
+        }
+        return toBytes(out);
+    }
+
+    /**
+     * ターンのイベントを書き出す
+     * ターン終了処理の直後に、ゲームのレーンから呼ぶこと
+     *
+     * @param sequence 盤面の通し番号
+     * @param accepted 受け付けたアクションのリスト(適用した順)
+     * @param result   ターン終了処理の結果
+     * @param board    ターン終了後の盤面
+     * @return 書き出したバイト列
+     */
+    public static byte[] encodeTurn(long sequence, List<GameAction> accepted, ApplyActionResult result, Board board) {
+        ByteBuffer out = ByteBuffer.allocate(BUFFER_SIZE);
+        out.put(KIND_TURN);
+        out.putLong(sequence);
+        out.put((byte) accepted.size());
+        for (GameAction action : accepted) {
+            writeAction(out, action);
+        }
+        writePieces(out, result.promotedPieces());
+        writePieces(out, result.placedPieces());
+        out.putLong(board.getZobristHash());
+        out.putLong(board.getCapturedPieces().getZobristHash());
+        return toBytes(out);
+    }
+
+    /**
+     * イベントを読み込む
+     *
+     * @param bytes {@link #encodeStarted}・{@link #encodeTurn}で書き出したバイト列
+     * @return イベント。形式が不正な場合は{@code null}
+     */
+    public static GameEvent decode(byte[] bytes) {
+        try {
+            ByteBuffer in = ByteBuffer.wrap(bytes);
+            byte kind = in.get();
+            if (kind == KIND_STARTED) {
+                Team firstTeam = TEAMS[in.get()];
+                int count = Byte.toUnsignedInt(in.get());
+                List<String> userIds = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    userIds.add(readString(in));
+                }
+                return new Started(firstTeam, userIds);
+            }
+            if (kind == KIND_TURN) {
+                long sequence = in.getLong();
+                int count = Byte.toUnsignedInt(in.get());
+                List<GameAction> actions = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    actions.add(readAction(in));
+                }
+                List<String> promoted = readPieces(in);
+                List<String> placed = readPieces(in);
+                return new Turn(sequence, actions, promoted, placed, in.getLong(), in.getLong());
+            }
+            return null;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 内部ヘルパー:
+     * アクションを書き出す
+     *
+     * @param out    書き出し先
+     * @param action アクション
+     */
+    private static void writeAction(ByteBuffer out, GameAction action) {
+        out.put((byte) (action instanceof DropAction ? ACTION_DROP : ACTION_MOVE));
+        out.putLong(action.at() != null ? action.at().toEpochMilli() : 0L);
+        out.put((byte) Team.valueOf(action.getTeamId()).ordinal());
+        writeString(out, action.getUserId());
+        if (action instanceof MoveAction m) {
+            out.put((byte) m.pieceId());
+            out.put((byte) PieceType.valueOf(m.pieceType()).ordinal());
+            out.put((byte) (m.promote() ? FLAG_PROMOTE : 0));
+            out.put((byte) m.directions().size());
+            for (Direction d : m.directions()) {
+                out.put((byte) d.ordinal());
+            }
+        } else if (action instanceof DropAction d) {
+            out.put((byte) PieceType.valueOf(d.pieceType()).ordinal());
+            out.put((byte) d.position().x());
+            out.put((byte) d.position().y());
+        }
+    }
+
+    /**
+     * 内部ヘルパー:
+     * アクションを読み込む
+     *
+     * @param in 読み込み元
+     * @return アクション
+     */
+    private static GameAction readAction(ByteBuffer in) {
+        int kind = in.get();
+        Instant at = Instant.ofEpochMilli(in.getLong());
+        String teamId = TEAMS[in.get()].name();
+        String userId = readString(in);
+        if (kind == ACTION_DROP) {
+            String pieceType = PIECE_TYPES[in.get()].name();
+            Position pos = Position.of(in.get(), in.get());
+            return new DropAction(userId, teamId, pieceType, pos, at);
+        }
+        int pieceId = Byte.toUnsignedInt(in.get());
+        String pieceType = PIECE_TYPES[in.get()].name();
+        boolean promote = (in.get() & FLAG_PROMOTE) != 0;
+        int dirCount = Byte.toUnsignedInt(in.get());
+        List<Direction> directions = new ArrayList<>(dirCount);
+        for (int i = 0; i < dirCount; i++) {
+            directions.add(DIRECTIONS[in.get()]);
+        }
+        return new MoveAction(userId, teamId, pieceId, pieceType, directions, promote, at);
+    }
+
+    /**
+     * 内部ヘルパー:
+     * 駒の数と駒(種類とID)を書き出す
+     *
+     * @param out    書き出し先
+     * @param pieces 駒のリスト
+     */
+    private static void writePieces(ByteBuffer out, List<Piece> pieces) {
+        out.put((byte) pieces.size());
+        for (Piece piece : pieces) {
+            out.put((byte) piece.getType().ordinal());
+            out.put((byte) piece.getId());
+        }
+    }
+
+    /**
+     * 内部ヘルパー:
+     * 駒の数と駒を「種類#ID」の文字列として読み込む
+     *
+     * @param in 読み込み元
+     * @return 駒の文字列のリスト
+     */
+    private static List<String> readPieces(ByteBuffer in) {
+        int count = Byte.toUnsignedInt(in.get());
+        List<String> pieces = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            PieceType type = PIECE_TYPES[in.get()];
+            pieces.add(type.name() + "#" + Byte.toUnsignedInt(in.get()));
+        }
+        return pieces;
+    }
+
+    /**
+     * 内部ヘルパー:
+     * 長さ(u8)とUTF-8の文字列を書き出す
+     *
+     * @param out   書き出し先
+     * @param value 文字列
+     */
+    private static void writeString(ByteBuffer out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFF) {
+            throw new IllegalArgumentException("String too long for an event: " + bytes.length);
+        }
+        out.put((byte) bytes.length);
+        out.put(bytes);
+    }
+
+    /**
+     * 内部ヘルパー:
+     * 長さ(u8)とUTF-8の文字列を読み込む
+     *
+     * @param in 読み込み元
+     * @return 文字列
+     */
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[Byte.toUnsignedInt(in.get())];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 内部ヘルパー:
+     * 書き出した部分をバイト列にする
+     *
+     * @param out 書き出し先
+     * @return バイト列
+     */
+    private static byte[] toBytes(ByteBuffer out) {
+        byte[] bytes = new byte[out.position()];
+        out.flip();
+        out.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * イベントログの1件
+     */
+    public sealed interface GameEvent permits Started, Turn {
+    }
+
+    /**
+     * ゲーム開始のイベント
+     *
+     * @param firstTeam 最初のターンのチーム
+     * @param userIds   ユーザーIDのリスト(予約順、0,1番目がFIRST、2,3番目がSECOND)
+     */
+    public record Started(Team firstTeam, List<String> userIds) implements GameEvent {
+    }
+
+    /**
+     * ターンのイベント
+     *
+     * @param sequence  ターン終了後の盤面の通し番号
+     * @param actions   受け付けたアクションのリスト(適用した順)
+     * @param promoted  成った駒(「種類#ID」)のリスト
+     * @param placed    手駒から配置された駒(「種類#ID」)のリスト
+     * @param boardHash ターン終了後の盤面のZobristハッシュ
+     * @param handHash  ターン終了後の手駒のZobristハッシュ
+     */
+    public record Turn(long sequence, List<GameAction> actions, List<String> promoted, List<String> placed,
+            long boardHash, long handHash) implements GameEvent {
+    }
+}
@@ -0,0 +1,188 @@
+package com.github.com.shii_park.shogi2vs2.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import com.github.com.shii_park.shogi2vs2.model.domain.Board;
+import com.github.com.shii_park.shogi2vs2.model.enums.Team;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * ゲームのイベントログ管理サービス
+ * ゲーム開始と各ターンで受け付けたアクションを{@link GameEventCodec}でバイト列にし、ゲームごとのRedis Streamに追記します。
+ * ログは追記のみで書き換えず、{@link GameReplayEngine}で任意のターンの盤面を再現するために使います。
+ * 書き出しはゲームのレーンで行い、Redisへの書き込みは専用のスレッドで受け付けた順に非同期に行います。
+ * キーは game:{id}:* の外に置き、ゲームの片付けでは消さずに決着後も保存期間だけ残します。
+ */
+@Service
+public class GameEventLog {
+
+    /** イベントを入れるStreamのフィールド名 */
+    private static final String FIELD = "e";
+
+    /**
+     * Redisテンプレート
+     */
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    /** 決着したゲームのログの保存期間(日) */
+    @Value("${app.game.result-ttl-days:7}")
+    private long resultTtlDays;
+
+    /** 進行中のゲームのログの有効期限(時間)。チーム割り当てと同じだけ残す */
+    @Value("${app.game.context-ttl-hours:6}")
+    private long liveTtlHours;
+
+    /** Redisへの書き込みを行うスレッド(1本にして追記の順序を保つ) */
+    private ExecutorService writer;
+
+    /**
+     * 書き込み用のスレッドを開始する
+     */
+    @PostConstruct
+    public void init() {
+        writer = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "game-events");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * サービス終了時のクリーンアップ処理
+     * 書き込み待ちのイベントは書き込んでから終了する
+     */
+    @PreDestroy
+    public void cleanup() {
+        if (writer != null) {
+            writer.shutdown();
+        }
+    }
+
+    /**
+     * ゲーム開始のイベントを追記します。
+     *
+     * @param gameId ゲームID
+     * @param firstTeam 最初のターンのチーム
+     * @param userIds ユーザーIDのリスト(予約順、0,1番目がFIRST、2,3番目がSECOND)
+     */
+    public void started(String gameId, Team firstTeam, List<String> userIds) {
+        byte[] bytes = GameEventCodec.encodeStarted(firstTeam, userIds);
+        writer.execute(() -> {
+            write(gameId, bytes);
+            try {
+                redisTemplate.expire(getKey(gameId), Duration.ofHours(liveTtlHours));
+            } catch (Exception e) {
+                System.out.println("Failed to set game event log expiry: " + gameId);
+            }
+        });
+    }
+
+    /**
+     * ターンのイベントを追記します。
+     * ターン終了処理の直後にゲームのレーンから呼び、バイト列にした時点で戻ります(Redisの応答は待ちません)。
+     *
+     * @param gameId ゲームID
+     * @param sequence ターン終了後の盤面の通し番号
+     * @param turn 適用したターン
+     * @param board ターン終了後の盤面
+     */
+    public void turn(String gameId, long sequence, TurnApplier.AppliedTurn turn, Board board) {
+        byte[] bytes = GameEventCodec.encodeTurn(sequence, turn.accepted(), turn.actionResult(), board);
+        writer.execute(() -> write(gameId, bytes));
+    }
+
+    /**
+     * 終了したゲームのログを閉じ、保存期間を設定します。
+     * 追記と同じスレッドで行うため、書き込み待ちのイベントはすべて書き込まれた後に設定されます。
+     *
+     * @param gameId ゲームID
+     */
+    public void seal(String gameId) {
+        writer.execute(() -> {
+            try {
+                redisTemplate.expire(getKey(gameId), Duration.ofDays(resultTtlDays));
+            } catch (Exception e) {
+                System.out.println("Failed to seal game event log: " + gameId);
+            }
+        });
+    }
+
+    /**
+     * それまでに受け付けたイベントの書き込みが終わると完了するFutureを返します。
+     * 書き込みは受け付けた順に1つのスレッドで行うため、このFutureの完了後に読み込めばそれまでのイベントがすべて含まれます。
+     *
+     * @return 書き込みの完了を表すFuture
+     */
+    public CompletableFuture<Void> whenWritten() {
+        return CompletableFuture.runAsync(() -> {
+        }, writer);
+    }
+
+    /**
+     * ゲームのイベントを先頭から読み込みます。
+     *
+     * @param gameId ゲームID
+     * @return イベントのリスト(追記した順、読み込めないイベントは除く)。ログがない場合は空のリスト
+     */
+    public List<GameEventCodec.GameEvent> read(String gameId) {
+        List<GameEventCodec.GameEvent> events = new ArrayList<>();
+        try {
+            List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream()
+                    .range(getKey(gameId), Range.unbounded());
+            if (records == null) return events;
+            for (MapRecord<String, Object, Object> record : records) {
+                Object value = record.getValue().get(FIELD);
+                if (value == null) continue;
+                GameEventCodec.GameEvent event = GameEventCodec.decode(Base64.getDecoder().decode(value.toString()));
+                if (event != null) {
+                    events.add(event);
+                }
+            }
+        } catch (Exception e) {
+            System.out.println("Failed to read game event log: " + gameId);
+        }
+        return events;
+    }
+
+    /**
+     * 内部ヘルパー:
+     * イベントをStreamに追記する
+     *
+     * @param gameId ゲームID
+     * @param bytes イベントのバイト列
+     */
+    private void write(String gameId, byte[] bytes) {
+        try {
+            redisTemplate.opsForStream().add(getKey(gameId), Map.of(FIELD, Base64.getEncoder().encodeToString(bytes)));
+        } catch (Exception e) {
+            System.out.println("Failed to append game event: " + gameId);
+        }
+    }
+
+    /**
+     * ゲームIDからイベントログのRedisキーを生成する
+     *
+     * @param gameId ゲームID
+     * @return 生成されたキー
+     */
+    private String getKey(String gameId) {
+        return "events:game:" + gameId;
+    }
+}
@@ -0,0 +1,284 @@
+package com.github.com.shii_park.shogi2vs2.service;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * ゲームごとの処理を直列に実行するサービス
+ * 同じゲームのタスクは必ず投入順に1つずつ実行する
+ * プレイヤーのアクション、タイムアウト、フェーズ終了はすべてこのサービスで処理するため、
+ * Game、Board、CapturedPiecesはロックなしで操作できる
+ * <p>
+ * 実行方式はapp.game.executorで切り替える(既定はvirtual)
+ * <ul>
+ * <li>virtual: ゲームごとのメールボックスを仮想スレッドで処理する。RedisやWebSocketの送信でブロックしても
+ * プラットフォームスレッドを占有せず、他のゲームを待たせない</li>
+ * <li>striped: ゲームIDから決まる単一スレッドのレーン(プラットフォームスレッド)で実行する。
+ * レーン上のRedisの呼び出しが遅いと、同じレーンの他のゲームも止まる</li>
+ * </ul>
+ */
+@Service
+public class GameExecutorService {
+
+    /** 仮想スレッド方式 */
+    private static final String MODE_VIRTUAL = "virtual";
+
+    /**
+     * レーン(単一スレッドのExecutor)の数
+     * 異なるゲームは別々のレーンで並列に処理される
+     */
+    private static final int LANE_COUNT = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    /** 実行方式("striped" または "virtual") */
+    @Value("${app.game.executor:virtual}")
+    private String mode;
+
+    /** ゲームIDのハッシュで選ばれるレーン(striped方式) */
+    private ExecutorService[] lanes;
+
+    /** メールボックスの処理を実行する仮想スレッドのExecutor(virtual方式) */
+    private ExecutorService virtualThreads;
+
+    /**
+     * ゲームごとのメールボックス(virtual方式)
+     * key: gameId, value: GameMailbox
+     */
+    private final Map<String, GameMailbox> mailboxes = new ConcurrentHashMap<>();
+
+    /**
+     * Springから生成するためのコンストラクタ
+     * 実行方式は設定から注入される
+     */
+    public GameExecutorService() {
+    }
+
+    /**
+     * 実行方式を指定して生成する(テスト用)
+     * 生成後に{@link #init()}を呼ぶこと
+     *
+     * @param mode 実行方式("striped" または "virtual")
+     */
+    GameExecutorService(String mode) {
+        this.mode = mode;
+    }
+
+    /**
+     * 実行方式に応じてスレッドを初期化する
+     */
+    @PostConstruct
+    public void init() {
+        if (isVirtualThreadMode()) {
+            virtualThreads = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("game-vt-", 0).factory());
+            return;
+        }
+        lanes = new ExecutorService[LANE_COUNT];
+        for (int i = 0; i < LANE_COUNT; i++) {
+            String name = "game-lane-" + i;
+            lanes[i] = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, name);
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    /**
+     * 仮想スレッド方式か判定する
+     *
+     * @return {@code true}:仮想スレッド方式
+     */
+    public boolean isVirtualThreadMode() {
+        return MODE_VIRTUAL.equalsIgnoreCase(mode);
+    }
+
+    /**
+     * ゲームのレーンでタスクを実行する
+     * タスク内の例外はログに出して握りつぶし、後続のタスクは実行を続ける
+     *
+     * @param gameId ゲームID
+     * @param task   実行するタスク
+     */
+    public void execute(String gameId, Runnable task) {
+        try {
+            dispatch(gameId, () -> {
+                try {
+                    task.run();
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // シャットダウン中に届いたタスクは捨てる
+            System.out.println("Game task rejected (shutting down): " + gameId);
+        }
+    }
+
+    /**
+     * ゲームのレーンで値を返すタスクを実行する
+     *
+     * @param gameId ゲームID
+     * @param task   実行するタスク
+     * @return タスクの結果(例外は例外完了として返す)
+     */
+    public <T> CompletableFuture<T> submit(String gameId, Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            dispatch(gameId, () -> {
+                try {
+                    future.complete(task.call());
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * 残っているメールボックスの数を返す(テスト用)
+     *
+     * @return メールボックスの数
+     */
+    int mailboxCount() {
+        return mailboxes.size();
+    }
+
+    /**
+     * サービス終了時のクリーンアップ処理
+     * 実行中のタスクが終わるのを少し待ってからスレッドを停止する
+     */
+    @PreDestroy
+    public void cleanup() {
+        System.out.println("Stopping game lanes...");
+        if (virtualThreads != null) {
+            shutdown(virtualThreads);
+        }
+        if (lanes != null) {
+            for (ExecutorService lane : lanes) {
+                shutdown(lane);
+            }
+        }
+    }
+
+    /**
+     * 内部ヘルパー:
+     * 実行方式に応じてタスクをゲームのレーンまたはメールボックスに積む
+     *
+     * @param gameId ゲームID
+     * @param task   例外処理済みのタスク
+     */
+    private void dispatch(String gameId, Runnable task) {
+        if (isVirtualThreadMode()) {
+            // 積む操作とメールボックスの取り外しを同じキーのロックで直列化し、取り外したメールボックスに積まない
+            GameMailbox box = mailboxes.compute(gameId, (k, current) -> {
+                GameMailbox target = current != null ? current : new GameMailbox(gameId);
+                target.tasks.add(task);
+                return target;
+            });
+            box.schedule();
+        } else {
+            laneFor(gameId).execute(task);
+        }
+    }
+
+    /**
+     * 内部ヘルパー:
+     * ゲームIDからレーンを選ぶ
+     *
+     * @param gameId ゲームID
+     * @return ゲームのレーン
+     */
+    private ExecutorService laneFor(String gameId) {
+        return lanes[Math.floorMod(gameId.hashCode(), LANE_COUNT)];
+    }
+
+    /**
+     * 内部ヘルパー:
+     * Executorを停止する。1秒待っても終わらなければ強制終了する
+     *
+     * @param executor 停止するExecutor
+     */
+    private void shutdown(ExecutorService executor) {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 1ゲーム分のタスクを投入順に処理するメールボックス(virtual方式)
+     * 処理中の仮想スレッドは常に高々1本で、キューが空になったらマップから自分を取り外してスレッドを返す
+     * 取り外したメールボックスは再び起動しない。次のタスクは新しいメールボックスに積まれる
+     */
+    private final class GameMailbox implements Runnable {
+        /** 担当するゲームID */
+        private final String gameId;
+        /** 未処理のタスク */
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        /** 処理用の仮想スレッドを起動済みか */
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        /**
+         * @param gameId 担当するゲームID
+         */
+        GameMailbox(String gameId) {
+            this.gameId = gameId;
+        }
+
+        /**
+         * キューが空になるまでタスクを順に実行し、空で処理中のタスクもなくなったらマップから取り外す
+         * タスクは例外処理済みのため、ループの途中で抜けることはない
+         */
+        @Override
+        public void run() {
+            while (true) {
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    task.run();
+                }
+                // 空の確認と取り外しをdispatchと同じキーのロックで行い、直前に積まれたタスクを取りこぼさない
+                GameMailbox remaining = mailboxes.computeIfPresent(gameId,
+                        (k, current) -> current == this && tasks.isEmpty() ? null : current);
+                if (remaining != this) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * 内部ヘルパー:
+         * 処理用の仮想スレッドがなければ起動する
+         */
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    virtualThreads.execute(this);
+                } catch (RejectedExecutionException e) {
+                    mailboxes.remove(gameId, this);
+                    throw e;
+                }
+            }
+        }
+    }
+}
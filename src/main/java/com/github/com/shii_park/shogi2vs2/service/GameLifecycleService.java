@@ -0,0 +1,276 @@
+package com.github.com.shii_park.shogi2vs2.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.WebSocketSession;
+
+import com.github.com.shii_park.shogi2vs2.dto.response.GameLifecycleStats;
+import com.github.com.shii_park.shogi2vs2.dto.response.GameResult;
+import com.github.com.shii_park.shogi2vs2.handler.GameWebSocketHandler;
+import com.github.com.shii_park.shogi2vs2.model.domain.Game;
+import com.github.com.shii_park.shogi2vs2.model.enums.Team;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * ゲームのライフサイクル管理サービス
+ * ゲームは WAITING(予約済み、GameManagementService) → IN_PROGRESS(進行中、GameRoomService) → FINISHED(記録して片付け済み) と遷移します。
+ * 終了したゲームは結果をアーカイブに追記してレーティングを更新してから、チーム割り当てと入力のRedisキー、プロセス内のキャッシュを削除します。
+ * 定期的に以下を片付けます。
+ * <ul>
+ * <li>全プレイヤーの接続が切れたまま猶予時間を過ぎた進行中のゲーム(ABANDONED として終了させる)</li>
+ * <li>誰も接続しないまま猶予時間を過ぎた予約</li>
+ * </ul>
+ */
+@Service
+public class GameLifecycleService {
+
+    /** 終了理由: 決着 */
+    public static final String REASON_FINISHED = "FINISHED";
+    /** 終了理由: 全員切断 */
+    public static final String REASON_ABANDONED = "ABANDONED";
+
+    @Autowired
+    @Lazy
+    private GameRoomService gameRoomService;
+
+    @Autowired
+    @Lazy
+    private GameWebSocketHandler webSocketHandler;
+
+    @Autowired
+    private GameManagementService gameManagementService;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private GameContextService gameContextService;
+
+    @Autowired
+    private InputSynthesisService synthesisService;
+
+    @Autowired
+    private RatingService ratingService;
+
+    @Autowired
+    private GameArchiveService archiveService;
+
+    /** 全員が切断してから、または予約してから片付けるまでの猶予(秒) */
+    @Value("${app.game.abandon-grace-seconds:120}")
+    private long abandonGraceSeconds;
+
+    /** 片付けの間隔(秒) */
+    @Value("${app.game.reap-interval-seconds:10}")
+    private long reapIntervalSeconds;
+
+    /**
+     * 進行中のゲーム
+     * key: gameId, value: LiveGame
+     */
+    private final Map<String, LiveGame> liveGames = new ConcurrentHashMap<>();
+
+    /**
+     * 全プレイヤーの接続が切れているのを最初に確認した時刻(ミリ秒)
+     * key: gameId, value: 確認した時刻
+     */
+    private final Map<String, Long> emptySince = new ConcurrentHashMap<>();
+
+    /** 決着して片付けたゲームの累計 */
+    private final AtomicLong finishedGames = new AtomicLong();
+    /** 全員切断で片付けたゲームの累計 */
+    private final AtomicLong reapedGames = new AtomicLong();
+    /** 期限切れになった予約の累計 */
+    private final AtomicLong expiredReservations = new AtomicLong();
+
+    /** 片付けを実行するスレッド */
+    private ScheduledExecutorService reaper;
+
+    /**
+     * 定期的な片付けを開始する
+     */
+    @PostConstruct
+    public void init() {
+        reaper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "game-reaper");
+            t.setDaemon(true);
+            return t;
+        });
+        reaper.scheduleWithFixedDelay(this::reap, reapIntervalSeconds, reapIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * サービス終了時のクリーンアップ処理
+     */
+    @PreDestroy
+    public void cleanup() {
+        if (reaper != null) {
+            reaper.shutdownNow();
+        }
+    }
+
+    /**
+     * ゲームの開始を記録します(IN_PROGRESS)。
+     * 他のノードから復旧したゲームは、スナップショットに保存した元の開始時刻で記録します。
+     *
+     * @param gameId ゲームID
+     * @param userIds 参加するユーザーIDのリスト(予約順)
+     * @param startedAt 開始時刻(エポックミリ秒)
+     */
+    public void onStarted(String gameId, List<String> userIds, long startedAt) {
+        liveGames.put(gameId, new LiveGame(List.copyOf(userIds), startedAt));
+    }
+
+    /**
+     * 進行中のゲームの開始時刻を取得します。
+     *
+     * @param gameId ゲームID
+     * @return 開始時刻(エポックミリ秒)。進行中でない場合は現在時刻
+     */
+    public long getStartedAt(String gameId) {
+        LiveGame live = liveGames.get(gameId);
+        return live != null ? live.startedAt() : System.currentTimeMillis();
+    }
+
+    /**
+     * 終了したゲームを記録して片付けます(FINISHED)。
+     * ゲームのレーンから、ゲームを管理マップから外した後に呼ばれます。
+     * Redisの操作に失敗しても残りの片付けは続けます(キーには有効期限があります)。
+     *
+     * @param gameId ゲームID
+     * @param game ゲームインスタンス(既に片付け済みの場合はnull)
+     * @param reason 終了理由
+     */
+    public void onFinished(String gameId, Game game, String reason) {
+        LiveGame live = liveGames.remove(gameId);
+        emptySince.remove(gameId);
+
+        if (live != null) {
+            String winner = (game != null && game.getWinnerTeam() != null) ? game.getWinnerTeam().name() : null;
+            GameResult result = new GameResult(gameId, winner, live.userIds(), reason, live.startedAt(),
+                    System.currentTimeMillis());
+            archiveService.archive(result);
+            if (REASON_FINISHED.equals(reason) && winner != null) {
+                updateRatings(live.userIds(), winner);
+            }
+            if (REASON_ABANDONED.equals(reason)) {
+                reapedGames.incrementAndGet();
+            } else {
+                finishedGames.incrementAndGet();
+            }
+        }
+
+        synthesisService.clearGame(gameId);
+        try {
+            gameContextService.clearGameContext(gameId);
+        } catch (Exception e) {
+            System.out.println("Failed to clear game context in Redis: " + gameId);
+        }
+    }
+
+    /**
+     * 他のノードに移ったゲームの記録を消します。
+     * ゲームは移った先で続くため、結果の記録やRedisの片付けはしません。
+     * プロセス内のキャッシュは消し、ゲームがこのノードに戻ってきた場合に古い内容を使わないようにします。
+     *
+     * @param gameId ゲームID
+     */
+    public void onTransferred(String gameId) {
+        liveGames.remove(gameId);
+        emptySince.remove(gameId);
+        synthesisService.evictGame(gameId);
+        gameContextService.evictCache(gameId);
+    }
+
+    /**
+     * ライフサイクルの統計を取得します。
+     *
+     * @return 現在の統計
+     */
+    public GameLifecycleStats getStats() {
+        return new GameLifecycleStats(
+                gameManagementService.getPendingGameCount(),
+                liveGames.size(),
+                finishedGames.get(),
+                reapedGames.get(),
+                expiredReservations.get());
+    }
+
+    /**
+     * 期限切れの予約と、全員が切断したまま猶予を過ぎたゲームを片付けます。
+     * 期限切れの予約に接続済みのプレイヤーには通知してから切断します。
+     * 片付けのスレッドで定期的に実行します。
+     */
+    void reap() {
+        try {
+            long now = System.currentTimeMillis();
+            long cutoff = now - TimeUnit.SECONDS.toMillis(abandonGraceSeconds);
+
+            List<String> expired = gameManagementService.removeExpiredReservations();
+            expiredReservations.addAndGet(expired.size());
+            for (String gameId : expired) {
+                // 揃わなかった予約に接続済みのプレイヤーに知らせて切断する
+                notificationService.broadcastReservationExpired(gameId);
+                webSocketHandler.closeReservation(gameId);
+            }
+
+            for (String gameId : liveGames.keySet()) {
+                List<WebSocketSession> sessions = webSocketHandler.getSessions(gameId);
+                if (sessions != null && !sessions.isEmpty()) {
+                    emptySince.remove(gameId);
+                    continue;
+                }
+                long since = emptySince.computeIfAbsent(gameId, k -> now);
+                if (since < cutoff) {
+                    System.out.println("Reaping abandoned game: " + gameId);
+                    emptySince.remove(gameId);
+                    gameRoomService.abandonGame(gameId);
+                }
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * 内部ヘルパー:
+     * 決着したゲームの参加者のレーティングを更新する
+     *
+     * @param userIds 参加したユーザーIDのリスト(0,1番目がFIRST、2,3番目がSECOND)
+     * @param winner 勝ったチーム
+     */
+    private void updateRatings(List<String> userIds, String winner) {
+        if (userIds.size() < 4) return;
+        List<String> first = userIds.subList(0, 2);
+        List<String> second = userIds.subList(2, 4);
+        try {
+            if (Team.FIRST.name().equals(winner)) {
+                ratingService.applyResult(first, second);
+            } else {
+                ratingService.applyResult(second, first);
+            }
+        } catch (Exception e) {
+            System.out.println("Failed to update ratings: " + userIds);
+        }
+    }
+
+    /**
+     * 進行中のゲームの記録
+     *
+     * @param userIds 参加するユーザーIDのリスト
+     * @param startedAt 開始時刻(エポックミリ秒)
+     */
+    private record LiveGame(List<String> userIds, long startedAt) {
+    }
+}
@@ -1,71 +1,185 @@
 package com.github.com.shii_park.shogi2vs2.service;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
 /**
  * ゲームの作成と管理を行うサービス
  * ゲームIDの発行、プレイヤーの検証、予約情報の管理などを担当
+ * 予約(ゲームIDと参加予定のユーザーIDリスト)はマッチングのスクリプトが有効期限付きでRedisに書き込むため、
+ * マッチングを処理したノードに関係なく、プレイヤーが接続したノードで検証できる
  */
 @Service
 public class GameManagementService {
 
+    /** ゲームの予約のRedisキープレフィックス(value: 予約順のユーザーIDのリスト) */
+    public static final String RESERVATION_KEY_PREFIX = "reservation:game:";
+
+    /**
+     * 予約を取り出して削除するスクリプト
+     * 予約されていたユーザーIDのリスト(期限切れや取り出し済みのときは空のリスト)を返す
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> CONSUME_SCRIPT = loadScript("scripts/consume_reservation.lua");
+
+    /**
+     * Redisテンプレート
+     */
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    /** 予約の有効期限(秒)。誰も揃わないまま過ぎた予約はRedisの期限で消える */
+    @Value("${app.game.abandon-grace-seconds:120}")
+    private long reservationTtlSeconds;
+
+    /**
+     * このノードに接続済みのプレイヤーがいて、まだ開始していない予約のゲームID
+     * 予約が期限で消えたときに、接続済みのプレイヤーへ通知して切断するために使う
+     */
+    private final Set<String> waitingRooms = ConcurrentHashMap.newKeySet();
+
     /**
-     * 発行したゲームIDと、参加予定のユーザーIDリストを一時保存するマップ
-     * key: gameId, value: List<userId>
+     * 新しいゲームIDを発行する
+     * マッチングのスクリプトに渡すため、予約より先にIDだけを発行する
+     *
+     * @return ゲームID
      */
-    private final Map<String, List<String>> pendingGames = new ConcurrentHashMap<>();
+    public String newGameId() {
+        return "game-" + UUID.randomUUID().toString();
+    }
 
     /**
-     * プレイヤー4人のためにゲームIDを発行し、予約リストに登録する
-     * MatchingServiceから呼ばれる
-     * 
-     * @param userIds 参加するユーザーIDのリスト
-     * @return 生成されたゲームID
+     * 予約の有効期限(秒)を取得する
+     * マッチングのスクリプトが予約を書き込むときに使う
+     *
+     * @return 有効期限(秒)
      */
-    public String createGameForPlayers(List<String> userIds) {
-        String gameId = "game-" + UUID.randomUUID().toString();
-        
-        // 予約情報を保存
-        pendingGames.put(gameId, userIds);
-        
-        System.out.println("Game reserved: " + gameId + " for players: " + userIds);
-        return gameId;
+    public long getReservationTtlSeconds() {
+        return reservationTtlSeconds;
     }
 
     /**
      * 接続してきたユーザーが、そのゲームの正当な参加者か確認する
-     * 
+     *
      * @param gameId ゲームID
      * @param userId ユーザーID
      * @return 正当な参加者の場合はtrue、そうでない場合はfalse
      */
     public boolean isValidPlayer(String gameId, String userId) {
-        List<String> players = pendingGames.get(gameId);
+        List<String> players = getReservedPlayers(gameId);
         return players != null && players.contains(userId);
     }
-    
+
+    /**
+     * 予約に参加したプレイヤーがこのノードに接続したことを記録する
+     * 開始前に予約が期限で消えた場合は{@link #removeExpiredReservations()}で見つかる
+     *
+     * @param gameId ゲームID
+     */
+    public void markWaiting(String gameId) {
+        waitingRooms.add(gameId);
+    }
+
     /**
-     * ゲーム開始後に予約情報を消す
-     * メモリ節約のため、ゲームが開始されたら予約情報を削除する
-     * 
+     * ゲーム開始時に予約情報を取り出して消す
+     * 予約の取り出しと削除は1つのスクリプトで行うため、同時に呼ばれても予約を受け取るのは1回だけになる
+     *
      * @param gameId ゲームID
+     * @return 予約されていたユーザーIDリスト(予約順)。期限切れで既に消えていた場合はnull
+     */
+    public List<String> removePendingGame(String gameId) {
+        // 先に待機中から外し、取り出した直後の予約を期限切れと見なさないようにする
+        waitingRooms.remove(gameId);
+        List<?> players = redisTemplate.execute(CONSUME_SCRIPT, List.of(reservationKey(gameId)));
+        return toUserIds(players);
+    }
+
+    /**
+     * このノードで待機中の予約のうち、期限で消えたものを取り除く
+     * 既に接続しているプレイヤーへの通知と切断は呼び出し側で行う
+     *
+     * @return 期限切れになった予約のゲームIDリスト
+     */
+    public List<String> removeExpiredReservations() {
+        List<String> expired = new ArrayList<>();
+        for (String gameId : waitingRooms) {
+            if (!Boolean.TRUE.equals(redisTemplate.hasKey(reservationKey(gameId))) && waitingRooms.remove(gameId)) {
+                System.out.println("Reservation expired: " + gameId);
+                expired.add(gameId);
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * このノードで開始を待っている予約の数を取得する
+     *
+     * @return 予約の数
      */
-    public void removePendingGame(String gameId) {
-        pendingGames.remove(gameId);
+    public int getPendingGameCount() {
+        return waitingRooms.size();
     }
-    
+
     /**
      * ゲームに予約されているプレイヤーのリストを取得する
-     * 
+     *
      * @param gameId ゲームID
-     * @return 予約されているプレイヤーのユーザーIDリスト
+     * @return 予約されているプレイヤーのユーザーIDリスト(予約順)。予約がない場合はnull
      */
     public List<String> getReservedPlayers(String gameId) {
-        return pendingGames.get(gameId);
+        return toUserIds(redisTemplate.opsForList().range(reservationKey(gameId), 0, -1));
+    }
+
+    /**
+     * 内部ヘルパー:
+     * ゲームIDから予約のRedisキーを生成する
+     *
+     * @param gameId ゲームID
+     * @return 予約のキー
+     */
+    private static String reservationKey(String gameId) {
+        return RESERVATION_KEY_PREFIX + gameId;
+    }
+
+    /**
+     * 内部ヘルパー:
+     * Redisから読んだリストをユーザーIDのリストに変換する
+     *
+     * @param values Redisから読んだリスト
+     * @return ユーザーIDのリスト。空の場合はnull
+     */
+    private static List<String> toUserIds(List<?> values) {
+        if (values == null || values.isEmpty()) return null;
+        List<String> userIds = new ArrayList<>(values.size());
+        for (Object value : values) {
+            userIds.add(String.valueOf(value));
+        }
+        return userIds;
+    }
+
+    /**
+     * 内部ヘルパー:
+     * クラスパスのLuaスクリプトを読み込む
+     *
+     * @param path クラスパス上のスクリプトのパス
+     * @return スクリプト
+     */
+    @SuppressWarnings("rawtypes")
+    private static RedisScript<List> loadScript(String path) {
+        DefaultRedisScript<List> script = new DefaultRedisScript<>();
+        script.setLocation(new ClassPathResource(path));
+        script.setResultType(List.class);
+        return script;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,198 @@
+package com.github.com.shii_park.shogi2vs2.service;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * ゲームの所有権管理サービス
+ * 進行中のゲームを動かすノードを1つに限るため、ゲームごとに有効期限付きの所有権(リース)をRedisに置きます。
+ * 所有権は専用のスレッドで定期的に延長するため、ノードが落ちると期限で消え、
+ * 他のノードがスナップショットから復旧できるようになります。
+ * 延長は混み合ったゲームのレーンを待たないため、ゲームの処理が遅れても所有権は失われません。
+ * 延長できなかった(他のノードに移った)ゲームは{@link GameRoomService#onOwnershipLost(String)}をゲームのレーンに積んで
+ * このノードから外します。
+ */
+@Service
+public class GameOwnershipService {
+
+    /**
+     * 所有権を取得または延長するスクリプト
+     * 持ち主になったときは1、他のノードが持ち主のときは0を返す
+     */
+    private static final RedisScript<Long> CLAIM_SCRIPT = loadScript("scripts/claim_game_owner.lua");
+
+    /**
+     * 所有権を持ち主の場合だけ解放するスクリプト
+     */
+    private static final RedisScript<Long> RELEASE_SCRIPT = loadScript("scripts/release_lock.lua");
+
+    @Autowired
+    @Lazy
+    private GameRoomService gameRoomService;
+
+    @Autowired
+    private GameExecutorService gameExecutor;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    /** 所有権の有効期限(ミリ秒)。3分の1ごとに延長する */
+    @Value("${app.game.owner-lease-ms:15000}")
+    private long leaseMs;
+
+    /** このノードの識別子(所有権の値) */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /** このノードが所有権を持つゲームのID */
+    private final Set<String> ownedGames = ConcurrentHashMap.newKeySet();
+
+    /** 所有権を延長するスレッド */
+    private ScheduledExecutorService renewer;
+
+    /**
+     * 所有権の定期的な延長を開始する
+     */
+    @PostConstruct
+    public void init() {
+        renewer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "game-owner-renewer");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = Math.max(1, leaseMs / 3);
+        renewer.scheduleWithFixedDelay(this::renewAll, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * サービス終了時のクリーンアップ処理
+     */
+    @PreDestroy
+    public void cleanup() {
+        if (renewer != null) {
+            renewer.shutdownNow();
+        }
+    }
+
+    /**
+     * ゲームの所有権を取得します(既に持っている場合は延長します)。
+     * 持ち主がいない(期限切れを含む)か、このノードが持ち主の場合だけ取得できます。
+     *
+     * @param gameId ゲームID
+     * @return 取得できた場合はtrue、他のノードが持っている場合やRedisに接続できない場合はfalse
+     */
+    public boolean claim(String gameId) {
+        try {
+            if (!claimOwner(gameId)) return false;
+            ownedGames.add(gameId);
+            return true;
+        } catch (Exception e) {
+            System.out.println("Failed to claim game ownership: " + gameId);
+            return false;
+        }
+    }
+
+    /**
+     * ゲームの所有権を解放します(終了したゲーム)。
+     * 他のノードに移った所有権は消しません。ゲームのレーンから呼びます。
+     *
+     * @param gameId ゲームID
+     */
+    public void release(String gameId) {
+        if (!ownedGames.remove(gameId)) return;
+        releaseOwner(gameId);
+    }
+
+    /**
+     * 内部ヘルパー:
+     * 所有権を持つ全ゲームの所有権を、延長のスレッドで順に延長する
+     * 延長と同時に終了したゲームは解放済みのため、延長で作り直した所有権を消す
+     * 延長できなかったゲームは、このノードから外す処理だけをゲームのレーンに積む
+     * Redisに接続できなかった場合はゲームを続け、次の延長で再び試す(期限が切れれば他のノードが復旧できる)
+     */
+    private void renewAll() {
+        for (String gameId : ownedGames) {
+            boolean renewed;
+            try {
+                renewed = claimOwner(gameId);
+            } catch (Exception e) {
+                System.out.println("Failed to renew game ownership: " + gameId);
+                continue;
+            }
+            if (renewed) {
+                if (!ownedGames.contains(gameId)) releaseOwner(gameId);
+                continue;
+            }
+            if (!ownedGames.remove(gameId)) continue;
+            System.out.println("Lost game ownership: " + gameId);
+            gameExecutor.execute(gameId, () -> gameRoomService.onOwnershipLost(gameId));
+        }
+    }
+
+    /**
+     * 内部ヘルパー:
+     * 所有権を取得または延長するスクリプトを実行する
+     *
+     * @param gameId ゲームID
+     * @return 持ち主になった場合はtrue
+     */
+    private boolean claimOwner(String gameId) {
+        Long claimed = redisTemplate.execute(CLAIM_SCRIPT, List.of(getKey(gameId)), nodeId, String.valueOf(leaseMs));
+        return Long.valueOf(1L).equals(claimed);
+    }
+
+    /**
+     * 内部ヘルパー:
+     * 所有権を持ち主の場合だけ解放するスクリプトを実行する
+     *
+     * @param gameId ゲームID
+     */
+    private void releaseOwner(String gameId) {
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(getKey(gameId)), nodeId);
+        } catch (Exception e) {
+            // 解放できなくても期限で消える
+            System.out.println("Failed to release game ownership: " + gameId);
+        }
+    }
+
+    /**
+     * ゲームIDから所有権のRedisキーを生成する
+     *
+     * @param gameId ゲームID
+     * @return 生成されたキー
+     */
+    private String getKey(String gameId) {
+        return "game:" + gameId + ":owner";
+    }
+
+    /**
+     * 内部ヘルパー:
+     * クラスパスのLuaスクリプトを読み込む
+     *
+     * @param path クラスパス上のスクリプトのパス
+     * @return スクリプト
+     */
+    private static RedisScript<Long> loadScript(String path) {
+        DefaultRedisScript<Long> script = new DefaultRedisScript<>();
+        script.setLocation(new ClassPathResource(path));
+        script.setResultType(Long.class);
+        return script;
+    }
+}
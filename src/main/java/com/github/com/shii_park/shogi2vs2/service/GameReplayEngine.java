@@ -0,0 +1,130 @@
+package com.github.com.shii_park.shogi2vs2.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.github.com.shii_park.shogi2vs2.model.domain.BoardFactory;
+import com.github.com.shii_park.shogi2vs2.model.domain.Game;
+import com.github.com.shii_park.shogi2vs2.model.domain.Player;
+import com.github.com.shii_park.shogi2vs2.model.enums.GameStatus;
+import com.github.com.shii_park.shogi2vs2.model.enums.Team;
+
+/**
+ * ゲームの再生サービス
+ * イベントログ({@link GameEventLog})のアクションを初期盤面から順に適用し、任意のターンの盤面を再現します。
+ * アクションの適用には進行中のゲームと同じ{@link TurnApplier}を使うため、同じログからは必ず同じ盤面が得られます。
+ * 各ターンで記録した盤面と手駒のハッシュと照合し、記録と食い違った(または通し番号が飛んだ)最初のターンを報告します。
+ */
+@Service
+public class GameReplayEngine {
+
+    /**
+     * ゲームのイベントログ管理サービス
+     */
+    @Autowired
+    private GameEventLog eventLog;
+
+    /**
+     * ゲームを指定した通し番号の盤面まで再生します。
+     *
+     * @param gameId ゲームID
+     * @param untilSequence 再生する最後の盤面の通し番号(0は開始時の盤面)
+     * @return 再生結果。ログがない場合は{@code null}
+     */
+    public Replay replay(String gameId, long untilSequence) {
+        return replay(gameId, eventLog.read(gameId), untilSequence);
+    }
+
+    /**
+     * イベントのリストからゲームを指定した通し番号の盤面まで再生します。
+     *
+     * @param gameId ゲームID
+     * @param events イベントのリスト(追記した順)
+     * @param untilSequence 再生する最後の盤面の通し番号(0は開始時の盤面)
+     * @return 再生結果。ゲーム開始のイベントがない場合は{@code null}
+     */
+    public static Replay replay(String gameId, List<GameEventCodec.GameEvent> events, long untilSequence) {
+        Game game = null;
+        long sequence = 0;
+        long divergedAt = -1;
+        int turns = 0;
+
+        for (GameEventCodec.GameEvent event : events) {
+            if (event instanceof GameEventCodec.Started started) {
+                // 開始のイベントは先頭の1件だけを使う
+                if (game != null) continue;
+                game = new Game(gameId, toPlayers(started.userIds()), BoardFactory.createBoard(),
+                        started.firstTeam());
+                continue;
+            }
+            if (game == null) return null;
+
+            GameEventCodec.Turn turn = (GameEventCodec.Turn) event;
+            if (turn.sequence() > untilSequence || game.getStatus() == GameStatus.FINISHED) break;
+
+            TurnApplier.AppliedTurn applied = TurnApplier.apply(game, turn.actions());
+            turns++;
+            if (divergedAt < 0 && !matches(game, turn, applied, sequence)) {
+                divergedAt = turn.sequence();
+            }
+            sequence = turn.sequence();
+        }
+        return (game != null) ? new Replay(game, sequence, turns, divergedAt) : null;
+    }
+
+    /**
+     * 内部ヘルパー:
+     * 再生したターンが記録と一致するか判定する
+     *
+     * @param game 再生中のゲーム
+     * @param turn 記録したターン
+     * @param applied 再生で適用したターン
+     * @param previousSequence 1つ前の盤面の通し番号
+     * @return {@code true}:一致する
+     */
+    private static boolean matches(Game game, GameEventCodec.Turn turn, TurnApplier.AppliedTurn applied,
+            long previousSequence) {
+        return turn.sequence() == previousSequence + 1
+                && applied.accepted().size() == turn.actions().size()
+                && game.getBoard().getZobristHash() == turn.boardHash()
+                && game.getBoard().getCapturedPieces().getZobristHash() == turn.handHash();
+    }
+
+    /**
+     * 内部ヘルパー:
+     * ユーザーIDのリストからプレイヤーのリストを作成する(0,1番目がFIRST、2,3番目がSECOND)
+     *
+     * @param userIds ユーザーIDのリスト(予約順)
+     * @return プレイヤーのリスト
+     */
+    private static List<Player> toPlayers(List<String> userIds) {
+        List<Player> players = new ArrayList<>(userIds.size());
+        for (int i = 0; i < userIds.size(); i++) {
+            players.add(new Player(userIds.get(i), (i < 2) ? Team.FIRST : Team.SECOND));
+        }
+        return players;
+    }
+
+    /**
+     * 再生結果
+     *
+     * @param game 再生したゲーム
+     * @param sequence 再生した最後の盤面の通し番号
+     * @param turns 再生したターン数
+     * @param divergedAt 記録と食い違った最初の盤面の通し番号(食い違いがない場合は-1)
+     */
+    public record Replay(Game game, long sequence, int turns, long divergedAt) {
+
+        /**
+         * 再生したすべてのターンが記録と一致したか判定する
+         *
+         * @return {@code true}:一致した
+         */
+        public boolean verified() {
+            return divergedAt < 0;
+        }
+    }
+}
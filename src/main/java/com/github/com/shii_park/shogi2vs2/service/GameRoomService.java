@@ -1,6 +1,6 @@
 package com.github.com.shii_park.shogi2vs2.service;
 
-import java.time.Instant;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -8,31 +8,30 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.WebSocketSession;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.com.shii_park.shogi2vs2.dto.request.InboundMessage;
+import com.github.com.shii_park.shogi2vs2.dto.response.BoardDelta;
+import com.github.com.shii_park.shogi2vs2.dto.response.BoardSnapshot;
+import com.github.com.shii_park.shogi2vs2.handler.BinaryProtocol;
 import com.github.com.shii_park.shogi2vs2.handler.GameWebSocketHandler;
+import com.github.com.shii_park.shogi2vs2.handler.SpectatorRegistry;
 import com.github.com.shii_park.shogi2vs2.model.domain.Board;
 import com.github.com.shii_park.shogi2vs2.model.domain.BoardFactory;
 import com.github.com.shii_park.shogi2vs2.model.domain.Game;
-import com.github.com.shii_park.shogi2vs2.model.domain.Piece;
 import com.github.com.shii_park.shogi2vs2.model.domain.Player;
-import com.github.com.shii_park.shogi2vs2.model.domain.PlayerDropPiece;
-import com.github.com.shii_park.shogi2vs2.model.domain.PlayerMove;
-import com.github.com.shii_park.shogi2vs2.model.domain.Position;
 import com.github.com.shii_park.shogi2vs2.model.domain.TurnExecutionResult;
-import com.github.com.shii_park.shogi2vs2.model.domain.action.DropAction;
 import com.github.com.shii_park.shogi2vs2.model.domain.action.GameAction;
-import com.github.com.shii_park.shogi2vs2.model.domain.action.MoveAction;
-import com.github.com.shii_park.shogi2vs2.model.enums.Direction;
-import com.github.com.shii_park.shogi2vs2.model.enums.PieceType;
+import com.github.com.shii_park.shogi2vs2.model.enums.GameStatus;
 import com.github.com.shii_park.shogi2vs2.model.enums.Team;
 
 /**
  * ゲームルーム管理サービス
  * 2vs2将棋のゲームルームの初期化、メッセージ処理、ゲームロジックの実行を管理します。
+ * ゲームの状態を変更する処理はすべてGameExecutorServiceのゲームごとのレーンで直列に実行します。
  */
 @Service
 public class GameRoomService {
@@ -56,16 +55,28 @@ public class GameRoomService {
     private NotificationService notificationService;
     
     /**
-     * 座標変換サービス
+     * ゲーム時間管理サービス
      */
     @Autowired
-    private BoardCoordinateService coordinateService;
-    
+    private GameTimeService gameTimeService;
+
     /**
-     * ゲーム時間管理サービス
+     * ゲームごとの直列実行サービス
      */
     @Autowired
-    private GameTimeService gameTimeService;
+    private GameExecutorService gameExecutor;
+
+    /**
+     * 盤面状態サービス
+     */
+    @Autowired
+    private BoardStateService boardStateService;
+
+    /**
+     * 合法手サービス
+     */
+    @Autowired
+    private LegalMoveService legalMoveService;
     
     /**
      * WebSocketハンドラー
@@ -74,16 +85,68 @@ public class GameRoomService {
     private GameWebSocketHandler webSocketHandler;
     
     /**
-     * JSONパーサー
+     * 観戦者の登録簿
+     */
+    @Autowired
+    private SpectatorRegistry spectatorRegistry;
+
+    /**
+     * ゲームのライフサイクル管理サービス
+     */
+    @Autowired
+    private GameLifecycleService lifecycleService;
+
+    /**
+     * ゲームのスナップショット管理サービス
+     */
+    @Autowired
+    private GameSnapshotService snapshotService;
+
+    /**
+     * ゲームの所有権管理サービス
      */
     @Autowired
-    private ObjectMapper objectMapper;
+    private GameOwnershipService ownershipService;
+
+    /**
+     * ゲームのイベントログ管理サービス
+     */
+    @Autowired
+    private GameEventLog eventLog;
+
+    /**
+     * セッション再開サービス
+     */
+    @Autowired
+    private SessionResumeService sessionResumeService;
+
+    /**
+     * 受信メッセージ解析サービス
+     */
+    @Autowired
+    private InboundMessageDecoder inboundDecoder;
 
     /**
      * ゲームIDとゲームインスタンスのマップ
      */
     private final Map<String, Game> games = new ConcurrentHashMap<>();
 
+    /**
+     * ゲームIDと最後に配信した盤面のスナップショット(FIRSTチーム視点)のマップ
+     * 次のターンの差分の計算と再同期に使う
+     */
+    private final Map<String, BoardSnapshot> boardStates = new ConcurrentHashMap<>();
+
+    /**
+     * ゲームIDと直近のターンの結果のマップ
+     * 再接続したプレイヤーに取りこぼしたターンを再送するために使う(盤面の通し番号で引く)
+     */
+    private final Map<String, ReplayBuffer<TurnRecord>> replayBuffers = new ConcurrentHashMap<>();
+
+    /** 再送のために保持するターン数 */
+    @Value("${app.resume.replay-size:64}")
+    private int replaySize;
+
     /**
      * ゲームを初期化します。
      * プレイヤーをチームに割り当て、将棋盤を作成し、ゲームを開始します。
@@ -106,6 +169,14 @@ public class GameRoomService {
         gameContextService.assignTeam(gameId, orderedUserIds.get(2), "SECOND");
         gameContextService.assignTeam(gameId, orderedUserIds.get(3), "SECOND");
 
+        // 配信時にチームを引けるようにセッション属性にも保存
+        for (int i = 0; i < 4; i++) {
+            WebSocketSession s = sessionMap.get(orderedUserIds.get(i));
+            if (s != null) {
+                s.getAttributes().put("teamId", (i < 2) ? "FIRST" : "SECOND");
+            }
+        }
+
         // プレイヤーリストを作成
         List<Player> playerList = new ArrayList<>();
         for (int i = 0; i < 4; i++) {
@@ -117,18 +188,45 @@ public class GameRoomService {
         // 将棋盤を作成
         Board board = BoardFactory.createBoard(); 
 
-        // ゲームインスタンスを作成して管理マップに追加
+        // ゲームインスタンスを作成
         Game game = new Game(gameId, playerList, board, Team.FIRST);
-        games.put(gameId, game);
 
-        // ゲーム開始を通知してターンタイマーを開始
-        notificationService.broadcastGameStart(gameId);
-        gameTimeService.startNewTurn(gameId);
+        // 管理マップへの追加以降はゲームのレーンで実行する
+        gameExecutor.execute(gameId, () -> {
+            long startedAt = System.currentTimeMillis();
+            // 他のノードが復旧しないように、このノードで進行している間は所有権を持つ
+            // 既に他のノードが持っている(同じゲームを復旧した等)場合は始めず、接続を閉じて再接続させる
+            if (!ownershipService.claim(gameId)) {
+                System.out.println("Game owned by another node, not starting: " + gameId);
+                webSocketHandler.closeSessions(gameId, CloseStatus.SERVICE_RESTARTED);
+                return;
+            }
+            games.put(gameId, game);
+            spectatorRegistry.openGame(gameId);
+            lifecycleService.onStarted(gameId, orderedUserIds, startedAt);
+            eventLog.started(gameId, Team.FIRST, orderedUserIds);
+
+            // ゲーム開始と初期盤面を通知して最初のターンを開始
+            notificationService.broadcastGameStart(gameId);
+            BoardSnapshot initial = boardStateService.capture(board, 0);
+            boardStates.put(gameId, initial);
+            replayBuffers.put(gameId, new ReplayBuffer<>(replaySize, initial.sequence()));
+            snapshotService.save(gameId, game, initial.sequence(), startedAt);
+            notificationService.broadcastBoardSnapshot(gameId, initial,
+                    boardStateService.forTeam(initial, Team.SECOND));
+
+            // 接続が切れても戻れるように再開トークンを配る
+            for (String uid : orderedUserIds) {
+                issueResumeToken(gameId, uid);
+            }
+            startTurn(gameId);
+        });
     }
 
     /**
      * クライアントからのメッセージを処理します。
      * 移動リクエスト、駒打ちリクエスト、フェーズ終了などのメッセージタイプを処理します。
+     * JSONの解析は呼び出し元のスレッドで行い、ゲームの操作はゲームのレーンに積みます。
      * 
      * @param gameId ゲームID
      * @param userId ユーザーID
@@ -136,41 +234,72 @@ public class GameRoomService {
      */
     public void handleMessage(String gameId, String userId, String jsonPayload) {
         try {
-            // JSONをパースしてメッセージタイプを取得
-            JsonNode root = objectMapper.readTree(jsonPayload);
-            String type = root.path("type").asText();
+            // JSONを解析してアクションに変換
             String teamId = gameContextService.getUserTeam(gameId, userId);
+            InboundMessage message = inboundDecoder.decodeText(userId, teamId, jsonPayload);
+            dispatch(gameId, userId, teamId, message);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
 
-            // メッセージタイプに応じて処理を振り分け
-            switch (type) {
-                case "moveRequest":
-                case "dropPieceRequire":
-                    processAction(gameId, userId, teamId, root, type);
-                    break;
-                case "phaseEnd":
-                    handlePhaseEnd(gameId);
-                    break;
-            }
+    /**
+     * バイナリ形式のWebSocketメッセージを処理します。
+     * フレームのバッファから直接アクションを組み立て、JSONのメッセージと同じくゲームのレーンに渡します。
+     * フレームの形式は{@link BinaryProtocol}を参照してください。
+     * 
+     * @param gameId ゲームID
+     * @param userId ユーザーID
+     * @param payload 受信したフレーム
+     */
+    public void handleBinaryMessage(String gameId, String userId, ByteBuffer payload) {
+        try {
+            String teamId = gameContextService.getUserTeam(gameId, userId);
+            InboundMessage message = inboundDecoder.decodeBinary(userId, teamId, payload);
+            dispatch(gameId, userId, teamId, message);
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
 
+    /**
+     * 解析済みのメッセージをタイプに応じてゲームのレーンに渡します。
+     * 
+     * @param gameId ゲームID
+     * @param userId ユーザーID
+     * @param teamId チームID
+     * @param message 解析済みのメッセージ(不正なメッセージの場合はnull)
+     */
+    private void dispatch(String gameId, String userId, String teamId, InboundMessage message) {
+        if (message == null) return;
+
+        // メッセージタイプに応じて処理を振り分け
+        switch (message.type()) {
+            case "moveRequest":
+            case "dropPieceRequire":
+                GameAction action = message.action();
+                gameExecutor.execute(gameId, () -> processAction(gameId, userId, teamId, action));
+                break;
+            case "phaseEnd":
+                gameExecutor.execute(gameId, () -> handlePhaseEnd(gameId));
+                break;
+            case "syncRequest":
+                gameExecutor.execute(gameId, () -> sendBoardSnapshot(gameId, userId, teamId));
+                break;
+        }
+    }
+
     /**
      * プレイヤーのアクション（移動または駒打ち）を処理します。
      * パートナーのアクションと統合し、両方揃った場合は実行します。
+     * ゲームのレーンで実行されます。
      * 
      * @param gameId ゲームID
      * @param userId ユーザーID
      * @param teamId チームID
-     * @param root JSONノード
-     * @param type アクションタイプ
+     * @param action プレイヤーのアクション
      */
-    private void processAction(String gameId, String userId, String teamId, JsonNode root, String type) {
-        // JSONをGameActionオブジェクトに変換
-        GameAction action = convertToGameAction(userId, teamId, root, type);
-        if (action == null) return;
-
+    private void processAction(String gameId, String userId, String teamId, GameAction action) {
         // パートナーのアクションと統合
         List<GameAction> actions = synthesisService.handleActionInput(gameId, teamId, action);
 
@@ -192,16 +321,49 @@ public class GameRoomService {
      */
     private void handlePhaseEnd(String gameId) {
         // 新しいターンを開始
+        startTurn(gameId);
+    }
+
+    /**
+     * ターンを開始します。
+     * ターンタイマーを開始し、各チームに合法手を通知します。
+     * 
+     * @param gameId ゲームID
+     */
+    private void startTurn(String gameId) {
+        // 終了したゲームのタイマーは再開しない
+        Game game = games.get(gameId);
+        if (game == null) return;
+
         gameTimeService.startNewTurn(gameId);
+
+        // 各チームに自分の視点の合法手を送る
+        for (Team team : Team.values()) {
+            notificationService.sendLegalActions(gameId, team, legalMoveService.getLegalActions(game, team));
+        }
     }
 
     /**
      * タイムアウトを処理します。
-     * 入力されているアクションのみを強制的に実行し、タイムアウトを通知します。
+     * GameTimeServiceによってゲームのレーンで呼び出され、入力されているアクションのみを強制的に実行してタイムアウトを通知します。
+     * 実行される時点でターンが既に終わっていた場合(両者の入力が先に揃った等)は何もしません。
      * 
      * @param gameId ゲームID
+     * @param turnId タイマーを開始したターンの識別子
      */
-    public void handleTimeout(String gameId) {
+    public void handleTimeout(String gameId, long turnId) {
+        if (gameTimeService.isCurrentTurn(gameId, turnId)) {
+            processTimeout(gameId);
+        }
+    }
+
+    /**
+     * タイムアウトを処理します。
+     * ゲームのレーンで実行されます。
+     * 
+     * @param gameId ゲームID
+     */
+    private void processTimeout(String gameId) {
         // ゲームインスタンスを取得
         Game game = games.get(gameId);
         if(game == null)return;
@@ -234,169 +396,311 @@ public class GameRoomService {
         Game game = games.get(gameId);
         if (game == null) return;
 
-        List<TurnExecutionResult> results = new ArrayList<>();
-
-        // 各アクションを順次実行
-        for (GameAction act : actions) {
-            Player player = game.getPlayer(act.getUserId());
-            if (player == null) continue;
-
-            if (act instanceof MoveAction move) {
-                // 移動アクションの処理
-                PieceType targetType = PieceType.valueOf(move.pieceType());
-                Piece piece = game.getBoard().getPiece(move.pieceId(), targetType);
-                
-                if (piece != null) {
-                    // 移動コマンドを作成してゲームに適用
-                    PlayerMove moveCommand = new PlayerMove(player, piece, move.directions(), move.promote());
-                    game.applyMove(moveCommand);
-                    
-                    // 通知用の結果データを作成
-                    List<String> dirStrings = new ArrayList<>();
-                    move.directions().forEach(d -> dirStrings.add(d.name()));
-
-                    results.add(new TurnExecutionResult(
-                        "moveResult",
-                        piece.getId(),
-                        piece.getType().name(),
-                        dirStrings,
-                        player.getTeam().name(),
-                        move.promote()
-                    ));
-                }
-
-            } else if (act instanceof DropAction drop) {
-                // 駒打ちアクションの処理
-                PieceType pType = PieceType.valueOf(drop.pieceType());
-
-                // プレイヤーの持ち駒から指定された種類の駒を検索
-                Piece pieceToDrop = null;
-                List<Piece> hand = game.getBoard().getCapturedPieces().getCapturedPieces(player.getTeam());
-                
-                if (hand != null) {
-                    for (Piece p : hand) {
-                        if (p.getType() == pType) {
-                            pieceToDrop = p;
-                            break;
-                        }
-                    }
-                }
-
-                if (pieceToDrop != null) {
-                    // 駒打ちコマンドを作成してゲームに適用
-                    PlayerDropPiece dropCommand = new PlayerDropPiece(player, pieceToDrop, drop.position());
-                    game.applyDrop(dropCommand);
-
-                    results.add(new TurnExecutionResult(
-                        "dropResult",
-                        pieceToDrop.getId(),
-                        pieceToDrop.getType().name(),
-                        new ArrayList<>(),
-                        player.getTeam().name(),
-                        false
-                    ));
-                }
+        // アクションを適用してターン終了処理を実行し、結果を通知
+        TurnApplier.AppliedTurn turn = TurnApplier.apply(game, actions);
+        List<TurnExecutionResult> results = turn.results();
+        notificationService.broadcastTurnResult(gameId, results);
+        publishBoardDelta(gameId, game, results);
+        // 再生できるように受け付けたアクションとターン後の盤面のハッシュを追記する
+        eventLog.turn(gameId, boardStates.get(gameId).sequence(), turn, game.getBoard());
+
+        if (game.getStatus() == GameStatus.FINISHED) {
+            finishGame(gameId, GameLifecycleService.REASON_FINISHED);
+        } else {
+            // 他のノードで復旧できるように保存する(Redisへの書き込みは待たない)
+            snapshotService.save(gameId, game, boardStates.get(gameId).sequence(),
+                    lifecycleService.getStartedAt(gameId));
+        }
+    }
+
+    /**
+     * ターンで変化した盤面の差分を通知します。
+     * 前回配信したスナップショットとの差分を取り、通し番号を1つ進めます。
+     * 差分とターンの結果は再接続時の再送のために保持します。
+     * 
+     * @param gameId ゲームID
+     * @param game ゲームインスタンス
+     * @param results ターン実行結果のリスト
+     */
+    private void publishBoardDelta(String gameId, Game game, List<TurnExecutionResult> results) {
+        BoardSnapshot previous = boardStates.get(gameId);
+        long sequence = (previous != null) ? previous.sequence() + 1 : 0;
+        BoardSnapshot current = boardStateService.capture(game.getBoard(), sequence);
+        boardStates.put(gameId, current);
+
+        if (previous == null) {
+            notificationService.broadcastBoardSnapshot(gameId, current,
+                    boardStateService.forTeam(current, Team.SECOND));
+            return;
+        }
+        BoardDelta delta = boardStateService.diff(previous, current);
+        notificationService.broadcastBoardDelta(gameId, delta, boardStateService.forTeam(delta, Team.SECOND));
+
+        ReplayBuffer<TurnRecord> buffer = replayBuffers.get(gameId);
+        if (buffer != null) {
+            buffer.append(sequence, new TurnRecord(results, delta));
+        }
+    }
+
+    /**
+     * 接続が切れたプレイヤーのセッションを再開します。
+     * 再開トークンを確認し、新しいセッションを進行中のゲームに付け替えます。ゲームの状態は作り直しません。
+     * 付け替えと取りこぼしたターンの再送はゲームのレーンの1つのタスクで行います。
+     * 間に終わったターンが配信と再送の両方で届いたり、どちらでも届かなかったりしないようにするためです。
+     * 
+     * @param gameId ゲームID
+     * @param userId ユーザーID
+     * @param token 再開トークン
+     * @param lastSequence クライアントが最後に適用した盤面の通し番号(不明な場合は負の値)
+     * @param session 新しいWebSocketセッション
+     * @return 再開できた場合はtrue
+     */
+    public boolean resumeSession(String gameId, String userId, String token, long lastSequence,
+            WebSocketSession session) {
+        if (!isActiveGame(gameId) || !sessionResumeService.isValid(token, gameId, userId)) {
+            return false;
+        }
+        String teamId = gameContextService.getUserTeam(gameId, userId);
+        if (teamId == null) return false;
+
+        session.getAttributes().put("gameId", gameId);
+        session.getAttributes().put("userId", userId);
+        session.getAttributes().put("teamId", teamId);
+
+        gameExecutor.execute(gameId, () -> {
+            if (attachSession(gameId, userId, session)) {
+                replayMissedTurns(gameId, userId, teamId, lastSequence);
             }
+        });
+        return true;
+    }
+
+    /**
+     * 再接続したプレイヤーの新しいセッションをゲームに付け替えます。
+     * ゲームのレーンで実行します。受け付けてからレーンで実行するまでにゲームが終了していた場合はセッションを閉じます。
+     * 
+     * @param gameId ゲームID
+     * @param userId ユーザーID
+     * @param session 新しいWebSocketセッション
+     * @return 付け替えた場合はtrue
+     */
+    private boolean attachSession(String gameId, String userId, WebSocketSession session) {
+        if (!games.containsKey(gameId)) {
+            try {
+                session.close(CloseStatus.NORMAL);
+            } catch (Exception e) {
+                // 既に切断されている
+            }
+            return false;
         }
-        
-        // ターン終了処理を実行して結果を通知
-        game.handleTurnEnd();
-        notificationService.broadcastTurnResult(gameId, results);
+        webSocketHandler.replaceSession(gameId, userId, session);
+        return true;
     }
 
     /**
-     * JSONノードをGameActionオブジェクトに変換します。
+     * 再接続したプレイヤーに取りこぼしたターンを再送し、現在の合法手を送ります。
+     * 保持しているターンで埋められない場合は最新のスナップショットを送ります。
      * 
+     * @param gameId ゲームID
      * @param userId ユーザーID
      * @param teamId チームID
-     * @param root JSONノード
-     * @param type アクションタイプ（"moveRequest" または "dropPieceRequire"）
-     * @return GameActionオブジェクト
+     * @param lastSequence クライアントが最後に適用した盤面の通し番号
      */
-    private GameAction convertToGameAction(String userId, String teamId, JsonNode root, String type) {
+    private void replayMissedTurns(String gameId, String userId, String teamId, long lastSequence) {
+        Game game = games.get(gameId);
+        if (game == null) return;
         Team team = Team.valueOf(teamId);
 
-        if ("moveRequest".equals(type)) {
-            // 移動リクエストの処理
-            int dx = root.path("direction").path("x").asInt();
-            int dy = root.path("direction").path("y").asInt();
-            
-            int pieceId = root.path("piece").path("id").asInt();
-            String pieceType = root.path("piece").path("type").asText();
-            boolean promote = root.path("promote").asBoolean();
-
-            // 移動ベクトルをDirection列に変換
-            List<Direction> rawDirs = convertToDirectionList(dx, dy);
-            
-            // チームに応じて方向を正規化
-            List<Direction> normalizedDirs = new ArrayList<>();
-            for (Direction d : rawDirs) {
-                normalizedDirs.add(d.forTeam(team));
+        ReplayBuffer<TurnRecord> buffer = replayBuffers.get(gameId);
+        List<TurnRecord> missed = (buffer != null && lastSequence >= 0) ? buffer.since(lastSequence) : null;
+        if (missed != null) {
+            for (TurnRecord record : missed) {
+                notificationService.replayTurn(gameId, userId, team, record.results(),
+                        boardStateService.forTeam(record.delta(), team));
             }
-
-            return new MoveAction(userId, teamId, pieceId, pieceType, normalizedDirs, promote, Instant.now());
-
         } else {
-            // 駒打ちリクエストの処理
-            int x = root.path("position").path("x").asInt();
-            int y = root.path("position").path("y").asInt();
-            String pieceType = root.path("piece").asText();
-
-            Position pos = new Position(x, y);
-            
-            // SECONDチームの場合は座標を正規化
-            if (team == Team.SECOND) {
-                pos = coordinateService.normalize(pos, teamId);
-            }
-
-            return new DropAction(userId, teamId, pieceType, pos, Instant.now());
+            sendBoardSnapshot(gameId, userId, teamId);
         }
+        notificationService.sendLegalActions(gameId, userId, legalMoveService.getLegalActions(game, team));
     }
 
     /**
-     * 移動ベクトル（dx, dy）をDirection列に変換します。
-     * 桂馬の動きや1マス移動は完全一致で処理し、長距離移動は単位ベクトルを繰り返します。
+     * 他のノードで進行していたゲームに再開トークンでプレイヤーを接続します。
+     * トークンは発行したノードのメモリにしかないため、スナップショットと一緒に保存したものと照合します。
+     * このノードで進行していないゲームは、所有権が期限切れ(進行していたノードが落ちた)か、このノードが持ち主の場合だけ
+     * Redisのスナップショットから復元し、ターンのタイマーを再開します。
+     * 接続したプレイヤーには最新の盤面と合法手、新しい再開トークンを送ります。
      * 
-     * @param dx X方向の移動量
-     * @param dy Y方向の移動量
-     * @return Direction列
-     */
-    private List<Direction> convertToDirectionList(int dx, int dy) {
-        List<Direction> dirs = new ArrayList<>();
-
-        // 1. 完全一致を探す（桂馬の動きや1マス移動）
-        for (Direction d : Direction.values()) {
-            if (d.dx == dx && d.dy == dy) {
-                dirs.add(d);
-                return dirs; 
+     * @param gameId ゲームID
+     * @param userId ユーザーID
+     * @param token 再開トークン
+     * @param session 新しいWebSocketセッション
+     * @return 接続できた場合はtrue(トークンが無効、他のノードで進行中、スナップショットがない等の場合はfalse)
+     */
+    public boolean recoverSession(String gameId, String userId, String token, WebSocketSession session) {
+        if (!snapshotService.isResumeTokenValid(gameId, userId, token)) return false;
+
+        if (!isActiveGame(gameId)) {
+            if (!ownershipService.claim(gameId)) return false;
+            GameSnapshotCodec.Restored restored = snapshotService.load(gameId);
+            if (restored == null || !restored.userIds().contains(userId)) {
+                gameExecutor.execute(gameId, () -> {
+                    if (!games.containsKey(gameId)) ownershipService.release(gameId);
+                });
+                return false;
             }
+
+            for (int i = 0; i < restored.userIds().size(); i++) {
+                gameContextService.assignTeam(gameId, restored.userIds().get(i), (i < 2) ? "FIRST" : "SECOND");
+            }
+            gameExecutor.execute(gameId, () -> restoreGame(gameId, restored));
         }
 
-        // 2. 長距離移動の処理
-        // 単位ベクトルを計算
-        int unitX = Integer.signum(dx);
-        int unitY = Integer.signum(dy);
+        String teamId = gameContextService.getUserTeam(gameId, userId);
+        if (teamId == null) return false;
 
-        // 移動マス数を計算
-        int steps = Math.max(Math.abs(dx), Math.abs(dy));
+        session.getAttributes().put("gameId", gameId);
+        session.getAttributes().put("userId", userId);
+        session.getAttributes().put("teamId", teamId);
 
-        // 単位ベクトルに対応するDirectionを検索
-        Direction unitDir = null;
-        for (Direction d : Direction.values()) {
-            if (d.dx == unitX && d.dy == unitY) {
-                unitDir = d;
-                break;
+        gameExecutor.execute(gameId, () -> {
+            if (attachSession(gameId, userId, session)) {
+                issueResumeToken(gameId, userId);
+                replayMissedTurns(gameId, userId, teamId, -1);
             }
-        }
+        });
+        return true;
+    }
+
+    /**
+     * スナップショットから復元したゲームを管理マップに戻し、ターンを再開します。
+     * ゲームのレーンで実行します。既に復元済みの場合や、受け付けてから所有権が他のノードに移った場合は何もしません。
+     * 
+     * @param gameId ゲームID
+     * @param restored 復元したゲーム
+     */
+    private void restoreGame(String gameId, GameSnapshotCodec.Restored restored) {
+        if (games.containsKey(gameId) || !ownershipService.claim(gameId)) return;
 
-        // 3. 移動マス数分だけDirectionを追加（例: [UP, UP, UP]）
-        if (unitDir != null) {
-            for (int i = 0; i < steps; i++) {
-                dirs.add(unitDir);
+        Game game = restored.game();
+        games.put(gameId, game);
+        spectatorRegistry.openGame(gameId);
+        // 結果には復旧した時刻ではなく元の開始時刻を記録する(以前の形式のスナップショットでは不明)
+        long startedAt = (restored.startedAt() > 0) ? restored.startedAt() : System.currentTimeMillis();
+        lifecycleService.onStarted(gameId, restored.userIds(), startedAt);
+        BoardSnapshot current = boardStateService.capture(game.getBoard(), restored.sequence());
+        boardStates.put(gameId, current);
+        replayBuffers.put(gameId, new ReplayBuffer<>(replaySize, current.sequence()));
+        System.out.println("Game recovered from snapshot: " + gameId + " (seq=" + current.sequence() + ")");
+
+        startTurn(gameId);
+    }
+
+    /**
+     * 所有権が他のノードに移ったゲームをこのノードから外します。
+     * 所有権の延長に失敗したときにゲームのレーンで呼ばれます。ゲームは移った先で続くため、
+     * 結果の記録やRedisの片付けはせず、プレイヤーと観戦者は切断して再接続させます。
+     * 
+     * @param gameId ゲームID
+     */
+    public void onOwnershipLost(String gameId) {
+        gameTimeService.stopTimer(gameId);
+        if (games.remove(gameId) == null) return;
+        boardStates.remove(gameId);
+        replayBuffers.remove(gameId);
+        sessionResumeService.revokeGame(gameId);
+        spectatorRegistry.closeGame(gameId);
+        lifecycleService.onTransferred(gameId);
+        webSocketHandler.closeSessions(gameId, CloseStatus.SERVICE_RESTARTED);
+    }
+
+    /**
+     * 最新の盤面のスナップショットをユーザーに送信します。
+     * 差分を取りこぼしたクライアントの再同期に使います。
+     * 
+     * @param gameId ゲームID
+     * @param userId ユーザーID
+     * @param teamId ユーザーのチームID
+     */
+    private void sendBoardSnapshot(String gameId, String userId, String teamId) {
+        BoardSnapshot snapshot = boardStates.get(gameId);
+        if (snapshot == null || teamId == null) return;
+        notificationService.sendBoardSnapshot(gameId, userId,
+                boardStateService.forTeam(snapshot, Team.valueOf(teamId)));
+    }
+
+    /**
+     * 進行中のゲームか判定します。
+     * 
+     * @param gameId ゲームID
+     * @return {@code true}:進行中
+     */
+    public boolean isActiveGame(String gameId) {
+        return games.containsKey(gameId);
+    }
+
+    /**
+     * 参加した観戦者に最新の盤面のスナップショットを送ります。
+     * ゲームのレーンで送るため、以降の差分とは通し番号の順に届きます。
+     * 参加と同時に配信された差分はスナップショット以前の通し番号になるので、クライアントは読み捨てます。
+     * 
+     * @param gameId ゲームID
+     * @param side 観戦する視点
+     * @param session 観戦者のセッション
+     */
+    public void sendSnapshotToSpectator(String gameId, Team side, WebSocketSession session) {
+        gameExecutor.execute(gameId, () -> {
+            BoardSnapshot snapshot = boardStates.get(gameId);
+            if (snapshot == null) return;
+            notificationService.sendBoardSnapshot(session, boardStateService.forTeam(snapshot, side));
+        });
+    }
+
+    /**
+     * 全プレイヤーの接続が切れたまま猶予を過ぎたゲームを終了させます。
+     * ゲームのレーンで片付けます。
+     * 
+     * @param gameId ゲームID
+     */
+    public void abandonGame(String gameId) {
+        gameExecutor.execute(gameId, () -> {
+            if (games.containsKey(gameId)) {
+                finishGame(gameId, GameLifecycleService.REASON_ABANDONED);
             }
-        }
+        });
+    }
 
-        return dirs;
+    /**
+     * 終了したゲームを片付けます。
+     * タイマーを止め、ゲームインスタンスと配信用の状態を削除し、結果の記録とRedisの片付けをライフサイクル管理に任せます。
+     * 
+     * @param gameId ゲームID
+     * @param reason 終了理由
+     */
+    private void finishGame(String gameId, String reason) {
+        gameTimeService.stopTimer(gameId);
+        Game game = games.remove(gameId);
+        boardStates.remove(gameId);
+        replayBuffers.remove(gameId);
+        snapshotService.delete(gameId);
+        ownershipService.release(gameId);
+        eventLog.seal(gameId);
+        sessionResumeService.revokeGame(gameId);
+        spectatorRegistry.closeGame(gameId);
+        lifecycleService.onFinished(gameId, game, reason);
+    }
+
+    /**
+     * 内部ヘルパー:
+     * プレイヤーに再開トークンを発行し、他のノードでも照合できるように保存してから送る
+     * 
+     * @param gameId ゲームID
+     * @param userId ユーザーID
+     */
+    private void issueResumeToken(String gameId, String userId) {
+        String token = sessionResumeService.issue(gameId, userId);
+        snapshotService.saveResumeToken(gameId, userId, token);
+        notificationService.sendResumeToken(gameId, userId, token);
     }
 
     /**
@@ -410,4 +714,13 @@ public class GameRoomService {
         // セッションをゲームルームに追加
         webSocketHandler.addSession(gameId, session);
     }
+
+    /**
+     * 再送のために保持する1ターン分の結果
+     * 
+     * @param results ターン実行結果のリスト(FIRSTチーム視点)
+     * @param delta 盤面の差分(FIRSTチーム視点)
+     */
+    private record TurnRecord(List<TurnExecutionResult> results, BoardDelta delta) {
+    }
 }
\ No newline at end of file
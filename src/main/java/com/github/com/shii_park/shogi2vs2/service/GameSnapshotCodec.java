@@ -0,0 +1,212 @@
+package com.github.com.shii_park.shogi2vs2.service;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import com.github.com.shii_park.shogi2vs2.model.domain.ArrayBoard;
+import com.github.com.shii_park.shogi2vs2.model.domain.Board;
+import com.github.com.shii_park.shogi2vs2.model.domain.Game;
+import com.github.com.shii_park.shogi2vs2.model.domain.Piece;
+import com.github.com.shii_park.shogi2vs2.model.domain.Player;
+import com.github.com.shii_park.shogi2vs2.model.domain.Position;
+import com.github.com.shii_park.shogi2vs2.model.enums.PieceType;
+import com.github.com.shii_park.shogi2vs2.model.enums.Team;
+
+/**
+ * GameSnapshotCodecクラスは進行中のゲームの状態をコンパクトなバイト列に書き出し、そこからゲームを復元します<br>
+ * ターン終了処理(handleTurnEnd)の直後に書き出すため、待機中の成り・手駒配置は常に空で、保存しない<br>
+ * 整数はビッグエンディアン、チーム・駒の種類は{@link Team}・{@link PieceType}の序数で表す
+ * <pre>
+ * version:u8 | sequence:i64 | startedAt:i64 | turnNumber:i32 | currentTeam:u8
+ * | playerCount:u8 | playerCount × (team:u8 | idLen:u8 | id:UTF-8)
+ * | squareCount:u8 | squareCount × (square:u8((y-1)*9+(x-1)) | height:u8 | height × 駒(下から順))
+ * | FIRSTの手駒 count:u8 | count × 駒 | SECONDの手駒 count:u8 | count × 駒
+ * 駒 = id:u8 | type:u8 | team:u8 | flags:u8(bit0=成り, bit1=成ることが可能)
+ * </pre>
+ * 開始時刻(startedAt)のない形式1も読み込み、開始時刻は0(不明)として返す
+ */
+public final class GameSnapshotCodec {
+    /** 形式のバージョン */
+    private static final byte VERSION = 2;
+    /** 開始時刻のない以前の形式のバージョン */
+    private static final byte VERSION_WITHOUT_START = 1;
+    /** 盤面の一辺のマス数 */
+    private static final int BOARD_SIZE = 9;
+    /** フラグ: 成り */
+    private static final int FLAG_PROMOTED = 0x01;
+    /** フラグ: 成ることが可能 */
+    private static final int FLAG_PROMOTABLE = 0x02;
+    /** 書き出しバッファの大きさ(駒40枚とユーザーID4つが十分に収まる) */
+    private static final int BUFFER_SIZE = 2048;
+
+    /** チームの一覧 */
+    private static final Team[] TEAMS = Team.values();
+    /** 駒の種類の一覧 */
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+
+    /**
+     * ユーティリティクラスなのでインスタンス化を防ぐ
+     */
+    private GameSnapshotCodec() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * ゲームの状態を書き出す
+     * ゲームのレーンから呼ぶこと(盤面は書き出し中に変化してはならない)
+     *
+     * @param game      ゲームインスタンス
+     * @param sequence  盤面の通し番号
+     * @param startedAt ゲームの開始時刻(エポックミリ秒)
+     * @return 書き出したバイト列
+     */
+    public static byte[] encode(Game game, long sequence, long startedAt) {
+        ByteBuffer out = ByteBuffer.allocate(BUFFER_SIZE);
+        out.put(VERSION);
+        out.putLong(sequence);
+        out.putLong(startedAt);
+        out.putInt(game.getTurnNumber());
+        out.put((byte) game.getCurrentTurn().ordinal());
+
+        List<Player> players = game.getPlayers();
+        out.put((byte) players.size());
+        for (Player player : players) {
+            byte[] id = player.getId().getBytes(StandardCharsets.UTF_8);
+            out.put((byte) player.getTeam().ordinal());
+            out.put((byte) id.length);
+            out.put(id);
+        }
+
+        Board board = game.getBoard();
+        int countPosition = out.position();
+        out.put((byte) 0);
+        int squares = 0;
+        for (int y = 1; y <= BOARD_SIZE; y++) {
+            for (int x = 1; x <= BOARD_SIZE; x++) {
+                List<Piece> stack = board.getAllPiecesAt(Position.of(x, y));
+                if (stack.isEmpty()) continue;
+                out.put((byte) ((y - 1) * BOARD_SIZE + (x - 1)));
+                writePieces(out, stack);
+                squares++;
+            }
+        }
+        out.put(countPosition, (byte) squares);
+
+        for (Team team : TEAMS) {
+            List<Piece> hand = board.getCapturedPieces().getCapturedPieces(team);
+            writePieces(out, hand != null ? hand : List.of());
+        }
+
+        byte[] bytes = new byte[out.position()];
+        out.flip();
+        out.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * バイト列からゲームを復元する
+     *
+     * @param gameId ゲームID
+     * @param bytes  {@link #encode}で書き出したバイト列
+     * @return 復元したゲーム。形式が不正な場合は{@code null}
+     */
+    public static Restored decode(String gameId, byte[] bytes) {
+        try {
+            ByteBuffer in = ByteBuffer.wrap(bytes);
+            byte version = in.get();
+            if (version != VERSION && version != VERSION_WITHOUT_START) return null;
+            long sequence = in.getLong();
+            long startedAt = (version == VERSION) ? in.getLong() : 0;
+            int turnNumber = in.getInt();
+            Team currentTeam = TEAMS[in.get()];
+
+            // プレイヤーはFIRST、SECONDの順に並べる(予約順と同じくチーム分けを表す)
+            int playerCount = Byte.toUnsignedInt(in.get());
+            List<Player> players = new ArrayList<>(playerCount);
+            for (int i = 0; i < playerCount; i++) {
+                Team team = TEAMS[in.get()];
+                byte[] id = new byte[Byte.toUnsignedInt(in.get())];
+                in.get(id);
+                players.add(new Player(new String(id, StandardCharsets.UTF_8), team));
+            }
+            players.sort((a, b) -> Integer.compare(a.getTeam().ordinal(), b.getTeam().ordinal()));
+
+            // 駒は下から順に積み直す
+            Board board = new ArrayBoard(new HashMap<>());
+            int squares = Byte.toUnsignedInt(in.get());
+            for (int i = 0; i < squares; i++) {
+                int square = Byte.toUnsignedInt(in.get());
+                Position pos = Position.of(square % BOARD_SIZE + 1, square / BOARD_SIZE + 1);
+                for (Piece piece : readPieces(in)) {
+                    board.stackPiece(pos, piece);
+                }
+            }
+            for (Team team : TEAMS) {
+                for (Piece piece : readPieces(in)) {
+                    board.getCapturedPieces().capturedPiece(team, piece);
+                }
+            }
+
+            List<String> userIds = new ArrayList<>(players.size());
+            players.forEach(p -> userIds.add(p.getId()));
+            return new Restored(new Game(gameId, players, board, currentTeam, turnNumber), userIds, sequence,
+                    startedAt);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 内部ヘルパー:
+     * 駒の数と駒を書き出す
+     *
+     * @param out    書き出し先
+     * @param pieces 駒のリスト
+     */
+    private static void writePieces(ByteBuffer out, List<Piece> pieces) {
+        out.put((byte) pieces.size());
+        for (Piece piece : pieces) {
+            out.put((byte) piece.getId());
+            out.put((byte) piece.getType().ordinal());
+            out.put((byte) piece.getTeam().ordinal());
+            out.put((byte) ((piece.isPromoted() ? FLAG_PROMOTED : 0) | (piece.isPromotable() ? FLAG_PROMOTABLE : 0)));
+        }
+    }
+
+    /**
+     * 内部ヘルパー:
+     * 駒の数と駒を読み込む
+     *
+     * @param in 読み込み元
+     * @return 駒のリスト
+     */
+    private static List<Piece> readPieces(ByteBuffer in) {
+        int count = Byte.toUnsignedInt(in.get());
+        List<Piece> pieces = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int id = Byte.toUnsignedInt(in.get());
+            PieceType type = PIECE_TYPES[in.get()];
+            Team team = TEAMS[in.get()];
+            int flags = in.get();
+            Piece piece = new Piece(id, type, team, (flags & FLAG_PROMOTABLE) != 0);
+            piece.setPromoted((flags & FLAG_PROMOTED) != 0);
+            pieces.add(piece);
+        }
+        return pieces;
+    }
+
+    /**
+     * 復元したゲーム
+     *
+     * @param game     ゲームインスタンス
+     * @param userIds  ユーザーIDのリスト(0,1番目がFIRST、2,3番目がSECOND)
+     * @param sequence 盤面の通し番号
+     * @param startedAt ゲームの開始時刻(エポックミリ秒、不明な場合は0)
+     */
+    public record Restored(Game game, List<String> userIds, long sequence, long startedAt) {
+    }
+}
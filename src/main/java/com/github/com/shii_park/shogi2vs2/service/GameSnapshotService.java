@@ -0,0 +1,199 @@
+package com.github.com.shii_park.shogi2vs2.service;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import com.github.com.shii_park.shogi2vs2.model.domain.Game;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * ゲームのスナップショット管理サービス
+ * 進行中のゲームの状態を{@link GameSnapshotCodec}でバイト列にし、クラッシュやノードの障害からの復旧のためにRedisに保存します。
+ * 書き出しはゲームのレーンで行い(盤面が変化しないうちに)、Redisへの書き込みは専用のスレッドで非同期に行います。
+ * 書き込みが追いつかない間に同じゲームのスナップショットが続いた場合は、最新のものだけを書き込みます。
+ * 復旧したノードで再接続を認証できるように、発行した再開トークンもスナップショットと一緒にRedisに置きます。
+ */
+@Service
+public class GameSnapshotService {
+
+    /**
+     * Redisテンプレート
+     */
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    /** スナップショットの有効期限(時間)。チーム割り当てと同じだけ残す */
+    @Value("${app.game.context-ttl-hours:6}")
+    private long snapshotTtlHours;
+
+    /**
+     * 書き込み待ちのスナップショット
+     * key: gameId, value: バイト列(同じゲームは最新のもので上書きする)
+     */
+    private final Map<String, byte[]> pending = new ConcurrentHashMap<>();
+
+    /** Redisへの書き込みを行うスレッド */
+    private ExecutorService writer;
+
+    /**
+     * 書き込み用のスレッドを開始する
+     */
+    @PostConstruct
+    public void init() {
+        writer = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "game-snapshot");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * サービス終了時のクリーンアップ処理
+     * 書き込み待ちのスナップショットは書き込んでから終了する
+     */
+    @PreDestroy
+    public void cleanup() {
+        if (writer != null) {
+            writer.shutdown();
+        }
+    }
+
+    /**
+     * ゲームのスナップショットを保存します。
+     * ゲームのレーンから呼び、バイト列にした時点で戻ります(Redisの応答は待ちません)。
+     *
+     * @param gameId ゲームID
+     * @param game ゲームインスタンス
+     * @param sequence 盤面の通し番号
+     * @param startedAt ゲームの開始時刻(エポックミリ秒)。復旧したノードでも元の開始時刻で結果を記録する
+     */
+    public void save(String gameId, Game game, long sequence, long startedAt) {
+        byte[] bytes = GameSnapshotCodec.encode(game, sequence, startedAt);
+        // 書き込み待ちがなかった場合だけ書き込みを予約する(あれば上書きして1回にまとめる)
+        if (pending.put(gameId, bytes) == null) {
+            writer.execute(() -> flush(gameId));
+        }
+    }
+
+    /**
+     * 保存したスナップショットからゲームを復元します。
+     *
+     * @param gameId ゲームID
+     * @return 復元したゲーム。保存されていない場合や読み込めない場合は{@code null}
+     */
+    public GameSnapshotCodec.Restored load(String gameId) {
+        try {
+            String value = redisTemplate.opsForValue().get(getKey(gameId));
+            if (value == null) return null;
+            return GameSnapshotCodec.decode(gameId, Base64.getDecoder().decode(value));
+        } catch (Exception e) {
+            System.out.println("Failed to load game snapshot: " + gameId);
+            return null;
+        }
+    }
+
+    /**
+     * プレイヤーに発行した再開トークンを保存します。
+     * 同じプレイヤーの以前のトークンは上書きします。Redisへの書き込みは待ちません。
+     *
+     * @param gameId ゲームID
+     * @param userId ユーザーID
+     * @param token 再開トークン
+     */
+    public void saveResumeToken(String gameId, String userId, String token) {
+        writer.execute(() -> {
+            try {
+                redisTemplate.opsForHash().put(getResumeKey(gameId), userId, token);
+                redisTemplate.expire(getResumeKey(gameId), Duration.ofHours(snapshotTtlHours));
+            } catch (Exception e) {
+                System.out.println("Failed to save resume token: " + gameId);
+            }
+        });
+    }
+
+    /**
+     * 再開トークンがプレイヤーに最後に発行したものか判定します。
+     * トークンを発行したノードが落ちた後の復旧で使います。
+     *
+     * @param gameId ゲームID
+     * @param userId ユーザーID
+     * @param token 再開トークン
+     * @return 有効な場合はtrue(保存されていない場合や読み込めない場合はfalse)
+     */
+    public boolean isResumeTokenValid(String gameId, String userId, String token) {
+        if (token == null) return false;
+        try {
+            Object stored = redisTemplate.opsForHash().get(getResumeKey(gameId), userId);
+            return token.equals(stored);
+        } catch (Exception e) {
+            System.out.println("Failed to load resume token: " + gameId);
+            return false;
+        }
+    }
+
+    /**
+     * ゲームのスナップショットと再開トークンを削除します。
+     * 書き込み待ちのものは捨て、書き込みと同じスレッドで削除するため、削除の後に古いものが書き込まれることはありません。
+     *
+     * @param gameId ゲームID
+     */
+    public void delete(String gameId) {
+        pending.remove(gameId);
+        writer.execute(() -> {
+            try {
+                redisTemplate.delete(List.of(getKey(gameId), getResumeKey(gameId)));
+            } catch (Exception e) {
+                System.out.println("Failed to delete game snapshot: " + gameId);
+            }
+        });
+    }
+
+    /**
+     * 内部ヘルパー:
+     * 書き込み待ちの最新のスナップショットをRedisに書き込む
+     *
+     * @param gameId ゲームID
+     */
+    private void flush(String gameId) {
+        byte[] bytes = pending.remove(gameId);
+        if (bytes == null) return;
+        try {
+            redisTemplate.opsForValue().set(getKey(gameId), Base64.getEncoder().encodeToString(bytes),
+                    Duration.ofHours(snapshotTtlHours));
+        } catch (Exception e) {
+            System.out.println("Failed to save game snapshot: " + gameId);
+        }
+    }
+
+    /**
+     * ゲームIDからスナップショットのRedisキーを生成する
+     *
+     * @param gameId ゲームID
+     * @return 生成されたキー
+     */
+    private String getKey(String gameId) {
+        return "game:" + gameId + ":snapshot";
+    }
+
+    /**
+     * ゲームIDから再開トークンのRedisキーを生成する
+     *
+     * @param gameId ゲームID
+     * @return 生成されたキー(field: userId, value: token)
+     */
+    private String getResumeKey(String gameId) {
+        return "game:" + gameId + ":resume";
+    }
+}
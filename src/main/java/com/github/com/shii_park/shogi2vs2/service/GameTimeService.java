@@ -2,20 +2,21 @@ package com.github.com.shii_park.shogi2vs2.service;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
+import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 
 /**
  * ゲームのターン時間を管理するサービス
  * 各ゲームのターンタイマーの開始、停止、タイムアウト処理を担当
+ * タイマーはHashedWheelTimerで管理し、タイムアウトの処理はゲームのレーンで実行する
  */
 @Service
 public class GameTimeService {
@@ -28,21 +29,50 @@ public class GameTimeService {
     @Lazy
     private GameRoomService gameRoomService;
 
+    /**
+     * ゲームごとの直列実行サービス
+     * タイムアウトの処理をタイマースレッドではなくゲームのレーンで実行するために使う
+     */
+    @Autowired
+    private GameExecutorService gameExecutor;
+
+    /** タイマーの1 tick の長さ(ミリ秒)。タイムアウトはこの精度で発火する */
+    @Value("${app.timer.tick-ms:100}")
+    private long tickMillis;
+
+    /** タイマーのホイールのバケット数 */
+    @Value("${app.timer.wheel-size:512}")
+    private int wheelSize;
+
     /**
      * ゲームIDと実行予定のタイマーを紐づけるマップ
-     * key: gameId, value: ScheduledFuture
+     * key: gameId, value: TurnTimer
+     */
+    private final Map<String, TurnTimer> timers = new ConcurrentHashMap<>();
+
+    /**
+     * ターンの識別子の採番
+     * タイムアウトが実行されるまでに次のターンが始まっていないかの判定に使う
      */
-    private final Map<String, ScheduledFuture<?>> timers = new ConcurrentHashMap<>();
+    private final AtomicLong turnIdSequence = new AtomicLong();
     
     /**
-     * タイマーを実行するスレッドプール
-     * 4つのスレッドで複数ゲームのタイマーを管理
+     * ターンタイマー
+     * 1本のスレッドで全ゲームのタイマーを管理する
      */
-    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(4);
+    private HashedWheelTimer timer;
 
     /** ターンの制限時間（秒） */
     private static final int TURN_DURATION_SECONDS = 30;
 
+    /**
+     * タイマーを初期化する
+     */
+    @PostConstruct
+    public void init() {
+        timer = new HashedWheelTimer("turn-timer", tickMillis, TimeUnit.MILLISECONDS, wheelSize);
+    }
+
     /**
      * 新しいターンのタイマーを開始する
      * 前のターンのタイマーが残っている場合は停止してから新しいタイマーを開始
@@ -53,19 +83,30 @@ public class GameTimeService {
         // 前のターンのタイマーが残っていたら消す
         stopTimer(gameId);
 
+        long turnId = turnIdSequence.incrementAndGet();
+
         // 「30秒後に handleTimeout を呼んでねと予約する
-        ScheduledFuture<?> future = scheduler.schedule(() -> {
-            try {
-                // 時間が来たらここが実行される
-                System.out.println(" タイムアウト発生: " + gameId);
-                gameRoomService.handleTimeout(gameId);
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
+        HashedWheelTimer.Timeout timeout = timer.newTimeout(() -> {
+            // 時間が来たらここが実行される（タイマースレッドでは処理せずゲームのレーンに渡す）
+            System.out.println(" タイムアウト発生: " + gameId);
+            gameExecutor.execute(gameId, () -> gameRoomService.handleTimeout(gameId, turnId));
         }, TURN_DURATION_SECONDS, TimeUnit.SECONDS);
 
         // 予約チケットをMapに保存しておく（あとでキャンセルするため）
-        timers.put(gameId, future);
+        timers.put(gameId, new TurnTimer(turnId, timeout));
+    }
+
+    /**
+     * タイマーを開始したターンがまだ続いているか判定する
+     * タイムアウトの発火からレーンでの実行までの間にタイマーが止められた場合は{@code false}を返す
+     * 
+     * @param gameId ゲームID
+     * @param turnId タイマー開始時のターンの識別子
+     * @return {@code true}:ターンが続いている
+     */
+    public boolean isCurrentTurn(String gameId, long turnId) {
+        TurnTimer turnTimer = timers.get(gameId);
+        return turnTimer != null && turnTimer.turnId() == turnId;
     }
 
     /**
@@ -75,32 +116,31 @@ public class GameTimeService {
      * @param gameId ゲームID
      */
     public void stopTimer(String gameId) {
-        ScheduledFuture<?> future = timers.remove(gameId);
-        if (future != null) {
-            // 予約を取り消す（false = もし実行中なら中断まではしない）
-            future.cancel(false);
+        TurnTimer turnTimer = timers.remove(gameId);
+        if (turnTimer != null) {
+            // 予約を取り消す（満了済みなら何もしない）
+            turnTimer.timeout().cancel();
         }
     }
 
     /**
      * サービス終了時のクリーンアップ処理
-     * スケジューラをシャットダウンし、実行中のタスクを適切に終了させる
+     * タイマーのワーカースレッドを停止する
      */
     @PreDestroy
     public void cleanup() {
-        System.out.println("Stopping timer scheduler...");
-        
-        // 新しいタスクの受付を停止する
-        scheduler.shutdown(); 
-        
-        try {
-            // 現在実行中のタスクが終わるのを少し待つ（必要なら）
-            // ここでは即座に強制終了させる shutdownNow() でもゲーム用途ならOK
-            if (!scheduler.awaitTermination(1, java.util.concurrent.TimeUnit.SECONDS)) {
-                scheduler.shutdownNow(); // タイムアウトしたら強制終了
-            }
-        } catch (InterruptedException e) {
-            scheduler.shutdownNow(); // 割り込みが入ったら強制終了
-        }
+        System.out.println("Stopping turn timer...");
+
+        // ワーカースレッドを止める（未満了のタイムアウトは実行しない）
+        timer.stop();
+    }
+
+    /**
+     * ターンの識別子と予約したタイマーの組
+     * 
+     * @param turnId ターンの識別子
+     * @param timeout 予約したタイムアウト
+     */
+    private record TurnTimer(long turnId, HashedWheelTimer.Timeout timeout) {
     }
 }
\ No newline at end of file
@@ -0,0 +1,342 @@
+package com.github.com.shii_park.shogi2vs2.service;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ハッシュ化タイミングホイールによるタイマー
+ * 一定間隔(tick)で回るリング状のバケット配列にタイムアウトを登録し、予約と取り消しをO(1)で行う
+ * 1本のワーカースレッドが tick ごとに現在のバケットだけを調べるため、大量のタイマーを同時に保持できる
+ * 満了したタスクはワーカースレッドで実行されるので、タスクは重い処理を別のExecutorに渡すだけにすること
+ */
+public final class HashedWheelTimer {
+
+    /** 1 tick で登録待ちキューから取り出す最大数(登録が集中しても tick が遅れすぎないようにする) */
+    private static final int MAX_TRANSFER_PER_TICK = 100_000;
+
+    /** 1 tick の長さ(ナノ秒) */
+    private final long tickNanos;
+    /** バケットの配列(長さは2の累乗) */
+    private final Bucket[] wheel;
+    /** バケット番号を求めるためのマスク */
+    private final int mask;
+    /** 登録待ちのタイムアウト(ワーカースレッドが tick ごとにバケットへ移す) */
+    private final Queue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+    /** 取り消されたタイムアウト(ワーカースレッドが tick ごとにバケットから外す) */
+    private final Queue<Timeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+    /** 満了も取り消しもされていないタイムアウトの数 */
+    private final AtomicInteger activeCount = new AtomicInteger();
+    /** ワーカースレッド */
+    private final Thread worker;
+    /** タイマーの起点(System.nanoTime) */
+    private final long startTime;
+    /** 動作中か */
+    private volatile boolean running = true;
+    /** 経過した tick 数(ワーカースレッドだけが更新する) */
+    private long tick;
+
+    /**
+     * タイマーを作成してワーカースレッドを開始する
+     *
+     * @param name          ワーカースレッドの名前
+     * @param tickDuration  1 tick の長さ(タイムアウトの精度)
+     * @param unit          tickDurationの単位
+     * @param ticksPerWheel ホイールのバケット数(2の累乗に切り上げる)
+     */
+    public HashedWheelTimer(String name, long tickDuration, TimeUnit unit, int ticksPerWheel) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("tickDurationは正の値である必要があります: " + tickDuration);
+        }
+        if (ticksPerWheel <= 0 || ticksPerWheel > (1 << 30)) {
+            throw new IllegalArgumentException("ticksPerWheelが範囲外です: " + ticksPerWheel);
+        }
+        this.tickNanos = unit.toNanos(tickDuration);
+
+        int size = Integer.highestOneBit(ticksPerWheel - 1) << 1;
+        if (ticksPerWheel == 1) size = 1;
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+
+        this.startTime = System.nanoTime();
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * delay後にtaskを実行するよう予約する
+     *
+     * @param task  満了時に実行するタスク
+     * @param delay 満了までの時間
+     * @param unit  delayの単位
+     * @return 取り消しに使うハンドル
+     */
+    public Timeout newTimeout(Runnable task, long delay, TimeUnit unit) {
+        if (!running) {
+            throw new IllegalStateException("タイマーは停止しています");
+        }
+        long deadline = System.nanoTime() - startTime + unit.toNanos(Math.max(0, delay));
+        Timeout timeout = new Timeout(task, deadline);
+        activeCount.incrementAndGet();
+        pendingTimeouts.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * 満了も取り消しもされていないタイムアウトの数を返す
+     *
+     * @return 保持しているタイムアウトの数
+     */
+    public int size() {
+        return activeCount.get();
+    }
+
+    /**
+     * タイマーを停止する
+     * 未満了のタイムアウトは実行されない
+     */
+    public void stop() {
+        running = false;
+        worker.interrupt();
+        try {
+            worker.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 内部ヘルパー:
+     * ワーカースレッドの処理
+     * tick ごとに取り消しと登録を反映し、現在のバケットの満了したタイムアウトを実行する
+     */
+    private void run() {
+        while (running) {
+            long now = waitForNextTick();
+            if (now < 0) {
+                break;
+            }
+            processCancelled();
+            transferPending();
+            wheel[(int) (tick & mask)].expire(now);
+            tick++;
+        }
+    }
+
+    /**
+     * 内部ヘルパー:
+     * 次の tick の時刻まで待つ
+     *
+     * @return 起点からの経過時間(ナノ秒)、停止した場合は-1
+     */
+    private long waitForNextTick() {
+        long deadline = tickNanos * (tick + 1);
+        while (true) {
+            long current = System.nanoTime() - startTime;
+            long sleepMillis = (deadline - current + 999_999) / 1_000_000;
+            if (sleepMillis <= 0) {
+                return current;
+            }
+            try {
+                Thread.sleep(sleepMillis);
+            } catch (InterruptedException e) {
+                if (!running) {
+                    return -1;
+                }
+            }
+        }
+    }
+
+    /**
+     * 内部ヘルパー:
+     * 登録待ちのタイムアウトを満了時刻に対応するバケットへ移す
+     */
+    private void transferPending() {
+        for (int i = 0; i < MAX_TRANSFER_PER_TICK; i++) {
+            Timeout timeout = pendingTimeouts.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            long calculated = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (calculated - tick) / wheel.length;
+            // 既に過ぎている場合は現在のバケットに入れて、この tick で満了させる
+            long ticks = Math.max(calculated, tick);
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+    /**
+     * 内部ヘルパー:
+     * 取り消されたタイムアウトをバケットから外す
+     */
+    private void processCancelled() {
+        while (true) {
+            Timeout timeout = cancelledTimeouts.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    /**
+     * 予約したタイムアウトのハンドル
+     * リンクとラウンド数はワーカースレッドだけが操作する
+     */
+    public final class Timeout {
+        private static final int ST_INIT = 0;
+        private static final int ST_CANCELLED = 1;
+        private static final int ST_EXPIRED = 2;
+
+        /** 満了時に実行するタスク */
+        private final Runnable task;
+        /** 起点からの満了時刻(ナノ秒) */
+        private final long deadline;
+        /** 状態 */
+        private final AtomicInteger state = new AtomicInteger(ST_INIT);
+        /** 満了までにホイールが回る残り回数 */
+        private long remainingRounds;
+        /** 所属しているバケット */
+        private Bucket bucket;
+        /** バケット内の前後のタイムアウト */
+        private Timeout prev;
+        private Timeout next;
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * タイムアウトを取り消す
+         *
+         * @return {@code true}:取り消した, {@code false}:既に満了または取り消し済み
+         */
+        public boolean cancel() {
+            if (!state.compareAndSet(ST_INIT, ST_CANCELLED)) {
+                return false;
+            }
+            activeCount.decrementAndGet();
+            cancelledTimeouts.add(this);
+            return true;
+        }
+
+        /**
+         * 取り消されたか判定する
+         *
+         * @return {@code true}:取り消し済み
+         */
+        public boolean isCancelled() {
+            return state.get() == ST_CANCELLED;
+        }
+
+        /**
+         * 満了したか判定する
+         *
+         * @return {@code true}:満了済み
+         */
+        public boolean isExpired() {
+            return state.get() == ST_EXPIRED;
+        }
+
+        /**
+         * 内部ヘルパー:
+         * 満了させてタスクを実行する
+         */
+        private void expire() {
+            if (!state.compareAndSet(ST_INIT, ST_EXPIRED)) {
+                return;
+            }
+            activeCount.decrementAndGet();
+            try {
+                task.run();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * ホイールの1マス分のタイムアウトを持つ双方向リスト
+     */
+    private static final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        /**
+         * タイムアウトを末尾に追加する
+         *
+         * @param timeout 追加するタイムアウト
+         */
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        /**
+         * 満了時刻を過ぎたタイムアウトを実行し、残りはラウンド数を減らす
+         *
+         * @param now 起点からの現在時刻(ナノ秒)
+         */
+        void expire(long now) {
+            Timeout timeout = head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.isCancelled()) {
+                    remove(timeout);
+                } else if (timeout.remainingRounds <= 0) {
+                    if (timeout.deadline <= now) {
+                        remove(timeout);
+                        timeout.expire();
+                    }
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        /**
+         * タイムアウトをリストから外す
+         *
+         * @param timeout 外すタイムアウト
+         */
+        void remove(Timeout timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+            Timeout next = timeout.next;
+            if (timeout.prev != null) {
+                timeout.prev.next = next;
+            }
+            if (next != null) {
+                next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                head = next;
+            }
+            if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
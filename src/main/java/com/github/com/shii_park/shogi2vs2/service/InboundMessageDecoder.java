@@ -0,0 +1,373 @@
+package com.github.com.shii_park.shogi2vs2.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.com.shii_park.shogi2vs2.dto.request.InboundMessage;
+import com.github.com.shii_park.shogi2vs2.handler.BinaryProtocol;
+import com.github.com.shii_park.shogi2vs2.model.domain.Position;
+import com.github.com.shii_park.shogi2vs2.model.domain.action.DropAction;
+import com.github.com.shii_park.shogi2vs2.model.domain.action.GameAction;
+import com.github.com.shii_park.shogi2vs2.model.domain.action.MoveAction;
+import com.github.com.shii_park.shogi2vs2.model.enums.Direction;
+import com.github.com.shii_park.shogi2vs2.model.enums.PieceType;
+import com.github.com.shii_park.shogi2vs2.model.enums.Team;
+
+/**
+ * 受信メッセージ解析サービス
+ * WebSocketで受信したJSONまたはバイナリのメッセージを解析し、チームに応じて方向や座標を正規化したアクションに変換します。
+ * JSONはJsonNodeのツリーを作らず、JsonParserで先頭から1回だけ読んで必要なフィールドを取り出します。
+ * 上限を超える長さのメッセージや形式の不正なメッセージは読み始める前または読んでいる途中で破棄します。
+ */
+@Service
+public class InboundMessageDecoder {
+
+    /** 受信するJSONメッセージの長さの上限(文字数) */
+    static final int MAX_TEXT_LENGTH = 1024;
+
+    /** 方向の一覧(values()の配列コピーを避けるため保持する) */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * JSONシリアライザー(JsonParserの生成に使う)
+     */
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * 座標変換サービス
+     */
+    @Autowired
+    private BoardCoordinateService coordinateService;
+
+    /**
+     * JSONのメッセージを解析します。
+     * フィールドの順序は問いません。未知のフィールドは読み飛ばします。
+     * 
+     * @param userId ユーザーID
+     * @param teamId チームID
+     * @param payload 受信したJSON
+     * @return 解析結果。メッセージが不正な場合はnull
+     */
+    public InboundMessage decodeText(String userId, String teamId, String payload) {
+        if (payload == null || payload.length() > MAX_TEXT_LENGTH) {
+            System.out.println("Rejected oversize message from " + userId);
+            return null;
+        }
+
+        TextFields f = new TextFields();
+        try (JsonParser p = objectMapper.getFactory().createParser(payload)) {
+            if (p.nextToken() != JsonToken.START_OBJECT) {
+                System.out.println("Rejected malformed message from " + userId + ": not an object");
+                return null;
+            }
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                JsonToken value = p.nextToken();
+                switch (field) {
+                    case "type" -> f.type = requireScalar(p, value, field).getValueAsString();
+                    case "promote" -> f.promote = requireScalar(p, value, field).getValueAsBoolean();
+                    case "direction" -> readDirection(p, value, f);
+                    case "position" -> readPosition(p, value, f);
+                    case "piece" -> readPiece(p, value, f);
+                    default -> p.skipChildren();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            System.out.println("Rejected malformed message from " + userId + ": " + e.getOriginalMessage());
+            return null;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+
+        if (f.type == null) return null;
+        switch (f.type) {
+            case "moveRequest": {
+                if (teamId == null) return null;
+                List<Direction> dirs = normalizeDirections(f.dx, f.dy, Team.valueOf(teamId));
+                return new InboundMessage(f.type,
+                        new MoveAction(userId, teamId, f.pieceId, f.movePieceType, dirs, f.promote, Instant.now()));
+            }
+            case "dropPieceRequire": {
+                if (teamId == null) return null;
+                Position pos = normalizePosition(f.x, f.y, teamId);
+                return new InboundMessage(f.type,
+                        new DropAction(userId, teamId, f.dropPieceType, pos, Instant.now()));
+            }
+            default:
+                return new InboundMessage(f.type, null);
+        }
+    }
+
+    /**
+     * バイナリ形式のフレームを解析します。
+     * フレームの形式は{@link BinaryProtocol}を参照してください。
+     * 
+     * @param userId ユーザーID
+     * @param teamId チームID
+     * @param payload 受信したフレーム
+     * @return 解析結果。フレームが不正な場合はnull
+     */
+    public InboundMessage decodeBinary(String userId, String teamId, ByteBuffer payload) {
+        if (!payload.hasRemaining()) return null;
+        byte opcode = payload.get();
+
+        switch (opcode) {
+            case BinaryProtocol.OP_MOVE_REQUEST:
+            case BinaryProtocol.OP_DROP_REQUEST: {
+                GameAction action = (teamId != null) ? decodeBinaryAction(userId, teamId, payload, opcode) : null;
+                if (action == null) {
+                    System.out.println("Invalid binary frame from " + userId + ": opcode=" + opcode);
+                    return null;
+                }
+                String type = (opcode == BinaryProtocol.OP_MOVE_REQUEST) ? "moveRequest" : "dropPieceRequire";
+                return new InboundMessage(type, action);
+            }
+            case BinaryProtocol.OP_PHASE_END:
+                return new InboundMessage("phaseEnd", null);
+            case BinaryProtocol.OP_SYNC_REQUEST:
+                return new InboundMessage("syncRequest", null);
+            default:
+                System.out.println("Unknown binary opcode from " + userId + ": " + opcode);
+                return null;
+        }
+    }
+
+    /**
+     * 移動ベクトル（dx, dy）をDirection列に変換します。
+     * 桂馬の動きや1マス移動は完全一致で処理し、長距離移動は単位ベクトルを繰り返します。
+     * 
+     * @param dx X方向の移動量
+     * @param dy Y方向の移動量
+     * @return Direction列
+     */
+    List<Direction> convertToDirectionList(int dx, int dy) {
+        List<Direction> dirs = new ArrayList<>();
+
+        // 1. 完全一致を探す（桂馬の動きや1マス移動）
+        for (Direction d : DIRECTIONS) {
+            if (d.dx == dx && d.dy == dy) {
+                dirs.add(d);
+                return dirs;
+            }
+        }
+
+        // 2. 長距離移動の処理
+        // 単位ベクトルを計算
+        int unitX = Integer.signum(dx);
+        int unitY = Integer.signum(dy);
+
+        // 移動マス数を計算
+        int steps = Math.max(Math.abs(dx), Math.abs(dy));
+
+        // 単位ベクトルに対応するDirectionを検索
+        Direction unitDir = null;
+        for (Direction d : DIRECTIONS) {
+            if (d.dx == unitX && d.dy == unitY) {
+                unitDir = d;
+                break;
+            }
+        }
+
+        // 3. 移動マス数分だけDirectionを追加（例: [UP, UP, UP]）
+        if (unitDir != null) {
+            for (int i = 0; i < steps; i++) {
+                dirs.add(unitDir);
+            }
+        }
+
+        return dirs;
+    }
+
+    /**
+     * 内部ヘルパー:
+     * バイナリ形式の移動・駒打ちのフレームをアクションに変換する
+     * 
+     * @param userId ユーザーID
+     * @param teamId チームID
+     * @param payload オペコードを読み終えたフレーム
+     * @param opcode オペコード
+     * @return 変換したアクション。フレームが不正な場合はnull
+     */
+    private GameAction decodeBinaryAction(String userId, String teamId, ByteBuffer payload, byte opcode) {
+        if (opcode == BinaryProtocol.OP_MOVE_REQUEST) {
+            if (payload.remaining() < BinaryProtocol.MOVE_REQUEST_LENGTH) return null;
+            int pieceId = Short.toUnsignedInt(payload.getShort());
+            PieceType pieceType = BinaryProtocol.pieceType(Byte.toUnsignedInt(payload.get()));
+            int dx = payload.get();
+            int dy = payload.get();
+            boolean promote = (payload.get() & 0x01) != 0;
+            if (pieceType == null) return null;
+
+            List<Direction> dirs = normalizeDirections(dx, dy, Team.valueOf(teamId));
+            return new MoveAction(userId, teamId, pieceId, pieceType.name(), dirs, promote, Instant.now());
+        }
+
+        if (payload.remaining() < BinaryProtocol.DROP_REQUEST_LENGTH) return null;
+        PieceType pieceType = BinaryProtocol.pieceType(Byte.toUnsignedInt(payload.get()));
+        int x = Byte.toUnsignedInt(payload.get());
+        int y = Byte.toUnsignedInt(payload.get());
+        if (pieceType == null) return null;
+
+        return new DropAction(userId, teamId, pieceType.name(), normalizePosition(x, y, teamId), Instant.now());
+    }
+
+    /**
+     * 内部ヘルパー:
+     * 移動ベクトルをDirection列に変換し、チームに応じて方向を正規化する
+     * 
+     * @param dx X方向の移動量
+     * @param dy Y方向の移動量
+     * @param team チーム
+     * @return 正規化したDirection列
+     */
+    private List<Direction> normalizeDirections(int dx, int dy, Team team) {
+        List<Direction> dirs = convertToDirectionList(dx, dy);
+        dirs.replaceAll(d -> d.forTeam(team));
+        return dirs;
+    }
+
+    /**
+     * 内部ヘルパー:
+     * SECONDチームの場合は座標を正規化する
+     * 
+     * @param x X座標
+     * @param y Y座標
+     * @param teamId チームID
+     * @return 正規化した座標
+     */
+    private Position normalizePosition(int x, int y, String teamId) {
+        Position pos = new Position(x, y);
+        return "SECOND".equals(teamId) ? coordinateService.normalize(pos, teamId) : pos;
+    }
+
+    /**
+     * 内部ヘルパー:
+     * "direction"の{x, y}を読む
+     * 
+     * @param p パーサー(値の先頭のトークンにいる)
+     * @param value 値の先頭のトークン
+     * @param f 読み取り先
+     * @throws IOException 読み取りに失敗した場合
+     */
+    private void readDirection(JsonParser p, JsonToken value, TextFields f) throws IOException {
+        if (value != JsonToken.START_OBJECT) {
+            p.skipChildren();
+            return;
+        }
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "x" -> f.dx = requireScalar(p, p.currentToken(), field).getValueAsInt();
+                case "y" -> f.dy = requireScalar(p, p.currentToken(), field).getValueAsInt();
+                default -> p.skipChildren();
+            }
+        }
+    }
+
+    /**
+     * 内部ヘルパー:
+     * "position"の{x, y}を読む
+     * 
+     * @param p パーサー(値の先頭のトークンにいる)
+     * @param value 値の先頭のトークン
+     * @param f 読み取り先
+     * @throws IOException 読み取りに失敗した場合
+     */
+    private void readPosition(JsonParser p, JsonToken value, TextFields f) throws IOException {
+        if (value != JsonToken.START_OBJECT) {
+            p.skipChildren();
+            return;
+        }
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "x" -> f.x = requireScalar(p, p.currentToken(), field).getValueAsInt();
+                case "y" -> f.y = requireScalar(p, p.currentToken(), field).getValueAsInt();
+                default -> p.skipChildren();
+            }
+        }
+    }
+
+    /**
+     * 内部ヘルパー:
+     * "piece"を読む。移動では{id, type}のオブジェクト、駒打ちでは駒の種類の文字列
+     * 
+     * @param p パーサー(値の先頭のトークンにいる)
+     * @param value 値の先頭のトークン
+     * @param f 読み取り先
+     * @throws IOException 読み取りに失敗した場合
+     */
+    private void readPiece(JsonParser p, JsonToken value, TextFields f) throws IOException {
+        if (value != JsonToken.START_OBJECT) {
+            if (value.isScalarValue()) {
+                f.dropPieceType = p.getValueAsString("");
+            } else {
+                p.skipChildren();
+            }
+            return;
+        }
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "id" -> f.pieceId = requireScalar(p, p.currentToken(), field).getValueAsInt();
+                case "type" -> f.movePieceType = requireScalar(p, p.currentToken(), field).getValueAsString("");
+                default -> p.skipChildren();
+            }
+        }
+    }
+
+    /**
+     * 内部ヘルパー:
+     * 値がスカラー(文字列・数値・真偽値・null)であることを確かめる
+     * オブジェクトや配列のまま読み進めると、その中身を外側のフィールドとして読んでしまうため、メッセージごと拒否する
+     * 
+     * @param p パーサー(値の先頭のトークンにいる)
+     * @param value 値の先頭のトークン
+     * @param field フィールド名
+     * @return 同じパーサー
+     * @throws JsonParseException 値がオブジェクトまたは配列の場合
+     */
+    private JsonParser requireScalar(JsonParser p, JsonToken value, String field) throws JsonParseException {
+        if (value != null && value.isStructStart()) {
+            throw new JsonParseException(p, "\"" + field + "\" is not a scalar");
+        }
+        return p;
+    }
+
+    /**
+     * JSONのメッセージから読み取ったフィールド
+     * 欠けているフィールドは従来どおり0、false、空文字列として扱う
+     */
+    private static final class TextFields {
+        /** メッセージタイプ */
+        String type;
+        /** 移動量 */
+        int dx, dy;
+        /** 駒打ちの座標 */
+        int x, y;
+        /** 移動する駒のID */
+        int pieceId;
+        /** 移動する駒の種類 */
+        String movePieceType = "";
+        /** 打つ駒の種類 */
+        String dropPieceType = "";
+        /** 成るかどうか */
+        boolean promote;
+    }
+}
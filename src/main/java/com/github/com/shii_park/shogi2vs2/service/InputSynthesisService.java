@@ -2,25 +2,54 @@ package com.github.com.shii_park.shogi2vs2.service;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.com.shii_park.shogi2vs2.model.domain.action.GameAction;
+import com.github.com.shii_park.shogi2vs2.model.enums.Team;
 
 /**
  * チーム内の複数プレイヤーからの入力を合成するサービス
  * 各チームのプレイヤーからのアクション入力を受け付け、必要な人数が揃ったら取得する
+ * 入力はプロセス内で(gameId, teamId)ごとに集め、Redisへは設定で有効にしたときだけ複製する
+ * 複数ノードで動かす場合はapp.input.store=redisとし、Luaスクリプトで受付と回収を1回の呼び出しで原子的に行う
  */
 @Service
 public class InputSynthesisService {
 
+    /** 1チームのプレイヤー数(この数の入力が揃ったら合成完了) */
+    private static final int TEAM_SIZE = 2;
+
+    /** Redisモードで入力キーに付ける有効期限(秒) */
+    private static final long INPUT_TTL_SECONDS = 600;
+
+    /**
+     * 入力の重複チェック、追加、人数確認、回収を原子的に行うスクリプト
+     * 揃ったときは入力のJSONのリスト、それ以外は空のリストを返す
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> SUBMIT_SCRIPT = loadScript("scripts/submit_team_input.lua");
+
+    /**
+     * 入力を全て取り出して削除するスクリプト
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> DRAIN_SCRIPT = loadScript("scripts/drain_team_inputs.lua");
+
     /**
      * Redisテンプレート
-     * アクション入力の一時保存に使用
+     * Redisモードでの入力の保存と、プロセス内モードでの複製に使用
      */
     @Autowired
     private StringRedisTemplate redisTemplate;
@@ -33,74 +62,146 @@ public class InputSynthesisService {
     private ObjectMapper objectMapper;
 
     /**
-     * アクションを受け付け、Redisに保存する。
-     * 同じユーザーからの二重送信を弾くロジックを追加
+     * 入力をRedisにも複製するか
+     * 障害調査や他ノードからの参照が必要な場合に有効にする
+     */
+    @Value("${app.input.redis-mirror:false}")
+    private boolean redisMirrorEnabled;
+
+    /**
+     * 入力の保存先("memory": プロセス内, "redis": Redis)
+     * "redis"の場合は複製の設定は使わない
+     */
+    @Value("${app.input.store:memory}")
+    private String inputStore;
+
+    /**
+     * 入力待ちのアクション
+     * key: getKeyで生成したキー, value: 届いた順のアクション(不変リスト)
+     * 不変リストをCASで差し替えるため、ロックなしで更新できる
+     */
+    private final Map<String, List<GameAction>> pendingInputs = new ConcurrentHashMap<>();
+
+    /**
+     * アクションを受け付け、パートナーの入力と合成する。
+     * 同じユーザーからの二重送信は弾く
+     *
+     * @param gameId ゲームID
+     * @param teamId チームID
+     * @param action 受け付けるアクション
+     * @return チーム全員分の入力が揃ったときはそのリスト、まだ揃っていないときや二重送信のときは{@code null}
      */
     public List<GameAction> handleActionInput(String gameId, String teamId, GameAction action) {
         String inputKey = getKey(gameId, teamId);
-        String votersKey = inputKey + ":voters"; // 「誰が投票したか」を管理するキー
+        if (isRedisStore()) {
+            return submitToRedis(inputKey, action);
+        }
 
-        try {
-            // 1. 【二重送信チェック】
-            // SetにユーザーIDを追加してみる。
-            // add は「新しく追加できたら 1」「既にあったら 0」を返す。
-            Long added = redisTemplate.opsForSet().add(votersKey, action.getUserId());
+        while (true) {
+            List<GameAction> current = pendingInputs.get(inputKey);
 
-            if (added == null || added == 0) {
-                System.out.println("Duplicate action ignored: " + action.getUserId());
-                return null;
+            // 1. チームで最初の入力
+            if (current == null) {
+                if (pendingInputs.putIfAbsent(inputKey, List.of(action)) == null) {
+                    mirrorInput(inputKey, action);
+                    return null;
+                }
+                continue;
             }
 
-            // 2. まだ送信していない人なら、リストに追加
-            String json = objectMapper.writeValueAsString(action);
-            redisTemplate.opsForList().rightPush(inputKey, json);
+            // 2. 【二重送信チェック】
+            for (GameAction a : current) {
+                if (a.getUserId().equals(action.getUserId())) {
+                    System.out.println("Duplicate action ignored: " + action.getUserId());
+                    return null;
+                }
+            }
 
-            // 3. 2人分揃ったか確認
-            Long size = redisTemplate.opsForList().size(inputKey);
+            List<GameAction> next = new ArrayList<>(current.size() + 1);
+            next.addAll(current);
+            next.add(action);
 
-            if (size != null && size >= 2) {
-                return retrieveAndClear(inputKey, votersKey);
+            // 3. 全員分揃ったら取り出して完了
+            if (next.size() >= TEAM_SIZE) {
+                if (pendingInputs.remove(inputKey, current)) {
+                    clearMirror(inputKey);
+                    return next;
+                }
+                continue;
             }
 
-        } catch (JsonProcessingException e) {
-            e.printStackTrace();
+            if (pendingInputs.replace(inputKey, current, List.copyOf(next))) {
+                mirrorInput(inputKey, action);
+                return null;
+            }
         }
-
-        return null;
     }
 
     /**
      * Timeoutしたとき入力がそろってなくても強制回収
+     *
+     * @param gameId ゲームID
+     * @param teamId チームID
+     * @return 届いていたアクションのリスト(not {@code null})
      */
     public List<GameAction> forceRetrieveInputs(String gameId, String teamId) {
         String inputKey = getKey(gameId, teamId);
-        String votersKey = inputKey + ":voters";
-        return retrieveAndClear(inputKey, votersKey);
+        if (isRedisStore()) {
+            return drainFromRedis(inputKey);
+        }
+        List<GameAction> drained = pendingInputs.remove(inputKey);
+        clearMirror(inputKey);
+        return drained != null ? new ArrayList<>(drained) : new ArrayList<>();
     }
 
     // --- 内部ヘルパー ---
 
     /**
-     * Redisからアクション入力を取得し、データを削除する
-     * 
+     * Redisモードでアクションを受け付ける
+     * スクリプトの1回の呼び出しで受付と回収を行うため、チームの2人が同時に送信してもターンは1回だけ実行される
+     *
      * @param inputKey アクションリストのRedisキー
-     * @param votersKey 投票者セットのRedisキー
-     * @return 取得したアクションのリスト
+     * @param action 受け付けるアクション
+     * @return 揃ったときはアクションのリスト、それ以外は{@code null}
      */
-    private List<GameAction> retrieveAndClear(String inputKey, String votersKey) {
-        // データを取得
-        List<String> jsonList = redisTemplate.opsForList().range(inputKey, 0, -1);
-        
-        //  入力データだけでなく投票者リストも消す
-        redisTemplate.delete(inputKey);
-        redisTemplate.delete(votersKey);
+    private List<GameAction> submitToRedis(String inputKey, GameAction action) {
+        try {
+            String json = objectMapper.writeValueAsString(action);
+            List<?> batch = redisTemplate.execute(SUBMIT_SCRIPT, List.of(inputKey, getVotersKey(inputKey)),
+                    action.getUserId(), json, String.valueOf(TEAM_SIZE), String.valueOf(INPUT_TTL_SECONDS));
+            if (batch == null || batch.isEmpty()) {
+                return null;
+            }
+            return parseActions(batch);
+        } catch (JsonProcessingException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
 
-        List<GameAction> result = new ArrayList<>();
-        if (jsonList == null) return result;
+    /**
+     * Redisモードで入力を全て取り出して削除する
+     *
+     * @param inputKey アクションリストのRedisキー
+     * @return 取り出したアクションのリスト
+     */
+    private List<GameAction> drainFromRedis(String inputKey) {
+        List<?> batch = redisTemplate.execute(DRAIN_SCRIPT, List.of(inputKey, getVotersKey(inputKey)));
+        if (batch == null) return new ArrayList<>();
+        return parseActions(batch);
+    }
 
-        for (String json : jsonList) {
+    /**
+     * RedisのJSON文字列のリストをアクションに変換する
+     *
+     * @param jsonList JSON文字列のリスト
+     * @return アクションのリスト
+     */
+    private List<GameAction> parseActions(List<?> jsonList) {
+        List<GameAction> result = new ArrayList<>();
+        for (Object json : jsonList) {
             try {
-                GameAction action = objectMapper.readValue(json, GameAction.class);
+                GameAction action = objectMapper.readValue(json.toString(), GameAction.class);
                 result.add(action);
             } catch (JsonProcessingException e) {
                 e.printStackTrace();
@@ -110,13 +211,116 @@ public class InputSynthesisService {
     }
 
     /**
-     * ゲームIDとチームIDからRedisキーを生成する
-     * 
+     * 終了したゲームの入力を破棄する
+     * プロセス内の入力待ちと、Redisの入力リスト・投票者セットを両チーム分削除する
+     *
+     * @param gameId ゲームID
+     */
+    public void clearGame(String gameId) {
+        for (Team team : Team.values()) {
+            String inputKey = getKey(gameId, team.name());
+            pendingInputs.remove(inputKey);
+            if (isRedisStore() || redisMirrorEnabled) {
+                try {
+                    redisTemplate.delete(List.of(inputKey, getVotersKey(inputKey)));
+                } catch (Exception e) {
+                    System.out.println("Failed to clear inputs in Redis: " + inputKey);
+                }
+            }
+        }
+    }
+
+    /**
+     * 他のノードに移ったゲームのプロセス内の入力待ちを破棄する
+     * Redisの入力リスト・投票者セットは移った先のノードが使い続けるため削除しない
+     *
+     * @param gameId ゲームID
+     */
+    public void evictGame(String gameId) {
+        for (Team team : Team.values()) {
+            pendingInputs.remove(getKey(gameId, team.name()));
+        }
+    }
+
+    /**
+     * 有効な場合、受け付けたアクションをRedisのリストに複製する
+     * 複製に失敗しても合成には影響させない
+     *
+     * @param inputKey アクションリストのRedisキー
+     * @param action 複製するアクション
+     */
+    private void mirrorInput(String inputKey, GameAction action) {
+        if (!redisMirrorEnabled) return;
+        try {
+            String json = objectMapper.writeValueAsString(action);
+            redisTemplate.opsForList().rightPush(inputKey, json);
+            redisTemplate.expire(inputKey, INPUT_TTL_SECONDS, TimeUnit.SECONDS);
+        } catch (JsonProcessingException e) {
+            e.printStackTrace();
+        } catch (Exception e) {
+            System.out.println("Failed to mirror input to Redis: " + inputKey);
+        }
+    }
+
+    /**
+     * 有効な場合、Redisに複製したアクションを削除する
+     *
+     * @param inputKey アクションリストのRedisキー
+     */
+    private void clearMirror(String inputKey) {
+        if (!redisMirrorEnabled) return;
+        try {
+            redisTemplate.delete(inputKey);
+        } catch (Exception e) {
+            System.out.println("Failed to clear mirrored input in Redis: " + inputKey);
+        }
+    }
+
+    /**
+     * 入力の保存先がRedisか判定する
+     *
+     * @return {@code true}:Redisモード
+     */
+    private boolean isRedisStore() {
+        return "redis".equalsIgnoreCase(inputStore);
+    }
+
+    /**
+     * 入力キーから投票者セットのキーを生成する
+     * 入力キーのハッシュタグを引き継ぐため、同じスロットに置かれる
+     *
+     * @param inputKey アクションリストのRedisキー
+     * @return 投票者セットのRedisキー
+     */
+    private String getVotersKey(String inputKey) {
+        return inputKey + ":voters";
+    }
+
+    /**
+     * クラスパスのLuaスクリプトを読み込む
+     * ハッシュはSpringが計算して保持し、2回目以降はEVALSHAで実行される
+     *
+     * @param path クラスパス上のスクリプトのパス
+     * @return スクリプト
+     */
+    @SuppressWarnings("rawtypes")
+    private static RedisScript<List> loadScript(String path) {
+        DefaultRedisScript<List> script = new DefaultRedisScript<>();
+        script.setLocation(new ClassPathResource(path));
+        script.setResultType(List.class);
+        return script;
+    }
+
+    /**
+     * ゲームIDとチームIDからキーを生成する
+     * ゲームIDをハッシュタグ({})で囲み、Redis Clusterでも投票者セットと同じスロットに置く
+     * (2つのキーを1つのスクリプトで扱うため)
+     *
      * @param gameId ゲームID
      * @param teamId チームID
-     * @return 生成されたRedisキー
+     * @return 生成されたキー
      */
     private String getKey(String gameId, String teamId) {
-        return "game:" + gameId + ":team:" + teamId + ":inputs";
+        return "game:{" + gameId + "}:team:" + teamId + ":inputs";
     }
-}
\ No newline at end of file
+}
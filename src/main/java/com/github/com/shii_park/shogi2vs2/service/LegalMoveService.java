@@ -0,0 +1,71 @@
+package com.github.com.shii_park.shogi2vs2.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.github.com.shii_park.shogi2vs2.dto.response.LegalActionsResponse;
+import com.github.com.shii_park.shogi2vs2.dto.response.LegalDropResponse;
+import com.github.com.shii_park.shogi2vs2.dto.response.LegalMoveResponse;
+import com.github.com.shii_park.shogi2vs2.model.domain.Game;
+import com.github.com.shii_park.shogi2vs2.model.domain.LegalActions;
+import com.github.com.shii_park.shogi2vs2.model.domain.LegalDrop;
+import com.github.com.shii_park.shogi2vs2.model.domain.LegalMove;
+import com.github.com.shii_park.shogi2vs2.model.enums.Direction;
+import com.github.com.shii_park.shogi2vs2.model.enums.Team;
+
+/**
+ * 合法手サービス
+ * ゲームの局面からチームの合法手を列挙し、クライアントに渡す形式に変換します。
+ * SECONDチームには座標と方向を反転させた合法手を返します。
+ */
+@Service
+public class LegalMoveService {
+
+    /**
+     * 座標変換サービス
+     */
+    @Autowired
+    private BoardCoordinateService coordinateService;
+
+    /**
+     * チームの合法手を、そのチームの視点で取得します。
+     * 
+     * @param game ゲーム
+     * @param team 合法手を取得するチーム
+     * @return 合法手一覧
+     */
+    public LegalActionsResponse getLegalActions(Game game, Team team) {
+        LegalActions actions = game.getLegalActions(team);
+        String teamId = team.name();
+
+        // 盤上の駒の移動を変換
+        List<LegalMoveResponse> moves = new ArrayList<>(actions.moves().size());
+        for (LegalMove move : actions.moves()) {
+            List<String> dirNames = new ArrayList<>(move.directions().size());
+            for (Direction d : move.directions()) {
+                // SECONDチームは方向を反転(FIRSTはそのまま)
+                dirNames.add(d.forTeam(team).name());
+            }
+            moves.add(new LegalMoveResponse(
+                    move.piece().getId(),
+                    move.piece().getType().name(),
+                    coordinateService.normalize(move.from(), teamId),
+                    coordinateService.normalize(move.to(), teamId),
+                    dirNames,
+                    move.promotable(),
+                    move.falls()));
+        }
+
+        // 手駒の配置を変換
+        List<LegalDropResponse> drops = new ArrayList<>(actions.drops().size());
+        for (LegalDrop drop : actions.drops()) {
+            drops.add(new LegalDropResponse(
+                    drop.type().name(),
+                    coordinateService.normalize(drop.position(), teamId)));
+        }
+        return new LegalActionsResponse(moves, drops);
+    }
+}
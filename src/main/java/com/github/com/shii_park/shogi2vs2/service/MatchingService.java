@@ -1,19 +1,44 @@
 package com.github.com.shii_park.shogi2vs2.service;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.com.shii_park.shogi2vs2.dto.response.GameStatusResponse;
+import com.github.com.shii_park.shogi2vs2.dto.response.MatchedGame;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 
 /**
  * プレイヤーのマッチング処理を管理するサービス
  * キューへの参加、マッチング状態の確認、ゲーム作成などを行う
+ * キューはRedisのソート済みセットで、スコアにレーティングと参加時刻をまとめて入れる({@link #queueScore(int, long)})
+ * 参加は1つのLuaスクリプトで原子的に行う
+ * 対戦は一定間隔のバッチ処理で組む。ロックを取れた1つのノードだけがキューをページごとに読み出し、
+ * {@link RatedMatchmaker}でレーティングの近い4人を組み、組んだ対戦をまとめてLuaスクリプトで原子的に取り出す
+ * 取り出しは対戦ごとに全員がまだキューにいる場合だけ成功するため、複数のノードが同時に処理してもプレイヤーが分断・消失しない
+ * 取り出しと同じスクリプトでゲームの予約も有効期限付きでRedisに書き込むため、プレイヤーはどのノードにも接続できる
+ * 待機はキャンセルでき、マッチ状態の有効期限を過ぎた待機者はバッチ処理でキューから取り除く
+ * 待機中のマッチ状態の有効期限は、状態の確認(ポーリング)と再参加のたびに延ばす
+ * 対戦が組まれたことはRedisのチャンネル{@value #MATCHED_CHANNEL}で全ノードに配り、ロビーのWebSocketで対戦者に送る
  */
 @Service
 public class MatchingService {
@@ -31,8 +56,30 @@ public class MatchingService {
     @Autowired
     private GameManagementService gameManagementService;
 
-    /** マッチングキューのRedisキー */
-    private static final String MATCHING_QUEUE_KEY = "matching:queue";
+    /**
+     * レーティング管理サービス
+     */
+    @Autowired
+    private RatingService ratingService;
+
+    /**
+     * JSONシリアライザ
+     * マッチング成立の通知に使用
+     */
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /** マッチング成立を全ノードに配るRedisのチャンネル */
+    public static final String MATCHED_CHANNEL = "matching:matched";
+
+    /** マッチングキュー(スコアはレーティングと参加時刻)のRedisキー */
+    private static final String MATCHING_QUEUE_KEY = "matching:waiting";
+
+    /** キューのスコアでレーティングに掛ける値(下位にエポック秒の参加時刻を入れる) */
+    private static final double RATING_MULTIPLIER = 4294967296.0;
+
+    /** バッチ処理のロックのRedisキー */
+    private static final String MATCHING_LOCK_KEY = "matching:lock";
     
     /** ユーザーマッチ状態のRedisキープレフィックス */
     private static final String USER_MATCH_STATUS_KEY_PREFIX = "matching:status:";
@@ -40,57 +87,293 @@ public class MatchingService {
     /** ゲームあたりの必要プレイヤー数 */
     private static final int PLAYERS_PER_GAME = 4;
 
+    /** マッチ状態の有効期限(秒) */
+    private static final long STATUS_TTL_SECONDS = 30 * 60;
+
+    /** 1回のスクリプトでまとめて取り出す対戦数の上限(スクリプトの実行でRedisを長く止めない) */
+    static final int CLAIM_BATCH_SIZE = 64;
+
+    /** レーティングの帯(バケット)の幅 */
+    private static final int BUCKET_WIDTH = 50;
+    /** 待ち始めたときに許容するレーティングの幅 */
+    private static final int BASE_WINDOW = 100;
+    /** 1秒待つごとに広げるレーティングの幅 */
+    private static final int WIDEN_PER_SECOND = 10;
+    /** 許容するレーティングの幅の上限 */
+    private static final int MAX_WINDOW = 800;
+
+    /**
+     * 二重参加の確認とキューへの追加を原子的に行うスクリプト
+     * 追加したときは1、既にキューにいるときは0を返す
+     */
+    private static final RedisScript<Long> JOIN_SCRIPT = loadScript("scripts/join_matching_queue.lua", Long.class);
+
+    /**
+     * 組んだ対戦のユーザーをまとめて取り出してマッチ済みにし、ゲームを予約するスクリプト
+     * 対戦ごとに、取り出したときは1、誰かが既にいないときは0を返す
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> CLAIM_SCRIPT = loadScript("scripts/claim_matches.lua", List.class);
+
+    /**
+     * 待機中のユーザーをキューから取り除くスクリプト
+     * 取り除いたときは1、キューにいない(マッチ済みを含む)ときは0を返す
+     */
+    private static final RedisScript<Long> LEAVE_SCRIPT = loadScript("scripts/leave_matching_queue.lua", Long.class);
+
+    /**
+     * バッチ処理のロックを持ち主の場合だけ解放するスクリプト
+     */
+    private static final RedisScript<Long> RELEASE_LOCK_SCRIPT = loadScript("scripts/release_lock.lua", Long.class);
+
+    /** バッチ処理の間隔(ミリ秒) */
+    @Value("${app.matching.batch-interval-ms:500}")
+    private long batchIntervalMs;
+
+    /**
+     * バッチ処理のロックの有効期限(ミリ秒)
+     * 1回の処理時間より十分長くし、処理の途中で他のノードがロックを取らないようにする(処理後に解放する)
+     */
+    @Value("${app.matching.lock-ttl-ms:10000}")
+    private long lockTtlMs;
+
+    /** キューを1回に読み出す件数(1回のコマンドでRedisを長く止めない) */
+    @Value("${app.matching.page-size:1000}")
+    private int pageSize;
+
+    /** バッチ処理のロックの持ち主としてのこのノードの識別子 */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /** バッチ処理で使うマッチメイカー(バッチ処理のスレッドだけが使う) */
+    private final RatedMatchmaker matchmaker = new RatedMatchmaker(BUCKET_WIDTH, BASE_WINDOW, WIDEN_PER_SECOND,
+            MAX_WINDOW);
+
+    /** バッチ処理を実行するスレッド */
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * 定期的なバッチ処理を開始する
+     */
+    @PostConstruct
+    public void init() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "matchmaker");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::runBatch, batchIntervalMs, batchIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * サービス終了時のクリーンアップ処理
+     */
+    @PreDestroy
+    public void cleanup() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
     /**
      * マッチングキューにユーザーを追加する
-     * ユーザーの状態を「WAITING」に設定し、マッチング処理を試みる
+     * ユーザーのレーティングでキューに入れ、状態を「WAITING」に設定する。対戦はバッチ処理で組む
+     * 既にキューにいるユーザーは追加せず、マッチ状態の有効期限だけを延ばす
      * 
      * @param userId 参加するユーザーのID
+     * @return マッチング状態(既にキューにいた場合は現在の状態)
      */
-    public void joinQueue(String userId){
-        redisTemplate.opsForList().rightPush(MATCHING_QUEUE_KEY, userId);
-        String statusKey = USER_MATCH_STATUS_KEY_PREFIX + userId;
-        redisTemplate.opsForValue().set(statusKey,"WAITING");
-        redisTemplate.expire(statusKey, 30,TimeUnit.MINUTES);
+    public GameStatusResponse joinQueue(String userId){
+        Long added = redisTemplate.execute(JOIN_SCRIPT,
+                List.of(MATCHING_QUEUE_KEY, getStatusKey(userId), RatingService.RATINGS_KEY),
+                userId, String.valueOf(System.currentTimeMillis()),
+                String.valueOf(RatingService.INITIAL_RATING), String.valueOf(STATUS_TTL_SECONDS));
 
-        tryMatchMaking();
+        if(added == null || added == 0L){
+            return checkStatus(userId);
+        }
+        return new GameStatusResponse("WAITING",null);
     }
-    
+
+    /**
+     * マッチングキューからユーザーを取り除く(待機のキャンセル)
+     * 既にマッチしたユーザーは取り除かず、現在の状態を返す
+     * 
+     * @param userId 待機をやめるユーザーのID
+     * @return キャンセル後のマッチング状態(取り除いた場合はNOT_QUEUED)
+     */
+    public GameStatusResponse leaveQueue(String userId) {
+        Long removed = redisTemplate.execute(LEAVE_SCRIPT, List.of(MATCHING_QUEUE_KEY, getStatusKey(userId)),
+                userId);
+        if (removed == null || removed == 0L) {
+            return checkStatus(userId);
+        }
+        return new GameStatusResponse("NOT_QUEUED", null);
+    }
+
+    /**
+     * 待機中のユーザーから対戦を組む
+     * ロックを取れたノードだけが実行し、取れなかった場合は何もしない。処理が終わったらロックを解放する
+     * バッチ処理のスレッドで定期的に実行する
+     */
+    void runBatch() {
+        try {
+            Boolean locked = redisTemplate.opsForValue().setIfAbsent(MATCHING_LOCK_KEY, nodeId,
+                    Duration.ofMillis(lockTtlMs));
+            if (!Boolean.TRUE.equals(locked)) return;
+            try {
+                matchQueue();
+            } finally {
+                redisTemplate.execute(RELEASE_LOCK_SCRIPT, List.of(MATCHING_LOCK_KEY), nodeId);
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * 内部ヘルパー:
+     * キューをページごとに読み出して対戦を組み、組んだ対戦をまとめて取り出す
+     * ページの間に参加・退出があると同じユーザーを2回読むことがあるため、読んだユーザーは1回だけ入れる
+     * 読み飛ばしたユーザーは次のバッチ処理で組まれる
+     * マッチ状態がもう無い(期限までポーリングも再参加もしなかった)待機者は組まずにキューから取り除く
+     */
+    private void matchQueue() {
+        long now = System.currentTimeMillis();
+        Set<String> seen = new HashSet<>();
+        List<String> stale = new ArrayList<>();
+
+        matchmaker.clear();
+        try {
+            for (long start = 0;; start += pageSize) {
+                Set<ZSetOperations.TypedTuple<String>> page = redisTemplate.opsForZSet()
+                        .rangeWithScores(MATCHING_QUEUE_KEY, start, start + pageSize - 1);
+                if (page == null || page.isEmpty()) break;
+
+                List<ZSetOperations.TypedTuple<String>> entries = new ArrayList<>(page.size());
+                List<String> statusKeys = new ArrayList<>(page.size());
+                for (ZSetOperations.TypedTuple<String> entry : page) {
+                    String userId = entry.getValue();
+                    if (userId == null || entry.getScore() == null || !seen.add(userId)) continue;
+                    entries.add(entry);
+                    statusKeys.add(getStatusKey(userId));
+                }
+
+                // ページの待機者のマッチ状態を1回のコマンドでまとめて読む
+                List<String> statuses = entries.isEmpty() ? List.of() : redisTemplate.opsForValue().multiGet(statusKeys);
+                for (int i = 0; i < entries.size(); i++) {
+                    String userId = entries.get(i).getValue();
+                    if (statuses != null && statuses.get(i) == null) {
+                        stale.add(userId);
+                        continue;
+                    }
+                    double score = entries.get(i).getScore();
+                    matchmaker.add(userId, ratingOf(score), joinedAtOf(score));
+                }
+                if (page.size() < pageSize) break;
+            }
+
+            for (String userId : stale) {
+                leaveQueue(userId);
+            }
+            if (matchmaker.size() >= PLAYERS_PER_GAME) {
+                claim(matchmaker.match(now));
+            }
+        } finally {
+            matchmaker.clear();
+        }
+    }
+
     /**
-     * 人数が揃ったらゲームを作成する
-     * キューから必要人数分のプレイヤーを取り出し、ゲームを作成する
-     * スレッドセーフのためsynchronizedで同期化
-     */
-    private synchronized void tryMatchMaking(){
-        Long queueSize = redisTemplate.opsForList().size(MATCHING_QUEUE_KEY);
-        if(queueSize != null && queueSize >= PLAYERS_PER_GAME){
-            List<String> players = new ArrayList<>();
-            for(int i = 0 ; i < PLAYERS_PER_GAME; i++){
-                String userId = (String) redisTemplate.opsForList().leftPop(MATCHING_QUEUE_KEY);
-                if(userId != null){
-                    players.add(userId);
+     * 内部ヘルパー:
+     * 組んだ対戦のユーザーをまとめてキューから取り出し、ゲームを予約して全ノードに通知する
+     * 取り出しと予約はスクリプトで{@value #CLAIM_BATCH_SIZE}対戦ずつ行い、通知も同じ単位で1回にまとめる
+     * 
+     * @param matches 組んだ対戦(ユーザーIDは0,1番目がFIRST、2,3番目がSECOND)
+     */
+    private void claim(List<RatedMatchmaker.Match> matches) {
+        for (int from = 0; from < matches.size(); from += CLAIM_BATCH_SIZE) {
+            List<RatedMatchmaker.Match> batch = matches.subList(from, Math.min(matches.size(), from + CLAIM_BATCH_SIZE));
+            List<String> gameIds = new ArrayList<>(batch.size());
+            // スクリプトが書き換えるキーはすべてKEYSで渡す(ARGVと同じ並び)
+            List<String> keys = new ArrayList<>(1 + batch.size() * (PLAYERS_PER_GAME + 1));
+            List<Object> args = new ArrayList<>(3 + batch.size() * (PLAYERS_PER_GAME + 1));
+            keys.add(MATCHING_QUEUE_KEY);
+            args.add(String.valueOf(STATUS_TTL_SECONDS));
+            args.add(String.valueOf(gameManagementService.getReservationTtlSeconds()));
+            args.add(String.valueOf(PLAYERS_PER_GAME));
+            for (RatedMatchmaker.Match match : batch) {
+                String gameId = gameManagementService.newGameId();
+                gameIds.add(gameId);
+                keys.add(GameManagementService.RESERVATION_KEY_PREFIX + gameId);
+                args.add(gameId);
+                for (String userId : match.userIds()) {
+                    keys.add(getStatusKey(userId));
+                    args.add(userId);
                 }
             }
 
-            if(players.size()== PLAYERS_PER_GAME){
-                String gameId = gameManagementService.createGameForPlayers(players);
+            List<?> claimed = redisTemplate.execute(CLAIM_SCRIPT, keys, args.toArray());
+            if (claimed == null) continue;
 
-                for(String userId : players){
-                    String statusKey = USER_MATCH_STATUS_KEY_PREFIX + userId;
-                    redisTemplate.opsForValue().set(statusKey,"MATCHED:" + gameId);
+            List<MatchedGame> reserved = new ArrayList<>();
+            for (int i = 0; i < batch.size() && i < claimed.size(); i++) {
+                if (Long.valueOf(1L).equals(claimed.get(i))) {
+                    reserved.add(new MatchedGame(gameIds.get(i), batch.get(i).userIds()));
+                    System.out.println("Game reserved: " + gameIds.get(i) + " for players: " + batch.get(i).userIds());
                 }
             }
+            if (reserved.isEmpty()) continue;
+            try {
+                redisTemplate.convertAndSend(MATCHED_CHANNEL, objectMapper.writeValueAsString(reserved));
+            } catch (JsonProcessingException e) {
+                // 通知できなくても/api/match/statusで確認できる
+                e.printStackTrace();
+            }
         }
     }
 
+    /**
+     * キューのスコアを計算する
+     * 参加のスクリプトと同じく、レーティングを上位に、参加時刻(エポック秒)を下位に入れる
+     * 同じレーティングでは先に参加したユーザーが前に並ぶ
+     *
+     * @param rating レーティング
+     * @param joinedAtMillis 参加時刻(エポックミリ秒)
+     * @return スコア
+     */
+    static double queueScore(int rating, long joinedAtMillis) {
+        return rating * RATING_MULTIPLIER + joinedAtMillis / 1000;
+    }
+
+    /**
+     * キューのスコアからレーティングを取り出す
+     *
+     * @param score スコア
+     * @return レーティング
+     */
+    static int ratingOf(double score) {
+        return (int) Math.floor(score / RATING_MULTIPLIER);
+    }
+
+    /**
+     * キューのスコアから参加時刻を取り出す
+     *
+     * @param score スコア
+     * @return 参加時刻(エポックミリ秒、秒単位に切り捨て済み)
+     */
+    static long joinedAtOf(double score) {
+        return (long) (score - ratingOf(score) * RATING_MULTIPLIER) * 1000;
+    }
+
     /**
      * ユーザーがマッチング状況を確認する
+     * 待機中の場合は、確認が続いている間キューから取り除かれないようにマッチ状態の有効期限を延ばす
      * 
      * @param userId 確認するユーザーのID
      * @return マッチング状態とゲームID（マッチング済みの場合）
      */
     public GameStatusResponse checkStatus(String userId){
-        String statusKey = USER_MATCH_STATUS_KEY_PREFIX + userId;
-        String statusVal = redisTemplate.opsForValue().get(statusKey);
+        String statusVal = redisTemplate.opsForValue().get(getStatusKey(userId));
 
         if(statusVal == null){
             return new GameStatusResponse("NOT_QUEUED",null);
@@ -99,7 +382,34 @@ public class MatchingService {
             String gameId = statusVal.split(":")[1];
             return new GameStatusResponse("MATCHED",gameId);
         }else{
+            redisTemplate.expire(getStatusKey(userId), Duration.ofSeconds(STATUS_TTL_SECONDS));
             return new GameStatusResponse("WAITING",null);
         }
     }
+
+    /**
+     * ユーザーIDからマッチ状態のRedisキーを生成する
+     * スクリプトで書き換えるときもKEYSとして渡す
+     *
+     * @param userId ユーザーID
+     * @return 生成されたキー
+     */
+    private String getStatusKey(String userId) {
+        return USER_MATCH_STATUS_KEY_PREFIX + userId;
+    }
+
+    /**
+     * クラスパスのLuaスクリプトを読み込む
+     * ハッシュはSpringが計算して保持し、2回目以降はEVALSHAで実行される
+     *
+     * @param path クラスパス上のスクリプトのパス
+     * @param resultType 戻り値の型
+     * @return スクリプト
+     */
+    private static <T> RedisScript<T> loadScript(String path, Class<T> resultType) {
+        DefaultRedisScript<T> script = new DefaultRedisScript<>();
+        script.setLocation(new ClassPathResource(path));
+        script.setResultType(resultType);
+        return script;
+    }
 }
@@ -1,15 +1,25 @@
 package com.github.com.shii_park.shogi2vs2.service;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.web.socket.BinaryMessage;
 import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
 import org.springframework.web.socket.WebSocketSession;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.com.shii_park.shogi2vs2.dto.response.BoardDelta;
+import com.github.com.shii_park.shogi2vs2.dto.response.BoardSnapshot;
+import com.github.com.shii_park.shogi2vs2.dto.response.LegalActionsResponse;
+import com.github.com.shii_park.shogi2vs2.handler.BinaryProtocol;
 import com.github.com.shii_park.shogi2vs2.handler.GameWebSocketHandler;
+import com.github.com.shii_park.shogi2vs2.handler.SpectatorRegistry;
 import com.github.com.shii_park.shogi2vs2.model.domain.Position;
 import com.github.com.shii_park.shogi2vs2.model.domain.TurnExecutionResult;
 import com.github.com.shii_park.shogi2vs2.model.domain.action.DropAction;
@@ -22,6 +32,9 @@ import com.github.com.shii_park.shogi2vs2.model.enums.Team;
  * WebSocket通知サービス
  * ゲームイベントをWebSocketを通じて各プレイヤーに通知します。
  * チームごとに座標や方向を反転させて配信します。
+ * 配信するメッセージはチームの視点ごとに1回だけUTF-8のバイト列に直接書き出し、同じフレームを全セッションに送ります。
+ * バイナリ形式を合意したセッションにはmoveResultとtimeUpを{@link BinaryProtocol}のフレームで送ります。
+ * 全員向けのフレームは観戦者にも、観戦者の選んだ視点のものをそのまま送ります(チームの問い合わせは行いません)。
  */
 @Service
 public class NotificationService {
@@ -38,6 +51,12 @@ public class NotificationService {
     @Autowired
     private GameWebSocketHandler webSocketHandler;
     
+    /**
+     * 観戦者の登録簿
+     */
+    @Autowired
+    private SpectatorRegistry spectatorRegistry;
+    
     /**
      * 座標変換サービス
      */
@@ -50,6 +69,9 @@ public class NotificationService {
     @Autowired
     private ObjectMapper objectMapper;
 
+    /** フレームの書き出しに使うバッファの初期サイズ(通常のフレームが拡張なしで収まる大きさ) */
+    private static final int FRAME_BUFFER_SIZE = 1024;
+
     /**
      * ゲーム開始を全プレイヤーに通知します。
      * 
@@ -60,6 +82,16 @@ public class NotificationService {
         broadcastRaw(gameId, String.format("{\"type\":\"gameStart\",\"gameId\":\"%s\"}", gameId));
     }
 
+    /**
+     * 予約の期限切れを接続済みのプレイヤーに通知します。
+     * 4人が揃わないまま期限を過ぎた予約に使います。通知の後にセッションは切断されます。
+     * 
+     * @param gameId ゲームID
+     */
+    public void broadcastReservationExpired(String gameId) {
+        broadcastRaw(gameId, String.format("{\"type\":\"reservationExpired\",\"gameId\":\"%s\"}", gameId));
+    }
+
     /**
      * ターン実行結果を全プレイヤーに通知します。
      * チームごとに座標と方向を反転させて配信します。
@@ -75,28 +107,33 @@ public class NotificationService {
 
         try {
             // FIRSTチーム用の通常メッセージを作成
-            String jsonNormal = objectMapper.writeValueAsString(results);
-            TextMessage msgNormal = new TextMessage(String.format("{\"type\":\"moveResult\",\"data\":%s}", jsonNormal));
+            TextMessage msgNormal = encodeFrame("moveResult", "data", results);
 
             // SECONDチーム用に座標と方向を反転したメッセージを作成
             List<TurnExecutionResult> reversedResults = new ArrayList<>();
             for (TurnExecutionResult res : results) {
                 reversedResults.add(reverseResult(res));
             }
-            String jsonReversed = objectMapper.writeValueAsString(reversedResults);
-            TextMessage msgReversed = new TextMessage(
-                    String.format("{\"type\":\"moveResult\",\"data\":%s}", jsonReversed));
-
-            // 各プレイヤーのチームに応じて適切なメッセージを送信
-            for (WebSocketSession s : sessions) {
-                String userId = (String) s.getAttributes().get("userId");
-                String teamId = gameContextService.getUserTeam(gameId, userId);
-                boolean isTeam2 = "SECOND".equals(teamId);
+            TextMessage msgReversed = encodeFrame("moveResult", "data", reversedResults);
 
-                if (s.isOpen()) {
-                    s.sendMessage(isTeam2 ? msgReversed : msgNormal);
+            // バイナリ形式のセッションがいる場合だけバイナリのフレームも作成
+            // 作成に失敗した場合は全員にJSONで送り、ターンの結果が誰にも届かないことがないようにする
+            BinaryMessage binNormal = null;
+            BinaryMessage binReversed = null;
+            if (hasBinarySession(gameId, sessions)) {
+                try {
+                    BinaryMessage normal = new BinaryMessage(BinaryProtocol.encodeMoveResult(results, newBuffer()));
+                    binReversed = new BinaryMessage(BinaryProtocol.encodeMoveResult(reversedResults, newBuffer()));
+                    binNormal = normal;
+                } catch (Exception e) {
+                    System.out.println("Failed to encode binary moveResult, sending JSON only: " + gameId);
+                    e.printStackTrace();
+                    binReversed = null;
                 }
             }
+
+            // 各プレイヤーのチームと形式に応じて適切なメッセージを送信
+            sendPerTeam(gameId, sessions, msgNormal, msgReversed, binNormal, binReversed);
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -117,8 +154,7 @@ public class NotificationService {
 
         try {
             // FIRSTチーム用の通常メッセージを作成
-            String jsonNormal = objectMapper.writeValueAsString(pendingActions);
-            TextMessage msgNormal = new TextMessage(String.format("{\"type\":\"timeUp\", \"actions\":%s}", jsonNormal));
+            TextMessage msgNormal = encodeFrame("timeUp", "actions", pendingActions);
 
             // SECONDチーム用にアクションを反転したメッセージを作成
             List<GameAction> reversedActions = new ArrayList<>();
@@ -127,20 +163,188 @@ public class NotificationService {
                     reversedActions.add(reverseAction(act));
                 }
             }
-            String jsonReversed = objectMapper.writeValueAsString(reversedActions);
-            TextMessage msgReversed = new TextMessage(
-                    String.format("{\"type\":\"timeUp\", \"actions\":%s}", jsonReversed));
+            TextMessage msgReversed = encodeFrame("timeUp", "actions", reversedActions);
 
-            // 各プレイヤーのチームに応じて適切なメッセージを送信
+            // バイナリ形式のセッションがいる場合だけバイナリのフレームも作成(失敗した場合はJSONだけで送る)
+            BinaryMessage binNormal = null;
+            BinaryMessage binReversed = null;
+            if (hasBinarySession(gameId, sessions)) {
+                try {
+                    BinaryMessage normal = new BinaryMessage(BinaryProtocol.encodeTimeUp(pendingActions, newBuffer()));
+                    binReversed = new BinaryMessage(BinaryProtocol.encodeTimeUp(reversedActions, newBuffer()));
+                    binNormal = normal;
+                } catch (Exception e) {
+                    System.out.println("Failed to encode binary timeUp, sending JSON only: " + gameId);
+                    e.printStackTrace();
+                    binReversed = null;
+                }
+            }
+
+            // 各プレイヤーのチームと形式に応じて適切なメッセージを送信
+            sendPerTeam(gameId, sessions, msgNormal, msgReversed, binNormal, binReversed);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * ターン開始時の合法手を指定チームのプレイヤーに通知します。
+     * 合法手は受け取るチームの視点に変換済みのものを渡します。
+     * 
+     * @param gameId ゲームID
+     * @param team 通知先のチーム
+     * @param legalActions チームの合法手一覧
+     */
+    public void sendLegalActions(String gameId, Team team, LegalActionsResponse legalActions) {
+        // ゲームに参加している全セッションを取得
+        List<WebSocketSession> sessions = webSocketHandler.getSessions(gameId);
+        if (sessions == null || sessions.isEmpty())
+            return;
+
+        try {
+            TextMessage msg = encodeFrame("legalActions", "data", legalActions);
+
+            // 指定チームのプレイヤーにだけ送信
             for (WebSocketSession s : sessions) {
-                String userId = (String) s.getAttributes().get("userId");
-                String teamId = gameContextService.getUserTeam(gameId, userId);
-                boolean isTeam2 = "SECOND".equals(teamId);
+                String teamId = resolveTeam(gameId, s);
 
-                if (s.isOpen()) {
-                    s.sendMessage(isTeam2 ? msgReversed : msgNormal);
+                if (team.name().equals(teamId) && s.isOpen()) {
+                    s.sendMessage(msg);
+                }
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * ターン開始時の合法手を特定のユーザーに送信します。
+     * 再接続したプレイヤーに使います。
+     * 
+     * @param gameId ゲームID
+     * @param userId ユーザーID
+     * @param legalActions ユーザーのチーム視点の合法手一覧
+     */
+    public void sendLegalActions(String gameId, String userId, LegalActionsResponse legalActions) {
+        try {
+            sendFrameToUser(gameId, userId, encodeFrame("legalActions", "data", legalActions));
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * セッション再開用のトークンを特定のユーザーに送信します。
+     * 
+     * @param gameId ゲームID
+     * @param userId ユーザーID
+     * @param token 再開トークン
+     */
+    public void sendResumeToken(String gameId, String userId, String token) {
+        try {
+            sendFrameToUser(gameId, userId, encodeFrame("resumeToken", "token", token));
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * 取りこぼした1ターン分の結果と盤面の差分を特定のユーザーに再送します。
+     * ターンの結果は配信時と同じくユーザーのチームの視点に変換して送ります。
+     * 
+     * @param gameId ゲームID
+     * @param userId ユーザーID
+     * @param team ユーザーのチーム
+     * @param results ターン実行結果のリスト(FIRSTチーム視点)
+     * @param delta ユーザーのチーム視点の盤面の差分
+     */
+    public void replayTurn(String gameId, String userId, Team team, List<TurnExecutionResult> results,
+            BoardDelta delta) {
+        try {
+            List<TurnExecutionResult> viewResults = results;
+            if (team == Team.SECOND) {
+                viewResults = new ArrayList<>();
+                for (TurnExecutionResult res : results) {
+                    viewResults.add(reverseResult(res));
                 }
             }
+            sendFrameToUser(gameId, userId, encodeFrame("moveResult", "data", viewResults));
+            sendFrameToUser(gameId, userId, encodeFrame("boardDelta", "data", delta));
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * 盤面のスナップショットを全プレイヤーに通知します。
+     * ゲーム開始時に送り、クライアントはこれを起点に差分を適用します。
+     * 
+     * @param gameId ゲームID
+     * @param firstView FIRSTチーム視点のスナップショット
+     * @param secondView SECONDチーム視点のスナップショット
+     */
+    public void broadcastBoardSnapshot(String gameId, BoardSnapshot firstView, BoardSnapshot secondView) {
+        List<WebSocketSession> sessions = webSocketHandler.getSessions(gameId);
+        if (sessions == null || sessions.isEmpty())
+            return;
+
+        try {
+            sendPerTeam(gameId, sessions,
+                    encodeFrame("boardSnapshot", "data", firstView),
+                    encodeFrame("boardSnapshot", "data", secondView));
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * 盤面のスナップショットを特定のユーザーに送信します。
+     * 差分の取りこぼしからの再同期に使います。
+     * 
+     * @param gameId ゲームID
+     * @param userId ユーザーID
+     * @param snapshot ユーザーのチーム視点のスナップショット
+     */
+    public void sendBoardSnapshot(String gameId, String userId, BoardSnapshot snapshot) {
+        try {
+            sendFrameToUser(gameId, userId, encodeFrame("boardSnapshot", "data", snapshot));
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * 盤面のスナップショットを特定のセッションに送信します。
+     * 途中から参加した観戦者に使います。
+     * 
+     * @param session 送信先のセッション
+     * @param snapshot 送信先の視点のスナップショット
+     */
+    public void sendBoardSnapshot(WebSocketSession session, BoardSnapshot snapshot) {
+        try {
+            if (session.isOpen())
+                session.sendMessage(encodeFrame("boardSnapshot", "data", snapshot));
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * 1ターン分の盤面の差分を全プレイヤーに通知します。
+     * 
+     * @param gameId ゲームID
+     * @param firstView FIRSTチーム視点の差分
+     * @param secondView SECONDチーム視点の差分
+     */
+    public void broadcastBoardDelta(String gameId, BoardDelta firstView, BoardDelta secondView) {
+        List<WebSocketSession> sessions = webSocketHandler.getSessions(gameId);
+        if (sessions == null || sessions.isEmpty())
+            return;
+
+        try {
+            sendPerTeam(gameId, sessions,
+                    encodeFrame("boardDelta", "data", firstView),
+                    encodeFrame("boardDelta", "data", secondView));
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -154,6 +358,17 @@ public class NotificationService {
      * @param message 送信するメッセージ
      */
     public void sendToUser(String gameId, String userId, String message) {
+        sendFrameToUser(gameId, userId, new TextMessage(message));
+    }
+
+    /**
+     * 特定のユーザーに作成済みのフレームを送信します。
+     * 
+     * @param gameId ゲームID
+     * @param userId ユーザーID
+     * @param frame 送信するフレーム
+     */
+    private void sendFrameToUser(String gameId, String userId, TextMessage frame) {
         // ゲームに参加している全セッションを取得
         List<WebSocketSession> sessions = webSocketHandler.getSessions(gameId);
         if (sessions == null)
@@ -164,7 +379,7 @@ public class NotificationService {
             if (userId.equals(s.getAttributes().get("userId"))) {
                 try {
                     if (s.isOpen())
-                        s.sendMessage(new TextMessage(message));
+                        s.sendMessage(frame);
                 } catch (Exception e) {
                     e.printStackTrace();
                 }
@@ -195,6 +410,171 @@ public class NotificationService {
                 e.printStackTrace();
             }
         }
+        sendToSpectators(gameId, textMessage, textMessage, null, null);
+    }
+
+    /**
+     * チームの視点ごとに作成済みのフレームを各セッションに送信します。
+     * 同じフレームを使い回すため、セッションごとにメッセージを組み立て直しません。
+     * 
+     * @param gameId ゲームID
+     * @param sessions 送信先のセッションリスト
+     * @param firstFrame FIRSTチーム視点のフレーム
+     * @param secondFrame SECONDチーム視点のフレーム
+     */
+    private void sendPerTeam(String gameId, List<WebSocketSession> sessions, TextMessage firstFrame,
+            TextMessage secondFrame) {
+        sendPerTeam(gameId, sessions, firstFrame, secondFrame, null, null);
+    }
+
+    /**
+     * チームの視点と通信形式ごとに作成済みのフレームを各セッションに送信します。
+     * バイナリのフレームがnullの場合はバイナリ形式のセッションにもテキストのフレームを送ります。
+     * バイナリのフレームは送信で位置が進むため、セッションごとに{@link #perSession(BinaryMessage)}で複製して送ります。
+     * 
+     * @param gameId ゲームID
+     * @param sessions 送信先のセッションリスト
+     * @param firstFrame FIRSTチーム視点のフレーム
+     * @param secondFrame SECONDチーム視点のフレーム
+     * @param firstBinary FIRSTチーム視点のバイナリのフレーム
+     * @param secondBinary SECONDチーム視点のバイナリのフレーム
+     */
+    private void sendPerTeam(String gameId, List<WebSocketSession> sessions, TextMessage firstFrame,
+            TextMessage secondFrame, BinaryMessage firstBinary, BinaryMessage secondBinary) {
+        for (WebSocketSession s : sessions) {
+            String teamId = resolveTeam(gameId, s);
+            boolean isTeam2 = "SECOND".equals(teamId);
+            boolean binary = firstBinary != null && BinaryProtocol.isBinary(s);
+
+            try {
+                if (s.isOpen()) {
+                    WebSocketMessage<?> frame = binary
+                            ? perSession(isTeam2 ? secondBinary : firstBinary)
+                            : (isTeam2 ? secondFrame : firstFrame);
+                    s.sendMessage(frame);
+                }
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+        sendToSpectators(gameId, firstFrame, secondFrame, firstBinary, secondBinary);
+    }
+
+    /**
+     * 作成済みのフレームを各視点の観戦者に送信します。
+     * 観戦者が多いため、バイナリのフレームがない場合はセッションごとの形式の判定も省きます。
+     * 
+     * @param gameId ゲームID
+     * @param firstFrame FIRSTチーム視点のフレーム
+     * @param secondFrame SECONDチーム視点のフレーム
+     * @param firstBinary FIRSTチーム視点のバイナリのフレーム(ない場合はnull)
+     * @param secondBinary SECONDチーム視点のバイナリのフレーム(ない場合はnull)
+     */
+    private void sendToSpectators(String gameId, TextMessage firstFrame, TextMessage secondFrame,
+            BinaryMessage firstBinary, BinaryMessage secondBinary) {
+        fanOut(spectatorRegistry.getSpectators(gameId, Team.FIRST), firstFrame, firstBinary);
+        fanOut(spectatorRegistry.getSpectators(gameId, Team.SECOND), secondFrame, secondBinary);
+    }
+
+    /**
+     * 同じフレームを複数のセッションに送信します。
+     * 送信に失敗したセッションは切断処理に任せ、他のセッションへの送信を続けます。
+     * バイナリのフレームはセッションごとに{@link #perSession(BinaryMessage)}で複製して送ります。
+     * 
+     * @param sessions 送信先のセッション
+     * @param frame テキストのフレーム
+     * @param binary バイナリのフレーム(ない場合はnull)
+     */
+    private void fanOut(Iterable<WebSocketSession> sessions, TextMessage frame, BinaryMessage binary) {
+        for (WebSocketSession s : sessions) {
+            try {
+                if (s.isOpen()) {
+                    s.sendMessage(binary != null && BinaryProtocol.isBinary(s) ? perSession(binary) : frame);
+                }
+            } catch (Exception e) {
+                // 遅い観戦者は送信キューが切断する。ログは残さない
+            }
+        }
+    }
+
+    /**
+     * 作成済みのバイナリのフレームからセッション用のフレームを作成します。
+     * ByteBufferは送信で読み出し位置が進むため、共有したまま送ると2人目以降には空のフレームが届きます。
+     * バイト列はコピーせず、位置だけを独立させた複製を包みます。
+     * 
+     * @param template 作成済みのバイナリのフレーム(それ自体は送信しない)
+     * @return セッション用のフレーム
+     */
+    private static BinaryMessage perSession(BinaryMessage template) {
+        return new BinaryMessage(template.getPayload().duplicate());
+    }
+
+    /**
+     * {"type": type, field: payload}の形のメッセージをUTF-8のバイト列に直接書き出してフレームを作成します。
+     * 文字列を経由せずにバッファに書き出します。
+     * 
+     * @param type メッセージタイプ
+     * @param field ペイロードを入れるフィールド名
+     * @param payload ペイロード
+     * @return 作成したフレーム
+     * @throws IOException 書き出しに失敗した場合
+     */
+    private TextMessage encodeFrame(String type, String field, Object payload) throws IOException {
+        ByteArrayBuilder buffer = newBuffer();
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(buffer)) {
+            gen.writeStartObject();
+            gen.writeStringField("type", type);
+            gen.writeFieldName(field);
+            objectMapper.writeValue(gen, payload);
+            gen.writeEndObject();
+        }
+        return new TextMessage(buffer.toByteArray());
+    }
+
+    /**
+     * フレームの書き出し用のバッファを作成します。
+     * 仮想スレッドのレーンではタスクごとにスレッドが変わり、スレッドごとに使い回しても効果がないため、呼び出しごとに作成します。
+     * 
+     * @return 空のバッファ
+     */
+    private ByteArrayBuilder newBuffer() {
+        return new ByteArrayBuilder(FRAME_BUFFER_SIZE);
+    }
+
+    /**
+     * バイナリ形式を合意したプレイヤーまたは観戦者がいるか判定します。
+     * 
+     * @param gameId ゲームID
+     * @param sessions プレイヤーのセッションリスト
+     * @return {@code true}:1人以上いる
+     */
+    private boolean hasBinarySession(String gameId, List<WebSocketSession> sessions) {
+        for (WebSocketSession s : sessions) {
+            if (BinaryProtocol.isBinary(s)) return true;
+        }
+        return spectatorRegistry.hasBinarySpectators(gameId);
+    }
+
+    /**
+     * セッションのユーザーが所属するチームIDを取得します。
+     * ゲーム開始時にセッション属性に保存したチームを優先し、ない場合だけGameContextServiceに問い合わせます。
+     * 
+     * @param gameId ゲームID
+     * @param session WebSocketセッション
+     * @return チームID（"FIRST" または "SECOND"）、不明な場合はnull
+     */
+    private String resolveTeam(String gameId, WebSocketSession session) {
+        Object teamId = session.getAttributes().get("teamId");
+        if (teamId instanceof String t) {
+            return t;
+        }
+
+        String userId = (String) session.getAttributes().get("userId");
+        String resolved = gameContextService.getUserTeam(gameId, userId);
+        if (resolved != null) {
+            session.getAttributes().put("teamId", resolved);
+        }
+        return resolved;
     }
 
     /**
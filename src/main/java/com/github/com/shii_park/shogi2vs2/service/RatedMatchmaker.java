@@ -0,0 +1,229 @@
+package com.github.com.shii_park.shogi2vs2.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * レーティングで分けたキューから2対2の対戦を組むマッチメイカー
+ * 待機中のユーザーをレーティングの帯(バケット)ごとのキューに入れ、まとめて1回の走査で4人ずつ組み合わせる
+ * <ul>
+ * <li>バケットを低い順にたどり、連続する4人のレーティングの幅が許容幅に収まれば対戦を組む</li>
+ * <li>許容幅は4人のうち最も長く待っているユーザーの待ち時間に応じて広がる(上限あり)</li>
+ * <li>チームはレーティング順に 最低+最高 対 中間の2人 とし、チームの合計の差を最小にする</li>
+ * </ul>
+ * 走査は待機人数に対して線形で、配列はclear後も再利用する。スレッドセーフではないため1つのスレッドから使うこと
+ */
+public final class RatedMatchmaker {
+
+    /** 1対戦のプレイヤー数 */
+    private static final int GROUP_SIZE = 4;
+    /** バケットに入れるレーティングの上限(これ以上は最後のバケットに入れる) */
+    private static final int MAX_RATING = 4000;
+    /** バケットの初期容量 */
+    private static final int INITIAL_BUCKET_CAPACITY = 16;
+
+    /** バケットの幅(レーティング) */
+    private final int bucketWidth;
+    /** 待ち始めたときの許容幅(レーティング) */
+    private final int baseWindow;
+    /** 1秒待つごとに広げる許容幅(レーティング) */
+    private final int widenPerSecond;
+    /** 許容幅の上限(レーティング) */
+    private final int maxWindow;
+    /** レーティングの帯ごとのキュー */
+    private final Bucket[] buckets;
+    /** 待機中のユーザー数 */
+    private int size;
+
+    /**
+     * マッチメイカーを作成する
+     *
+     * @param bucketWidth    バケットの幅(レーティング)
+     * @param baseWindow     待ち始めたときの許容幅
+     * @param widenPerSecond 1秒待つごとに広げる許容幅
+     * @param maxWindow      許容幅の上限
+     */
+    public RatedMatchmaker(int bucketWidth, int baseWindow, int widenPerSecond, int maxWindow) {
+        if (bucketWidth <= 0) {
+            throw new IllegalArgumentException("bucketWidth must be positive: " + bucketWidth);
+        }
+        this.bucketWidth = bucketWidth;
+        this.baseWindow = baseWindow;
+        this.widenPerSecond = widenPerSecond;
+        this.maxWindow = maxWindow;
+        this.buckets = new Bucket[MAX_RATING / bucketWidth + 1];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new Bucket();
+        }
+    }
+
+    /**
+     * 待機中のユーザーを追加する
+     * 同じバケットの中では追加した順に並ぶ
+     *
+     * @param userId   ユーザーID
+     * @param rating   レーティング
+     * @param joinedAt キューに参加した時刻(エポックミリ秒)
+     */
+    public void add(String userId, int rating, long joinedAt) {
+        int index = Math.min(Math.max(rating, 0), MAX_RATING) / bucketWidth;
+        buckets[index].add(userId, rating, joinedAt);
+        size++;
+    }
+
+    /**
+     * 待機中のユーザー数を返す
+     *
+     * @return ユーザー数
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 待機中のユーザーをすべて消す(配列は次の走査のために残す)
+     */
+    public void clear() {
+        for (Bucket bucket : buckets) {
+            bucket.clear();
+        }
+        size = 0;
+    }
+
+    /**
+     * 待機中のユーザーから対戦を組む
+     * 組めなかったユーザーは待機を続ける前提で、このインスタンスからは消さない
+     *
+     * @param now 現在時刻(エポックミリ秒)
+     * @return 組んだ対戦のリスト
+     */
+    public List<Match> match(long now) {
+        List<Match> matches = new ArrayList<>(size / GROUP_SIZE);
+        // 走査中の連続する候補(最大4人)
+        String[] ids = new String[GROUP_SIZE];
+        int[] ratings = new int[GROUP_SIZE];
+        long[] joined = new long[GROUP_SIZE];
+        int count = 0;
+
+        for (Bucket bucket : buckets) {
+            for (int i = 0; i < bucket.size; i++) {
+                ids[count] = bucket.userIds[i];
+                ratings[count] = bucket.ratings[i];
+                joined[count] = bucket.joinedAt[i];
+                count++;
+                if (count < GROUP_SIZE) continue;
+
+                if (fits(ratings, joined, now)) {
+                    matches.add(toMatch(ids, ratings));
+                    count = 0;
+                } else {
+                    // 最もレーティングの低い候補を次の走査に回し、1人ずらす
+                    System.arraycopy(ids, 1, ids, 0, GROUP_SIZE - 1);
+                    System.arraycopy(ratings, 1, ratings, 0, GROUP_SIZE - 1);
+                    System.arraycopy(joined, 1, joined, 0, GROUP_SIZE - 1);
+                    count = GROUP_SIZE - 1;
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * 内部ヘルパー:
+     * 4人のレーティングの幅が、最も長く待っているユーザーの許容幅に収まるか判定する
+     *
+     * @param ratings 候補のレーティング
+     * @param joined  候補の参加時刻
+     * @param now     現在時刻(エポックミリ秒)
+     * @return {@code true}:対戦を組める
+     */
+    private boolean fits(int[] ratings, long[] joined, long now) {
+        int min = Math.min(Math.min(ratings[0], ratings[1]), Math.min(ratings[2], ratings[3]));
+        int max = Math.max(Math.max(ratings[0], ratings[1]), Math.max(ratings[2], ratings[3]));
+        // 許容幅の下限で収まる場合は待ち時間を調べない
+        if (max - min <= baseWindow) return true;
+        long oldest = Math.min(Math.min(joined[0], joined[1]), Math.min(joined[2], joined[3]));
+        long waitedSeconds = Math.max(0, now - oldest) / 1000;
+        long window = Math.min(maxWindow, baseWindow + widenPerSecond * waitedSeconds);
+        return max - min <= window;
+    }
+
+    /**
+     * 内部ヘルパー:
+     * 4人をチームの合計の差が最小になるように分け、対戦にする
+     * レーティング順に a ≦ b ≦ c ≦ d のとき、a+d 対 b+c が最小になる
+     *
+     * @param ids     候補のユーザーID
+     * @param ratings 候補のレーティング
+     * @return 対戦
+     */
+    private Match toMatch(String[] ids, int[] ratings) {
+        // 4人をレーティングの昇順に並べた位置
+        int lo0 = ratings[0] <= ratings[1] ? 0 : 1, hi0 = 1 - lo0;
+        int lo1 = ratings[2] <= ratings[3] ? 2 : 3, hi1 = 5 - lo1;
+        int lowest = ratings[lo0] <= ratings[lo1] ? lo0 : lo1;
+        int highest = ratings[hi0] >= ratings[hi1] ? hi0 : hi1;
+        int mid1 = (lowest == lo0) ? lo1 : lo0;
+        int mid2 = (highest == hi0) ? hi1 : hi0;
+        if (ratings[mid1] > ratings[mid2]) {
+            int t = mid1;
+            mid1 = mid2;
+            mid2 = t;
+        }
+        int difference = Math.abs((ratings[lowest] + ratings[highest]) - (ratings[mid1] + ratings[mid2]));
+        return new Match(List.of(ids[lowest], ids[highest], ids[mid1], ids[mid2]), difference);
+    }
+
+    /**
+     * 組んだ対戦
+     *
+     * @param userIds          ユーザーIDのリスト(0,1番目がFIRST、2,3番目がSECOND)
+     * @param ratingDifference チームのレーティングの合計の差
+     */
+    public record Match(List<String> userIds, int ratingDifference) {
+    }
+
+    /**
+     * レーティングの帯1つ分のキュー
+     * ユーザーID、レーティング、参加時刻を並列の配列で持つ
+     */
+    private static final class Bucket {
+        /** ユーザーID */
+        private String[] userIds = new String[INITIAL_BUCKET_CAPACITY];
+        /** レーティング */
+        private int[] ratings = new int[INITIAL_BUCKET_CAPACITY];
+        /** 参加時刻(エポックミリ秒) */
+        private long[] joinedAt = new long[INITIAL_BUCKET_CAPACITY];
+        /** 入っているユーザー数 */
+        private int size;
+
+        /**
+         * ユーザーを末尾に追加する
+         *
+         * @param userId ユーザーID
+         * @param rating レーティング
+         * @param joined 参加時刻
+         */
+        private void add(String userId, int rating, long joined) {
+            if (size == userIds.length) {
+                int capacity = size * 2;
+                userIds = Arrays.copyOf(userIds, capacity);
+                ratings = Arrays.copyOf(ratings, capacity);
+                joinedAt = Arrays.copyOf(joinedAt, capacity);
+            }
+            userIds[size] = userId;
+            ratings[size] = rating;
+            joinedAt[size] = joined;
+            size++;
+        }
+
+        /**
+         * すべて消す(ユーザーIDの参照は外す)
+         */
+        private void clear() {
+            Arrays.fill(userIds, 0, size, null);
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.github.com.shii_park.shogi2vs2.service;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * レーティング管理サービス
+ * ユーザーのレーティングをRedisのハッシュに保存し、決着したゲームの結果でイロレーティングを更新します。
+ * 2対2のため、チームのレーティングはメンバーの平均とし、同じチームのメンバーは同じだけ増減します。
+ */
+@Service
+public class RatingService {
+
+    /** レーティングのRedisキー(key: userId, value: レーティング) */
+    public static final String RATINGS_KEY = "rating:users";
+
+    /** 初めてのユーザーのレーティング */
+    public static final int INITIAL_RATING = 1500;
+
+    /** 1ゲームで変動するレーティングの最大値(K係数) */
+    private static final int K_FACTOR = 32;
+
+    /**
+     * Redisテンプレート
+     */
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    /**
+     * ユーザーのレーティングを取得します。
+     *
+     * @param userId ユーザーID
+     * @return レーティング(未登録の場合は初期値)
+     */
+    public int getRating(String userId) {
+        Object value = redisTemplate.opsForHash().get(RATINGS_KEY, userId);
+        return value != null ? Integer.parseInt(value.toString()) : INITIAL_RATING;
+    }
+
+    /**
+     * 決着したゲームの結果でレーティングを更新します。
+     * 同じユーザーのゲームが同時に終わっても更新が失われないように、HINCRBYで加減します。
+     *
+     * @param winners 勝ったチームのユーザーIDのリスト
+     * @param losers 負けたチームのユーザーIDのリスト
+     */
+    public void applyResult(List<String> winners, List<String> losers) {
+        int delta = ratingChange(averageRating(winners), averageRating(losers));
+        for (String userId : winners) {
+            addRating(userId, delta);
+        }
+        for (String userId : losers) {
+            addRating(userId, -delta);
+        }
+    }
+
+    /**
+     * 内部ヘルパー:
+     * ユーザーのレーティングに加減する(未登録の場合は初期値を入れてから加減する)
+     *
+     * @param userId ユーザーID
+     * @param delta 加減する値
+     */
+    private void addRating(String userId, int delta) {
+        redisTemplate.opsForHash().putIfAbsent(RATINGS_KEY, userId, String.valueOf(INITIAL_RATING));
+        redisTemplate.opsForHash().increment(RATINGS_KEY, userId, delta);
+    }
+
+    /**
+     * 勝ったチームのレーティングの増加量を計算します。負けたチームは同じだけ減ります。
+     *
+     * @param winnerRating 勝ったチームのレーティング
+     * @param loserRating 負けたチームのレーティング
+     * @return 増加量(1以上)
+     */
+    static int ratingChange(double winnerRating, double loserRating) {
+        double expected = 1.0 / (1.0 + Math.pow(10, (loserRating - winnerRating) / 400.0));
+        return Math.max(1, (int) Math.round(K_FACTOR * (1.0 - expected)));
+    }
+
+    /**
+     * 内部ヘルパー:
+     * チームのレーティング(メンバーの平均)を計算する
+     *
+     * @param userIds チームのユーザーIDのリスト
+     * @return 平均のレーティング
+     */
+    private double averageRating(List<String> userIds) {
+        if (userIds.isEmpty()) return INITIAL_RATING;
+        long sum = 0;
+        for (String userId : userIds) {
+            sum += getRating(userId);
+        }
+        return (double) sum / userIds.size();
+    }
+}
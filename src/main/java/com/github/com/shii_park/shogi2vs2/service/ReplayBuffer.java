@@ -0,0 +1,80 @@
+package com.github.com.shii_park.shogi2vs2.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 通し番号付きのイベントを直近の一定数だけ保持するリングバッファ
+ * 再接続したクライアントが取りこぼしたイベントを再送するために使う
+ * 通し番号は1ずつ増えることを前提とし、古いイベントは上書きする
+ * スレッドセーフではない(ゲームのレーンからだけ操作する)
+ *
+ * @param <T> イベントの型
+ */
+public class ReplayBuffer<T> {
+
+    /** イベント(添字は通し番号 % 容量) */
+    private final Object[] items;
+    /** 最後に追加したイベントの通し番号(まだない場合は起点の通し番号) */
+    private long latest;
+    /** 保持しているイベント数 */
+    private int size;
+
+    /**
+     * 空のバッファを作成する
+     *
+     * @param capacity     保持するイベント数
+     * @param baseSequence 起点の通し番号(クライアントが最初に持っている状態の番号)
+     */
+    public ReplayBuffer(int capacity, long baseSequence) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.items = new Object[capacity];
+        this.latest = baseSequence;
+    }
+
+    /**
+     * イベントを追加する
+     * 通し番号が連続しない場合はそれまでのイベントを捨てる(以前の番号からは再送できなくなる)
+     *
+     * @param sequence イベントの通し番号
+     * @param item     イベント
+     */
+    public void append(long sequence, T item) {
+        if (sequence != latest + 1) {
+            size = 0;
+        }
+        items[(int) Math.floorMod(sequence, (long) items.length)] = item;
+        latest = sequence;
+        size = Math.min(size + 1, items.length);
+    }
+
+    /**
+     * 指定した通し番号より後のイベントを古い順に取得する
+     *
+     * @param sequence クライアントが最後に受け取った通し番号
+     * @return イベントのリスト(最新であれば空)。既に上書きされている、または未知の番号の場合は{@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> since(long sequence) {
+        long oldest = latest - size + 1;
+        if (sequence > latest || sequence < oldest - 1) {
+            return null;
+        }
+        List<T> result = new ArrayList<>((int) (latest - sequence));
+        for (long s = sequence + 1; s <= latest; s++) {
+            result.add((T) items[(int) Math.floorMod(s, (long) items.length)]);
+        }
+        return result;
+    }
+
+    /**
+     * 最後に追加したイベントの通し番号を取得する
+     *
+     * @return 通し番号
+     */
+    public long getLatestSequence() {
+        return latest;
+    }
+}
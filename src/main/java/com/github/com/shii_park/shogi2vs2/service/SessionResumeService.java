@@ -0,0 +1,91 @@
+package com.github.com.shii_park.shogi2vs2.service;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.springframework.stereotype.Service;
+
+/**
+ * セッション再開サービス
+ * ゲーム開始時にプレイヤーごとの再開トークンを発行し、接続が切れたプレイヤーが同じゲームに戻れるようにします。
+ * トークンはプロセス内だけで管理し、再接続のたびにRedisへ問い合わせることはしません。
+ * トークンはゲームの終了時に失効します。
+ */
+@Service
+public class SessionResumeService {
+
+    /** トークンのバイト数(128bit) */
+    private static final int TOKEN_BYTES = 16;
+
+    /** トークンの生成に使う乱数 */
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * トークンと再開先のマップ
+     * key: token, value: ResumeTicket
+     */
+    private final Map<String, ResumeTicket> tickets = new ConcurrentHashMap<>();
+
+    /**
+     * ゲームごとに発行したトークン(失効用)
+     * key: gameId, value: List<token>
+     */
+    private final Map<String, List<String>> gameTokens = new ConcurrentHashMap<>();
+
+    /**
+     * プレイヤーの再開トークンを発行します。
+     * 
+     * @param gameId ゲームID
+     * @param userId ユーザーID
+     * @return 再開トークン
+     */
+    public String issue(String gameId, String userId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        tickets.put(token, new ResumeTicket(gameId, userId));
+        gameTokens.computeIfAbsent(gameId, k -> new CopyOnWriteArrayList<>()).add(token);
+        return token;
+    }
+
+    /**
+     * 再開トークンがゲームとユーザーに対して有効か判定します。
+     * 
+     * @param token 再開トークン
+     * @param gameId ゲームID
+     * @param userId ユーザーID
+     * @return 有効な場合はtrue
+     */
+    public boolean isValid(String token, String gameId, String userId) {
+        if (token == null) return false;
+        ResumeTicket ticket = tickets.get(token);
+        return ticket != null && ticket.gameId().equals(gameId) && ticket.userId().equals(userId);
+    }
+
+    /**
+     * ゲームで発行したトークンをすべて失効させます。
+     * 
+     * @param gameId ゲームID
+     */
+    public void revokeGame(String gameId) {
+        List<String> tokens = gameTokens.remove(gameId);
+        if (tokens == null) return;
+        for (String token : tokens) {
+            tickets.remove(token);
+        }
+    }
+
+    /**
+     * 再開トークンの発行先
+     * 
+     * @param gameId ゲームID
+     * @param userId ユーザーID
+     */
+    private record ResumeTicket(String gameId, String userId) {
+    }
+}
@@ -0,0 +1,124 @@
+package com.github.com.shii_park.shogi2vs2.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.github.com.shii_park.shogi2vs2.model.domain.ApplyActionResult;
+import com.github.com.shii_park.shogi2vs2.model.domain.Game;
+import com.github.com.shii_park.shogi2vs2.model.domain.Piece;
+import com.github.com.shii_park.shogi2vs2.model.domain.Player;
+import com.github.com.shii_park.shogi2vs2.model.domain.PlayerDropPiece;
+import com.github.com.shii_park.shogi2vs2.model.domain.PlayerMove;
+import com.github.com.shii_park.shogi2vs2.model.domain.TurnExecutionResult;
+import com.github.com.shii_park.shogi2vs2.model.domain.action.DropAction;
+import com.github.com.shii_park.shogi2vs2.model.domain.action.GameAction;
+import com.github.com.shii_park.shogi2vs2.model.domain.action.MoveAction;
+import com.github.com.shii_park.shogi2vs2.model.enums.PieceType;
+
+/**
+ * TurnApplierクラスは1ターン分のアクションをゲームに適用し、ターン終了処理まで行います<br>
+ * 進行中のゲーム(GameRoomService)とイベントログからの再生(GameReplayEngine)が同じ処理を使うことで、
+ * 同じアクションの列から必ず同じ盤面が得られるようにする
+ */
+public final class TurnApplier {
+
+    /**
+     * ユーティリティクラスなのでインスタンス化を防ぐ
+     */
+    private TurnApplier() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * アクションを順に適用し、ターン終了処理を行う
+     * プレイヤーや駒が見つからないアクションは読み飛ばし、受け付けたアクションだけを結果に含める
+     *
+     * @param game    ゲームインスタンス
+     * @param actions 実行するアクションのリスト
+     * @return 適用したターン
+     */
+    public static AppliedTurn apply(Game game, List<GameAction> actions) {
+        List<TurnExecutionResult> results = new ArrayList<>();
+        List<GameAction> accepted = new ArrayList<>();
+
+        // 各アクションを順次実行
+        for (GameAction act : actions) {
+            Player player = game.getPlayer(act.getUserId());
+            if (player == null) continue;
+
+            if (act instanceof MoveAction move) {
+                // 移動アクションの処理
+                PieceType targetType = PieceType.valueOf(move.pieceType());
+                Piece piece = game.getBoard().getPiece(move.pieceId(), targetType);
+
+                if (piece != null) {
+                    // 移動コマンドを作成してゲームに適用
+                    PlayerMove moveCommand = new PlayerMove(player, piece, move.directions(), move.promote());
+                    game.applyMove(moveCommand);
+                    accepted.add(act);
+
+                    // 通知用の結果データを作成
+                    List<String> dirStrings = new ArrayList<>();
+                    move.directions().forEach(d -> dirStrings.add(d.name()));
+
+                    results.add(new TurnExecutionResult(
+                        "moveResult",
+                        piece.getId(),
+                        piece.getType().name(),
+                        dirStrings,
+                        player.getTeam().name(),
+                        move.promote()
+                    ));
+                }
+
+            } else if (act instanceof DropAction drop) {
+                // 駒打ちアクションの処理
+                PieceType pType = PieceType.valueOf(drop.pieceType());
+
+                // プレイヤーの持ち駒から指定された種類の駒を検索
+                Piece pieceToDrop = null;
+                List<Piece> hand = game.getBoard().getCapturedPieces().getCapturedPieces(player.getTeam());
+
+                if (hand != null) {
+                    for (Piece p : hand) {
+                        if (p.getType() == pType) {
+                            pieceToDrop = p;
+                            break;
+                        }
+                    }
+                }
+
+                if (pieceToDrop != null) {
+                    // 駒打ちコマンドを作成してゲームに適用
+                    PlayerDropPiece dropCommand = new PlayerDropPiece(player, pieceToDrop, drop.position());
+                    game.applyDrop(dropCommand);
+                    accepted.add(act);
+
+                    results.add(new TurnExecutionResult(
+                        "dropResult",
+                        pieceToDrop.getId(),
+                        pieceToDrop.getType().name(),
+                        new ArrayList<>(),
+                        player.getTeam().name(),
+                        false
+                    ));
+                }
+            }
+        }
+
+        // ターン終了処理を実行
+        ApplyActionResult actionResult = game.handleTurnEnd();
+        return new AppliedTurn(results, accepted, actionResult);
+    }
+
+    /**
+     * 適用した1ターン
+     *
+     * @param results      通知用のターン実行結果のリスト
+     * @param accepted     受け付けたアクションのリスト(適用した順)
+     * @param actionResult ターン終了処理の結果
+     */
+    public record AppliedTurn(List<TurnExecutionResult> results, List<GameAction> accepted,
+            ApplyActionResult actionResult) {
+    }
+}
@@ -0,0 +1,13 @@
+-- ゲームの所有権(リース)を取得または延長する
+-- 持ち主がいない(期限切れを含む)か、このノードが既に持ち主の場合だけ、有効期限を付けて持ち主にする
+-- KEYS[1]: 所有権のキー
+-- ARGV[1]: ノードの識別子, ARGV[2]: 有効期限(ミリ秒)
+-- 戻り値: 持ち主になったときは1、他のノードが持ち主のときは0
+
+local owner = redis.call('GET', KEYS[1])
+if owner and owner ~= ARGV[1] then
+    return 0
+end
+
+redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])
+return 1
@@ -0,0 +1,38 @@
+-- バッチ処理で組んだ対戦のユーザーをまとめてキューから取り出し、マッチ済みにしてゲームを予約する
+-- 対戦ごとに判定し、1人でもキューにいない(他のノードが取り出した、待機をやめた等)対戦は何もしない
+-- KEYS[1]: マッチングキュー(ソート済みセット)のキー
+-- KEYS[2]以降: 対戦ごとに ゲームの予約のキー, ユーザーのマッチ状態のキー×プレイヤー数 を繰り返す(ARGVと同じ並び)
+-- ARGV[1]: マッチ状態の有効期限(秒), ARGV[2]: 予約の有効期限(秒), ARGV[3]: 1対戦のプレイヤー数
+-- ARGV[4]以降: 対戦ごとに ゲームID, ユーザーID(予約順)×プレイヤー数 を繰り返す
+-- 戻り値: 対戦ごとに 取り出したときは1、取り出せなかったときは0 のリスト
+
+local size = tonumber(ARGV[3])
+local results = {}
+local n = 0
+
+for offset = 0, #ARGV - 4, size + 1 do
+    local base = 4 + offset
+    local keyBase = 2 + offset
+    local claimed = 1
+    for i = 1, size do
+        if not redis.call('ZSCORE', KEYS[1], ARGV[base + i]) then
+            claimed = 0
+            break
+        end
+    end
+
+    if claimed == 1 then
+        -- 予約はどのノードからも引けるようにRedisに置き、誰も接続しなければ期限で消える
+        local reservation = KEYS[keyBase]
+        for i = 1, size do
+            redis.call('ZREM', KEYS[1], ARGV[base + i])
+            redis.call('SET', KEYS[keyBase + i], 'MATCHED:' .. ARGV[base], 'EX', ARGV[1])
+            redis.call('RPUSH', reservation, ARGV[base + i])
+        end
+        redis.call('EXPIRE', reservation, ARGV[2])
+    end
+
+    n = n + 1
+    results[n] = claimed
+end
+return results
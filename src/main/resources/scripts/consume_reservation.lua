@@ -0,0 +1,7 @@
+-- ゲームの予約を取り出して削除する(ゲーム開始時)
+-- 複数の接続が同時に呼んでも予約を受け取るのは1つだけになる
+-- KEYS[1]: ゲームの予約のキー
+-- 戻り値: 予約されていたユーザーIDのリスト(予約順)。期限切れや取り出し済みのときは空のリスト
+local players = redis.call('LRANGE', KEYS[1], 0, -1)
+redis.call('DEL', KEYS[1])
+return players
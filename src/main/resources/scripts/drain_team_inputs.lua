@@ -0,0 +1,6 @@
+-- チームの入力を揃っていなくても全て取り出して削除する(タイムアウト時の強制回収)
+-- KEYS[1]: 入力リストのキー, KEYS[2]: 投票者セットのキー
+-- 戻り値: 入力のJSONのリスト
+local batch = redis.call('LRANGE', KEYS[1], 0, -1)
+redis.call('DEL', KEYS[1], KEYS[2])
+return batch
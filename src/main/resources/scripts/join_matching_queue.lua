@@ -0,0 +1,25 @@
+-- マッチングキューにユーザーをレーティング付きで追加する(対戦はバッチ処理で組む)
+-- スコアは レーティング * 2^32 + 参加時刻(エポック秒) とし、キューを読むだけでレーティングと参加時刻が分かるようにする
+-- KEYS[1]: マッチングキュー(ソート済みセット)のキー, KEYS[2]: ユーザーのマッチ状態のキー
+-- KEYS[3]: レーティングのハッシュのキー
+-- ARGV[1]: ユーザーID, ARGV[2]: 参加時刻(エポックミリ秒)
+-- ARGV[3]: 未登録ユーザーのレーティング, ARGV[4]: マッチ状態の有効期限(秒)
+-- 戻り値: 追加したときは1、既にキューにいるときは0(キューにいるユーザーはマッチ前なので状態はWAITINGのまま)
+
+local rating = math.floor(tonumber(redis.call('HGET', KEYS[3], ARGV[1]) or ARGV[3]))
+local joinedAt = math.floor(tonumber(ARGV[2]) / 1000)
+-- 数値のまま渡すと有効桁数14桁の文字列に丸められるため、整数の文字列にして渡す
+local score = string.format('%.0f', rating * 4294967296 + joinedAt)
+
+-- 二重参加チェック(既にキューにいる場合は追加せず、待機中のマッチ状態の有効期限だけを延ばす)
+if redis.call('ZADD', KEYS[1], 'NX', score, ARGV[1]) == 0 then
+    redis.call('SET', KEYS[2], 'WAITING', 'EX', ARGV[4])
+    return 0
+end
+
+redis.call('SET', KEYS[2], 'WAITING', 'EX', ARGV[4])
+
+-- 全ノードが止まってもキューが残り続けないように、参加のたびに有効期限を延ばす
+-- 個々の待機者の期限切れはバッチ処理で取り除く
+redis.call('EXPIRE', KEYS[1], ARGV[4])
+return 1
@@ -0,0 +1,12 @@
+-- マッチングキューからユーザーを取り除く(待機のキャンセル)
+-- 既にマッチしたユーザーは取り除かない(予約済みのゲームに参加する)
+-- KEYS[1]: マッチングキュー(ソート済みセット)のキー, KEYS[2]: ユーザーのマッチ状態のキー
+-- ARGV[1]: ユーザーID
+-- 戻り値: 取り除いたときは1、キューにいなかったときは0
+
+if redis.call('ZREM', KEYS[1], ARGV[1]) == 0 then
+    return 0
+end
+
+redis.call('DEL', KEYS[2])
+return 1
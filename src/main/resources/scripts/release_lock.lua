@@ -0,0 +1,10 @@
+-- ロック(ゲームの所有権を含む)を持ち主の場合だけ解放する
+-- 処理が長引いてロックが期限切れになり、他のノードが取り直したロックを消さないようにする
+-- KEYS[1]: ロックのキー
+-- ARGV[1]: 持ち主の識別子
+-- 戻り値: 解放したときは1、持ち主でないときは0
+
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    return redis.call('DEL', KEYS[1])
+end
+return 0
@@ -0,0 +1,23 @@
+-- チームの入力を1つ受け付け、全員分揃ったら取り出す
+-- KEYS[1]: 入力リストのキー, KEYS[2]: 投票者セットのキー
+-- ARGV[1]: ユーザーID, ARGV[2]: アクションのJSON, ARGV[3]: チームの人数, ARGV[4]: キーの有効期限(秒)
+-- 戻り値: 揃ったときは入力のJSONのリスト、まだ揃っていないときや二重送信のときは空のリスト
+
+-- 二重送信チェック
+if redis.call('SADD', KEYS[2], ARGV[1]) == 0 then
+    return {}
+end
+
+redis.call('RPUSH', KEYS[1], ARGV[2])
+
+-- 揃ったら取り出して削除
+if redis.call('LLEN', KEYS[1]) >= tonumber(ARGV[3]) then
+    local batch = redis.call('LRANGE', KEYS[1], 0, -1)
+    redis.call('DEL', KEYS[1], KEYS[2])
+    return batch
+end
+
+-- 放置されたゲームのキーが残らないように有効期限を付ける
+redis.call('EXPIRE', KEYS[1], ARGV[4])
+redis.call('EXPIRE', KEYS[2], ARGV[4])
+return {}
@@ -0,0 +1,90 @@
+package com.github.com.shii_park.shogi2vs2.handler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.github.com.shii_park.shogi2vs2.model.domain.Position;
+import com.github.com.shii_park.shogi2vs2.model.domain.TurnExecutionResult;
+import com.github.com.shii_park.shogi2vs2.model.domain.action.DropAction;
+import com.github.com.shii_park.shogi2vs2.model.domain.action.GameAction;
+import com.github.com.shii_park.shogi2vs2.model.domain.action.MoveAction;
+import com.github.com.shii_park.shogi2vs2.model.enums.Direction;
+import com.github.com.shii_park.shogi2vs2.model.enums.PieceType;
+import com.github.com.shii_park.shogi2vs2.model.enums.Team;
+
+/**
+ * BinaryProtocolのテスト
+ * moveResultとtimeUpのフレームの書き出しを検証
+ */
+class BinaryProtocolTest {
+
+    /**
+     * moveResultの書き出しテスト
+     * 処理: 移動と配置の結果が固定長のフィールドで書き出されることを確認
+     */
+    @Test
+    void testEncodeMoveResult() {
+        List<TurnExecutionResult> results = List.of(
+                new TurnExecutionResult("moveResult", 300, "ROOK", List.of("UP", "UP"), "FIRST", true),
+                new TurnExecutionResult("dropResult", 7, "PAWN", List.of(), "SECOND", false));
+
+        byte[] frame = BinaryProtocol.encodeMoveResult(results, new ByteArrayBuilder());
+
+        byte[] expected = {
+                BinaryProtocol.OP_MOVE_RESULT, 2,
+                0, 0x01, 0x2C, (byte) PieceType.ROOK.ordinal(), (byte) Team.FIRST.ordinal(), 1, 2,
+                (byte) Direction.UP.ordinal(), (byte) Direction.UP.ordinal(),
+                1, 0, 7, (byte) PieceType.PAWN.ordinal(), (byte) Team.SECOND.ordinal(), 0, 0 };
+        assertArrayEquals(expected, frame);
+    }
+
+    /**
+     * timeUpの書き出しテスト
+     * 処理: 移動と配置のアクションがユーザーIDと共に書き出されることを確認
+     */
+    @Test
+    void testEncodeTimeUp() {
+        Instant now = Instant.now();
+        List<GameAction> actions = List.of(
+                new MoveAction("u1", "FIRST", 5, "GOLD", List.of(Direction.LEFT), false, now),
+                new DropAction("u2", "FIRST", "PAWN", new Position(3, 4), now));
+
+        byte[] frame = BinaryProtocol.encodeTimeUp(actions, new ByteArrayBuilder());
+
+        byte[] expected = {
+                BinaryProtocol.OP_TIME_UP, 2,
+                0, (byte) Team.FIRST.ordinal(), 2, 'u', '1',
+                0, 5, (byte) PieceType.GOLD.ordinal(), 0, 1, (byte) Direction.LEFT.ordinal(),
+                1, (byte) Team.FIRST.ordinal(), 2, 'u', '2',
+                (byte) PieceType.PAWN.ordinal(), 3, 4 };
+        assertArrayEquals(expected, frame);
+    }
+
+    /**
+     * 空のtimeUpの書き出しテスト
+     * 処理: nullのアクションリストは要素数0のフレームになることを確認
+     */
+    @Test
+    void testEncodeEmptyTimeUp() {
+        byte[] frame = BinaryProtocol.encodeTimeUp(null, new ByteArrayBuilder());
+
+        assertArrayEquals(new byte[] { BinaryProtocol.OP_TIME_UP, 0 }, frame);
+    }
+
+    /**
+     * 序数の変換テスト
+     * 処理: 範囲外の序数はnullになることを確認
+     */
+    @Test
+    void testOrdinalLookup() {
+        assertEquals(PieceType.KING, BinaryProtocol.pieceType(PieceType.KING.ordinal()));
+        assertNull(BinaryProtocol.pieceType(PieceType.values().length));
+        assertEquals(Direction.UP, BinaryProtocol.direction(Direction.UP.ordinal()));
+        assertNull(BinaryProtocol.direction(255));
+    }
+}
@@ -0,0 +1,150 @@
+package com.github.com.shii_park.shogi2vs2.handler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.WebSocketSession;
+
+import com.github.com.shii_park.shogi2vs2.handler.SpectatorRegistry.JoinResult;
+import com.github.com.shii_park.shogi2vs2.model.enums.Team;
+
+/**
+ * SpectatorRegistryのテスト
+ * 観戦者の枠の開閉、上限、終了と同時の参加で観戦者が残らないことを検証
+ */
+class SpectatorRegistryTest {
+
+    /**
+     * 枠の開閉テスト
+     * 処理: 開く前と閉じた後の参加が拒否され、閉じた時に参加中の観戦者が切断されることを確認
+     */
+    @Test
+    void testJoinOnlyWhileOpen() {
+        SpectatorRegistry registry = new SpectatorRegistry(10);
+        Set<String> closed = ConcurrentHashMap.newKeySet();
+
+        assertEquals(JoinResult.CLOSED, registry.join("game1", Team.FIRST, session("s1", null, closed)));
+
+        registry.openGame("game1");
+        assertEquals(JoinResult.JOINED, registry.join("game1", Team.FIRST, session("s1", null, closed)));
+        assertEquals(JoinResult.JOINED, registry.join("game1", Team.SECOND, session("s2", null, closed)));
+        assertEquals(2, registry.count("game1"));
+        assertNotNull(registry.find("game1", Team.SECOND, "s2"));
+        assertNull(registry.find("game1", Team.FIRST, "s2"));
+
+        registry.closeGame("game1");
+        assertEquals(Set.of("s1", "s2"), closed);
+        assertEquals(JoinResult.CLOSED, registry.join("game1", Team.FIRST, session("s3", null, closed)));
+        assertEquals(0, registry.count("game1"));
+        assertNull(registry.find("game1", Team.FIRST, "s1"));
+    }
+
+    /**
+     * 上限と退出のテスト
+     * 処理: 上限を超えた参加が拒否され、退出で空いた枠とバイナリ形式の観戦者数が戻ることを確認
+     */
+    @Test
+    void testLimitAndLeave() {
+        SpectatorRegistry registry = new SpectatorRegistry(2);
+        Set<String> closed = ConcurrentHashMap.newKeySet();
+        registry.openGame("game1");
+
+        assertEquals(JoinResult.JOINED,
+                registry.join("game1", Team.FIRST, session("s1", BinaryProtocol.SUBPROTOCOL, closed)));
+        assertEquals(JoinResult.JOINED, registry.join("game1", Team.FIRST, session("s2", null, closed)));
+        assertEquals(JoinResult.FULL, registry.join("game1", Team.SECOND, session("s3", null, closed)));
+        assertTrue(registry.hasBinarySpectators("game1"));
+
+        registry.leave("game1", Team.FIRST, "s1");
+        assertFalse(registry.hasBinarySpectators("game1"));
+        assertEquals(JoinResult.JOINED, registry.join("game1", Team.SECOND, session("s3", null, closed)));
+        assertEquals(2, registry.count("game1"));
+    }
+
+    /**
+     * 終了と同時の参加テスト
+     * 処理: 参加と終了を同時に繰り返し、登録できた観戦者は必ず切断され、登録簿にも残らないことを確認
+     */
+    @Test
+    void testJoinRacingCloseLeavesNoSpectator() throws InterruptedException {
+        SpectatorRegistry registry = new SpectatorRegistry(10);
+        for (int i = 0; i < 500; i++) {
+            String gameId = "game" + i;
+            Set<String> closed = ConcurrentHashMap.newKeySet();
+            registry.openGame(gameId);
+
+            CountDownLatch start = new CountDownLatch(1);
+            AtomicReference<JoinResult> result = new AtomicReference<>();
+            Thread joiner = new Thread(() -> {
+                await(start);
+                result.set(registry.join(gameId, Team.FIRST, session("s1", null, closed)));
+            });
+            Thread closer = new Thread(() -> {
+                await(start);
+                registry.closeGame(gameId);
+            });
+            joiner.start();
+            closer.start();
+            start.countDown();
+            joiner.join();
+            closer.join();
+
+            if (result.get() == JoinResult.JOINED) {
+                assertEquals(Set.of("s1"), closed);
+            } else {
+                assertEquals(JoinResult.CLOSED, result.get());
+            }
+            assertTrue(registry.getSpectators(gameId, Team.FIRST).isEmpty());
+        }
+    }
+
+    /**
+     * 内部ヘルパー:
+     * ラッチが開くまで待つ
+     */
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 内部ヘルパー:
+     * 切断されたセッションIDを記録するセッションを作成する
+     */
+    private static WebSocketSession session(String id, String protocol, Set<String> closed) {
+        Map<String, Object> attributes = new HashMap<>();
+        return (WebSocketSession) Proxy.newProxyInstance(WebSocketSession.class.getClassLoader(),
+                new Class<?>[] { WebSocketSession.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getId":
+                            return id;
+                        case "getAttributes":
+                            return attributes;
+                        case "isOpen":
+                            return !closed.contains(id);
+                        case "getAcceptedProtocol":
+                            return protocol;
+                        case "close":
+                            closed.add(id);
+                            return null;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            return null;
+                    }
+                });
+    }
+}
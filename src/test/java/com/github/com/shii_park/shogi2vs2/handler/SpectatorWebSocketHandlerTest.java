@@ -0,0 +1,122 @@
+package com.github.com.shii_park.shogi2vs2.handler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.com.shii_park.shogi2vs2.model.enums.Team;
+import com.github.com.shii_park.shogi2vs2.service.BoardCoordinateService;
+import com.github.com.shii_park.shogi2vs2.service.GameRoomService;
+import com.github.com.shii_park.shogi2vs2.service.InboundMessageDecoder;
+
+/**
+ * SpectatorWebSocketHandlerのテスト
+ * 観戦者の再同期の要求が間隔を空けた場合だけ盤面の送信に回ることを検証
+ */
+class SpectatorWebSocketHandlerTest {
+
+    private static final TextMessage SYNC_REQUEST = new TextMessage("{\"type\":\"syncRequest\"}");
+
+    private SpectatorWebSocketHandler handler;
+    private SpectatorRegistry registry;
+    private final AtomicInteger snapshots = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        InboundMessageDecoder decoder = new InboundMessageDecoder();
+        setField(InboundMessageDecoder.class, decoder, "objectMapper", new ObjectMapper());
+        setField(InboundMessageDecoder.class, decoder, "coordinateService", new BoardCoordinateService());
+
+        registry = new SpectatorRegistry(10);
+        registry.openGame("game1");
+
+        handler = new SpectatorWebSocketHandler();
+        setField(SpectatorWebSocketHandler.class, handler, "gameRoomService", new GameRoomService() {
+            @Override
+            public void sendSnapshotToSpectator(String gameId, Team side, WebSocketSession session) {
+                snapshots.incrementAndGet();
+            }
+        });
+        setField(SpectatorWebSocketHandler.class, handler, "spectatorRegistry", registry);
+        setField(SpectatorWebSocketHandler.class, handler, "inboundDecoder", decoder);
+    }
+
+    /**
+     * 再同期の間隔テスト
+     * 処理: 間隔内に続けて届いた再同期の要求は1回だけ盤面を送り、間隔を空けた要求には再び応えることを確認
+     */
+    @Test
+    void testSyncRequestIsRateLimited() throws Exception {
+        setField(SpectatorWebSocketHandler.class, handler, "syncIntervalMs", 60_000L);
+        WebSocketSession session = joinedSession("s1");
+
+        for (int i = 0; i < 100; i++) {
+            handler.handleTextMessage(session, SYNC_REQUEST);
+        }
+        assertEquals(1, snapshots.get());
+
+        // 前回の再同期から間隔が過ぎたことにする
+        session.getAttributes().put("lastSyncAt", System.currentTimeMillis() - 60_000L);
+        handler.handleTextMessage(session, SYNC_REQUEST);
+        assertEquals(2, snapshots.get());
+    }
+
+    /**
+     * セッションごとの間隔テスト
+     * 処理: 別の観戦者の再同期は、他の観戦者の間隔に関係なく応えることを確認
+     */
+    @Test
+    void testSyncIntervalIsPerSession() throws Exception {
+        setField(SpectatorWebSocketHandler.class, handler, "syncIntervalMs", 60_000L);
+
+        handler.handleTextMessage(joinedSession("s1"), SYNC_REQUEST);
+        handler.handleTextMessage(joinedSession("s2"), SYNC_REQUEST);
+        assertEquals(2, snapshots.get());
+    }
+
+    /**
+     * 内部ヘルパー:
+     * game1をFIRSTの視点で観戦しているセッションを作成する
+     */
+    private WebSocketSession joinedSession(String id) {
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("gameId", "game1");
+        attributes.put("side", Team.FIRST);
+        WebSocketSession session = (WebSocketSession) Proxy.newProxyInstance(
+                WebSocketSession.class.getClassLoader(), new Class<?>[] { WebSocketSession.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getId":
+                            return id;
+                        case "getAttributes":
+                            return attributes;
+                        case "isOpen":
+                            return true;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            return null;
+                    }
+                });
+        registry.join("game1", Team.FIRST, session);
+        return session;
+    }
+
+    private static void setField(Class<?> type, Object target, String name, Object value) throws Exception {
+        Field field = type.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
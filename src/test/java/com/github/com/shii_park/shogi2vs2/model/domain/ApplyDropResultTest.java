@@ -34,7 +34,7 @@ class ApplyDropResultTest {
         Map<Piece, Position> initialPieces = new HashMap<>();
         initialPieces.put(piece1, pos1);
         initialPieces.put(piece2, pos2);
-        board = new Board(initialPieces);
+        board = new ArrayBoard(initialPieces);
 
         player1 = new Player("p1", Team.FIRST);
         player2 = new Player("p2", Team.SECOND);
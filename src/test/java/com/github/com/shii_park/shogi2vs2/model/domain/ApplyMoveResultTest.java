@@ -36,7 +36,7 @@ class ApplyMoveResultTest {
         Map<Piece, Position> initialPieces = new HashMap<>();
         initialPieces.put(piece1, pos1);
         initialPieces.put(piece2, pos2);
-        board = new Board(initialPieces);
+        board = new ArrayBoard(initialPieces);
 
         player1 = new Player("p1", Team.FIRST);
         player2 = new Player("p2", Team.SECOND);
@@ -71,7 +71,7 @@ class ApplyMoveResultTest {
         Map<Piece, Position> initialPieces = new HashMap<>();
         initialPieces.put(rook, rookPos);
         initialPieces.put(piece2, new Position(8, 8));
-        Board newBoard = new Board(initialPieces);
+        Board newBoard = new ArrayBoard(initialPieces);
         
         game = new Game("game1", List.of(player1, player2), newBoard, Team.FIRST);
         
@@ -46,7 +46,7 @@ class BoardTest {
         initialPieces.put(piece1, pos1);
         initialPieces.put(piece2, pos2);
         // 盤面を初期化
-        board = new Board(initialPieces);
+        board = new ArrayBoard(initialPieces);
     }
 
     /**
@@ -214,6 +214,24 @@ class BoardTest {
         assertTrue(pieces.contains(piece3));
     }
 
+    /**
+     * 盤上の駒を積み直すテスト
+     * 処理: 既に盤上にある駒をstackPieceしても二重に積まれず、元のマスから移ることを確認
+     */
+    @Test
+    void testStackPieceAlreadyOnBoard() {
+        // piece1をpiece2のいるpos2に積む
+        board.stackPiece(pos2, piece1);
+        // 元のマスpos1は空になることを確認
+        assertNull(board.getTopPiece(pos1));
+        // pos2には2つの駒だけが積まれていることを確認
+        assertEquals(List.of(piece2, piece1), board.getAllPiecesAt(pos2));
+        // 同じマスに積み直しても駒が増えないことを確認
+        board.stackPiece(pos2, piece1);
+        assertEquals(2, board.getAllPiecesAt(pos2).size());
+        assertEquals(pos2, board.find(piece1));
+    }
+
     /**
      * 位置にある全ての駒を捕獲するテスト
      * 処理: スタックされた駒を全て一度に捕獲できることを確認
@@ -296,6 +314,24 @@ class BoardTest {
         assertTrue(piece1.isPromoted());
     }
 
+    /**
+     * 成れない駒を成らせるテスト
+     * 処理: 成ることができない駒にpromotePiece()を呼び出しても成り状態にならず、盤面のハッシュも変わらないことを確認
+     */
+    @Test
+    void testPromotePieceRefusesUnpromotable() {
+        Piece king = new Piece(3, PieceType.KING, Team.FIRST, false);
+        Map<Piece, Position> initialPieces = new HashMap<>();
+        initialPieces.put(king, new Position(5, 9));
+        Board kingBoard = new ArrayBoard(initialPieces);
+        long hash = kingBoard.getZobristHash();
+
+        kingBoard.promotePiece(king);
+
+        assertFalse(king.isPromoted());
+        assertEquals(hash, kingBoard.getZobristHash());
+    }
+
     /**
      * 駒のチーム変更テスト
      * 処理: changeTeam()を呼び出すとFIRST⇔SECONDが切り替わることを確認
@@ -325,4 +361,77 @@ class BoardTest {
         // 空のリストが返ることを確認
         assertTrue(pieces.isEmpty());
     }
+
+    /**
+     * IDと種類から駒を取得するテスト
+     * 処理: 盤上の駒、手駒に移った駒、打たれた駒がIDと種類で取得できることを確認
+     */
+    @Test
+    void testGetPiece() {
+        // 盤上の駒を取得できることを確認
+        assertSame(piece1, board.getPiece(1, PieceType.PAWN));
+        assertSame(piece2, board.getPiece(2, PieceType.PAWN));
+        // 種類が違う、または存在しないIDではnullが返ることを確認
+        assertNull(board.getPiece(1, PieceType.GOLD));
+        assertNull(board.getPiece(99, PieceType.PAWN));
+
+        // piece2を捕獲して手駒に移しても取得できることを確認
+        board.captureAll(pos2, Team.FIRST);
+        assertSame(piece2, board.getPiece(2, PieceType.PAWN));
+
+        // 盤面に登録されていない駒を打つと取得できるようになることを確認
+        Piece dropped = new Piece(30, PieceType.SILVER, Team.FIRST, true);
+        board.stackPiece(new Position(3, 3), dropped);
+        assertSame(dropped, board.getPiece(30, PieceType.SILVER));
+    }
+
+    /**
+     * Zobristハッシュの差分更新テスト
+     * 処理: 駒を動かして元に戻すとハッシュが元に戻り、成りや捕獲でハッシュが変わることを確認
+     */
+    @Test
+    void testZobristHashRestoredAfterRoundTrip() {
+        long initial = board.getZobristHash();
+        // piece1を動かすとハッシュが変わることを確認
+        board.movePiece(piece1, new Position(5, 6));
+        assertNotEquals(initial, board.getZobristHash());
+        // 元の位置に戻すとハッシュも元に戻ることを確認
+        board.movePiece(piece1, pos1);
+        assertEquals(initial, board.getZobristHash());
+
+        // 成るとハッシュが変わることを確認
+        board.promotePiece(piece1);
+        long promoted = board.getZobristHash();
+        assertNotEquals(initial, promoted);
+
+        // 捕獲で盤上から手駒に移るとハッシュが変わることを確認
+        board.captureAll(pos2, Team.FIRST);
+        assertNotEquals(promoted, board.getZobristHash());
+    }
+
+    /**
+     * Zobristハッシュの局面同一性テスト
+     * 処理: 別の盤面で同じ局面を作ると、同じハッシュになることを確認
+     */
+    @Test
+    void testZobristHashSamePositionOnDifferentBoards() {
+        Piece other1 = new Piece(1, PieceType.PAWN, Team.FIRST, true);
+        Piece other2 = new Piece(2, PieceType.PAWN, Team.SECOND, true);
+        Map<Piece, Position> initialPieces = new HashMap<>();
+        initialPieces.put(other1, new Position(5, 6));
+        initialPieces.put(other2, pos2);
+        Board other = new ArrayBoard(initialPieces);
+
+        // 片方は駒を動かして同じ局面にする
+        board.movePiece(piece1, new Position(5, 6));
+        assertEquals(other.getZobristHash(), board.getZobristHash());
+
+        // 積む順番が違う局面は別のハッシュになることを確認
+        board.stackPiece(pos2, piece1);
+        other.stackPiece(pos2, other1);
+        assertEquals(other.getZobristHash(), board.getZobristHash());
+        other.movePiece(other2, new Position(1, 1));
+        other.stackPiece(pos2, other2);
+        assertNotEquals(other.getZobristHash(), board.getZobristHash());
+    }
 }
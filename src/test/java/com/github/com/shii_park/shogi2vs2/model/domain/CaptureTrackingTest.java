@@ -41,7 +41,7 @@ class CaptureTrackingTest {
         Map<Piece, Position> initialPieces = new HashMap<>();
         initialPieces.put(attacker, new Position(5, 5));
         initialPieces.put(target, new Position(5, 6));
-        board = new Board(initialPieces);
+        board = new ArrayBoard(initialPieces);
 
         game = new Game("game1", List.of(player1, player2), board, Team.FIRST);
 
@@ -66,7 +66,7 @@ class CaptureTrackingTest {
         Map<Piece, Position> initialPieces = new HashMap<>();
         initialPieces.put(attacker, new Position(5, 5));
         initialPieces.put(target1, new Position(5, 6));
-        board = new Board(initialPieces);
+        board = new ArrayBoard(initialPieces);
 
         // target2をtarget1の上に積む
         board.stackPiece(new Position(5, 6), target2);
@@ -94,7 +94,7 @@ class CaptureTrackingTest {
         Map<Piece, Position> initialPieces = new HashMap<>();
         initialPieces.put(rook, new Position(5, 5));
         initialPieces.put(target, new Position(5, 7));
-        board = new Board(initialPieces);
+        board = new ArrayBoard(initialPieces);
 
         game = new Game("game1", List.of(player1, player2), board, Team.FIRST);
 
@@ -117,7 +117,7 @@ class CaptureTrackingTest {
 
         Map<Piece, Position> initialPieces = new HashMap<>();
         initialPieces.put(pawn, new Position(5, 5));
-        board = new Board(initialPieces);
+        board = new ArrayBoard(initialPieces);
 
         game = new Game("game1", List.of(player1, player2), board, Team.FIRST);
 
@@ -140,7 +140,7 @@ class CaptureTrackingTest {
         Map<Piece, Position> initialPieces = new HashMap<>();
         initialPieces.put(pawn1, new Position(5, 5));
         initialPieces.put(pawn2, new Position(5, 6));
-        board = new Board(initialPieces);
+        board = new ArrayBoard(initialPieces);
 
         game = new Game("game1", List.of(player1, player2), board, Team.FIRST);
 
@@ -163,7 +163,7 @@ class CaptureTrackingTest {
         Map<Piece, Position> initialPieces = new HashMap<>();
         initialPieces.put(attacker, new Position(5, 5));
         initialPieces.put(target, new Position(5, 6));
-        board = new Board(initialPieces);
+        board = new ArrayBoard(initialPieces);
 
         game = new Game("game1", List.of(player1, player2), board, Team.FIRST);
 
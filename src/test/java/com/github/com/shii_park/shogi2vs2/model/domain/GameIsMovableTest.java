@@ -401,17 +401,14 @@ class GameIsMovableTest {
         PlayerMove move = new PlayerMove(player2, bishopSecond, 
                                          List.of(Direction.DOWN_LEFT, Direction.DOWN_LEFT), false);
         
-        Position initialPos = board.find(bishopSecond);
         game.applyMove(move);
         game.handleTurnEnd();
         
-        // 斜め左下に2マス移動したことを確認（xが減り、yが減る）
-        // (2,8) -> (0,6) だが、Position(0,6)は盤外なので、最後まで移動はできない
-        // 実際には1マスだけ移動: (2,8) -> (1,7) -> 盤外判定で停止
-        // テストを修正: 連続移動ではなく1マス移動をテスト
-        Position newPos = board.find(bishopSecond);
-        assertEquals(initialPos.x() - 1, newPos.x());
-        assertEquals(initialPos.y() - 1, newPos.y());
+        // (2,8) -> (1,7) -> (0,6) と移動し、2マス目で盤外に落ちる
+        // 落ちた角行は盤上から取り除かれ、相手(FIRST)の手駒になることを確認
+        assertNull(board.find(bishopSecond));
+        assertNull(board.getTopPiece(new Position(1, 7)));
+        assertTrue(board.getCapturedPieces().getCapturedPieces(Team.FIRST).contains(bishopSecond));
     }
 
     /**
@@ -45,7 +45,7 @@ class GameTest {
         Map<Piece, Position> initialPieces = new HashMap<>();
         initialPieces.put(piece1, pos1);
         initialPieces.put(piece2, pos2);
-        board = new Board(initialPieces);
+        board = new ArrayBoard(initialPieces);
 
         // 2人のプレイヤーを生成（各チームに1人ずつ）
         player1 = new Player("p1", Team.FIRST);
@@ -195,7 +195,7 @@ class GameTest {
         Map<Piece, Position> initialPieces = new HashMap<>();
         initialPieces.put(rook, rookPos);
         initialPieces.put(piece2, new Position(6, 6));
-        Board newBoard = new Board(initialPieces);
+        Board newBoard = new ArrayBoard(initialPieces);
         
         game = new Game("game1", List.of(player1, player2), newBoard, Team.FIRST);
         
@@ -344,4 +344,30 @@ class GameTest {
         // 手駒が空になったことを確認
         assertEquals(0, board.getCapturedPieces().getCapturedPieces(Team.FIRST).size());
     }
+
+    /**
+     * 盤外に落ちた駒のテスト
+     * 処理: 盤外に落ちた駒が元のマスから取り除かれて相手の手駒になり、成りの指定も無視され、
+     * ハッシュが同じ局面を作り直した盤面と一致することを確認
+     */
+    @Test
+    void testApplyMoveFallsOffBoard() {
+        board.movePiece(piece1, new Position(5, 9));
+
+        game.applyMove(new PlayerMove(player1, piece1, List.of(Direction.UP), true));
+        game.handleTurnEnd();
+
+        // 元のマスは空になり、盤上のどこにもない
+        assertNull(board.getTopPiece(new Position(5, 9)));
+        assertNull(board.find(piece1));
+        assertEquals(List.of(piece1), board.getCapturedPieces().getCapturedPieces(Team.SECOND));
+        assertFalse(piece1.isPromoted());
+
+        // 同じ局面(SECONDの歩が(6, 6)、SECONDの手駒に歩)を作り直した盤面とハッシュが一致する
+        Map<Piece, Position> pieces = new HashMap<>();
+        pieces.put(new Piece(2, PieceType.PAWN, Team.SECOND, true), new Position(6, 6));
+        Board fresh = new ArrayBoard(pieces);
+        fresh.getCapturedPieces().capturedPiece(Team.SECOND, new Piece(1, PieceType.PAWN, Team.FIRST, true));
+        assertEquals(fresh.getZobristHash(), board.getZobristHash());
+    }
 }
@@ -0,0 +1,139 @@
+package com.github.com.shii_park.shogi2vs2.model.domain;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.com.shii_park.shogi2vs2.model.enums.Direction;
+import com.github.com.shii_park.shogi2vs2.model.enums.PieceType;
+import com.github.com.shii_park.shogi2vs2.model.enums.Team;
+
+/**
+ * MoveGeneratorクラスのテスト
+ * 盤上の駒の移動と手駒の配置の列挙を検証
+ */
+class MoveGeneratorTest {
+
+    /**
+     * 歩兵の移動の列挙テスト
+     * 処理: FIRSTチームの歩兵は前方1マスだけに移動できることを確認
+     */
+    @Test
+    void testPawnHasSingleMove() {
+        Piece pawn = new Piece(1, PieceType.PAWN, Team.FIRST, true);
+        Map<Piece, Position> pieces = new HashMap<>();
+        pieces.put(pawn, new Position(5, 5));
+        Board board = new ArrayBoard(pieces);
+
+        List<LegalMove> moves = MoveGenerator.generateMoves(board, Team.FIRST);
+
+        assertEquals(1, moves.size());
+        assertEquals(new Position(5, 6), moves.get(0).to());
+        assertEquals(List.of(Direction.UP), moves.get(0).directions());
+        assertFalse(moves.get(0).promotable());
+    }
+
+    /**
+     * 香車の連続移動の列挙テスト
+     * 処理: 香車の移動は駒のあるマス(積み重ね)で止まり、相手チームの駒は列挙されないことを確認
+     */
+    @Test
+    void testLanceSlideStopsAtOccupiedSquare() {
+        Piece lance = new Piece(1, PieceType.LANCE, Team.FIRST, true);
+        Piece pawn = new Piece(2, PieceType.PAWN, Team.FIRST, true);
+        Piece enemy = new Piece(3, PieceType.PAWN, Team.SECOND, true);
+        Map<Piece, Position> pieces = new HashMap<>();
+        pieces.put(lance, new Position(1, 1));
+        pieces.put(pawn, new Position(1, 3));
+        pieces.put(enemy, new Position(9, 9));
+        Board board = new ArrayBoard(pieces);
+
+        List<LegalMove> lanceMoves = MoveGenerator.generateMoves(board, Team.FIRST).stream()
+                .filter(m -> m.piece() == lance)
+                .toList();
+
+        assertEquals(2, lanceMoves.size());
+        assertEquals(new Position(1, 3), lanceMoves.get(1).to());
+        assertEquals(List.of(Direction.UP, Direction.UP), lanceMoves.get(1).directions());
+    }
+
+    /**
+     * 成りの可否の列挙テスト
+     * 処理: 成りエリアに入る移動だけが成り可能として列挙されることを確認
+     */
+    @Test
+    void testPromotableInPromotionZone() {
+        Piece pawn = new Piece(1, PieceType.PAWN, Team.FIRST, true);
+        Map<Piece, Position> pieces = new HashMap<>();
+        pieces.put(pawn, new Position(5, 6));
+        Board board = new ArrayBoard(pieces);
+
+        List<LegalMove> moves = MoveGenerator.generateMoves(board, Team.FIRST);
+
+        assertEquals(1, moves.size());
+        assertTrue(moves.get(0).promotable());
+    }
+
+    /**
+     * 盤面外への移動の列挙テスト
+     * 処理: 盤端の歩兵の前方への移動が、盤外のマスを移動先とする成れない落下の移動として列挙されることを確認
+     */
+    @Test
+    void testMoveOffBoardFalls() {
+        Piece pawn = new Piece(1, PieceType.PAWN, Team.FIRST, true);
+        Map<Piece, Position> pieces = new HashMap<>();
+        pieces.put(pawn, new Position(5, 9));
+        Board board = new ArrayBoard(pieces);
+
+        List<LegalMove> moves = MoveGenerator.generateMoves(board, Team.FIRST);
+
+        assertEquals(1, moves.size());
+        assertTrue(moves.get(0).falls());
+        assertEquals(new Position(5, 10), moves.get(0).to());
+        assertFalse(moves.get(0).promotable());
+    }
+
+    /**
+     * 連続移動の落下の列挙テスト
+     * 処理: 香車の連続移動は盤端までのマスに加え、盤端を越える落下の移動が1つだけ列挙されることを確認
+     */
+    @Test
+    void testLanceSlideFallsPastEdge() {
+        Piece lance = new Piece(1, PieceType.LANCE, Team.FIRST, true);
+        Map<Piece, Position> pieces = new HashMap<>();
+        pieces.put(lance, new Position(1, 7));
+        Board board = new ArrayBoard(pieces);
+
+        List<LegalMove> moves = MoveGenerator.generateMoves(board, Team.FIRST);
+
+        assertEquals(3, moves.size());
+        assertFalse(moves.get(1).falls());
+        assertTrue(moves.get(2).falls());
+        assertEquals(List.of(Direction.UP, Direction.UP, Direction.UP), moves.get(2).directions());
+    }
+
+    /**
+     * 手駒の配置の列挙テスト
+     * 処理: 同じ種類の手駒は1つにまとめられ、空いている全てのマスに配置できることを確認
+     */
+    @Test
+    void testDropsOnEmptySquares() {
+        Piece pawn = new Piece(1, PieceType.PAWN, Team.FIRST, true);
+        Map<Piece, Position> pieces = new HashMap<>();
+        pieces.put(pawn, new Position(5, 5));
+        Board board = new ArrayBoard(pieces);
+        board.getCapturedPieces().capturedPiece(Team.SECOND, new Piece(2, PieceType.GOLD, Team.FIRST, false));
+        board.getCapturedPieces().capturedPiece(Team.SECOND, new Piece(3, PieceType.GOLD, Team.FIRST, false));
+
+        List<LegalDrop> drops = MoveGenerator.generateDrops(board, Team.SECOND);
+
+        assertEquals(80, drops.size());
+        assertTrue(drops.stream().allMatch(d -> d.type() == PieceType.GOLD));
+        assertTrue(drops.stream().noneMatch(d -> d.position().equals(new Position(5, 5))));
+        assertTrue(MoveGenerator.generateDrops(board, Team.FIRST).isEmpty());
+    }
+}
@@ -425,4 +425,42 @@ class PieceTypeTest {
         assertEquals(PieceType.ROOK, types[6]);
         assertEquals(PieceType.KING, types[7]);
     }
+
+    /**
+     * 移動可能方向のビットマスクが方向リストと一致することを確認
+     * SECONDチームは方向が反転する
+     */
+    @Test
+    void testMovableMaskMatchesDirections() {
+        for (PieceType type : PieceType.values()) {
+            for (boolean promoted : new boolean[] { false, true }) {
+                int expectedFirst = 0;
+                int expectedSecond = 0;
+                for (Direction dir : type.getMovableDirections(promoted)) {
+                    expectedFirst |= dir.mask();
+                    expectedSecond |= dir.forTeam(Team.SECOND).mask();
+                }
+                assertEquals(expectedFirst, type.getMovableMask(promoted, Team.FIRST));
+                assertEquals(expectedSecond, type.getMovableMask(promoted, Team.SECOND));
+            }
+        }
+        assertEquals(Direction.DOWN.mask(), PieceType.PAWN.getMovableMask(false, Team.SECOND));
+    }
+
+    /**
+     * 連続移動可能方向のビットマスクのテスト
+     */
+    @Test
+    void testSlideMask() {
+        // 香車は前方向のみ、成ると連続移動不可
+        assertEquals(Direction.UP.mask(), PieceType.LANCE.getSlideMask(false, Team.FIRST));
+        assertEquals(Direction.DOWN.mask(), PieceType.LANCE.getSlideMask(false, Team.SECOND));
+        assertEquals(0, PieceType.LANCE.getSlideMask(true, Team.FIRST));
+        // 竜王は成っても縦横のみ連続移動可
+        int rookMask = Direction.UP.mask() | Direction.DOWN.mask() | Direction.LEFT.mask() | Direction.RIGHT.mask();
+        assertEquals(rookMask, PieceType.ROOK.getSlideMask(true, Team.FIRST));
+        assertEquals(rookMask, PieceType.ROOK.getSlideMask(true, Team.SECOND));
+        // 連続移動できない駒は0
+        assertEquals(0, PieceType.GOLD.getSlideMask(false, Team.FIRST));
+    }
 }
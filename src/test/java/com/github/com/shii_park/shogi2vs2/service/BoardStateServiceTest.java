@@ -0,0 +1,126 @@
+package com.github.com.shii_park.shogi2vs2.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.com.shii_park.shogi2vs2.dto.response.BoardDelta;
+import com.github.com.shii_park.shogi2vs2.dto.response.BoardSnapshot;
+import com.github.com.shii_park.shogi2vs2.dto.response.SquareState;
+import com.github.com.shii_park.shogi2vs2.model.domain.ArrayBoard;
+import com.github.com.shii_park.shogi2vs2.model.domain.Board;
+import com.github.com.shii_park.shogi2vs2.model.domain.Piece;
+import com.github.com.shii_park.shogi2vs2.model.domain.Position;
+import com.github.com.shii_park.shogi2vs2.model.enums.PieceType;
+import com.github.com.shii_park.shogi2vs2.model.enums.Team;
+
+/**
+ * BoardStateServiceのテスト
+ * スナップショットの作成、差分の計算、チーム視点への変換を検証
+ */
+class BoardStateServiceTest {
+
+    private BoardStateService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        service = new BoardStateService();
+        Field field = BoardStateService.class.getDeclaredField("coordinateService");
+        field.setAccessible(true);
+        field.set(service, new BoardCoordinateService());
+    }
+
+    /**
+     * 駒の移動の差分テスト
+     * 処理: 移動元(空のリスト)と移動先の2マスだけが差分に含まれ、手駒は含まれないことを確認
+     */
+    @Test
+    void testMoveProducesTwoChangedSquares() {
+        Piece pawn = new Piece(1, PieceType.PAWN, Team.FIRST, true);
+        Piece king = new Piece(2, PieceType.KING, Team.SECOND, false);
+        Map<Piece, Position> pieces = new HashMap<>();
+        pieces.put(pawn, new Position(5, 5));
+        pieces.put(king, new Position(5, 9));
+        Board board = new ArrayBoard(pieces);
+
+        BoardSnapshot before = service.capture(board, 0);
+        board.movePiece(pawn, new Position(5, 6));
+        BoardSnapshot after = service.capture(board, 1);
+        BoardDelta delta = service.diff(before, after);
+
+        assertEquals(1L, delta.sequence());
+        assertEquals(2, delta.squares().size());
+        SquareState from = delta.squares().get(0);
+        SquareState to = delta.squares().get(1);
+        assertEquals(new Position(5, 5), from.position());
+        assertTrue(from.pieces().isEmpty());
+        assertEquals(new Position(5, 6), to.position());
+        assertEquals(1, to.pieces().get(0).id());
+        assertTrue(delta.hands().isEmpty());
+    }
+
+    /**
+     * 駒の捕獲の差分テスト
+     * 処理: 捕獲したマスと捕獲したチームの手駒だけが差分に含まれることを確認
+     */
+    @Test
+    void testCaptureChangesSquareAndHand() {
+        Piece pawn = new Piece(1, PieceType.PAWN, Team.FIRST, true);
+        Piece enemy = new Piece(2, PieceType.GOLD, Team.SECOND, false);
+        Map<Piece, Position> pieces = new HashMap<>();
+        pieces.put(pawn, new Position(3, 3));
+        pieces.put(enemy, new Position(3, 4));
+        Board board = new ArrayBoard(pieces);
+
+        BoardSnapshot before = service.capture(board, 0);
+        board.captureAll(new Position(3, 4), Team.FIRST);
+        BoardSnapshot after = service.capture(board, 1);
+        BoardDelta delta = service.diff(before, after);
+
+        assertEquals(1, delta.squares().size());
+        assertEquals(new Position(3, 4), delta.squares().get(0).position());
+        assertTrue(delta.squares().get(0).pieces().isEmpty());
+        assertEquals(List.of(Team.FIRST.name()), List.copyOf(delta.hands().keySet()));
+        assertEquals(2, delta.hands().get(Team.FIRST.name()).get(0).id());
+    }
+
+    /**
+     * 変化のないターンの差分テスト
+     * 処理: 同じ盤面のスナップショットの差分が空になることを確認
+     */
+    @Test
+    void testUnchangedBoardProducesEmptyDelta() {
+        Piece pawn = new Piece(1, PieceType.PAWN, Team.FIRST, true);
+        Map<Piece, Position> pieces = new HashMap<>();
+        pieces.put(pawn, new Position(1, 1));
+        Board board = new ArrayBoard(pieces);
+
+        BoardDelta delta = service.diff(service.capture(board, 0), service.capture(board, 1));
+
+        assertTrue(delta.squares().isEmpty());
+        assertTrue(delta.hands().isEmpty());
+    }
+
+    /**
+     * チーム視点への変換テスト
+     * 処理: SECONDチームの視点ではマスの座標が反転し、FIRSTチームはそのままであることを確認
+     */
+    @Test
+    void testForTeamNormalizesSecondView() {
+        Piece pawn = new Piece(1, PieceType.PAWN, Team.FIRST, true);
+        Map<Piece, Position> pieces = new HashMap<>();
+        pieces.put(pawn, new Position(2, 3));
+        BoardSnapshot snapshot = service.capture(new ArrayBoard(pieces), 0);
+
+        assertSame(snapshot, service.forTeam(snapshot, Team.FIRST));
+        BoardSnapshot second = service.forTeam(snapshot, Team.SECOND);
+        assertEquals(new Position(8, 7), second.squares().get(0).position());
+        assertEquals(snapshot.hands(), second.hands());
+    }
+}
@@ -0,0 +1,103 @@
+package com.github.com.shii_park.shogi2vs2.service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * ゲームのアーカイブのベンチマーク
+ * ランダムな合法手で進めたゲームのアクションを使い回して多数のゲームを一時ディレクトリのアーカイブに追記し、
+ * 追記の速さ、ゲームIDでの検索の時間、終了時刻の範囲(全体の1%)での列挙の速さを計測する
+ * JUnitのテストではないため、mainメソッドから手動で実行する
+ * 引数: [ゲーム数(既定100000)] [検索回数(既定100000)]
+ */
+public class GameArchiveBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int lookups = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        List<String> userIds = List.of("u1", "u2", "u3", "u4");
+
+        // アクションの元になるゲーム
+        List<List<GameArchive.ArchivedAction>> samples = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            List<GameEventCodec.GameEvent> events = new ArrayList<>();
+            for (byte[] e : GameReplayEngineTest.playRandomGame(i, 200).events()) {
+                events.add(GameEventCodec.decode(e));
+            }
+            samples.add(GameArchiveService.toArchivedActions(userIds, events));
+        }
+
+        Path directory = Files.createTempDirectory("game-archive-bench");
+        try (GameArchive archive = new GameArchive(directory, 256 * 1024 * 1024)) {
+            long start = System.nanoTime();
+            long actions = 0;
+            for (int i = 0; i < games; i++) {
+                List<GameArchive.ArchivedAction> sample = samples.get(i % samples.size());
+                actions += sample.size();
+                archive.append(new GameArchive.ArchivedGame("game-" + i, userIds, (i % 2 == 0) ? "FIRST" : "SECOND",
+                        "FINISHED", i * 1000L, i * 1000L + 600_000, sample));
+            }
+            archive.force();
+            double appendSeconds = (System.nanoTime() - start) / 1e9;
+            long bytes = 0;
+            for (int i = 0; i < games; i++) {
+                bytes += GameArchive.encode(new GameArchive.ArchivedGame("game-" + i, userIds, "FIRST", "FINISHED", 0,
+                        0, samples.get(i % samples.size()))).remaining();
+            }
+
+            Random random = new Random(42);
+            long[] findNanos = new long[lookups];
+            // JITのウォームアップを含めて2倍回し、後半だけを集計する
+            for (int n = 0; n < lookups * 2; n++) {
+                String gameId = "game-" + random.nextInt(games);
+                long t = System.nanoTime();
+                GameArchive.ArchivedGame game = archive.find(gameId);
+                long elapsed = System.nanoTime() - t;
+                if (game == null) throw new IllegalStateException("missing " + gameId);
+                if (n >= lookups) findNanos[n - lookups] = elapsed;
+            }
+
+            long window = games * 10L;
+            long scanned = 0;
+            long scanStart = 0;
+            for (int n = 0; n < 20; n++) {
+                if (n == 10) scanStart = System.nanoTime();
+                long from = (long) random.nextInt(games - games / 100) * 1000 + 600_000;
+                scanned += archive.findFinishedBetween(from, from + window).count();
+            }
+            double scanSeconds = (System.nanoTime() - scanStart) / 1e9;
+
+            System.out.printf("games=%d, actions=%d (%.1f per game), %.0f bytes per game%n", games, actions,
+                    (double) actions / games, (double) bytes / games);
+            System.out.printf("append %,.0f games/s%n", games / appendSeconds);
+            System.out.printf("find   p50=%,6.2f us  p99=%,6.2f us%n", percentile(findNanos, 50),
+                    percentile(findNanos, 99));
+            System.out.printf("range  %,.1f ms per 1%% window (%d games)%n", scanSeconds * 1000 / 10, scanned / 20);
+        } finally {
+            try (Stream<Path> paths = Files.walk(directory)) {
+                for (Path p : paths.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(p);
+                }
+            }
+        }
+    }
+
+    /**
+     * 計測値のパーセンタイルをマイクロ秒で返す
+     *
+     * @param nanos 計測値(ナノ秒)
+     * @param p     パーセンタイル
+     * @return マイクロ秒
+     */
+    private static double percentile(long[] nanos, int p) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, sorted.length * p / 100)] / 1000.0;
+    }
+}
@@ -0,0 +1,170 @@
+package com.github.com.shii_park.shogi2vs2.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.com.shii_park.shogi2vs2.model.domain.Position;
+import com.github.com.shii_park.shogi2vs2.model.domain.action.DropAction;
+import com.github.com.shii_park.shogi2vs2.model.domain.action.MoveAction;
+import com.github.com.shii_park.shogi2vs2.model.enums.Direction;
+import com.github.com.shii_park.shogi2vs2.model.enums.Team;
+
+/**
+ * GameArchiveのテスト
+ * ゲームの記録の追記と、ゲームIDでの検索、終了時刻の範囲での列挙、開き直したときの復旧を検証
+ */
+class GameArchiveTest {
+
+    /** プレイヤーのユーザーID(u1,u2がFIRST、u3,u4がSECOND) */
+    private static final List<String> USER_IDS = List.of("u1", "u2", "u3", "u4");
+
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("game-archive");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path p : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(p);
+            }
+        }
+    }
+
+    /**
+     * 追記と検索のテスト
+     * 処理: 移動(連続移動・成り)と配置を含むゲームを追記し、ゲームIDで検索した記録が一致することを確認
+     */
+    @Test
+    void testAppendAndFind() throws IOException {
+        try (GameArchive archive = new GameArchive(directory, 1 << 16)) {
+            GameArchive.ArchivedGame game = game("game-1", 1_000);
+            archive.append(game);
+            archive.append(game("game-2", 2_000));
+
+            assertEquals(2, archive.size());
+            assertEquals(game, archive.find("game-1"));
+            assertEquals("game-2", archive.find("game-2").gameId());
+            assertNull(archive.find("game-3"));
+        }
+    }
+
+    /**
+     * 範囲での列挙のテスト
+     * 処理: 終了時刻が範囲内(下限を含み上限を含まない)のゲームだけが追記した順に列挙されることを確認
+     */
+    @Test
+    void testFindFinishedBetween() throws IOException {
+        try (GameArchive archive = new GameArchive(directory, 1 << 16)) {
+            for (int i = 0; i < 10; i++) {
+                archive.append(game("game-" + i, i * 1_000L));
+            }
+
+            List<String> ids = archive.findFinishedBetween(3_000, 6_000).map(GameArchive.ArchivedGame::gameId)
+                    .toList();
+            assertEquals(List.of("game-3", "game-4", "game-5"), ids);
+            assertEquals(0, archive.findFinishedBetween(20_000, 30_000).count());
+        }
+    }
+
+    /**
+     * セグメントの切り替えと開き直しのテスト
+     * 処理: 小さなセグメントで複数のファイルに分かれた記録が、開き直した後も検索でき、続けて追記できることを確認
+     */
+    @Test
+    void testReopenAcrossSegments() throws IOException {
+        int recordSize = GameArchive.encode(game("game-0", 0)).remaining();
+        try (GameArchive archive = new GameArchive(directory, recordSize * 3)) {
+            for (int i = 0; i < 7; i++) {
+                archive.append(game("game-" + i, i * 1_000L));
+            }
+        }
+        assertTrue(Files.exists(directory.resolve("games-00002.dat")));
+
+        try (GameArchive archive = new GameArchive(directory, recordSize * 3)) {
+            assertEquals(7, archive.size());
+            assertEquals(game("game-4", 4_000), archive.find("game-4"));
+            archive.append(game("game-7", 7_000));
+            assertEquals(8, archive.findFinishedBetween(0, Long.MAX_VALUE).count());
+        }
+    }
+
+    /**
+     * 書き込み途中で終わった記録の復旧のテスト
+     * 処理: 末尾の記録のデータが壊れている場合、開き直すとその記録を捨てて残りを読めることを確認
+     */
+    @Test
+    void testRecoverTornTail() throws IOException {
+        try (GameArchive archive = new GameArchive(directory, 1 << 16)) {
+            archive.append(game("game-1", 1_000));
+            archive.append(game("game-2", 2_000));
+        }
+        // 2件目の記録の途中を書き換える
+        int recordSize = GameArchive.encode(game("game-1", 1_000)).remaining();
+        try (FileChannel channel = FileChannel.open(directory.resolve("games-00000.dat"), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] { 0x55, 0x55 }), recordSize + 20);
+        }
+
+        try (GameArchive archive = new GameArchive(directory, 1 << 16)) {
+            assertEquals(1, archive.size());
+            assertNotNull(archive.find("game-1"));
+            assertNull(archive.find("game-2"));
+        }
+    }
+
+    /**
+     * イベントログからの変換のテスト
+     * 処理: 参加者以外のアクションと方向が混ざった移動が除かれ、ターンの通し番号が付くことを確認
+     */
+    @Test
+    void testToArchivedActions() {
+        MoveAction valid = new MoveAction("u1", "FIRST", 1, "PAWN", List.of(Direction.UP), false, null);
+        MoveAction mixed = new MoveAction("u2", "FIRST", 2, "PAWN", List.of(Direction.UP, Direction.LEFT), false,
+                null);
+        MoveAction stranger = new MoveAction("x", "FIRST", 3, "PAWN", List.of(Direction.UP), false, null);
+        List<GameEventCodec.GameEvent> events = List.of(
+                new GameEventCodec.Started(Team.FIRST, USER_IDS),
+                new GameEventCodec.Turn(1, List.of(valid, mixed, stranger), List.of(), List.of(), 0, 0));
+
+        List<GameArchive.ArchivedAction> actions = GameArchiveService.toArchivedActions(USER_IDS, events);
+
+        assertEquals(List.of(new GameArchive.ArchivedAction(1, valid)), actions);
+    }
+
+    /**
+     * テスト用のゲームの記録を作成する
+     *
+     * @param gameId     ゲームID
+     * @param finishedAt 終了時刻
+     * @return ゲームの記録
+     */
+    private GameArchive.ArchivedGame game(String gameId, long finishedAt) {
+        List<GameArchive.ArchivedAction> actions = new ArrayList<>();
+        actions.add(new GameArchive.ArchivedAction(1,
+                new MoveAction("u1", "FIRST", 7, "PAWN", List.of(Direction.UP), false, null)));
+        actions.add(new GameArchive.ArchivedAction(1,
+                new MoveAction("u3", "SECOND", 1, "ROOK", List.of(Direction.DOWN, Direction.DOWN, Direction.DOWN),
+                        true, null)));
+        actions.add(new GameArchive.ArchivedAction(2,
+                new DropAction("u4", "SECOND", "BISHOP", Position.of(5, 5), null)));
+        return new GameArchive.ArchivedGame(gameId, USER_IDS, "FIRST", "FINISHED", finishedAt - 500, finishedAt,
+                actions);
+    }
+}
@@ -0,0 +1,92 @@
+package com.github.com.shii_park.shogi2vs2.service;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * WebSocketメッセージ処理の実行方式を比較するベンチマーク
+ * 同時接続セッション数ぶんのプレイヤーが一斉にメッセージを送り、1メッセージあたりブロッキングI/O
+ * (Redisの往復やソケット書き込みを想定)を含む処理を行ったときのスループットを計測する
+ * <ul>
+ * <li>container: コンテナのスレッドプール(Tomcatの既定の200スレッド)で同期的に処理する現在の方式</li>
+ * <li>striped: コンテナのスレッドからGameExecutorServiceのレーンに渡す方式</li>
+ * <li>virtual: コンテナのスレッドからGameExecutorServiceの仮想スレッドのメールボックスに渡す方式</li>
+ * </ul>
+ * JUnitのテストではないため、mainメソッドから手動で実行する
+ * 引数: [セッション数(既定10000)] [1セッションあたりのメッセージ数(既定20)] [1メッセージのI/O待ち時間(マイクロ秒, 既定1000)]
+ */
+public class GameExecutorBenchmark {
+
+    /** Tomcatのserver.tomcat.threads.maxの既定値 */
+    private static final int CONTAINER_THREADS = 200;
+    /** 1ゲームのプレイヤー数 */
+    private static final int PLAYERS_PER_GAME = 4;
+
+    public static void main(String[] args) throws Exception {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int messagesPerSession = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        long ioMicros = args.length > 2 ? Long.parseLong(args[2]) : 1_000;
+
+        System.out.printf("sessions=%d, messages/session=%d, io=%dus%n", sessions, messagesPerSession, ioMicros);
+        for (String mode : new String[] { "container", "striped", "virtual" }) {
+            // JITのウォームアップ
+            run(mode, sessions / 10, 2, ioMicros);
+            double rate = run(mode, sessions, messagesPerSession, ioMicros);
+            System.out.printf("%-10s %,12.0f msg/s%n", mode, rate);
+        }
+    }
+
+    /**
+     * 1つの実行方式でメッセージを処理し、スループットを返す
+     *
+     * @param mode               実行方式
+     * @param sessions           セッション数
+     * @param messagesPerSession 1セッションあたりのメッセージ数
+     * @param ioMicros           1メッセージのI/O待ち時間(マイクロ秒)
+     * @return 1秒あたりの処理メッセージ数
+     */
+    private static double run(String mode, int sessions, int messagesPerSession, long ioMicros)
+            throws InterruptedException {
+        int total = sessions * messagesPerSession;
+        CountDownLatch done = new CountDownLatch(total);
+        ExecutorService container = Executors.newFixedThreadPool(CONTAINER_THREADS);
+        GameExecutorService gameExecutor = null;
+        if (!"container".equals(mode)) {
+            gameExecutor = new GameExecutorService(mode);
+            gameExecutor.init();
+        }
+
+        Runnable work = () -> {
+            // Redisの往復やソケット書き込みの待ち時間
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(ioMicros));
+            done.countDown();
+        };
+
+        long start = System.nanoTime();
+        for (int m = 0; m < messagesPerSession; m++) {
+            for (int s = 0; s < sessions; s++) {
+                String gameId = "game-" + (s / PLAYERS_PER_GAME);
+                GameExecutorService executor = gameExecutor;
+                // コンテナのスレッドがフレームを受け取る
+                container.execute(() -> {
+                    if (executor == null) {
+                        work.run();
+                    } else {
+                        executor.execute(gameId, work);
+                    }
+                });
+            }
+        }
+        done.await();
+        long elapsed = System.nanoTime() - start;
+
+        container.shutdown();
+        if (gameExecutor != null) {
+            gameExecutor.cleanup();
+        }
+        return total / (elapsed / 1e9);
+    }
+}
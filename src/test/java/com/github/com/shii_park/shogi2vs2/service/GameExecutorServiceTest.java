@@ -0,0 +1,147 @@
+package com.github.com.shii_park.shogi2vs2.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * GameExecutorServiceのテスト
+ * 両方の実行方式で、同じゲームのタスクが投入順に1つずつ実行されることを検証
+ */
+class GameExecutorServiceTest {
+
+    /**
+     * 指定した実行方式でタスクの順序を確認する
+     * 処理: 4スレッドから別々のゲームにタスクを投入し、ゲームごとの実行順が投入順と一致することを確認
+     */
+    private void assertPerGameOrder(String mode) throws InterruptedException {
+        GameExecutorService executor = new GameExecutorService(mode);
+        executor.init();
+        try {
+            int games = 4;
+            int tasksPerGame = 1000;
+            List<List<Integer>> executed = new ArrayList<>();
+            for (int g = 0; g < games; g++) {
+                // 同じゲームのタスクは直列に実行されるため同期は不要
+                executed.add(new ArrayList<>());
+            }
+            CountDownLatch done = new CountDownLatch(games * tasksPerGame);
+
+            List<Thread> producers = new ArrayList<>();
+            for (int g = 0; g < games; g++) {
+                int game = g;
+                Thread t = new Thread(() -> {
+                    for (int i = 0; i < tasksPerGame; i++) {
+                        int seq = i;
+                        executor.execute("game" + game, () -> {
+                            executed.get(game).add(seq);
+                            done.countDown();
+                        });
+                    }
+                });
+                producers.add(t);
+                t.start();
+            }
+            for (Thread t : producers) {
+                t.join();
+            }
+
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            for (List<Integer> seqs : executed) {
+                assertEquals(tasksPerGame, seqs.size());
+                for (int i = 0; i < tasksPerGame; i++) {
+                    assertEquals(i, (int) seqs.get(i));
+                }
+            }
+        } finally {
+            executor.cleanup();
+        }
+    }
+
+    /**
+     * レーン方式の実行順テスト
+     */
+    @Test
+    void testStripedModeKeepsPerGameOrder() throws InterruptedException {
+        assertPerGameOrder("striped");
+    }
+
+    /**
+     * 仮想スレッド方式の実行順テスト
+     */
+    @Test
+    void testVirtualModeKeepsPerGameOrder() throws InterruptedException {
+        assertPerGameOrder("virtual");
+    }
+
+    /**
+     * submitで投入したタスクの結果と例外が返ることを確認
+     */
+    @Test
+    void testSubmitReturnsResult() throws Exception {
+        GameExecutorService executor = new GameExecutorService("virtual");
+        executor.init();
+        try {
+            assertEquals(42, (int) executor.submit("game1", () -> 42).get(1, TimeUnit.SECONDS));
+            assertThrows(Exception.class, () -> executor.submit("game1", () -> {
+                throw new IllegalStateException("boom");
+            }).get(1, TimeUnit.SECONDS));
+        } finally {
+            executor.cleanup();
+        }
+    }
+
+    /**
+     * 空になったメールボックスが取り外され、その前後に積んだタスクも取りこぼさないことを確認
+     * 処理: タスクの中から同じゲームにタスクを積み、間を空けながら投入を繰り返して、全タスクの実行順とメールボックスの解放を確認
+     */
+    @Test
+    void testVirtualModeReleasesIdleMailbox() throws InterruptedException {
+        GameExecutorService executor = new GameExecutorService("virtual");
+        executor.init();
+        try {
+            int rounds = 200;
+            List<Integer> executed = new ArrayList<>();
+            CountDownLatch done = new CountDownLatch(rounds * 2);
+            for (int i = 0; i < rounds; i++) {
+                int seq = i * 2;
+                executor.execute("game1", () -> {
+                    executed.add(seq);
+                    done.countDown();
+                    // ゲーム終了の処理中に後続のタスクが積まれる場合と同じ
+                    executor.execute("game1", () -> {
+                        executed.add(seq + 1);
+                        done.countDown();
+                    });
+                });
+                if (i % 10 == 0) {
+                    // メールボックスが空になって取り外される時間を作る
+                    Thread.sleep(1);
+                }
+            }
+
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertEquals(rounds * 2, executed.size());
+            for (int i = 0; i < rounds; i++) {
+                int first = executed.indexOf(i * 2);
+                assertTrue(first < executed.indexOf(i * 2 + 1));
+                if (i > 0) {
+                    assertTrue(executed.indexOf((i - 1) * 2) < first);
+                }
+            }
+
+            long deadline = System.currentTimeMillis() + 1000;
+            while (executor.mailboxCount() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(1);
+            }
+            assertEquals(0, executor.mailboxCount());
+        } finally {
+            executor.cleanup();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.github.com.shii_park.shogi2vs2.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.ListOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+/**
+ * GameManagementServiceのテスト
+ * Redisに書き込まれた予約の検証、開始時の取り出し、期限で消えた予約の検出を検証
+ * Redisは予約のリストだけを持つメモリ上の代用品に置き換える
+ */
+class GameManagementServiceTest {
+
+    private static final List<String> PLAYERS = List.of("user1", "user2", "user3", "user4");
+
+    /** 予約のキーとユーザーIDリスト(マッチングのスクリプトが書き込む内容) */
+    private final Map<String, List<String>> reservations = new ConcurrentHashMap<>();
+
+    private GameManagementService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        service = new GameManagementService();
+        Field field = GameManagementService.class.getDeclaredField("redisTemplate");
+        field.setAccessible(true);
+        field.set(service, new FakeRedisTemplate());
+    }
+
+    /**
+     * 予約の検証テスト
+     * 処理: 予約に含まれるユーザーだけが正当な参加者となり、予約順のリストを引けることを確認
+     */
+    @Test
+    void testValidPlayerReadsReservation() {
+        reserve("game1");
+
+        assertTrue(service.isValidPlayer("game1", "user3"));
+        assertFalse(service.isValidPlayer("game1", "user5"));
+        assertFalse(service.isValidPlayer("game2", "user1"));
+        assertEquals(PLAYERS, service.getReservedPlayers("game1"));
+        assertNull(service.getReservedPlayers("game2"));
+    }
+
+    /**
+     * 予約の取り出しテスト
+     * 処理: 開始時に取り出せるのは1回だけで、取り出した予約は期限切れとして報告されないことを確認
+     */
+    @Test
+    void testRemovePendingGameConsumesOnce() {
+        reserve("game1");
+        service.markWaiting("game1");
+        assertEquals(1, service.getPendingGameCount());
+
+        assertEquals(PLAYERS, service.removePendingGame("game1"));
+        assertNull(service.removePendingGame("game1"));
+        assertFalse(service.isValidPlayer("game1", "user1"));
+        assertEquals(0, service.getPendingGameCount());
+        assertEquals(List.of(), service.removeExpiredReservations());
+    }
+
+    /**
+     * 予約の期限切れテスト
+     * 処理: 接続済みのプレイヤーがいる予約がRedisの期限で消えると1回だけ報告され、開始時にも取り出せないことを確認
+     */
+    @Test
+    void testRemoveExpiredReservations() {
+        reserve("game1");
+        reserve("game2");
+        service.markWaiting("game1");
+        service.markWaiting("game2");
+        assertEquals(List.of(), service.removeExpiredReservations());
+
+        // Redisの期限で消えた場合と同じ
+        reservations.remove(GameManagementService.RESERVATION_KEY_PREFIX + "game1");
+
+        assertEquals(List.of("game1"), service.removeExpiredReservations());
+        assertEquals(List.of(), service.removeExpiredReservations());
+        assertNull(service.removePendingGame("game1"));
+        assertEquals(1, service.getPendingGameCount());
+    }
+
+    /**
+     * 内部ヘルパー:
+     * マッチングのスクリプトと同じく予約をRedisに書き込む
+     */
+    private void reserve(String gameId) {
+        reservations.put(GameManagementService.RESERVATION_KEY_PREFIX + gameId, new ArrayList<>(PLAYERS));
+    }
+
+    /**
+     * 予約のリストだけを扱うRedisテンプレートの代用品
+     * スクリプトは予約の取り出し(LRANGEとDEL)として扱う
+     */
+    private class FakeRedisTemplate extends StringRedisTemplate {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T execute(RedisScript<T> script, List<String> keys, Object... args) {
+            List<String> players = reservations.remove(keys.get(0));
+            return (T) (players != null ? players : List.of());
+        }
+
+        @Override
+        public Boolean hasKey(String key) {
+            return reservations.containsKey(key);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public ListOperations<String, String> opsForList() {
+            return (ListOperations<String, String>) Proxy.newProxyInstance(ListOperations.class.getClassLoader(),
+                    new Class<?>[] { ListOperations.class }, (proxy, method, args) -> {
+                        if ("range".equals(method.getName())) {
+                            List<String> players = reservations.get((String) args[0]);
+                            return players != null ? new ArrayList<>(players) : List.of();
+                        }
+                        throw new UnsupportedOperationException(method.getName());
+                    });
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.github.com.shii_park.shogi2vs2.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * イベントログからの再生のベンチマーク
+ * ランダムな合法手で進めたゲーム(最大200ターン)のイベントログを用意し、読み込み(decode)と再生(replay)の速さを計測する
+ * 1ゲームあたりの時間と、1秒あたりに再生できるゲーム数・ターン数を表示する
+ * JUnitのテストではないため、mainメソッドから手動で実行する
+ * 引数: [ゲーム数(既定100)] [計測回数(既定20)]
+ */
+public class GameReplayBenchmark {
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        List<List<byte[]>> logs = new ArrayList<>();
+        long turns = 0;
+        long bytes = 0;
+        for (int i = 0; i < games; i++) {
+            List<byte[]> events = GameReplayEngineTest.playRandomGame(i, 200).events();
+            logs.add(events);
+            turns += events.size() - 1;
+            for (byte[] e : events) {
+                bytes += e.length;
+            }
+        }
+
+        long decodeNanos = 0;
+        long replayNanos = 0;
+        int diverged = 0;
+        // JITのウォームアップを含めて2倍回し、後半だけを集計する
+        for (int n = 0; n < iterations * 2; n++) {
+            for (List<byte[]> log : logs) {
+                long start = System.nanoTime();
+                List<GameEventCodec.GameEvent> events = new ArrayList<>(log.size());
+                for (byte[] e : log) {
+                    events.add(GameEventCodec.decode(e));
+                }
+                long decoded = System.nanoTime();
+                GameReplayEngine.Replay replay = GameReplayEngine.replay("game", events, Long.MAX_VALUE);
+                long replayed = System.nanoTime();
+                if (n >= iterations) {
+                    decodeNanos += decoded - start;
+                    replayNanos += replayed - decoded;
+                    if (!replay.verified()) diverged++;
+                }
+            }
+        }
+
+        long replays = (long) games * iterations;
+        double seconds = (decodeNanos + replayNanos) / 1e9;
+        System.out.printf("games=%d, turns=%d (%.1f per game), log=%.1f bytes per turn%n", games, turns,
+                (double) turns / games, (double) bytes / turns);
+        System.out.printf("decode %,8.1f us/game, replay %,8.1f us/game%n", decodeNanos / 1000.0 / replays,
+                replayNanos / 1000.0 / replays);
+        System.out.printf("%,.0f games/s, %,.0f turns/s, diverged=%d%n", replays / seconds,
+                turns * iterations / seconds, diverged);
+    }
+}
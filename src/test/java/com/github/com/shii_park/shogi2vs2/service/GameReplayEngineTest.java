@@ -0,0 +1,197 @@
+package com.github.com.shii_park.shogi2vs2.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.com.shii_park.shogi2vs2.model.domain.BoardFactory;
+import com.github.com.shii_park.shogi2vs2.model.domain.Game;
+import com.github.com.shii_park.shogi2vs2.model.domain.LegalActions;
+import com.github.com.shii_park.shogi2vs2.model.domain.LegalDrop;
+import com.github.com.shii_park.shogi2vs2.model.domain.LegalMove;
+import com.github.com.shii_park.shogi2vs2.model.domain.Player;
+import com.github.com.shii_park.shogi2vs2.model.domain.action.DropAction;
+import com.github.com.shii_park.shogi2vs2.model.domain.action.GameAction;
+import com.github.com.shii_park.shogi2vs2.model.domain.action.MoveAction;
+import com.github.com.shii_park.shogi2vs2.model.enums.GameStatus;
+import com.github.com.shii_park.shogi2vs2.model.enums.PieceType;
+import com.github.com.shii_park.shogi2vs2.model.enums.Team;
+
+/**
+ * GameReplayEngineのテスト
+ * ランダムな合法手で進めたゲームのイベントログを書き出して読み込み、再生した盤面が元のゲームと一致することを検証
+ */
+class GameReplayEngineTest {
+
+    /** プレイヤーのユーザーID(u1,u2がFIRST、u3,u4がSECOND) */
+    private static final List<String> USER_IDS = List.of("u1", "u2", "u3", "u4");
+
+    /**
+     * 最後まで再生するテスト
+     * 処理: 複数のシードでゲームを進め、再生した盤面と手駒のハッシュが元のゲームと一致し、照合で食い違いがないことを確認
+     */
+    @Test
+    void testReplayMatchesLiveGame() {
+        for (long seed = 1; seed <= 20; seed++) {
+            PlayedGame played = playRandomGame(seed, 200);
+
+            GameReplayEngine.Replay replay = GameReplayEngine.replay("game-1", decodeAll(played.events()),
+                    Long.MAX_VALUE);
+
+            assertNotNull(replay);
+            assertTrue(replay.verified(), "seed=" + seed + " diverged at " + replay.divergedAt());
+            assertEquals(played.events().size() - 1, replay.turns());
+            assertEquals(played.game().getBoard().getZobristHash(), replay.game().getBoard().getZobristHash());
+            assertEquals(played.game().getStatus(), replay.game().getStatus());
+            assertEquals(played.game().getWinnerTeam(), replay.game().getWinnerTeam());
+        }
+    }
+
+    /**
+     * 途中まで再生するテスト
+     * 処理: 通し番号を指定すると、その盤面までで止まり、0の場合は初期盤面になることを確認
+     */
+    @Test
+    void testReplayStopsAtSequence() {
+        PlayedGame played = playRandomGame(7, 30);
+        List<GameEventCodec.GameEvent> events = decodeAll(played.events());
+        GameEventCodec.Turn tenth = (GameEventCodec.Turn) events.get(10);
+
+        GameReplayEngine.Replay replay = GameReplayEngine.replay("game-1", events, 10);
+        assertEquals(10, replay.sequence());
+        assertEquals(10, replay.turns());
+        assertEquals(tenth.boardHash(), replay.game().getBoard().getZobristHash());
+
+        GameReplayEngine.Replay initial = GameReplayEngine.replay("game-1", events, 0);
+        assertEquals(0, initial.turns());
+        assertEquals(BoardFactory.createBoard().getZobristHash(), initial.game().getBoard().getZobristHash());
+    }
+
+    /**
+     * 食い違いの検出のテスト
+     * 処理: 記録したハッシュを書き換えたターンと、通し番号が飛んだターンが食い違いとして報告されることを確認
+     */
+    @Test
+    void testReplayReportsDivergence() {
+        PlayedGame played = playRandomGame(3, 20);
+        List<GameEventCodec.GameEvent> events = decodeAll(played.events());
+
+        List<GameEventCodec.GameEvent> tampered = new ArrayList<>(events);
+        GameEventCodec.Turn turn = (GameEventCodec.Turn) tampered.get(5);
+        tampered.set(5, new GameEventCodec.Turn(turn.sequence(), turn.actions(), turn.promoted(), turn.placed(),
+                turn.boardHash() ^ 1, turn.handHash()));
+        GameReplayEngine.Replay replay = GameReplayEngine.replay("game-1", tampered, Long.MAX_VALUE);
+        assertFalse(replay.verified());
+        assertEquals(5, replay.divergedAt());
+
+        List<GameEventCodec.GameEvent> missing = new ArrayList<>(events);
+        missing.remove(8);
+        assertEquals(9, GameReplayEngine.replay("game-1", missing, Long.MAX_VALUE).divergedAt());
+    }
+
+    /**
+     * 開始のイベントがないログのテスト
+     * 処理: ゲーム開始のイベントがない、または読み込めないイベントはnullになることを確認
+     */
+    @Test
+    void testReplayWithoutStart() {
+        PlayedGame played = playRandomGame(5, 5);
+        List<GameEventCodec.GameEvent> events = decodeAll(played.events());
+
+        assertNull(GameReplayEngine.replay("game-1", events.subList(1, events.size()), Long.MAX_VALUE));
+        assertNull(GameEventCodec.decode(new byte[] { 0x02, 0x00 }));
+        assertNull(GameEventCodec.decode(new byte[] { 0x7F }));
+    }
+
+    /**
+     * 4人のプレイヤーが毎ターンランダムな合法手を1つずつ指すゲームを進め、イベントログを書き出す
+     * 決着するか、指定したターン数に達すると止める
+     *
+     * @param seed     乱数のシード
+     * @param maxTurns 最大ターン数
+     * @return 進めたゲームと、書き出したイベント(先頭がゲーム開始)
+     */
+    static PlayedGame playRandomGame(long seed, int maxTurns) {
+        Random random = new Random(seed);
+        List<Player> players = new ArrayList<>();
+        for (int i = 0; i < USER_IDS.size(); i++) {
+            players.add(new Player(USER_IDS.get(i), (i < 2) ? Team.FIRST : Team.SECOND));
+        }
+        Game game = new Game("game-1", players, BoardFactory.createBoard(), Team.FIRST);
+        List<byte[]> events = new ArrayList<>();
+        events.add(GameEventCodec.encodeStarted(Team.FIRST, USER_IDS));
+
+        for (long sequence = 1; sequence <= maxTurns; sequence++) {
+            List<GameAction> actions = new ArrayList<>();
+            for (Player player : players) {
+                GameAction action = randomAction(game, player, random, Instant.ofEpochMilli(sequence * 1000));
+                if (action != null) {
+                    actions.add(action);
+                }
+            }
+            TurnApplier.AppliedTurn turn = TurnApplier.apply(game, actions);
+            events.add(GameEventCodec.encodeTurn(sequence, turn.accepted(), turn.actionResult(), game.getBoard()));
+            if (game.getStatus() == GameStatus.FINISHED) break;
+        }
+        return new PlayedGame(game, events);
+    }
+
+    /**
+     * 内部ヘルパー:
+     * プレイヤーのチームの合法手(王将の落下を除く)から1つをランダムに選び、アクションにする
+     *
+     * @param game   ゲームインスタンス
+     * @param player プレイヤー
+     * @param random 乱数
+     * @param at     アクションの時刻
+     * @return アクション(合法手がない場合はnull)
+     */
+    private static GameAction randomAction(Game game, Player player, Random random, Instant at) {
+        LegalActions legal = game.getLegalActions(player.getTeam());
+        // 王将を盤外に落とす手を除く(すぐに決着して局面が進まないため)
+        List<LegalMove> moves = new ArrayList<>(legal.moves());
+        moves.removeIf(m -> m.falls() && m.piece().getType() == PieceType.KING);
+        int count = moves.size() + legal.drops().size();
+        if (count == 0) return null;
+        int index = random.nextInt(count);
+        String teamId = player.getTeam().name();
+        if (index < moves.size()) {
+            LegalMove move = moves.get(index);
+            return new MoveAction(player.getId(), teamId, move.piece().getId(), move.piece().getType().name(),
+                    move.directions(), move.promotable() && random.nextBoolean(), at);
+        }
+        LegalDrop drop = legal.drops().get(index - moves.size());
+        return new DropAction(player.getId(), teamId, drop.type().name(), drop.position(), at);
+    }
+
+    /**
+     * 内部ヘルパー:
+     * 書き出したイベントをすべて読み込む
+     *
+     * @param events イベントのバイト列のリスト
+     * @return イベントのリスト
+     */
+    private static List<GameEventCodec.GameEvent> decodeAll(List<byte[]> events) {
+        List<GameEventCodec.GameEvent> decoded = new ArrayList<>();
+        for (byte[] bytes : events) {
+            GameEventCodec.GameEvent event = GameEventCodec.decode(bytes);
+            assertNotNull(event);
+            decoded.add(event);
+        }
+        return decoded;
+    }
+
+    /**
+     * 進めたゲームと書き出したイベント
+     *
+     * @param game   進めたゲーム
+     * @param events イベントのバイト列のリスト(先頭がゲーム開始)
+     */
+    record PlayedGame(Game game, List<byte[]> events) {
+    }
+}
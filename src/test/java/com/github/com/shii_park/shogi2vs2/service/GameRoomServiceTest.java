@@ -0,0 +1,371 @@
+package com.github.com.shii_park.shogi2vs2.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator.OverflowStrategy;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.com.shii_park.shogi2vs2.dto.response.BoardSnapshot;
+import com.github.com.shii_park.shogi2vs2.handler.GameWebSocketHandler;
+import com.github.com.shii_park.shogi2vs2.handler.SpectatorRegistry;
+import com.github.com.shii_park.shogi2vs2.model.domain.BoardFactory;
+import com.github.com.shii_park.shogi2vs2.model.domain.Game;
+import com.github.com.shii_park.shogi2vs2.model.domain.Player;
+import com.github.com.shii_park.shogi2vs2.model.enums.Team;
+
+/**
+ * GameRoomServiceのテスト
+ * ターンの進行と同時にセッションを再開しても、盤面の差分が欠けも重複もなく届くことを検証
+ * 他のノードのゲームの復旧は、再開トークンと所有権がある場合だけ行われ、元の開始時刻が保たれることを検証
+ * Redisを使うサービスは使わない経路だけを通すか、メモリ上の代用品に置き換える
+ */
+class GameRoomServiceTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private GameRoomService room;
+    private GameExecutorService gameExecutor;
+    private SessionResumeService sessionResumeService;
+    private BoardStateService boardStateService;
+    private GameTimeService gameTimeService;
+    private GameLifecycleService lifecycleService;
+    private GameWebSocketHandler webSocketHandler;
+    private Method publishBoardDelta;
+
+    /** Redisに保存した再開トークン(key: userId, value: token) */
+    private final Map<String, String> storedTokens = new ConcurrentHashMap<>();
+    /** Redisに保存したスナップショット */
+    private final Map<String, byte[]> snapshots = new ConcurrentHashMap<>();
+    /** 所有権の持ち主(key: gameId, value: ノード) */
+    private final Map<String, String> owners = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        BoardCoordinateService coordinateService = new BoardCoordinateService();
+        GameContextService gameContextService = new GameContextService() {
+            @Override
+            public String getUserTeam(String gameId, String userId) {
+                return "FIRST";
+            }
+
+            @Override
+            public void assignTeam(String gameId, String userId, String teamId) {
+            }
+        };
+
+        webSocketHandler = new GameWebSocketHandler();
+        setField(GameWebSocketHandler.class, webSocketHandler, "sendTimeLimit", 5000);
+        setField(GameWebSocketHandler.class, webSocketHandler, "sendBufferSizeLimit", 524288);
+        setField(GameWebSocketHandler.class, webSocketHandler, "overflowStrategy", OverflowStrategy.TERMINATE);
+
+        NotificationService notificationService = new NotificationService();
+        setField(NotificationService.class, notificationService, "gameContextService", gameContextService);
+        setField(NotificationService.class, notificationService, "webSocketHandler", webSocketHandler);
+        setField(NotificationService.class, notificationService, "spectatorRegistry", new SpectatorRegistry());
+        setField(NotificationService.class, notificationService, "coordinateService", coordinateService);
+        setField(NotificationService.class, notificationService, "objectMapper", MAPPER);
+
+        boardStateService = new BoardStateService();
+        setField(BoardStateService.class, boardStateService, "coordinateService", coordinateService);
+        LegalMoveService legalMoveService = new LegalMoveService();
+        setField(LegalMoveService.class, legalMoveService, "coordinateService", coordinateService);
+
+        gameExecutor = new GameExecutorService("striped");
+        gameExecutor.init();
+        sessionResumeService = new SessionResumeService();
+        gameTimeService = new GameTimeService();
+        setField(GameTimeService.class, gameTimeService, "tickMillis", 100L);
+        setField(GameTimeService.class, gameTimeService, "wheelSize", 512);
+        setField(GameTimeService.class, gameTimeService, "gameExecutor", gameExecutor);
+        gameTimeService.init();
+
+        room = new GameRoomService();
+        setField(GameRoomService.class, room, "gameContextService", gameContextService);
+        setField(GameRoomService.class, room, "notificationService", notificationService);
+        setField(GameRoomService.class, room, "gameExecutor", gameExecutor);
+        setField(GameRoomService.class, room, "boardStateService", boardStateService);
+        setField(GameRoomService.class, room, "legalMoveService", legalMoveService);
+        setField(GameRoomService.class, room, "webSocketHandler", webSocketHandler);
+        setField(GameRoomService.class, room, "sessionResumeService", sessionResumeService);
+        setField(GameRoomService.class, room, "spectatorRegistry", new SpectatorRegistry());
+        setField(GameRoomService.class, room, "gameTimeService", gameTimeService);
+        lifecycleService = new GameLifecycleService();
+        setField(GameRoomService.class, room, "lifecycleService", lifecycleService);
+        setField(GameRoomService.class, room, "snapshotService", new FakeSnapshotService());
+        setField(GameRoomService.class, room, "ownershipService", new FakeOwnershipService());
+        setField(GameTimeService.class, gameTimeService, "gameRoomService", room);
+        setField(GameRoomService.class, room, "replaySize", 64);
+
+        publishBoardDelta = GameRoomService.class.getDeclaredMethod("publishBoardDelta",
+                String.class, Game.class, List.class);
+        publishBoardDelta.setAccessible(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        gameTimeService.cleanup();
+        gameExecutor.cleanup();
+    }
+
+    /**
+     * ターンの進行中の再開テスト
+     * 処理: 通し番号0から再開するのと同時にターンを進め、再開したセッションに1から最後までの差分がちょうど1回ずつ順に届くことを確認
+     */
+    @Test
+    void testResumeWhileTurnsComplete() throws Exception {
+        int turns = 20;
+        for (int round = 0; round < 30; round++) {
+            String gameId = "game" + round;
+            Game game = startGame(gameId);
+            List<Long> received = Collections.synchronizedList(new ArrayList<>());
+
+            Thread turnRunner = new Thread(() -> {
+                for (int i = 0; i < turns; i++) {
+                    gameExecutor.execute(gameId, () -> publish(gameId, game));
+                }
+            });
+            turnRunner.start();
+            String token = sessionResumeService.issue(gameId, "user1");
+            assertTrue(room.resumeSession(gameId, "user1", token, 0, session("s" + round, received)));
+            turnRunner.join();
+            gameExecutor.submit(gameId, () -> null).get(5, TimeUnit.SECONDS);
+
+            List<Long> expected = new ArrayList<>();
+            for (long seq = 1; seq <= turns; seq++) {
+                expected.add(seq);
+            }
+            assertEquals(expected, received);
+        }
+    }
+
+    /**
+     * 終了したゲームへの再開テスト
+     * 処理: 受け付けた後にゲームが終了していた場合、セッションを付け替えずに閉じることを確認
+     */
+    @Test
+    void testResumeAfterGameFinishedClosesSession() throws Exception {
+        String gameId = "game1";
+        startGame(gameId);
+        List<Long> received = Collections.synchronizedList(new ArrayList<>());
+        WebSocketSession session = session("s1", received);
+        String token = sessionResumeService.issue(gameId, "user1");
+
+        // 再開の受付と同時にゲームが終了した場合と同じ(レーンのタスクより先に管理マップから消す)
+        gameExecutor.execute(gameId, () -> sleepQuietly(50));
+        assertTrue(room.resumeSession(gameId, "user1", token, 0, session));
+        games().remove(gameId);
+        gameExecutor.submit(gameId, () -> null).get(5, TimeUnit.SECONDS);
+
+        assertFalse(session.isOpen());
+        assertTrue(received.isEmpty());
+    }
+
+    /**
+     * 他のノードのゲームの復旧テスト
+     * 処理: 保存した再開トークンと一致しない場合と、他のノードが所有権を持つ場合は復旧せず、
+     * 両方が揃った場合だけゲームを復元してセッションを付け替え、新しいトークンを保存することを確認
+     * 復元したゲームの開始時刻はスナップショットに保存した元の時刻であることを確認
+     */
+    @Test
+    void testRecoverRequiresResumeTokenAndOwnership() throws Exception {
+        String gameId = "game1";
+        List<Player> players = List.of(new Player("user1", Team.FIRST), new Player("user2", Team.FIRST),
+                new Player("user3", Team.SECOND), new Player("user4", Team.SECOND));
+        snapshots.put(gameId, GameSnapshotCodec.encode(
+                new Game(gameId, players, BoardFactory.createBoard(), Team.FIRST), 3, 1_700_000_000_000L));
+        storedTokens.put("user1", "token1");
+        WebSocketSession session = session("s1", Collections.synchronizedList(new ArrayList<>()));
+
+        // 他のノードで発行されたトークンを持たない接続(ユーザーIDを知っているだけ)
+        assertFalse(room.recoverSession(gameId, "user1", "forged", session));
+        assertFalse(room.recoverSession(gameId, "user1", null, session));
+
+        // 進行中のノードが所有権を延長している間
+        owners.put(gameId, "other");
+        assertFalse(room.recoverSession(gameId, "user1", "token1", session));
+        assertFalse(room.isActiveGame(gameId));
+
+        // 進行していたノードが落ちて所有権が期限で消えた後
+        owners.remove(gameId);
+        assertTrue(room.recoverSession(gameId, "user1", "token1", session));
+        gameExecutor.submit(gameId, () -> null).get(5, TimeUnit.SECONDS);
+
+        assertTrue(room.isActiveGame(gameId));
+        assertEquals(1_700_000_000_000L, lifecycleService.getStartedAt(gameId));
+        assertEquals("self", owners.get(gameId));
+        assertTrue(session.isOpen());
+        assertNotEquals("token1", storedTokens.get("user1"));
+        assertTrue(sessionResumeService.isValid(storedTokens.get("user1"), gameId, "user1"));
+    }
+
+    /**
+     * 所有権のないゲームの開始テスト
+     * 処理: 他のノードが所有権を持つゲームは開始せず、所有権も奪わずに、接続したセッションを閉じることを確認
+     */
+    @Test
+    void testInitializeGameRequiresOwnership() throws Exception {
+        String gameId = "game1";
+        List<String> userIds = List.of("user1", "user2", "user3", "user4");
+        List<WebSocketSession> sessions = new ArrayList<>();
+        for (String userId : userIds) {
+            WebSocketSession session = session(userId, Collections.synchronizedList(new ArrayList<>()));
+            session.getAttributes().put("userId", userId);
+            webSocketHandler.addSession(gameId, session);
+            sessions.add(session);
+        }
+        owners.put(gameId, "other");
+
+        room.initializeGame(gameId, sessions, userIds);
+        gameExecutor.submit(gameId, () -> null).get(5, TimeUnit.SECONDS);
+
+        assertFalse(room.isActiveGame(gameId));
+        assertEquals("other", owners.get(gameId));
+        for (WebSocketSession session : sessions) {
+            assertFalse(session.isOpen());
+        }
+    }
+
+    /**
+     * 内部ヘルパー:
+     * 通し番号0の盤面からゲームを進行中にする
+     */
+    private Game startGame(String gameId) throws Exception {
+        List<Player> players = List.of(new Player("user1", Team.FIRST), new Player("user2", Team.FIRST),
+                new Player("user3", Team.SECOND), new Player("user4", Team.SECOND));
+        Game game = new Game(gameId, players, BoardFactory.createBoard(), Team.FIRST);
+        BoardSnapshot initial = boardStateService.capture(game.getBoard(), 0);
+        games().put(gameId, game);
+        this.<BoardSnapshot>map("boardStates").put(gameId, initial);
+        this.<ReplayBuffer<?>>map("replayBuffers").put(gameId, new ReplayBuffer<>(64, initial.sequence()));
+        return game;
+    }
+
+    /**
+     * 内部ヘルパー:
+     * 1ターン分の差分を配信する(ゲームのレーンで呼ぶ)
+     */
+    private void publish(String gameId, Game game) {
+        try {
+            publishBoardDelta.invoke(room, gameId, game, List.of());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Map<String, Game> games() throws Exception {
+        return map("games");
+    }
+
+    @SuppressWarnings("unchecked")
+    private <V> Map<String, V> map(String name) throws Exception {
+        Field field = GameRoomService.class.getDeclaredField(name);
+        field.setAccessible(true);
+        return (Map<String, V>) field.get(room);
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 内部ヘルパー:
+     * 受信した盤面の差分の通し番号を記録するセッションを作成する
+     */
+    private static WebSocketSession session(String id, List<Long> receivedSequences) {
+        Map<String, Object> attributes = new HashMap<>();
+        boolean[] open = { true };
+        return (WebSocketSession) Proxy.newProxyInstance(WebSocketSession.class.getClassLoader(),
+                new Class<?>[] { WebSocketSession.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getId":
+                            return id;
+                        case "getAttributes":
+                            return attributes;
+                        case "isOpen":
+                            return open[0];
+                        case "close":
+                            open[0] = false;
+                            return null;
+                        case "sendMessage":
+                            if (args[0] instanceof TextMessage text) {
+                                JsonNode frame = MAPPER.readTree(text.getPayload());
+                                if ("boardDelta".equals(frame.path("type").asText())) {
+                                    receivedSequences.add(frame.path("data").path("sequence").asLong());
+                                }
+                            }
+                            return null;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    private static void setField(Class<?> type, Object target, String name, Object value) throws Exception {
+        Field field = type.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    /**
+     * スナップショットと再開トークンをメモリに保存する代用品
+     */
+    private class FakeSnapshotService extends GameSnapshotService {
+
+        @Override
+        public GameSnapshotCodec.Restored load(String gameId) {
+            byte[] bytes = snapshots.get(gameId);
+            return bytes != null ? GameSnapshotCodec.decode(gameId, bytes) : null;
+        }
+
+        @Override
+        public void saveResumeToken(String gameId, String userId, String token) {
+            storedTokens.put(userId, token);
+        }
+
+        @Override
+        public boolean isResumeTokenValid(String gameId, String userId, String token) {
+            return token != null && token.equals(storedTokens.get(userId));
+        }
+    }
+
+    /**
+     * 所有権をメモリで管理する代用品(このノードは"self")
+     */
+    private class FakeOwnershipService extends GameOwnershipService {
+
+        @Override
+        public boolean claim(String gameId) {
+            return "self".equals(owners.computeIfAbsent(gameId, k -> "self"));
+        }
+
+        @Override
+        public void release(String gameId) {
+            owners.remove(gameId, "self");
+        }
+    }
+}
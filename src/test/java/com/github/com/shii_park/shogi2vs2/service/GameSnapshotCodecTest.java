@@ -0,0 +1,124 @@
+package com.github.com.shii_park.shogi2vs2.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.com.shii_park.shogi2vs2.model.domain.Board;
+import com.github.com.shii_park.shogi2vs2.model.domain.BoardFactory;
+import com.github.com.shii_park.shogi2vs2.model.domain.Game;
+import com.github.com.shii_park.shogi2vs2.model.domain.Piece;
+import com.github.com.shii_park.shogi2vs2.model.domain.Player;
+import com.github.com.shii_park.shogi2vs2.model.domain.Position;
+import com.github.com.shii_park.shogi2vs2.model.enums.PieceType;
+import com.github.com.shii_park.shogi2vs2.model.enums.Team;
+
+/**
+ * GameSnapshotCodecのテスト
+ * ゲームの書き出しと復元で盤面、手駒、ターン、プレイヤー、開始時刻が保たれることを検証
+ */
+class GameSnapshotCodecTest {
+
+    /**
+     * 書き出しと復元のテスト
+     * 処理: 積まれた駒、成り、手駒を含む盤面を書き出して復元し、盤面と手駒のハッシュと各マスの駒が一致することを確認
+     */
+    @Test
+    void testRoundTrip() {
+        Game game = new Game("game-1", players(), BoardFactory.createBoard(), Team.SECOND, 7);
+        Board board = game.getBoard();
+        // 銀を味方の歩の上に積み、成らせる
+        Piece silver = board.getPiece(1, PieceType.SILVER);
+        board.stackPiece(Position.of(3, 3), silver);
+        board.promotePiece(silver);
+        // 相手の歩を手駒にする
+        board.capturePiece(board.getPiece(10, PieceType.PAWN), Team.FIRST);
+
+        byte[] bytes = GameSnapshotCodec.encode(game, 42, 1_700_000_000_000L);
+        GameSnapshotCodec.Restored restored = GameSnapshotCodec.decode("game-1", bytes);
+
+        assertNotNull(restored);
+        assertEquals(42, restored.sequence());
+        assertEquals(1_700_000_000_000L, restored.startedAt());
+        assertEquals(List.of("u1", "u2", "u3", "u4"), restored.userIds());
+        Game copy = restored.game();
+        assertEquals(Team.SECOND, copy.getCurrentTurn());
+        assertEquals(7, copy.getTurnNumber());
+        assertEquals(Team.SECOND, copy.getPlayer("u3").getTeam());
+        assertEquals(board.getZobristHash(), copy.getBoard().getZobristHash());
+        assertEquals(board.getCapturedPieces().getZobristHash(), copy.getBoard().getCapturedPieces().getZobristHash());
+        for (int y = 1; y <= 9; y++) {
+            for (int x = 1; x <= 9; x++) {
+                Position pos = Position.of(x, y);
+                assertEquals(describe(board.getAllPiecesAt(pos)), describe(copy.getBoard().getAllPiecesAt(pos)));
+            }
+        }
+        assertEquals(describe(board.getCapturedPieces().getCapturedPieces(Team.FIRST)),
+                describe(copy.getBoard().getCapturedPieces().getCapturedPieces(Team.FIRST)));
+    }
+
+    /**
+     * 不正なバイト列のテスト
+     * 処理: 途中で切れたバイト列や未知のバージョンはnullになることを確認
+     */
+    @Test
+    void testDecodeRejectsInvalidBytes() {
+        Game game = new Game("game-1", players(), BoardFactory.createBoard(), Team.FIRST);
+        byte[] bytes = GameSnapshotCodec.encode(game, 0, 0);
+
+        assertNull(GameSnapshotCodec.decode("game-1", Arrays.copyOf(bytes, bytes.length / 2)));
+        bytes[0] = 99;
+        assertNull(GameSnapshotCodec.decode("game-1", bytes));
+    }
+
+    /**
+     * 以前の形式の読み込みテスト
+     * 処理: 開始時刻のない形式1のバイト列を、開始時刻0(不明)として同じ盤面に復元できることを確認
+     */
+    @Test
+    void testDecodeVersionWithoutStart() {
+        Game game = new Game("game-1", players(), BoardFactory.createBoard(), Team.SECOND, 3);
+        byte[] current = GameSnapshotCodec.encode(game, 5, 1_700_000_000_000L);
+        // 形式1は通し番号の直後の開始時刻(8バイト)がない
+        byte[] legacy = new byte[current.length - Long.BYTES];
+        System.arraycopy(current, 0, legacy, 0, 9);
+        System.arraycopy(current, 9 + Long.BYTES, legacy, 9, current.length - 9 - Long.BYTES);
+        legacy[0] = 1;
+
+        GameSnapshotCodec.Restored restored = GameSnapshotCodec.decode("game-1", legacy);
+
+        assertNotNull(restored);
+        assertEquals(5, restored.sequence());
+        assertEquals(0, restored.startedAt());
+        assertEquals(3, restored.game().getTurnNumber());
+        assertEquals(game.getBoard().getZobristHash(), restored.game().getBoard().getZobristHash());
+    }
+
+    /**
+     * 4人のプレイヤー(u1,u2がFIRST、u3,u4がSECOND)を作成する
+     *
+     * @return プレイヤーのリスト
+     */
+    private List<Player> players() {
+        return List.of(new Player("u1", Team.FIRST), new Player("u2", Team.FIRST),
+                new Player("u3", Team.SECOND), new Player("u4", Team.SECOND));
+    }
+
+    /**
+     * 駒のリストを比較用の文字列のリストにする
+     *
+     * @param pieces 駒のリスト
+     * @return 駒ごとの文字列
+     */
+    private List<String> describe(List<Piece> pieces) {
+        List<String> result = new ArrayList<>();
+        for (Piece p : pieces) {
+            result.add(p.getType() + "#" + p.getId() + ":" + p.getTeam() + (p.isPromoted() ? "+" : ""));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,76 @@
+package com.github.com.shii_park.shogi2vs2.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * HashedWheelTimerのテスト
+ * タイムアウトの満了、取り消し、ホイールを複数周する長いタイムアウトを検証
+ */
+class HashedWheelTimerTest {
+
+    private HashedWheelTimer timer;
+
+    @BeforeEach
+    void setUp() {
+        // 10ms刻み、8バケット(1周80ms)のタイマー
+        timer = new HashedWheelTimer("test-timer", 10, TimeUnit.MILLISECONDS, 8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        timer.stop();
+    }
+
+    /**
+     * 予約したタスクが満了時に実行されることを確認
+     */
+    @Test
+    void testTimeoutExpires() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        HashedWheelTimer.Timeout timeout = timer.newTimeout(latch::countDown, 30, TimeUnit.MILLISECONDS);
+
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+        assertTrue(timeout.isExpired());
+        assertEquals(0, timer.size());
+    }
+
+    /**
+     * 取り消したタスクは実行されないことを確認
+     */
+    @Test
+    void testCancelledTimeoutDoesNotRun() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger();
+        HashedWheelTimer.Timeout timeout = timer.newTimeout(runs::incrementAndGet, 30, TimeUnit.MILLISECONDS);
+
+        assertTrue(timeout.cancel());
+        // 2回目の取り消しは失敗する
+        assertFalse(timeout.cancel());
+        Thread.sleep(100);
+
+        assertEquals(0, runs.get());
+        assertTrue(timeout.isCancelled());
+        assertEquals(0, timer.size());
+    }
+
+    /**
+     * ホイールの1周より長いタイムアウトが早すぎずに満了することを確認
+     */
+    @Test
+    void testTimeoutLongerThanOneRound() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        long start = System.nanoTime();
+        timer.newTimeout(latch::countDown, 200, TimeUnit.MILLISECONDS);
+
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(elapsedMillis >= 200, "elapsed=" + elapsedMillis);
+    }
+}
@@ -0,0 +1,164 @@
+package com.github.com.shii_park.shogi2vs2.service;
+
+import java.lang.reflect.Field;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.com.shii_park.shogi2vs2.model.domain.Position;
+import com.github.com.shii_park.shogi2vs2.model.domain.action.DropAction;
+import com.github.com.shii_park.shogi2vs2.model.domain.action.GameAction;
+import com.github.com.shii_park.shogi2vs2.model.domain.action.MoveAction;
+import com.github.com.shii_park.shogi2vs2.model.enums.Direction;
+import com.github.com.shii_park.shogi2vs2.model.enums.Team;
+
+/**
+ * 受信メッセージの解析方式を比較するベンチマーク
+ * <ul>
+ * <li>tree: ObjectMapper.readTreeでJsonNodeのツリーを作り、path(...)でたどる従来の方式</li>
+ * <li>streaming: InboundMessageDecoderでJsonParserから1回だけ読む方式</li>
+ * </ul>
+ * 移動リクエストと駒打ちリクエストを交互に解析し、1メッセージあたりの時間と割り当てバイト数を計測する
+ * JUnitのテストではないため、mainメソッドから手動で実行する
+ * 引数: [1回の計測のメッセージ数(既定1000000)] [計測回数(既定5)]
+ */
+public class InboundDecoderBenchmark {
+
+    /** SECONDチームの移動リクエスト(方向と座標の正規化を含む) */
+    private static final String MOVE = "{\"type\":\"moveRequest\",\"piece\":{\"id\":23,\"type\":\"ROOK\"},"
+            + "\"direction\":{\"x\":0,\"y\":4},\"promote\":false}";
+    /** SECONDチームの駒打ちリクエスト */
+    private static final String DROP = "{\"type\":\"dropPieceRequire\",\"piece\":\"PAWN\",\"position\":{\"x\":3,\"y\":5}}";
+
+    /** 結果を捨てられないようにするための値 */
+    private static long sink;
+
+    public static void main(String[] args) throws Exception {
+        int messages = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        BoardCoordinateService coordinateService = new BoardCoordinateService();
+        InboundMessageDecoder decoder = new InboundMessageDecoder();
+        set(decoder, "objectMapper", objectMapper);
+        set(decoder, "coordinateService", coordinateService);
+
+        System.out.printf("messages=%d, rounds=%d%n", messages, rounds);
+        for (int r = 0; r <= rounds; r++) {
+            // 1回目はJITのウォームアップとして捨てる
+            Result tree = measure(messages, i -> decodeTree(objectMapper, coordinateService, payload(i)));
+            Result streaming = measure(messages, i -> decoder.decodeText("u1", "SECOND", payload(i)).action());
+            if (r > 0) {
+                System.out.printf("tree      %8.1f ns/msg %8.0f B/msg%n", tree.nanosPerMessage, tree.bytesPerMessage);
+                System.out.printf("streaming %8.1f ns/msg %8.0f B/msg%n", streaming.nanosPerMessage,
+                        streaming.bytesPerMessage);
+            }
+        }
+        System.out.println(sink);
+    }
+
+    /**
+     * 交互に解析するメッセージを返す
+     *
+     * @param i 通し番号
+     * @return メッセージ
+     */
+    private static String payload(int i) {
+        return (i & 1) == 0 ? MOVE : DROP;
+    }
+
+    /**
+     * 解析を繰り返し、1メッセージあたりの時間と割り当てバイト数を計測する
+     *
+     * @param messages メッセージ数
+     * @param decode   解析処理
+     * @return 計測結果
+     */
+    private static Result measure(int messages, Decode decode) throws Exception {
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < messages; i++) {
+            sink += decode.apply(i).hashCode();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+        return new Result((double) elapsed / messages, (double) allocated / messages);
+    }
+
+    /**
+     * 従来のGameRoomServiceと同じく、JsonNodeのツリーからアクションを作る
+     *
+     * @param objectMapper      JSONパーサー
+     * @param coordinateService 座標変換サービス
+     * @param json              メッセージ
+     * @return アクション
+     */
+    private static GameAction decodeTree(ObjectMapper objectMapper, BoardCoordinateService coordinateService,
+            String json) throws Exception {
+        JsonNode root = objectMapper.readTree(json);
+        String type = root.path("type").asText();
+        String teamId = "SECOND";
+        Team team = Team.valueOf(teamId);
+
+        if ("moveRequest".equals(type)) {
+            int dx = root.path("direction").path("x").asInt();
+            int dy = root.path("direction").path("y").asInt();
+            int pieceId = root.path("piece").path("id").asInt();
+            String pieceType = root.path("piece").path("type").asText();
+            boolean promote = root.path("promote").asBoolean();
+
+            List<Direction> normalizedDirs = new ArrayList<>();
+            int steps = Math.max(Math.abs(dx), Math.abs(dy));
+            for (Direction d : Direction.values()) {
+                if (d.dx == Integer.signum(dx) && d.dy == Integer.signum(dy)) {
+                    for (int i = 0; i < steps; i++) {
+                        normalizedDirs.add(d.forTeam(team));
+                    }
+                    break;
+                }
+            }
+            return new MoveAction("u1", teamId, pieceId, pieceType, normalizedDirs, promote, Instant.now());
+        }
+        int x = root.path("position").path("x").asInt();
+        int y = root.path("position").path("y").asInt();
+        String pieceType = root.path("piece").asText();
+        Position pos = coordinateService.normalize(new Position(x, y), teamId);
+        return new DropAction("u1", teamId, pieceType, pos, Instant.now());
+    }
+
+    /**
+     * 現在のスレッドが割り当てたバイト数を返す(HotSpot以外では0)
+     *
+     * @return 割り当てたバイト数
+     */
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = java.lang.management.ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean hotspot) {
+            return hotspot.getCurrentThreadAllocatedBytes();
+        }
+        return 0;
+    }
+
+    private static void set(Object target, String name, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    /** 解析処理 */
+    @FunctionalInterface
+    private interface Decode {
+        Object apply(int i) throws Exception;
+    }
+
+    /**
+     * 計測結果
+     *
+     * @param nanosPerMessage 1メッセージあたりの時間(ナノ秒)
+     * @param bytesPerMessage 1メッセージあたりの割り当てバイト数
+     */
+    private record Result(double nanosPerMessage, double bytesPerMessage) {
+    }
+}
@@ -0,0 +1,136 @@
+package com.github.com.shii_park.shogi2vs2.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.com.shii_park.shogi2vs2.dto.request.InboundMessage;
+import com.github.com.shii_park.shogi2vs2.handler.BinaryProtocol;
+import com.github.com.shii_park.shogi2vs2.model.domain.Position;
+import com.github.com.shii_park.shogi2vs2.model.domain.action.DropAction;
+import com.github.com.shii_park.shogi2vs2.model.domain.action.MoveAction;
+import com.github.com.shii_park.shogi2vs2.model.enums.Direction;
+import com.github.com.shii_park.shogi2vs2.model.enums.PieceType;
+import com.github.com.shii_park.shogi2vs2.model.enums.Team;
+
+/**
+ * InboundMessageDecoderのテスト
+ * JSONとバイナリのメッセージの解析、チームに応じた正規化、不正なメッセージの破棄を検証
+ */
+class InboundMessageDecoderTest {
+
+    private InboundMessageDecoder decoder;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        decoder = new InboundMessageDecoder();
+        setField("objectMapper", new ObjectMapper());
+        setField("coordinateService", new BoardCoordinateService());
+    }
+
+    /**
+     * 移動リクエストの解析テスト
+     * 処理: フィールドの順序や未知のフィールドに関係なく、長距離移動がDirection列に変換されることを確認
+     */
+    @Test
+    void testDecodeMoveRequest() {
+        String json = "{\"promote\":true,\"extra\":{\"a\":[1,2]},\"piece\":{\"id\":12,\"type\":\"ROOK\"},"
+                + "\"direction\":{\"x\":0,\"y\":3},\"type\":\"moveRequest\"}";
+
+        InboundMessage message = decoder.decodeText("u1", "FIRST", json);
+
+        assertEquals("moveRequest", message.type());
+        MoveAction move = (MoveAction) message.action();
+        assertEquals(12, move.pieceId());
+        assertEquals("ROOK", move.pieceType());
+        assertEquals(List.of(Direction.UP, Direction.UP, Direction.UP), move.directions());
+        assertTrue(move.promote());
+    }
+
+    /**
+     * SECONDチームの駒打ちの解析テスト
+     * 処理: 座標が盤面を180度回転した位置に正規化されることを確認
+     */
+    @Test
+    void testDecodeDropRequestForSecondTeam() {
+        String json = "{\"type\":\"dropPieceRequire\",\"piece\":\"PAWN\",\"position\":{\"x\":2,\"y\":3}}";
+
+        InboundMessage message = decoder.decodeText("u3", "SECOND", json);
+
+        DropAction drop = (DropAction) message.action();
+        assertEquals("PAWN", drop.pieceType());
+        assertEquals(new Position(8, 7), drop.position());
+    }
+
+    /**
+     * アクション以外のメッセージの解析テスト
+     * 処理: phaseEndはアクションなしで返されることを確認
+     */
+    @Test
+    void testDecodePhaseEnd() {
+        InboundMessage message = decoder.decodeText("u1", "FIRST", "{\"type\":\"phaseEnd\"}");
+
+        assertEquals("phaseEnd", message.type());
+        assertNull(message.action());
+    }
+
+    /**
+     * 不正なJSONの破棄テスト
+     * 処理: 壊れたJSON、オブジェクトでないJSON、上限を超える長さのJSONはnullになることを確認
+     */
+    @Test
+    void testRejectsMalformedAndOversizeText() {
+        assertNull(decoder.decodeText("u1", "FIRST", "{\"type\":\"moveRequest\",\"piece\":"));
+        assertNull(decoder.decodeText("u1", "FIRST", "[1,2,3]"));
+        String oversize = "{\"type\":\"phaseEnd\",\"pad\":\""
+                + "x".repeat(InboundMessageDecoder.MAX_TEXT_LENGTH) + "\"}";
+        assertNull(decoder.decodeText("u1", "FIRST", oversize));
+    }
+
+    /**
+     * スカラーでない値の破棄テスト
+     * 処理: "type"・"promote"・座標にオブジェクトや配列を入れたメッセージは、中身を外側のフィールドとして読まずにnullになることを確認
+     */
+    @Test
+    void testRejectsNonScalarValues() {
+        assertNull(decoder.decodeText("u1", "FIRST", "{\"type\":{\"type\":\"phaseEnd\"}}"));
+        assertNull(decoder.decodeText("u1", "FIRST",
+                "{\"promote\":[{\"type\":\"phaseEnd\"}],\"type\":\"moveRequest\"}"));
+        assertNull(decoder.decodeText("u1", "FIRST",
+                "{\"type\":\"moveRequest\",\"direction\":{\"x\":{\"y\":1},\"y\":1}}"));
+    }
+
+    /**
+     * バイナリ形式の移動リクエストの解析テスト
+     * 処理: SECONDチームの方向が反転され、短いフレームは破棄されることを確認
+     */
+    @Test
+    void testDecodeBinaryMoveRequest() {
+        ByteBuffer frame = ByteBuffer.wrap(new byte[] {
+                BinaryProtocol.OP_MOVE_REQUEST, 0, 5, (byte) PieceType.SILVER.ordinal(), 1, 1, 0 });
+
+        InboundMessage message = decoder.decodeBinary("u3", "SECOND", frame);
+
+        MoveAction move = (MoveAction) message.action();
+        assertEquals(5, move.pieceId());
+        assertEquals("SILVER", move.pieceType());
+        assertEquals(List.of(Direction.UP_RIGHT.forTeam(Team.SECOND)),
+                move.directions());
+        assertFalse(move.promote());
+
+        assertNull(decoder.decodeBinary("u3", "SECOND",
+                ByteBuffer.wrap(new byte[] { BinaryProtocol.OP_MOVE_REQUEST, 0, 5 })));
+    }
+
+    private void setField(String name, Object value) throws Exception {
+        Field field = InboundMessageDecoder.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(decoder, value);
+    }
+}
@@ -0,0 +1,120 @@
+package com.github.com.shii_park.shogi2vs2.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Field;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import com.github.com.shii_park.shogi2vs2.model.domain.Position;
+import com.github.com.shii_park.shogi2vs2.model.domain.action.DropAction;
+import com.github.com.shii_park.shogi2vs2.model.domain.action.GameAction;
+
+/**
+ * InputSynthesisServiceのテスト
+ * Redisへの複製を無効にした状態で、チーム内の入力の合成と、移ったゲームの入力の破棄を検証
+ */
+class InputSynthesisServiceTest {
+
+    private InputSynthesisService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new InputSynthesisService();
+    }
+
+    private GameAction action(String userId) {
+        return new DropAction(userId, "FIRST", "PAWN", new Position(5, 5), Instant.now());
+    }
+
+    /**
+     * 2人分の入力が揃ったときだけ合成結果が返ることを確認
+     */
+    @Test
+    void testCompletesWhenBothPartnersSubmit() {
+        GameAction first = action("user1");
+        GameAction second = action("user2");
+
+        assertNull(service.handleActionInput("game1", "FIRST", first));
+        List<GameAction> actions = service.handleActionInput("game1", "FIRST", second);
+
+        assertEquals(List.of(first, second), actions);
+        // 合成後は入力が空になっている
+        assertTrue(service.forceRetrieveInputs("game1", "FIRST").isEmpty());
+    }
+
+    /**
+     * 同じユーザーの二重送信は無視されることを確認
+     */
+    @Test
+    void testDuplicateInputIgnored() {
+        assertNull(service.handleActionInput("game1", "FIRST", action("user1")));
+        assertNull(service.handleActionInput("game1", "FIRST", action("user1")));
+
+        assertEquals(1, service.forceRetrieveInputs("game1", "FIRST").size());
+    }
+
+    /**
+     * 入力はゲームとチームごとに分かれて集められることを確認
+     */
+    @Test
+    void testInputsSeparatedByGameAndTeam() {
+        assertNull(service.handleActionInput("game1", "FIRST", action("user1")));
+        assertNull(service.handleActionInput("game1", "SECOND", action("user3")));
+        assertNull(service.handleActionInput("game2", "FIRST", action("user2")));
+
+        assertEquals(1, service.forceRetrieveInputs("game1", "FIRST").size());
+        assertEquals(1, service.forceRetrieveInputs("game1", "SECOND").size());
+        assertEquals(1, service.forceRetrieveInputs("game2", "FIRST").size());
+    }
+
+    /**
+     * タイムアウト時の強制回収で、揃っていない入力も取り出せることを確認
+     */
+    @Test
+    void testForceRetrieveDrainsPartialInputs() {
+        GameAction first = action("user1");
+        service.handleActionInput("game1", "FIRST", first);
+
+        assertEquals(List.of(first), service.forceRetrieveInputs("game1", "FIRST"));
+        assertTrue(service.forceRetrieveInputs("game1", "FIRST").isEmpty());
+    }
+
+    /**
+     * 他のノードに移ったゲームの入力の破棄テスト
+     * 処理: プロセス内の入力待ちは破棄し、移った先のノードが使うRedisの入力は削除しないことを確認
+     */
+    @Test
+    void testEvictGameKeepsRedisInputs() throws Exception {
+        List<Collection<String>> deleted = new ArrayList<>();
+        setField("redisTemplate", new StringRedisTemplate() {
+            @Override
+            public Long delete(Collection<String> keys) {
+                deleted.add(keys);
+                return (long) keys.size();
+            }
+        });
+        service.handleActionInput("game1", "FIRST", action("user1"));
+        setField("redisMirrorEnabled", true);
+
+        service.evictGame("game1");
+
+        assertTrue(service.forceRetrieveInputs("game1", "FIRST").isEmpty());
+        assertTrue(deleted.isEmpty());
+
+        service.clearGame("game1");
+        assertEquals(2, deleted.size());
+    }
+
+    private void setField(String name, Object value) throws Exception {
+        Field field = InputSynthesisService.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(service, value);
+    }
+}
@@ -0,0 +1,192 @@
+package com.github.com.shii_park.shogi2vs2.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * MatchingServiceのテスト
+ * キューのスコアにまとめたレーティングと参加時刻を取り出せること、並び順、
+ * バッチ処理での期限切れの待機者の除去と、取り出しのスクリプトに渡すキーを検証
+ */
+class MatchingServiceTest {
+
+    private static final long JOINED_AT = 1_790_000_123_456L;
+
+    private MatchingService service;
+    private FakeRedisTemplate redis;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        redis = new FakeRedisTemplate();
+        service = new MatchingService();
+        setField("redisTemplate", redis);
+        setField("gameManagementService", new GameManagementService());
+        setField("objectMapper", new ObjectMapper());
+        setField("lockTtlMs", 10_000L);
+        setField("pageSize", 2);
+    }
+
+    /**
+     * スコアの変換テスト
+     * 処理: 正・0・負のレーティングで、スコアから同じレーティングと秒単位に切り捨てた参加時刻を取り出せることを確認
+     */
+    @Test
+    void testScoreRoundTrip() {
+        for (int rating : new int[] { 1500, 3200, 0, -40 }) {
+            double score = MatchingService.queueScore(rating, JOINED_AT);
+            assertEquals(rating, MatchingService.ratingOf(score));
+            assertEquals(1_790_000_123_000L, MatchingService.joinedAtOf(score));
+        }
+    }
+
+    /**
+     * スコアの並び順テスト
+     * 処理: レーティングの昇順に並び、同じレーティングでは先に参加したユーザーが前に並ぶことを確認
+     */
+    @Test
+    void testScoreOrder() {
+        assertTrue(MatchingService.queueScore(1499, JOINED_AT + 60_000) < MatchingService.queueScore(1500, JOINED_AT));
+        assertTrue(MatchingService.queueScore(1500, JOINED_AT) < MatchingService.queueScore(1500, JOINED_AT + 1_000));
+    }
+
+    /**
+     * 期限切れの待機者の除去テスト
+     * 処理: 参加時刻に関係なく、マッチ状態が残っている待機者はキューに残り、マッチ状態が消えた待機者だけが取り除かれることを確認
+     */
+    @Test
+    void testEvictsWaitersWithoutStatus() {
+        long longAgo = System.currentTimeMillis() - 3_600_000L;
+        redis.queue.put(MatchingService.queueScore(1500, longAgo), "polling");
+        redis.queue.put(MatchingService.queueScore(1510, longAgo), "gone");
+        redis.queue.put(MatchingService.queueScore(1520, System.currentTimeMillis()), "fresh");
+        redis.statuses.put("matching:status:polling", "WAITING");
+        redis.statuses.put("matching:status:fresh", "WAITING");
+
+        service.runBatch();
+
+        assertEquals(List.of("polling", "fresh"), new ArrayList<>(redis.queue.values()));
+        assertEquals(List.of(List.of("matching:waiting", "matching:status:gone")), redis.scriptKeys);
+    }
+
+    /**
+     * 取り出しのキーのテスト
+     * 処理: 組んだ対戦の予約のキーと全員のマッチ状態のキーを、ユーザーIDと同じ並びでKEYSとして渡すことを確認
+     */
+    @Test
+    void testClaimDeclaresAllKeys() {
+        long now = System.currentTimeMillis();
+        for (String userId : List.of("u1", "u2", "u3", "u4")) {
+            redis.queue.put(MatchingService.queueScore(1500, now) + redis.queue.size(), userId);
+            redis.statuses.put("matching:status:" + userId, "WAITING");
+        }
+
+        service.runBatch();
+
+        assertEquals(1, redis.scriptKeys.size());
+        List<String> keys = redis.scriptKeys.get(0);
+        List<Object> args = redis.scriptArgs.get(0);
+        assertEquals(6, keys.size());
+        assertEquals("matching:waiting", keys.get(0));
+        assertEquals(GameManagementService.RESERVATION_KEY_PREFIX + args.get(3), keys.get(1));
+        for (int i = 1; i <= 4; i++) {
+            assertEquals("matching:status:" + args.get(3 + i), keys.get(1 + i));
+        }
+        assertEquals("4", args.get(2));
+    }
+
+    private void setField(String name, Object value) throws Exception {
+        Field field = MatchingService.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(service, value);
+    }
+
+    /**
+     * キューとマッチ状態をメモリに置き、実行したスクリプトのキーと引数を記録する代用品
+     * バッチ処理のロックは常に取れ、取り出しのスクリプトはどの対戦も取り出さない
+     */
+    private static class FakeRedisTemplate extends StringRedisTemplate {
+        final TreeMap<Double, String> queue = new TreeMap<>();
+        final Map<String, String> statuses = new HashMap<>();
+        final List<List<String>> scriptKeys = new ArrayList<>();
+        final List<List<Object>> scriptArgs = new ArrayList<>();
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T execute(RedisScript<T> script, List<String> keys, Object... args) {
+            if ("matching:lock".equals(keys.get(0))) return (T) Long.valueOf(1L);
+            scriptKeys.add(keys);
+            scriptArgs.add(List.of(args));
+            if (keys.size() == 2) {
+                // 待機のキャンセル
+                queue.values().remove(args[0]);
+                statuses.remove(keys.get(1));
+                return (T) Long.valueOf(1L);
+            }
+            List<Long> results = new ArrayList<>();
+            for (int i = 0; i < (keys.size() - 1) / 5; i++) results.add(0L);
+            return (T) results;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public ValueOperations<String, String> opsForValue() {
+            return (ValueOperations<String, String>) Proxy.newProxyInstance(ValueOperations.class.getClassLoader(),
+                    new Class<?>[] { ValueOperations.class }, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "setIfAbsent":
+                                return true;
+                            case "multiGet":
+                                List<String> values = new ArrayList<>();
+                                for (Object key : (Collection<?>) args[0]) values.add(statuses.get(key));
+                                return values;
+                            default:
+                                throw new UnsupportedOperationException(method.getName());
+                        }
+                    });
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public ZSetOperations<String, String> opsForZSet() {
+            return (ZSetOperations<String, String>) Proxy.newProxyInstance(ZSetOperations.class.getClassLoader(),
+                    new Class<?>[] { ZSetOperations.class }, (proxy, method, args) -> {
+                        if (!"rangeWithScores".equals(method.getName())) {
+                            throw new UnsupportedOperationException(method.getName());
+                        }
+                        List<Map.Entry<Double, String>> entries = new ArrayList<>(queue.entrySet());
+                        Set<ZSetOperations.TypedTuple<String>> page = new LinkedHashSet<>();
+                        for (long i = (long) args[1]; i <= (long) args[2] && i < entries.size(); i++) {
+                            page.add(tuple(entries.get((int) i)));
+                        }
+                        return page;
+                    });
+        }
+
+        private static ZSetOperations.TypedTuple<String> tuple(Map.Entry<Double, String> entry) {
+            return new ZSetOperations.TypedTuple<>() {
+                public String getValue() { return entry.getValue(); }
+                public Double getScore() { return entry.getKey(); }
+                public int compareTo(ZSetOperations.TypedTuple<String> o) { return getScore().compareTo(o.getScore()); }
+            };
+        }
+    }
+}
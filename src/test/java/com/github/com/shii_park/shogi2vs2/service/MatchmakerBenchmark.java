@@ -0,0 +1,90 @@
+package com.github.com.shii_park.shogi2vs2.service;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * マッチングのバッチ処理のベンチマーク
+ * 待機中のユーザー(レーティングは平均1500・標準偏差300の正規分布、待ち時間は0～60秒)のキューのスコアを
+ * バッチ処理と同じく読み出した順にデコードしてRatedMatchmakerに入れ、
+ * 1回のバッチ処理(match)にかかる時間と、組めた対戦数、チームのレーティングの差を計測する
+ * キューの読み出し(スコアのデコードとadd)の時間は別に表示する
+ * Redisとの通信はここでは計測しないため、1回のバッチ処理で行うRedisの往復回数を数え、
+ * 1往復の時間(引数)を掛けた見積もりを表示する
+ * JUnitのテストではないため、mainメソッドから手動で実行する
+ * 引数: [待機ユーザー数(既定50000)] [計測回数(既定200)] [1ページの件数(既定1000)] [Redisの1往復(ミリ秒, 既定0.5)]
+ */
+public class MatchmakerBenchmark {
+
+    public static void main(String[] args) {
+        int users = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int pageSize = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        double rttMillis = args.length > 3 ? Double.parseDouble(args[3]) : 0.5;
+
+        // Redisのソート済みセットから読み出す順(スコアの昇順)にしておく
+        Random random = new Random(42);
+        long now = System.currentTimeMillis();
+        String[] ids = new String[users];
+        double[] scores = new double[users];
+        for (int i = 0; i < users; i++) {
+            ids[i] = "user" + i;
+            int rating = (int) Math.round(1500 + random.nextGaussian() * 300);
+            scores[i] = MatchingService.queueScore(rating, now - random.nextInt(60_000));
+        }
+        Arrays.sort(scores);
+
+        RatedMatchmaker matchmaker = new RatedMatchmaker(50, 100, 10, 800);
+        long[] addNanos = new long[iterations];
+        long[] matchNanos = new long[iterations];
+        int matches = 0;
+        long totalDifference = 0;
+        // JITのウォームアップを含めて2倍回し、後半だけを集計する
+        for (int n = 0; n < iterations * 2; n++) {
+            matchmaker.clear();
+            long start = System.nanoTime();
+            for (int i = 0; i < users; i++) {
+                matchmaker.add(ids[i], MatchingService.ratingOf(scores[i]), MatchingService.joinedAtOf(scores[i]));
+            }
+            long added = System.nanoTime();
+            var result = matchmaker.match(now);
+            long matched = System.nanoTime();
+            if (n >= iterations) {
+                addNanos[n - iterations] = added - start;
+                matchNanos[n - iterations] = matched - added;
+                matches = result.size();
+                totalDifference = 0;
+                for (var match : result) {
+                    totalDifference += match.ratingDifference();
+                }
+            }
+        }
+
+        System.out.printf("users=%d, iterations=%d%n", users, iterations);
+        System.out.printf("add   p50=%,8.1f us  p99=%,8.1f us%n", percentile(addNanos, 50), percentile(addNanos, 99));
+        System.out.printf("match p50=%,8.1f us  p99=%,8.1f us%n", percentile(matchNanos, 50),
+                percentile(matchNanos, 99));
+        System.out.printf("matches=%d (%d users), mean team difference=%.1f%n", matches, matches * 4,
+                matches > 0 ? (double) totalDifference / matches : 0);
+
+        // ロックの取得と解放、キューのページ(最後の短いページを含む)、取り出しと通知(1スクリプトの対戦数ごと)
+        int pages = users / pageSize + 1;
+        int claims = (matches + MatchingService.CLAIM_BATCH_SIZE - 1) / MatchingService.CLAIM_BATCH_SIZE;
+        int roundTrips = 2 + pages + claims * 2;
+        System.out.printf("redis round trips=%d (pages=%d, claim scripts=%d, publishes=%d), estimated %.1f ms at %.2f ms/rtt%n",
+                roundTrips, pages, claims, claims, roundTrips * rttMillis, rttMillis);
+    }
+
+    /**
+     * 計測値のパーセンタイルをマイクロ秒で返す
+     *
+     * @param nanos 計測値(ナノ秒)
+     * @param p     パーセンタイル
+     * @return マイクロ秒
+     */
+    private static double percentile(long[] nanos, int p) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, sorted.length * p / 100)] / 1000.0;
+    }
+}
@@ -0,0 +1,179 @@
+package com.github.com.shii_park.shogi2vs2.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.com.shii_park.shogi2vs2.handler.BinaryProtocol;
+import com.github.com.shii_park.shogi2vs2.handler.GameWebSocketHandler;
+import com.github.com.shii_park.shogi2vs2.handler.SpectatorRegistry;
+import com.github.com.shii_park.shogi2vs2.model.domain.TurnExecutionResult;
+import com.github.com.shii_park.shogi2vs2.model.enums.Team;
+
+/**
+ * NotificationServiceのテスト
+ * 作成済みのフレームを複数のセッションに送っても、全員に同じ内容が届くことを検証
+ * バイナリのフレームを作成できない場合もJSONで届くことを検証
+ */
+class NotificationServiceTest {
+
+    private static final String GAME_ID = "game1";
+
+    private NotificationService service;
+    private GameWebSocketHandler webSocketHandler;
+    private SpectatorRegistry spectatorRegistry;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        service = new NotificationService();
+        webSocketHandler = new GameWebSocketHandler();
+        setField(NotificationService.class, service, "webSocketHandler", webSocketHandler);
+        spectatorRegistry = new SpectatorRegistry();
+        setField(SpectatorRegistry.class, spectatorRegistry, "maxPerGame", 10);
+        setField(NotificationService.class, service, "spectatorRegistry", spectatorRegistry);
+        setField(NotificationService.class, service, "coordinateService", new BoardCoordinateService());
+        setField(NotificationService.class, service, "objectMapper", new ObjectMapper());
+    }
+
+    /**
+     * 同じチームのバイナリ形式のセッションへの送信テスト
+     * 処理: 同じチームの2セッションにタイムアウトを通知し、2人目にも1人目と同じ空でないフレームが届くことを確認
+     */
+    @Test
+    void testBinaryFrameReachesEverySessionOfTeam() throws Exception {
+        List<byte[]> first = new ArrayList<>();
+        List<byte[]> second = new ArrayList<>();
+        registerPlayers(List.of(
+                binarySession("s1", "FIRST", first),
+                binarySession("s2", "FIRST", second)));
+
+        service.broadcastTimeout(GAME_ID, List.of());
+
+        assertEquals(1, first.size());
+        assertEquals(1, second.size());
+        assertTrue(first.get(0).length > 0);
+        assertEquals(BinaryProtocol.OP_TIME_UP, first.get(0)[0]);
+        assertArrayEquals(first.get(0), second.get(0));
+    }
+
+    /**
+     * 同じ視点のバイナリ形式の観戦者への送信テスト
+     * 処理: 同じ視点の観戦者2人にタイムアウトを通知し、プレイヤーと観戦者の全員に同じ空でないフレームが届くことを確認
+     */
+    @Test
+    void testBinaryFrameReachesEverySpectatorOfSide() throws Exception {
+        List<byte[]> player = new ArrayList<>();
+        List<byte[]> spectator1 = new ArrayList<>();
+        List<byte[]> spectator2 = new ArrayList<>();
+        registerPlayers(List.of(binarySession("p1", "FIRST", player)));
+        spectatorRegistry.openGame(GAME_ID);
+        spectatorRegistry.join(GAME_ID, Team.FIRST, binarySession("v1", null, spectator1));
+        spectatorRegistry.join(GAME_ID, Team.FIRST, binarySession("v2", null, spectator2));
+
+        service.broadcastTimeout(GAME_ID, List.of());
+
+        assertEquals(1, player.size());
+        assertTrue(player.get(0).length > 0);
+        assertEquals(1, spectator1.size());
+        assertEquals(1, spectator2.size());
+        assertArrayEquals(player.get(0), spectator1.get(0));
+        assertArrayEquals(player.get(0), spectator2.get(0));
+    }
+
+    /**
+     * バイナリのフレームを作成できない場合のテスト
+     * 処理: バイナリ形式で表せないターンの結果を通知し、バイナリ形式のセッションにもJSONのフレームが届くことを確認
+     */
+    @Test
+    void testTurnResultFallsBackToJsonWhenBinaryEncodingFails() throws Exception {
+        List<byte[]> binary = new ArrayList<>();
+        registerPlayers(List.of(binarySession("s1", "FIRST", binary)));
+        // バイナリ形式には駒の種類の序数を書くため、未知の種類は書き出せない
+        TurnExecutionResult unknown = new TurnExecutionResult("moveResult", 1, "UNKNOWN", List.of(), "FIRST", false);
+
+        service.broadcastTurnResult(GAME_ID, List.of(unknown));
+
+        assertEquals(1, binary.size());
+        String json = new String(binary.get(0), StandardCharsets.UTF_8);
+        assertTrue(json.startsWith("{"));
+        assertTrue(json.contains("moveResult"));
+    }
+
+    /**
+     * 内部ヘルパー:
+     * プレイヤーのセッションをゲームに登録する
+     */
+    @SuppressWarnings("unchecked")
+    private void registerPlayers(List<WebSocketSession> sessions) throws Exception {
+        Field field = GameWebSocketHandler.class.getDeclaredField("gameSessions");
+        field.setAccessible(true);
+        ((Map<String, List<WebSocketSession>>) field.get(webSocketHandler)).put(GAME_ID, new ArrayList<>(sessions));
+    }
+
+    /**
+     * 内部ヘルパー:
+     * バイナリ形式を合意したセッションを作成する(観戦者の場合はチームをnullにする)
+     * 送信されたフレームは実際の送信と同じくByteBufferを読み切って記録する(テキストのフレームはUTF-8で記録する)
+     */
+    static WebSocketSession binarySession(String id, String teamId, List<byte[]> received) {
+        Map<String, Object> attributes = new HashMap<>();
+        if (teamId != null) {
+            attributes.put("teamId", teamId);
+        }
+        return (WebSocketSession) Proxy.newProxyInstance(WebSocketSession.class.getClassLoader(),
+                new Class<?>[] { WebSocketSession.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getId":
+                            return id;
+                        case "getAttributes":
+                            return attributes;
+                        case "isOpen":
+                            return true;
+                        case "getAcceptedProtocol":
+                            return BinaryProtocol.SUBPROTOCOL;
+                        case "sendMessage":
+                            WebSocketMessage<?> message = (WebSocketMessage<?>) args[0];
+                            if (message instanceof BinaryMessage binary) {
+                                ByteBuffer payload = binary.getPayload();
+                                byte[] bytes = new byte[payload.remaining()];
+                                payload.get(bytes);
+                                received.add(bytes);
+                            } else if (message instanceof TextMessage text) {
+                                received.add(text.getPayload().getBytes(StandardCharsets.UTF_8));
+                            }
+                            return null;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    /**
+     * 内部ヘルパー:
+     * privateフィールドに値を設定する
+     */
+    static void setField(Class<?> type, Object target, String name, Object value) throws Exception {
+        Field field = type.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
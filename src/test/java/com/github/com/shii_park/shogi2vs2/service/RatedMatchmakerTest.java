@@ -0,0 +1,73 @@
+package com.github.com.shii_park.shogi2vs2.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * RatedMatchmakerのテスト
+ * レーティングの近いユーザーの組み合わせ、チーム分け、待ち時間による許容幅の拡大を検証
+ */
+class RatedMatchmakerTest {
+
+    /**
+     * チーム分けのテスト
+     * 処理: 最低+最高 対 中間の2人 に分かれ、チームの合計の差が最小になることを確認
+     */
+    @Test
+    void testBalancedTeams() {
+        RatedMatchmaker matchmaker = new RatedMatchmaker(50, 100, 10, 800);
+        matchmaker.add("a", 1500, 0);
+        matchmaker.add("b", 1560, 0);
+        matchmaker.add("c", 1530, 0);
+        matchmaker.add("d", 1590, 0);
+
+        List<RatedMatchmaker.Match> matches = matchmaker.match(0);
+
+        assertEquals(1, matches.size());
+        assertEquals(List.of("a", "d", "c", "b"), matches.get(0).userIds());
+        assertEquals(0, matches.get(0).ratingDifference());
+    }
+
+    /**
+     * レーティング帯のテスト
+     * 処理: 離れたレーティングのユーザー同士は組まれず、近いユーザー同士で組まれることを確認
+     */
+    @Test
+    void testGroupsByRating() {
+        RatedMatchmaker matchmaker = new RatedMatchmaker(50, 100, 10, 800);
+        for (int i = 0; i < 4; i++) {
+            matchmaker.add("low" + i, 1000 + i * 10, 0);
+            matchmaker.add("high" + i, 2000 + i * 10, 0);
+        }
+        matchmaker.add("alone", 3000, 0);
+
+        List<RatedMatchmaker.Match> matches = matchmaker.match(0);
+
+        assertEquals(2, matches.size());
+        assertTrue(matches.get(0).userIds().stream().allMatch(id -> id.startsWith("low")));
+        assertTrue(matches.get(1).userIds().stream().allMatch(id -> id.startsWith("high")));
+    }
+
+    /**
+     * 許容幅の拡大テスト
+     * 処理: 幅の広い4人は待ち始めには組まれず、長く待つと組まれることを確認
+     */
+    @Test
+    void testWindowWidensWithWaitTime() {
+        RatedMatchmaker matchmaker = new RatedMatchmaker(50, 100, 10, 800);
+        matchmaker.add("a", 1400, 0);
+        matchmaker.add("b", 1450, 0);
+        matchmaker.add("c", 1550, 0);
+        matchmaker.add("d", 1700, 0);
+
+        assertTrue(matchmaker.match(1_000).isEmpty());
+        assertEquals(1, matchmaker.match(30_000).size());
+
+        matchmaker.clear();
+        assertEquals(0, matchmaker.size());
+        assertTrue(matchmaker.match(30_000).isEmpty());
+    }
+}
@@ -0,0 +1,24 @@
+package com.github.com.shii_park.shogi2vs2.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * RatingServiceのテスト
+ * レーティングの変動量の計算を検証
+ */
+class RatingServiceTest {
+
+    /**
+     * 変動量のテスト
+     * 処理: 同じレーティングでは半分、格上に勝つと大きく、格下に勝つと小さくなることを確認
+     */
+    @Test
+    void testRatingChange() {
+        assertEquals(16, RatingService.ratingChange(1500, 1500));
+        assertTrue(RatingService.ratingChange(1300, 1700) > 16);
+        assertTrue(RatingService.ratingChange(1700, 1300) < 16);
+        assertEquals(1, RatingService.ratingChange(3000, 1000));
+    }
+}
@@ -0,0 +1,61 @@
+package com.github.com.shii_park.shogi2vs2.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * ReplayBufferのテスト
+ * 取りこぼしたイベントの取得と、上書き済みの番号の扱いを検証
+ */
+class ReplayBufferTest {
+
+    /**
+     * 取りこぼしたイベントの取得テスト
+     * 処理: 指定した番号より後のイベントが古い順に返り、最新の番号では空になることを確認
+     */
+    @Test
+    void testSinceReturnsMissedEvents() {
+        ReplayBuffer<String> buffer = new ReplayBuffer<>(4, 0);
+        buffer.append(1, "a");
+        buffer.append(2, "b");
+        buffer.append(3, "c");
+
+        assertEquals(List.of("a", "b", "c"), buffer.since(0));
+        assertEquals(List.of("c"), buffer.since(2));
+        assertTrue(buffer.since(3).isEmpty());
+    }
+
+    /**
+     * 上書き済みの番号のテスト
+     * 処理: 容量を超えて古いイベントが上書きされた番号と、未知の番号ではnullになることを確認
+     */
+    @Test
+    void testSinceReturnsNullWhenOverwritten() {
+        ReplayBuffer<String> buffer = new ReplayBuffer<>(2, 0);
+        buffer.append(1, "a");
+        buffer.append(2, "b");
+        buffer.append(3, "c");
+
+        assertNull(buffer.since(0));
+        assertEquals(List.of("b", "c"), buffer.since(1));
+        assertNull(buffer.since(4));
+        assertEquals(3L, buffer.getLatestSequence());
+    }
+
+    /**
+     * 通し番号が飛んだ場合のテスト
+     * 処理: 連続しない番号を追加すると、それ以前の番号からは再送できなくなることを確認
+     */
+    @Test
+    void testGapResetsBuffer() {
+        ReplayBuffer<String> buffer = new ReplayBuffer<>(4, 0);
+        buffer.append(1, "a");
+        buffer.append(5, "e");
+
+        assertNull(buffer.since(1));
+        assertEquals(List.of("e"), buffer.since(4));
+    }
+}
@@ -0,0 +1,46 @@
+package com.github.com.shii_park.shogi2vs2.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * SessionResumeServiceのテスト
+ * 再開トークンの発行、照合、失効を検証
+ */
+class SessionResumeServiceTest {
+
+    /**
+     * トークンの照合テスト
+     * 処理: 発行したゲームとユーザーの組でだけ有効になることを確認
+     */
+    @Test
+    void testTokenIsBoundToGameAndUser() {
+        SessionResumeService service = new SessionResumeService();
+        String token = service.issue("game-1", "user1");
+
+        assertTrue(service.isValid(token, "game-1", "user1"));
+        assertFalse(service.isValid(token, "game-1", "user2"));
+        assertFalse(service.isValid(token, "game-2", "user1"));
+        assertFalse(service.isValid(null, "game-1", "user1"));
+        assertNotEquals(token, service.issue("game-1", "user1"));
+    }
+
+    /**
+     * トークンの失効テスト
+     * 処理: ゲームの終了で発行したトークンがすべて無効になり、他のゲームのトークンは残ることを確認
+     */
+    @Test
+    void testRevokeGame() {
+        SessionResumeService service = new SessionResumeService();
+        String t1 = service.issue("game-1", "user1");
+        String t2 = service.issue("game-1", "user2");
+        String other = service.issue("game-2", "user5");
+
+        service.revokeGame("game-1");
+
+        assertFalse(service.isValid(t1, "game-1", "user1"));
+        assertFalse(service.isValid(t2, "game-1", "user2"));
+        assertTrue(service.isValid(other, "game-2", "user5"));
+    }
+}